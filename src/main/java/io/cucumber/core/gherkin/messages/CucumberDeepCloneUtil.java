@@ -1,11 +1,19 @@
 package io.cucumber.core.gherkin.messages;
 
+import io.cucumber.messages.types.PickleDocString;
 import io.cucumber.messages.types.PickleStep;
+import io.cucumber.messages.types.PickleStepArgument;
+import io.cucumber.messages.types.PickleTable;
+import io.cucumber.messages.types.PickleTableCell;
+import io.cucumber.messages.types.PickleTableRow;
+import io.cucumber.plugin.event.Location;
 import sun.misc.Unsafe;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
 import java.net.URI;
 import java.time.temporal.Temporal;
 import java.util.*;
@@ -14,6 +22,41 @@ public final class CucumberDeepCloneUtil {
 
     private static final Unsafe UNSAFE = initUnsafe();
 
+    /**
+     * Final Cucumber types whose fields are final and whose lists are
+     * unmodifiable: clones share them instead of copying.
+     */
+    private static final Set<Class<?>> SHARED_CUCUMBER_TYPES = Set.of(
+            Location.class,
+            io.cucumber.messages.types.Location.class,
+            PickleStepArgument.class,
+            PickleDocString.class,
+            PickleTable.class,
+            PickleTableRow.class,
+            PickleTableCell.class);
+
+    private static final ClassValue<Boolean> IMMUTABLE = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return isKnownImmutable(type);
+        }
+    };
+
+    private static final ClassValue<ClonePlan> PLANS = new ClassValue<>() {
+        @Override
+        protected ClonePlan computeValue(Class<?> type) {
+            return ClonePlan.of(type, true);
+        }
+    };
+
+    /** Field-by-field reflective plans: the fallback path, and the reference it is tested against. */
+    private static final ClassValue<ClonePlan> REFLECTIVE_PLANS = new ClassValue<>() {
+        @Override
+        protected ClonePlan computeValue(Class<?> type) {
+            return ClonePlan.of(type, false);
+        }
+    };
+
     private CucumberDeepCloneUtil() {
     }
 
@@ -22,8 +65,6 @@ public final class CucumberDeepCloneUtil {
             return null;
         }
 
-        IdentityHashMap<Object, Object> seen = new IdentityHashMap<>();
-
         PickleStep clone =  new PickleStep(
                 source.getArgument().orElse(null),
                 new ArrayList<>(source.getAstNodeIds()),
@@ -44,7 +85,6 @@ public final class CucumberDeepCloneUtil {
             return null;
         }
         GherkinMessagesStep source = (GherkinMessagesStep) inputStep;
-        IdentityHashMap<Object, Object> seen = new IdentityHashMap<>();
 
         GherkinMessagesStep clone = allocateInstance(GherkinMessagesStep.class);
 
@@ -53,18 +93,34 @@ public final class CucumberDeepCloneUtil {
         setField(clone, "keyWord", source.getKeyword());
         setField(clone, "stepType", source.getType());
         setField(clone, "previousGwtKeyWord", source.getPreviousGivenWhenThenKeyword());
-        setField(clone, "location", deepCloneAny(source.getLocation(), seen));
+        setField(clone, "location", deepCloneAny(source.getLocation()));
 
         return clone;
     }
 
+    static <T> T deepCloneAny(T source) {
+        return deepCloneAny(source, PLANS);
+    }
+
+    /** Same as {@link #deepCloneAny(Object)} but copies every object field by field through reflection. */
+    static <T> T deepCloneAnyReflectively(T source) {
+        return deepCloneAny(source, REFLECTIVE_PLANS);
+    }
+
+    private static <T> T deepCloneAny(T source, ClassValue<ClonePlan> plans) {
+        if (source == null || IMMUTABLE.get(source.getClass())) {
+            return source;
+        }
+        return deepCloneAny(source, new IdentityHashMap<>(), plans);
+    }
+
     @SuppressWarnings("unchecked")
-    private static <T> T deepCloneAny(T source, IdentityHashMap<Object, Object> seen) {
+    private static <T> T deepCloneAny(T source, IdentityHashMap<Object, Object> seen, ClassValue<ClonePlan> plans) {
         if (source == null) {
             return null;
         }
 
-        if (isKnownImmutable(source.getClass())) {
+        if (IMMUTABLE.get(source.getClass())) {
             return source;
         }
 
@@ -74,7 +130,7 @@ public final class CucumberDeepCloneUtil {
         }
 
         if (source instanceof Optional<?> optional) {
-            return (T) optional.map(v -> deepCloneAny(v, seen));
+            return (T) optional.map(v -> deepCloneAny(v, seen, plans));
         }
 
         Class<?> type = source.getClass();
@@ -85,56 +141,51 @@ public final class CucumberDeepCloneUtil {
             seen.put(source, copy);
 
             for (int i = 0; i < length; i++) {
-                Array.set(copy, i, deepCloneAny(Array.get(source, i), seen));
+                Array.set(copy, i, deepCloneAny(Array.get(source, i), seen, plans));
             }
             return (T) copy;
         }
 
-        if (source instanceof List<?> list) {
+        // Only JDK collections are rebuilt as plain copies; other implementations (Cucumber's
+        // CellView, say) are copied field by field so the clone keeps its declared type.
+        boolean jdkCollection = type.getName().startsWith("java.");
+
+        if (jdkCollection && source instanceof List<?> list) {
             List<Object> copy = new ArrayList<>(list.size());
             seen.put(source, copy);
             for (Object item : list) {
-                copy.add(deepCloneAny(item, seen));
+                copy.add(deepCloneAny(item, seen, plans));
             }
             return (T) maybeWrapUnmodifiableList(source, copy);
         }
 
-        if (source instanceof Set<?> set) {
+        if (jdkCollection && source instanceof Set<?> set) {
             Set<Object> copy = new LinkedHashSet<>(Math.max(16, set.size() * 2));
             seen.put(source, copy);
             for (Object item : set) {
-                copy.add(deepCloneAny(item, seen));
+                copy.add(deepCloneAny(item, seen, plans));
             }
             return (T) maybeWrapUnmodifiableSet(source, copy);
         }
 
-        if (source instanceof Map<?, ?> map) {
+        if (jdkCollection && source instanceof Map<?, ?> map) {
             Map<Object, Object> copy = new LinkedHashMap<>(Math.max(16, map.size() * 2));
             seen.put(source, copy);
             for (Map.Entry<?, ?> entry : map.entrySet()) {
                 copy.put(
-                        deepCloneAny(entry.getKey(), seen),
-                        deepCloneAny(entry.getValue(), seen)
+                        deepCloneAny(entry.getKey(), seen, plans),
+                        deepCloneAny(entry.getValue(), seen, plans)
                 );
             }
             return (T) maybeWrapUnmodifiableMap(source, copy);
         }
 
-        Object copy = allocateInstance(type);
-        seen.put(source, copy);
-
-        for (Field field : allInstanceFields(type)) {
-            Object fieldValue = getFieldValue(field, source);
-            Object fieldCopy = deepCloneAny(fieldValue, seen);
-            setFieldValue(field, copy, fieldCopy);
-        }
-
-        return (T) copy;
+        return (T) plans.get(type).copyOf(source, seen, plans);
     }
 
     private static boolean isKnownImmutable(Class<?> type) {
         return type.isPrimitive()
-                || type.isEnum()
+                || Enum.class.isAssignableFrom(type)
                 || type == String.class
                 || type == Boolean.class
                 || type == Character.class
@@ -143,15 +194,16 @@ public final class CucumberDeepCloneUtil {
                 || type == URI.class
                 || UUID.class.isAssignableFrom(type)
                 || Temporal.class.isAssignableFrom(type)
-                || type.getName().startsWith("java.time.");
+                || type.getName().startsWith("java.time.")
+                || SHARED_CUCUMBER_TYPES.contains(type);
     }
 
     private static List<Field> allInstanceFields(Class<?> type) {
         List<Field> fields = new ArrayList<>();
         for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
             for (Field field : c.getDeclaredFields()) {
-                if (!Modifier.isStatic(field.getModifiers())) {
-                    field.setAccessible(true);
+                // JDK superclass state such as AbstractList.modCount is closed to us; the copy keeps its default.
+                if (!Modifier.isStatic(field.getModifiers()) && field.trySetAccessible()) {
                     fields.add(field);
                 }
             }
@@ -162,9 +214,7 @@ public final class CucumberDeepCloneUtil {
     @SuppressWarnings("unchecked")
     private static <T> T getField(Object target, String fieldName) {
         try {
-            Field field = findField(target.getClass(), fieldName);
-            field.setAccessible(true);
-            return (T) field.get(target);
+            return (T) PLANS.get(target.getClass()).field(fieldName).get(target);
         } catch (ReflectiveOperationException e) {
             throw new RuntimeException("Failed to read field '" + fieldName + "'", e);
         }
@@ -172,9 +222,7 @@ public final class CucumberDeepCloneUtil {
 
     private static void setField(Object target, String fieldName, Object value) {
         try {
-            Field field = findField(target.getClass(), fieldName);
-            field.setAccessible(true);
-            field.set(target, value);
+            PLANS.get(target.getClass()).field(fieldName).set(target, value);
         } catch (ReflectiveOperationException e) {
             throw new RuntimeException("Failed to set field '" + fieldName + "'", e);
         }
@@ -196,15 +244,154 @@ public final class CucumberDeepCloneUtil {
         }
     }
 
-    private static Field findField(Class<?> type, String fieldName) throws NoSuchFieldException {
-        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+    /**
+     * How to copy one class's instance fields, worked out once per class.
+     * Fields are copied through their Unsafe offsets: primitives and values of
+     * immutable declared types are copied as they are, and other references
+     * are deep-cloned. Unsafe reports no offsets for records and hidden
+     * classes, and their final fields cannot be set reflectively either, so
+     * records are rebuilt through their canonical constructor from cloned
+     * components and hidden classes (lambdas) are shared.
+     *
+     * <p>VarHandles are not an alternative here: they cannot write final
+     * fields, and almost every field of the Cucumber types being cloned is
+     * final. {@code objectFieldOffset} has been deprecated since JDK 18 and the
+     * Unsafe memory-access methods are marked for removal from JDK 23; if the
+     * offset lookup stops working, {@code of} catches the failure and every
+     * class takes the reflective path.</p>
+     */
+    private static final class ClonePlan {
+        private static final int REFERENCE = 0;
+        private static final int SHARED_REFERENCE = 1;
+
+        private final Class<?> type;
+        private final Map<String, Field> fieldsByName;
+        private final Field[] fields;
+        private final long[] offsets;
+        private final int[] kinds;
+        private final Constructor<?> recordConstructor;
+        private final Field[] recordFields;
+
+        private ClonePlan(Class<?> type, Map<String, Field> fieldsByName, Field[] fields, long[] offsets, int[] kinds) {
+            this.type = type;
+            this.fieldsByName = fieldsByName;
+            this.fields = fields;
+            this.offsets = offsets;
+            this.kinds = kinds;
+            this.recordConstructor = type.isRecord() ? canonicalConstructor(type) : null;
+            this.recordFields = type.isRecord()
+                    ? Arrays.stream(type.getRecordComponents()).map(c -> fieldsByName.get(c.getName())).toArray(Field[]::new)
+                    : null;
+        }
+
+        // objectFieldOffset is deprecated (removal from JDK 23); see the class comment for why it is still used.
+        @SuppressWarnings({"deprecation", "removal"})
+        static ClonePlan of(Class<?> type, boolean useOffsets) {
+            List<Field> instanceFields = allInstanceFields(type);
+            Map<String, Field> byName = new HashMap<>();
+            for (Field field : instanceFields) {
+                byName.putIfAbsent(field.getName(), field); // nearest declaration wins
+            }
+            Field[] fields = instanceFields.toArray(new Field[0]);
+            if (!useOffsets || type.isRecord() || type.isHidden()) {
+                return new ClonePlan(type, byName, fields, null, null);
+            }
+            long[] offsets = new long[fields.length];
+            int[] kinds = new int[fields.length];
             try {
-                return c.getDeclaredField(fieldName);
-            } catch (NoSuchFieldException ignored) {
-                // keep walking up the hierarchy
+                for (int i = 0; i < fields.length; i++) {
+                    offsets[i] = UNSAFE.objectFieldOffset(fields[i]);
+                    Class<?> declared = fields[i].getType();
+                    kinds[i] = declared.isPrimitive() ? primitiveKind(declared)
+                            : Modifier.isFinal(declared.getModifiers()) && isKnownImmutable(declared) ? SHARED_REFERENCE
+                            : REFERENCE;
+                }
+            } catch (UnsupportedOperationException | LinkageError e) {
+                offsets = null;
+                kinds = null;
+            }
+            return new ClonePlan(type, byName, fields, offsets, kinds);
+        }
+
+        Field field(String name) throws NoSuchFieldException {
+            Field field = fieldsByName.get(name);
+            if (field == null) {
+                throw new NoSuchFieldException(type.getName() + "." + name);
+            }
+            return field;
+        }
+
+        Object copyOf(Object source, IdentityHashMap<Object, Object> seen, ClassValue<ClonePlan> plans) {
+            if (type.isHidden()) {
+                return source;
             }
+            if (recordConstructor != null) {
+                // Components are cloned before the record exists, so a cycle back through it is not preserved.
+                Object[] components = new Object[recordFields.length];
+                for (int i = 0; i < recordFields.length; i++) {
+                    components[i] = deepCloneAny(getFieldValue(recordFields[i], source), seen, plans);
+                }
+                Object copy = newInstance(recordConstructor, components);
+                seen.put(source, copy);
+                return copy;
+            }
+            Object copy = allocateInstance(type);
+            seen.put(source, copy);
+            copyFields(source, copy, seen, plans);
+            return copy;
+        }
+
+        private static Constructor<?> canonicalConstructor(Class<?> type) {
+            RecordComponent[] components = type.getRecordComponents();
+            Class<?>[] parameterTypes = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                parameterTypes[i] = components[i].getType();
+            }
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+                constructor.setAccessible(true);
+                return constructor;
+            } catch (NoSuchMethodException e) {
+                throw new RuntimeException("No canonical constructor for record " + type.getName(), e);
+            }
+        }
+
+        private static Object newInstance(Constructor<?> constructor, Object[] arguments) {
+            try {
+                return constructor.newInstance(arguments);
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException("Failed to rebuild record " + constructor.getDeclaringClass().getName(), e);
+            }
+        }
+
+        void copyFields(Object source, Object copy, IdentityHashMap<Object, Object> seen, ClassValue<ClonePlan> plans) {
+            if (offsets == null) {
+                for (Field field : fields) {
+                    setFieldValue(field, copy, deepCloneAny(getFieldValue(field, source), seen, plans));
+                }
+                return;
+            }
+            for (int i = 0; i < offsets.length; i++) {
+                long offset = offsets[i];
+                switch (kinds[i]) {
+                    case REFERENCE -> UNSAFE.putObject(copy, offset, deepCloneAny(UNSAFE.getObject(source, offset), seen, plans));
+                    case SHARED_REFERENCE -> UNSAFE.putObject(copy, offset, UNSAFE.getObject(source, offset));
+                    case 'Z' -> UNSAFE.putBoolean(copy, offset, UNSAFE.getBoolean(source, offset));
+                    case 'B' -> UNSAFE.putByte(copy, offset, UNSAFE.getByte(source, offset));
+                    case 'S' -> UNSAFE.putShort(copy, offset, UNSAFE.getShort(source, offset));
+                    case 'C' -> UNSAFE.putChar(copy, offset, UNSAFE.getChar(source, offset));
+                    case 'I' -> UNSAFE.putInt(copy, offset, UNSAFE.getInt(source, offset));
+                    case 'J' -> UNSAFE.putLong(copy, offset, UNSAFE.getLong(source, offset));
+                    case 'F' -> UNSAFE.putFloat(copy, offset, UNSAFE.getFloat(source, offset));
+                    case 'D' -> UNSAFE.putDouble(copy, offset, UNSAFE.getDouble(source, offset));
+                    default -> throw new IllegalStateException("Unknown field kind for " + fields[i]);
+                }
+            }
+        }
+
+        private static int primitiveKind(Class<?> type) {
+            return type.descriptorString().charAt(0);
         }
-        throw new NoSuchFieldException(type.getName() + "." + fieldName);
     }
 
     @SuppressWarnings("unchecked")
@@ -9,7 +9,9 @@ import io.cucumber.plugin.event.Result;
 import io.cucumber.plugin.event.Status;
 import org.openqa.selenium.WebDriver;
 import tools.dscode.common.annotations.Phase;
+import tools.dscode.common.domoperations.DomChangeSignal;
 import tools.dscode.common.domoperations.SeleniumUtils;
+import tools.dscode.common.driver.DriverPool;
 import tools.dscode.common.mappings.MapConfigurations;
 import tools.dscode.common.mappings.NodeMap;
 import tools.dscode.common.mappings.ScenarioMapping;
@@ -22,6 +24,7 @@ import tools.dscode.common.exceptions.SoftExceptionInterface;
 import tools.dscode.common.exceptions.SoftRuntimeException;
 import tools.dscode.common.treeparsing.parsedComponents.Phrase;
 import tools.dscode.common.treeparsing.parsedComponents.PhraseData;
+import tools.dscode.common.util.Polling;
 import tools.dscode.coredefinitions.ObjectRegistrationSteps;
 import tools.dscode.coredefinitions.ReportingSteps;
 import tools.dscode.parallelutilities.Stagger;
@@ -37,7 +40,6 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -56,8 +58,8 @@ import static tools.dscode.common.GlobalConstants.RUN_IF_SCENARIO_SOFT_FAILED;
 import static tools.dscode.common.annotations.DefinitionFlag.IGNORE_CHILDREN_IF_FALSE;
 import static tools.dscode.common.annotations.DefinitionFlag.IGNORE_CHILDREN;
 import static tools.dscode.common.assertions.AssertionChain.copyAssertionChainToNewPhrase;
-import static tools.dscode.common.domoperations.SeleniumUtils.waitMilliseconds;
 import static tools.dscode.common.mappings.ParsingMap.getRunningParsingMap;
+import static tools.dscode.common.reporting.logging.LogForwarder.logError;
 import static tools.dscode.common.reporting.logging.LogForwarder.logSkip;
 import static tools.dscode.common.reporting.logging.LogForwarder.setDefaultEntry;
 import static tools.dscode.common.treeparsing.preparsing.ParsedLine.createParsedLine;
@@ -66,7 +68,6 @@ import static tools.dscode.common.util.Reflect.getProperty;
 import static tools.dscode.common.util.StringUtilities.safeFileName;
 import static tools.dscode.common.variables.PlatformSnapshot.getInitiatorSnapshot;
 import static tools.dscode.common.variables.RunVars.resolveFromVarsOrDefault;
-import static tools.dscode.registry.GlobalRegistry.LOCAL;
 import static tools.dscode.testengine.PickleballRunner.getOptionsString;
 
 public class CurrentScenarioState extends ScenarioMapping {
@@ -138,7 +139,7 @@ public class CurrentScenarioState extends ScenarioMapping {
 
 
     public CurrentScenarioState(TestCase testCase) {
-        LOCAL.set(new ConcurrentHashMap<>());
+        GlobalRegistry.resetLocal();
         GlobalRegistry.putLocal(testCase.getClass().getCanonicalName(), testCase);
         this.testCase = testCase;
         this.pickle = (Pickle) getProperty(testCase, "pickle");
@@ -237,7 +238,7 @@ public class CurrentScenarioState extends ScenarioMapping {
             StepExtension currentStep = startStep;
             while (currentStep != null) {
                 rootScenarioStep.childSteps.add(currentStep);
-                currentStep = (StepExtension) currentStep.nextSibling;
+                currentStep = (StepExtension) currentStep.getNextSibling();
             }
             debugBrowser = true;
         }
@@ -371,7 +372,9 @@ public class CurrentScenarioState extends ScenarioMapping {
             if (candidate instanceof WebDriver driver
                     && !ObjectRegistrationSteps.hasCleanupConfigured(candidate)) {
                 try {
-                    driver.quit();
+                    if (!DriverPool.release(driver)) {
+                        driver.quit();
+                    }
                     CleanupTrace.print(
                             "[scenarioRunCleanUp] Backup quit for undeclared WebDriver: "
                                     + candidate.getClass().getName()
@@ -428,10 +431,36 @@ public class CurrentScenarioState extends ScenarioMapping {
         return primary;
     }
 
+    // Scheduler of the innermost runStep/runningStep call on this scenario.
+    private StepScheduler scheduler;
+
+    /**
+     * Runs a step, its attached and child steps, and its following siblings, returning when
+     * all of them are done. The tree is walked by a {@link StepScheduler}, so the Java stack
+     * stays the same depth however many steps and nesting levels the scenario has.
+     */
     public void runStep(StepExtension stepExtension) {
+        schedule(() -> startStep(stepExtension));
+    }
+
+    public void runningStep(StepExtension stepExtension) {
+        schedule(() -> stepRunning(stepExtension));
+    }
+
+    private void schedule(Runnable first) {
+        StepScheduler outer = scheduler;
+        scheduler = new StepScheduler();
+        try {
+            scheduler.run(first);
+        } finally {
+            scheduler = outer;
+        }
+    }
+
+    private void startStep(StepExtension stepExtension) {
         if (runAndEndStep != null) {
             runAndEndStep.stepFlags.add(ALWAYS_RUN);
-            runningStep(runAndEndStep);
+            stepRunning(runAndEndStep);
             return;
         }
 
@@ -447,22 +476,23 @@ public class CurrentScenarioState extends ScenarioMapping {
         stepExtension.lineData.setInheritance(stepExtension);
         currentPhrase = (Phrase) stepExtension.lineData.inheritedPhrase;
 
-        runningStep(stepExtension);
-
+        // Pushed first so it runs after the step, its children and its siblings.
         if (stepExtension instanceof ScenarioStep)
-            endCurrentScenario = false;
+            scheduler.push(() -> endCurrentScenario = false);
+
+        stepRunning(stepExtension);
     }
 
 
-    public void runningStep(StepExtension stepExtension) {
+    private void stepRunning(StepExtension stepExtension) {
         if (logAllSteps) {
             stepExtension.setToLogAll();
         }
 
         if (!shouldRun(stepExtension)) {
             stepExtension.skipped = true;
+            scheduler.push(() -> logSkip("Skipping Step: " + stepExtension.pickleStepTestStep.getStepText()));
             runNextSibling(stepExtension);
-            logSkip("Skipping Step: " + stepExtension.pickleStepTestStep.getStepText());
             return;
         }
 
@@ -521,23 +551,28 @@ public class CurrentScenarioState extends ScenarioMapping {
                 if (last == null) {
                     replacementStep.previousSibling = stepExtension.previousSibling;
                 } else {
-                    last.nextSibling = replacementStep;
+                    last.setNextSibling(replacementStep);
                     replacementStep.previousSibling = last;
                 }
                 last = replacementStep;
             }
-            last.nextSibling = stepExtension.nextSibling;
-            stepExtension.nextSibling = stepExtension.replacementSteps.getFirst();
+            last.setNextSibling(stepExtension.getNextSibling());
+            stepExtension.setNextSibling(stepExtension.replacementSteps.getFirst());
             last.childSteps.addAll(stepExtension.childSteps);
             stepExtension.childSteps.clear();
             stepExtension.parentStep.childSteps.remove(stepExtension);
         }
 
 
-        for (StepBase attachedStep : stepExtension.attachedSteps) {
-            runStep((StepExtension) attachedStep);
+        scheduler.push(() -> afterAttachedSteps(stepExtension));
+        List<StepBase> attachedSteps = stepExtension.attachedSteps;
+        for (int i = attachedSteps.size() - 1; i >= 0; i--) {
+            StepExtension attachedStep = (StepExtension) attachedSteps.get(i);
+            scheduler.push(() -> startStep(attachedStep));
         }
+    }
 
+    private void afterAttachedSteps(StepExtension stepExtension) {
         if (stepExtension.lineData.lineConditionalMode < 1 && stepExtension.definitionFlags.contains(IGNORE_CHILDREN_IF_FALSE)) {
             runNextSibling(stepExtension);
             return;
@@ -547,61 +582,115 @@ public class CurrentScenarioState extends ScenarioMapping {
             return;
         }
 
-        if (!stepExtension.definitionFlags.contains(IGNORE_CHILDREN)) {
-            if (stepExtension.lineData.inheritancePhrases.isEmpty())
-                stepExtension.lineData.inheritancePhrases.add(null);
-            for (PhraseData inheritancePhrase : new ArrayList<>(stepExtension.lineData.inheritancePhrases)) {
-                if (inheritancePhrase != null && inheritancePhrase.untilPhrase) {
-                    int cloneRunCount = 0;
-                    Instant cloneStartTime = null;
-                    while (true) {
-                        StepExtension clonedStep = stepCloner(
-                                inheritancePhrase,
-                                stepExtension,
-                                IGNORE_CHILDREN_IF_FALSE
-                        ).getFirst();
-                        clonedStep.runCount = cloneRunCount;
-                        clonedStep.startTime = cloneStartTime;
-                        clonedStep.overridePhrase = inheritancePhrase.clonePhrase(
-                                inheritancePhrase.getPreviousPhrase()
-                        );
-                        copyAssertionChainToNewPhrase(
-                                inheritancePhrase,
-                                clonedStep.overridePhrase
-                        );
-                        clonedStep.nextSibling = null;
-                        clonedStep.pickleStepTestStep.substituteStep = clonedStep
-                                .createNewStepExtension(
-                                        ", ---" + clonedStep.overridePhrase.assertionChain
-                                )
-                                .pickleStepTestStep;
-                        waitMilliseconds(400);
-                        if (clonedStep.checkGlobalMax()) {
-                            isScenarioHardFail = true;
-                            isScenarioComplete = true;
-                            return;
-                        }
-                        runStep(clonedStep);
-                        cloneStartTime = clonedStep.startTime;
-                        cloneRunCount = clonedStep.runCount;
-                        if (clonedStep.overridePhrase.phraseConditionalMode > 0)
-                            break;
-                    }
+        if (stepExtension.definitionFlags.contains(IGNORE_CHILDREN)) {
+            runNextSibling(stepExtension);
+            return;
+        }
 
-                } else {
-                    List<StepExtension> clonedSteps = stepCloner(inheritancePhrase, stepExtension);
-                    for (StepExtension repeatStep : clonedSteps) {
-                        StepExtension firstChild = (StepExtension) repeatStep.initializeChildSteps();
-                        if (firstChild != null) {
-                            runStep(firstChild);
-                        }
-                    }
+        if (stepExtension.lineData.inheritancePhrases.isEmpty())
+            stepExtension.lineData.inheritancePhrases.add(null);
+        runInheritancePhrases(stepExtension, new ArrayList<>(stepExtension.lineData.inheritancePhrases), 0);
+    }
+
+    /** Runs the children once per inheritance phrase, starting at {@code index}, then the next sibling. */
+    private void runInheritancePhrases(StepExtension stepExtension, List<PhraseData> inheritancePhrases, int index) {
+        if (index >= inheritancePhrases.size()) {
+            runNextSibling(stepExtension);
+            return;
+        }
+        PhraseData inheritancePhrase = inheritancePhrases.get(index);
+        Runnable nextPhrase = () -> runInheritancePhrases(stepExtension, inheritancePhrases, index + 1);
+
+        if (inheritancePhrase != null && inheritancePhrase.untilPhrase) {
+            new UntilLoop(stepExtension, inheritancePhrase, nextPhrase).iterate();
+            return;
+        }
+
+        scheduler.push(nextPhrase);
+        List<StepExtension> clonedSteps = stepCloner(inheritancePhrase, stepExtension);
+        for (int i = clonedSteps.size() - 1; i >= 0; i--) {
+            StepExtension repeatStep = clonedSteps.get(i);
+            scheduler.push(() -> {
+                StepExtension firstChild = (StepExtension) repeatStep.initializeChildSteps();
+                if (firstChild != null) {
+                    startStep(firstChild);
                 }
-            }
+            });
         }
+    }
 
+    /**
+     * Reruns a step as a clone until its until phrase passes. Each iteration schedules the
+     * clone and then itself; a timeout or the global maximum ends the loop without running
+     * the remaining phrases or the step's siblings.
+     */
+    private final class UntilLoop {
+        private final StepExtension stepExtension;
+        private final PhraseData inheritancePhrase;
+        private final Runnable whenDone;
+        private final Polling polling;
+        private int cloneRunCount = 0;
+        private Instant cloneStartTime = null;
+
+        private UntilLoop(StepExtension stepExtension, PhraseData inheritancePhrase, Runnable whenDone) {
+            this.stepExtension = stepExtension;
+            this.inheritancePhrase = inheritancePhrase;
+            this.whenDone = whenDone;
+            this.polling = Polling.withTimeout(stepExtension.repeatTimeout());
+        }
+
+        private void iterate() {
+            StepExtension clonedStep = stepCloner(
+                    inheritancePhrase,
+                    stepExtension,
+                    IGNORE_CHILDREN_IF_FALSE
+            ).getFirst();
+            clonedStep.runCount = cloneRunCount;
+            clonedStep.startTime = cloneStartTime;
+            clonedStep.overridePhrase = inheritancePhrase.clonePhrase(
+                    inheritancePhrase.getPreviousPhrase()
+            );
+            copyAssertionChainToNewPhrase(
+                    inheritancePhrase,
+                    clonedStep.overridePhrase
+            );
+            clonedStep.setNextSibling(null);
+            clonedStep.pickleStepTestStep.substituteStep = clonedStep
+                    .createNewStepExtension(
+                            ", ---" + clonedStep.overridePhrase.assertionChain
+                    )
+                    .pickleStepTestStep;
+            if (cloneRunCount > 0 && !polling.pause()) {
+                logError("Repeat timeout of " + stepExtension.repeatTimeout().toSeconds()
+                        + " seconds reached for Step " + clonedStep.pickleStepTestStep.getStepText()
+                        + " (" + polling.describe() + ")");
+                polling.recordOn(stepExtension.stepEntry);
+                isScenarioHardFail = true;
+                isScenarioComplete = true;
+                return;
+            }
+            if (clonedStep.checkGlobalMax()) {
+                polling.recordOn(stepExtension.stepEntry);
+                isScenarioHardFail = true;
+                isScenarioComplete = true;
+                return;
+            }
+            scheduler.push(() -> afterIteration(clonedStep));
+            scheduler.push(() -> startStep(clonedStep));
+        }
 
-        runNextSibling(stepExtension);
+        private void afterIteration(StepExtension clonedStep) {
+            cloneStartTime = clonedStep.startTime;
+            cloneRunCount = clonedStep.runCount;
+            if (clonedStep.overridePhrase.phraseConditionalMode > 0) {
+                polling.recordOn(stepExtension.stepEntry);
+                whenDone.run();
+                return;
+            }
+            if (clonedStep.webDriverUsed != null)
+                polling.wakeOn(DomChangeSignal.of(clonedStep.webDriverUsed));
+            iterate();
+        }
     }
 
     /**
@@ -614,8 +703,9 @@ public class CurrentScenarioState extends ScenarioMapping {
             endCurrentScenario = false;
         }
 
-        if (completedStep.nextSibling != null) {
-            runStep((StepExtension) completedStep.nextSibling);
+        StepBase nextSibling = completedStep.getNextSibling();
+        if (nextSibling != null) {
+            scheduler.push(() -> startStep((StepExtension) nextSibling));
         }
     }
 
@@ -689,7 +779,7 @@ public class CurrentScenarioState extends ScenarioMapping {
 
     public static Object removeScenarioObjectByKey(String key) {
         key = normalizeRegistryKey(key);
-        return getRunningParsingMap().getPrimaryRunMap().getRoot().remove(key);
+        return getRunningParsingMap().getPrimaryRunMap().update(root -> root.remove(key));
     }
 
 
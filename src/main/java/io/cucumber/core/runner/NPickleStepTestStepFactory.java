@@ -11,6 +11,7 @@ import io.cucumber.core.stepexpression.StepExpressionFactory;
 import io.cucumber.core.stepexpression.StepTypeRegistry;
 import io.cucumber.messages.types.PickleStep;
 import io.cucumber.messages.types.PickleStepArgument;
+import tools.dscode.common.evaluations.ExpressionCache;
 import tools.dscode.common.exceptions.StepCreationException;
 import tools.dscode.common.mappings.ParsingMap;
 
@@ -48,6 +49,8 @@ public class NPickleStepTestStepFactory {
 
     public static List<PickleStepTestStep> createPickleStepTestStepsFromPickle(Pickle pickle) {
         return pickle.getSteps().stream().map(step -> {
+                    ExpressionCache.precompileEmbedded(step.getText());
+                    ExpressionCache.precompileEmbedded(getGherkinArgumentText(step));
                     Step cloneStep = deepCloneGherkinMessagesStep(step);
                     return createPickleStepTestStep(pickle.getUri(), cloneStep, getStepDefinitionMatch(pickle.getUri(), cloneStep));
                 }
@@ -147,10 +150,7 @@ public class NPickleStepTestStepFactory {
 
         final CachingGlue globalGlue = getCurrentScenarioState().cachingGlue == null ? getGlobalCachingGlue() : getCurrentScenarioState().cachingGlue;
 
-        synchronized (globalGlue) {
-            PickleStepDefinitionMatch pickleStepDefinitionMatch = globalGlue.stepDefinitionMatch(uri, step);
-            return pickleStepDefinitionMatch;
-        }
+        return StepDefinitionMatchCache.match(globalGlue, uri, step);
 
     }
 
@@ -110,7 +110,7 @@ public class ScenarioStep extends StepExtension {
             }
             if (previousSibling != null) {
                 currentStep.previousSibling = previousSibling;
-                previousSibling.nextSibling = currentStep;
+                previousSibling.setNextSibling(currentStep);
 
                 if (previousSibling.nextSiblingDefinitionFlags != null) {
                     currentStep.addDefinitionFlag(previousSibling.nextSiblingDefinitionFlags.toArray(new DefinitionFlag[0]));
@@ -127,8 +127,8 @@ public class ScenarioStep extends StepExtension {
         for (int s = 0; s < size; s++) {
             StepExtension currentStep = steps.get(s);
             if (currentStep.isDynamicStep &&
-                    currentStep.nextSibling != null &&
-                    currentStep.nextSibling.isDynamicStep &&
+                    currentStep.getNextSibling() != null &&
+                    currentStep.getNextSibling().isDynamicStep &&
                     currentStep.getUnmodifiedText().trim().endsWith(",")
             ) {
                 StepExtension nextStep = currentStep;
@@ -140,7 +140,7 @@ public class ScenarioStep extends StepExtension {
                     s++;
                     newStepText += nextStep.getUnmodifiedText().trim().substring(1);
                     childList.addAll(nextStep.childSteps);
-                    nextStep = (StepExtension) nextStep.nextSibling;
+                    nextStep = (StepExtension) nextStep.getNextSibling();
                 }
                 s--;
                 StepExtension newStep = new StepExtension(testCase, getPickleStepTestStepFromStrings(pickleStepTestStep, pickleStepTestStep.getStep().getKeyword(), newStepText, getGherkinArgumentText(pickleStepTestStep.getStep())));
@@ -150,10 +150,10 @@ public class ScenarioStep extends StepExtension {
                 newStep.childSteps.addAll(childList);
                 if (currentStep.previousSibling != null) {
                     newStep.previousSibling = currentStep.previousSibling;
-                    currentStep.previousSibling.nextSibling = newStep;
+                    currentStep.previousSibling.setNextSibling(newStep);
                 }
                 if (nextStep != null) {
-                    newStep.nextSibling = nextStep;
+                    newStep.setNextSibling(nextStep);
                     nextStep.previousSibling = newStep;
                 }
             }
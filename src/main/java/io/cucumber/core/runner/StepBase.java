@@ -13,8 +13,10 @@ import tools.dscode.coredefinitions.GeneralSteps;
 import java.lang.reflect.Method;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.RandomAccess;
 
 import static tools.dscode.common.mappings.MapConfigurations.MapType.STEP_MAP;
 
@@ -53,7 +55,9 @@ public abstract class StepBase implements Cloneable {
 
     public StepBase parentStep;
     public StepBase previousSibling;
-    public StepBase nextSibling;
+    private StepBase nextSibling;
+    // Sibling a clone copies the first time getNextSibling() is asked for it.
+    private StepBase nextSiblingTemplate;
 
     public String overrideLoggingText = null;
 
@@ -145,6 +149,45 @@ public abstract class StepBase implements Cloneable {
 
     // public abstract Collection<ConditionalStates> getConditionalStates();
 
+    /**
+     * The step after this one. On a clone, the following sibling chain is only
+     * cloned here, the first time it is needed, so cloning one step of a long
+     * list does not copy every step after it.
+     */
+    public StepBase getNextSibling() {
+        if (nextSibling == null && nextSiblingTemplate != null) {
+            nextSibling = nextSiblingTemplate.clone();
+            nextSibling.previousSibling = this;
+        }
+        nextSiblingTemplate = null;
+        return nextSibling;
+    }
+
+    /** Replaces the next sibling, including one a clone has not copied yet. */
+    public void setNextSibling(StepBase nextSibling) {
+        this.nextSibling = nextSibling;
+        this.nextSiblingTemplate = null;
+    }
+
+    /**
+     * Links {@code steps} in directly after this step, ahead of the rest of the
+     * sibling chain, and returns the last step linked in.
+     */
+    protected StepBase insertNextSiblings(List<? extends StepBase> steps) {
+        StepBase nextStep = getNextSibling();
+        StepBase lastStep = this;
+        for (StepBase step : steps) {
+            lastStep.setNextSibling(step);
+            step.previousSibling = lastStep;
+            lastStep = step;
+        }
+        if (nextStep != null) {
+            nextStep.previousSibling = lastStep;
+            lastStep.setNextSibling(nextStep);
+        }
+        return lastStep;
+    }
+
     public static PhraseData getInheritancePhrase(StepBase stepBase) {
         if (stepBase == null) return null;
         return stepBase.inheritancePhrase;
@@ -170,7 +213,7 @@ public abstract class StepBase implements Cloneable {
                 copy.lineData = this.lineData.clone();
             }
 
-            // 2. Deep-clone StepBase lists
+            // 2. Deep-clone StepBase lists, each step on first use
             copy.childSteps = deepCloneSteps(this.childSteps);
             copy.grandChildrenSteps = deepCloneSteps(this.grandChildrenSteps);
             copy.attachedSteps = deepCloneSteps(this.attachedSteps);
@@ -189,10 +232,8 @@ public abstract class StepBase implements Cloneable {
             copy.stepFlags = shallowCopyList(this.stepFlags);
 
             // copy.conditionalStates = shallowCopyList(this.conditionalStates);
-            if (nextSibling != null) {
-                copy.nextSibling = nextSibling.clone();
-                copy.nextSibling.previousSibling = copy;
-            }
+            copy.nextSibling = null;
+            copy.nextSiblingTemplate = nextSibling != null ? nextSibling : nextSiblingTemplate;
 
             return copy;
         } catch (CloneNotSupportedException e) {
@@ -204,12 +245,65 @@ public abstract class StepBase implements Cloneable {
         if (source == null) {
             return null;
         }
+        if (source instanceof LazyStepClones lazy && lazy.copies == null) {
+            // Nothing was copied yet: the new clone copies the same originals.
+            return new LazyStepClones(lazy.templates);
+        }
+        return new LazyStepClones(source.toArray(new StepBase[0]));
+    }
+
+    /**
+     * A cloned step list whose steps are cloned on first access. Membership is
+     * fixed when the list is made; a clone that is only cloned again, as in
+     * repeat loops, never copies its subtree.
+     */
+    private static final class LazyStepClones extends AbstractList<StepBase> implements RandomAccess {
+        private final StepBase[] templates;
+        private List<StepBase> copies;
+
+        private LazyStepClones(StepBase[] templates) {
+            this.templates = templates;
+        }
+
+        private List<StepBase> copies() {
+            if (copies == null) {
+                copies = new ArrayList<>(templates.length);
+                for (StepBase step : templates) {
+                    copies.add(step != null ? step.clone() : null);
+                }
+            }
+            return copies;
+        }
+
+        @Override
+        public StepBase get(int index) {
+            return copies().get(index);
+        }
+
+        @Override
+        public int size() {
+            return copies == null ? templates.length : copies.size();
+        }
+
+        @Override
+        public StepBase set(int index, StepBase step) {
+            return copies().set(index, step);
+        }
+
+        @Override
+        public void add(int index, StepBase step) {
+            copies().add(index, step);
+        }
+
+        @Override
+        public StepBase remove(int index) {
+            return copies().remove(index);
+        }
 
-        List<StepBase> result = new ArrayList<>(source.size());
-        for (StepBase step : source) {
-            result.add(step != null ? step.clone() : null);
+        @Override
+        public void clear() {
+            copies = new ArrayList<>();
         }
-        return result;
     }
 
     private static <T> List<T> shallowCopyList(List<T> source) {
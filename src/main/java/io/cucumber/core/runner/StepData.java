@@ -58,6 +58,11 @@ public abstract class StepData extends StepMapping {
         return Duration.between(startTime, Instant.now()).compareTo(maxDuration) > 0;
     }
 
+    /** Deadline for repeating this step: its own timeout when set, otherwise the global one. */
+    public Duration repeatTimeout() {
+        return stepTimeoutSeconds != null ? stepTimeoutSeconds : globalTimeoutSeconds;
+    }
+
     public boolean reachedMaxRepetition() {
         return reachedGlobalMaxRepetition() || reachedStepMaxRepetition();
     }
@@ -171,7 +176,7 @@ public abstract class StepData extends StepMapping {
             child.stepFlags.addAll(stepFlags);
 
             if (lastChild != null) {
-                lastChild.nextSibling = child;
+                lastChild.setNextSibling(child);
 
                 child.previousSibling = lastChild;
             }
@@ -193,7 +198,7 @@ public abstract class StepData extends StepMapping {
     public void addChildStep(StepData child) {
         StepBase lastChild = childSteps.isEmpty() ? null : childSteps.getLast();
         if (lastChild != null) {
-            lastChild.nextSibling = child;
+            lastChild.setNextSibling(child);
             child.previousSibling = lastChild;
         }
         child.parentStep = this;
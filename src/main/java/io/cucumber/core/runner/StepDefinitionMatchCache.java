@@ -0,0 +1,76 @@
+package io.cucumber.core.runner;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.cucumber.core.gherkin.Step;
+import io.cucumber.core.stepexpression.Argument;
+import io.cucumber.core.stepexpression.StepTypeRegistry;
+import tools.dscode.common.util.CacheReport;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Concurrent step-text to step-definition cache in front of {@link CachingGlue}.
+ *
+ * <p>{@code CachingGlue} keeps its own text-to-pattern map, but it is a plain
+ * {@code HashMap} and a miss falls through to a regex scan over every step definition,
+ * so all callers have to hold the glue's monitor. This cache remembers which
+ * {@link CoreStepDefinition} matched a step text and argument type for a given glue, so a
+ * hit only re-matches that one definition's expression to build fresh arguments and never
+ * takes the lock.</p>
+ *
+ * <p>An entry is only trusted while the glue still holds the {@link StepTypeRegistry} it was
+ * created with. {@code CachingGlue.prepareGlue} replaces the registry whenever it rebuilds its
+ * step definitions, which makes every older entry for that glue stale.</p>
+ */
+public final class StepDefinitionMatchCache {
+
+    public static final int MAX_ENTRIES = 4096;
+
+    private record MatchKey(CachingGlue glue, String stepText, Class<?> argumentType) {
+    }
+
+    private record CachedDefinition(CoreStepDefinition definition, StepTypeRegistry registry) {
+    }
+
+    // In the cache report, a stale entry counts as a hit that then falls back to the glue.
+    private static final Cache<MatchKey, CachedDefinition> DEFINITIONS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .recordStats()
+            .build();
+
+    static {
+        CacheReport.register("StepDefinitionMatchCache", DEFINITIONS);
+    }
+
+    private StepDefinitionMatchCache() {
+    }
+
+    static PickleStepDefinitionMatch match(CachingGlue glue, URI uri, Step step)
+            throws AmbiguousStepDefinitionsException {
+        MatchKey key = new MatchKey(glue, step.getText(),
+                step.getArgument() == null ? null : step.getArgument().getClass());
+
+        CachedDefinition cached = DEFINITIONS.getIfPresent(key);
+        if (cached != null && cached.registry() == glue.getStepTypeRegistry()) {
+            List<Argument> arguments = cached.definition().matchedArguments(step);
+            if (arguments != null) {
+                return new PickleStepDefinitionMatch(arguments, cached.definition(), uri, step);
+            }
+        }
+
+        synchronized (glue) {
+            PickleStepDefinitionMatch match = glue.stepDefinitionMatch(uri, step);
+            if (match != null && match.getStepDefinition() instanceof CoreStepDefinition definition) {
+                DEFINITIONS.put(key, new CachedDefinition(definition, glue.getStepTypeRegistry()));
+            }
+            return match;
+        }
+    }
+
+    /** Drops every cached match. */
+    public static void clear() {
+        DEFINITIONS.invalidateAll();
+    }
+}
@@ -10,6 +10,7 @@ import io.cucumber.plugin.event.Result;
 import io.cucumber.plugin.event.Status;
 import tools.dscode.common.annotations.DefinitionFlag;
 import tools.dscode.common.annotations.Phase;
+import tools.dscode.common.driver.WebDriverCommandCounter;
 import tools.dscode.common.mappings.MapConfigurations;
 import tools.dscode.common.mappings.NodeMap;
 import tools.dscode.common.mappings.ParsingMap;
@@ -185,6 +186,7 @@ public class StepExtension extends StepData {
 
 
         String stepText = executingPickleStepTestStep.getStep().getKeyword() + " " + executingPickleStepTestStep.getStepText().replaceFirst("^([:\\s]*)", "");
+        long webDriverCommandsAtStart = WebDriverCommandCounter.current();
         stepEntry = getParentEntryForStep(this).logWithType("STEP", stepText, stepLogLevel).tags("Step").start();
         setDefaultEntry(getRunningStep().stepEntry);
         lifecycle.fire(Phase.BEFORE_SCENARIO_STEP);
@@ -200,6 +202,11 @@ public class StepExtension extends StepData {
         }
         lifecycle.fire(Phase.AFTER_SCENARIO_STEP);
 
+        long webDriverCommands = WebDriverCommandCounter.current() - webDriverCommandsAtStart;
+        if (webDriverCommands > 0) {
+            stepEntry.field("webDriverCommands", String.valueOf(webDriverCommands));
+        }
+
         finalizeStepEntryLogging();
 
         return result;
@@ -300,16 +307,7 @@ public class StepExtension extends StepData {
 
     public void insertSteps(List<StepExtension> newSteps) {
         if (newSteps == null || newSteps.isEmpty()) return;
-        StepBase nextStep = this.nextSibling;
-        StepExtension lastStep = this;
-        for (StepExtension newStep : newSteps) {
-            lastStep.nextSibling = newStep;
-            newStep.previousSibling = lastStep;
-        }
-        if (nextStep != null) {
-            nextStep.previousSibling = lastStep;
-            lastStep.nextSibling = nextStep;
-        }
+        StepBase lastStep = insertNextSiblings(newSteps);
         lastStep.childSteps.addAll(childSteps);
         lastStep.grandChildrenSteps.addAll(grandChildrenSteps);
         childSteps.clear();
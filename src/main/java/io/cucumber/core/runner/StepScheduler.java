@@ -0,0 +1,48 @@
+package io.cucumber.core.runner;
+
+import java.util.ArrayDeque;
+
+/**
+ * Work stack that runs a step tree without growing the Java stack.
+ *
+ * <p>Each task does one piece of a step's work and pushes whatever has to happen next:
+ * attached steps, children, the rest of an until loop, the next sibling. The most recently
+ * pushed task runs first, so work a task schedules completes before anything that was
+ * already pending, in the same order the nested calls it replaces would have run.
+ * Tasks that must run in sequence are therefore pushed last-first.</p>
+ *
+ * <p>{@link #run(Runnable)} returns once the stack is empty. A step that starts another
+ * step tree from inside its own definition (a nested scenario, for example) gets a new
+ * scheduler, so that call still returns only when the nested tree has finished. If a task
+ * throws, the pending work is dropped and the exception reaches the caller of
+ * {@code run}, just as it would have unwound the nested calls.</p>
+ */
+final class StepScheduler {
+
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private int highWater;
+
+    /** Schedules {@code task} to run before everything already pending. */
+    void push(Runnable task) {
+        tasks.push(task);
+        highWater = Math.max(highWater, tasks.size());
+    }
+
+    /** Runs {@code first} and every task it schedules, directly or indirectly. */
+    void run(Runnable first) {
+        push(first);
+        try {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        } finally {
+            tasks.clear();
+        }
+    }
+
+    /** Largest number of tasks that were pending at once. */
+    int highWater() {
+        return highWater;
+    }
+}
@@ -1,6 +1,9 @@
 package tools.dscode.common.assertions;
 
 import io.cucumber.core.runner.StepData;
+import tools.dscode.common.domoperations.DomChangeSignal;
+import tools.dscode.common.mappings.ParsingMap;
+import tools.dscode.common.util.Polling;
 
 import java.util.function.Supplier;
 
@@ -11,53 +14,68 @@ public class ConditionRepeater {
     /**
      * Repeats execution of the logic until ALL conditions evaluate to true.
      * Returns the result of the last logic execution (or null).
-     * Throws if conditions array is null or empty.
+     * Throws if conditions array is null or empty, or if the step's repeat
+     * timeout passes first.
      */
     public static Object repeatUntil(Supplier<Object> logic, String... conditions) {
-        StepData runningStep = getRunningStep();
-        Object result;
-        while (true) {
-            result = logic.get();
-
-            boolean allTrue = true;
-            for (String condition : conditions) {
-                if (!runningStep.getStepParsingMap().resolveWholeText(condition).equalsIgnoreCase("true")) {
-                    allTrue = false;
-                    break; // Early exit for AND logic
-                }
-            }
-
-            if (allTrue) {
-                return result;
-            }
-            // Otherwise, repeat the loop
-        }
+        return repeat(logic, true, conditions);
     }
 
     /**
      * Alternative version: Repeats execution of the logic until the FIRST condition (in vararg order)
      * evaluates to true (short-circuit OR logic).
      * Returns the result of the last logic execution (or null).
-     * Throws if conditions array is null or empty.
+     * Throws if conditions array is null or empty, or if the step's repeat
+     * timeout passes first.
      */
     public static Object repeatUntilAny(Supplier<Object> logic, String... conditions) {
+        return repeat(logic, false, conditions);
+    }
+
+    /**
+     * Attempts back off between checks and end early when the step's browser
+     * changes. The attempt count and time spent waiting go on the step's entry.
+     */
+    private static Object repeat(Supplier<Object> logic, boolean all, String... conditions) {
+        if (conditions == null || conditions.length == 0) {
+            throw new IllegalArgumentException("At least one condition is required");
+        }
+
         StepData runningStep = getRunningStep();
-        Object result;
-        while (true) {
-            result = logic.get();
-
-            boolean anyTrue = false;
-            for (String condition : conditions) {
-                if (runningStep.getStepParsingMap().resolveWholeText(condition).equalsIgnoreCase("true")) {
-                    anyTrue = true;
-                    break; // Break on the first true (as requested)
-                }
+        ParsingMap parsingMap = runningStep.getStepParsingMap();
+        Polling polling = Polling.withTimeout(runningStep.repeatTimeout());
+        if (runningStep.webDriverUsed != null) {
+            polling.wakeOn(DomChangeSignal.of(runningStep.webDriverUsed));
+        }
+
+        try {
+            return polling.until(logic, result -> all
+                    ? allTrue(parsingMap, conditions)
+                    : anyTrue(parsingMap, conditions));
+        } finally {
+            polling.recordOn(runningStep.stepEntry);
+        }
+    }
+
+    private static boolean allTrue(ParsingMap parsingMap, String... conditions) {
+        for (String condition : conditions) {
+            if (!isTrue(parsingMap, condition)) {
+                return false; // Early exit for AND logic
             }
+        }
+        return true;
+    }
 
-            if (anyTrue) {
-                return result;
+    private static boolean anyTrue(ParsingMap parsingMap, String... conditions) {
+        for (String condition : conditions) {
+            if (isTrue(parsingMap, condition)) {
+                return true; // Break on the first true
             }
-            // Otherwise, repeat the loop
         }
+        return false;
+    }
+
+    private static boolean isTrue(ParsingMap parsingMap, String condition) {
+        return parsingMap.resolveWholeText(condition).equalsIgnoreCase("true");
     }
-}
\ No newline at end of file
+}
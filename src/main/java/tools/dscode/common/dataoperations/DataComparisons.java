@@ -12,8 +12,11 @@ import tools.dscode.common.treeparsing.parsedComponents.ElementMatch;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Function;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import static io.cucumber.core.runner.util.TableUtils.ROW_KEY;
 
@@ -60,6 +63,65 @@ public final class DataComparisons {
         return applySelection(filteredValues, elementMatch);
     }
 
+    /**
+     * Streaming form of {@link #filterGroupedValues(List, List, ElementMatch, boolean)} for sources
+     * too large to hold in memory. Only matching values are kept, and a positional selection
+     * ({@code first}, {@code last}, an index) keeps at most one, following the same rules as the
+     * list form. The stream is closed before returning.
+     */
+    public static <T> List<T> filterGroupedValues(
+            Stream<T> values,
+            Function<T, String> keyOf,
+            ElementMatch elementMatch,
+            boolean invertComparison
+    ) {
+        String position = selectedPosition(elementMatch);
+        boolean keepAll = position == null;
+        boolean keepLast = "last".equals(position);
+        int wantedIndex = keepAll || keepLast ? -1 : positionIndex(position);
+        if (!keepAll && !keepLast && wantedIndex < 0) {
+            values.close();
+            return Collections.emptyList();
+        }
+
+        List<T> kept = new ArrayList<>();
+        int matched = 0;
+        try (values) {
+            Iterator<T> iterator = values.iterator();
+            while (iterator.hasNext()) {
+                T value = iterator.next();
+                if (!matchesAllTextOps(keyOf.apply(value), elementMatch, invertComparison)) {
+                    continue;
+                }
+                if (keepAll) {
+                    kept.add(value);
+                } else if (keepLast) {
+                    kept = List.of(value);
+                } else if (matched == wantedIndex) {
+                    return List.of(value);
+                }
+                matched++;
+            }
+        }
+        return kept;
+    }
+
+    private static boolean matchesAllTextOps(String key, ElementMatch elementMatch, boolean invertComparison) {
+        if (elementMatch.textOps == null) {
+            return true;
+        }
+        for (ElementMatch.TextOp textOp : elementMatch.textOps) {
+            boolean matches = matches(key, textOp);
+            if (invertComparison) {
+                matches = !matches;
+            }
+            if (!matches) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static List<List<Object>> filterGroupedValues(
             LinkedListMultimap<String, Object> keyMap,
             ElementMatch elementMatch,
@@ -217,31 +279,36 @@ public final class DataComparisons {
             return Collections.emptyList();
         }
 
-        String selectionType = blankToEmpty(elementMatch.selectionType);
-        String elementPosition = blankToEmpty(elementMatch.elementPosition);
-
-        if (selectionType.isEmpty() && elementPosition.isEmpty()) {
-            elementPosition = "last";
-        }
+        String position = selectedPosition(elementMatch);
+        return position == null ? input : selectByPosition(input, position);
+    }
 
+    /**
+     * Position kept by the selection, {@code last} when none is given, or {@code null} when every
+     * match is kept ({@code any}, {@code every}).
+     */
+    private static String selectedPosition(ElementMatch elementMatch) {
+        String selectionType = blankToEmpty(elementMatch.selectionType);
         if ("any".equals(selectionType) || "every".equals(selectionType)) {
-            return input;
+            return null;
         }
-
-        return selectByPosition(input, elementPosition);
+        String elementPosition = blankToEmpty(elementMatch.elementPosition);
+        return elementPosition.isEmpty() ? "last" : elementPosition;
     }
 
     private static <T> List<T> selectByPosition(List<T> input, String elementPosition) {
-        return switch (elementPosition) {
-            case "", "last" -> List.of(input.get(input.size() - 1));
-            case "first" -> List.of(input.get(0));
-            default -> {
-                int index = Integer.parseInt(elementPosition) - 1;
-                yield (index >= 0 && index < input.size())
-                        ? List.of(input.get(index))
-                        : Collections.emptyList();
-            }
-        };
+        if ("last".equals(elementPosition)) {
+            return List.of(input.get(input.size() - 1));
+        }
+        int index = positionIndex(elementPosition);
+        return (index >= 0 && index < input.size())
+                ? List.of(input.get(index))
+                : Collections.emptyList();
+    }
+
+    /** Zero-based index of {@code first} or a one-based position; negative positions stay negative. */
+    private static int positionIndex(String elementPosition) {
+        return "first".equals(elementPosition) ? 0 : Integer.parseInt(elementPosition) - 1;
     }
 
     private static String blankToEmpty(String s) {
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import tools.dscode.common.mappings.StreamingDataSource;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -24,6 +26,29 @@ public final class TableQueries {
         return rows;
     }
 
+    /**
+     * Returns the streaming source a data context holds under {@code Data Row}, or {@code null}
+     * when the rows are an ordinary array.
+     */
+    public static StreamingDataSource findStreamedRows(ObjectNode root) {
+        JsonNode rows = root == null ? null : root.get(ROW_KEY);
+        return rows instanceof POJONode pojo && pojo.getPojo() instanceof StreamingDataSource source
+                ? source
+                : null;
+    }
+
+    /** Text of a row's first cell, the key {@code Data Row} filters compare against. */
+    public static String firstCellText(JsonNode row) {
+        if (row == null || row.isEmpty()) {
+            return "";
+        }
+        JsonNode first = row.elements().next();
+        if (first.isArray()) {
+            first = first.isEmpty() ? null : first.get(0);
+        }
+        return toCellValueString(first);
+    }
+
     public static List<JsonNode> findCells(ObjectNode root) {
         List<JsonNode> cells = new ArrayList<>();
         collectExplicitCells(root, cells);
@@ -40,6 +65,11 @@ public final class TableQueries {
     }
 
     public static List<String> findHeaders(ObjectNode root) {
+        StreamingDataSource streamed = findStreamedRows(root);
+        if (streamed != null) {
+            return streamed.headers();
+        }
+
         List<JsonNode> rows = findRows(root);
         if (rows.isEmpty() || !rows.getFirst().isObject()) {
             return List.of();
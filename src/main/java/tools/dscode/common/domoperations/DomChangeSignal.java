@@ -0,0 +1,55 @@
+package tools.dscode.common.domoperations;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import tools.dscode.common.util.Polling;
+
+import java.time.Duration;
+
+/**
+ * Browser-side {@link Polling.ChangeSignal}: a pause ends as soon as the page's DOM mutates,
+ * instead of sleeping out its full backoff delay.
+ * <p>
+ * Each wait is one async script call that installs a MutationObserver and resolves on the
+ * first mutation or after the wait, whichever comes first. Waits are bounded by
+ * {@link Polling#MAX_DELAY}, well under WebDriver's default script timeout.
+ */
+public final class DomChangeSignal implements Polling.ChangeSignal {
+
+    private static final String AWAIT_MUTATION_JS =
+            """
+            const maxMs = arguments[0];
+            const done = arguments[arguments.length - 1];
+            let finished = false;
+            const finish = (changed) => {
+              if (finished) return;
+              finished = true;
+              mo.disconnect();
+              clearTimeout(timer);
+              done(changed);
+            };
+            const mo = new MutationObserver(() => finish(true));
+            mo.observe(document, {subtree:true, childList:true, attributes:true, characterData:true});
+            const timer = setTimeout(() => finish(false), maxMs);
+            """;
+
+    private final JavascriptExecutor executor;
+
+    private DomChangeSignal(JavascriptExecutor executor) {
+        this.executor = executor;
+    }
+
+    /** The signal for {@code driver}, or {@code null} when it cannot run scripts. */
+    public static DomChangeSignal of(WebDriver driver) {
+        return driver instanceof JavascriptExecutor executor ? new DomChangeSignal(executor) : null;
+    }
+
+    @Override
+    public boolean awaitChange(Duration maxWait) {
+        long millis = maxWait.toMillis();
+        if (millis <= 0) {
+            return false;
+        }
+        return Boolean.TRUE.equals(executor.executeAsyncScript(AWAIT_MUTATION_JS, millis));
+    }
+}
@@ -2,7 +2,9 @@ package tools.dscode.common.domoperations;
 
 import org.openqa.selenium.JavascriptException;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
 import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
@@ -12,6 +14,7 @@ import tools.dscode.common.seleniumextensions.ElementWrapper;
 import tools.dscode.common.treeparsing.parsedComponents.ElementMatch;
 import tools.dscode.common.treeparsing.parsedComponents.ElementType;
 import tools.dscode.common.treeparsing.parsedComponents.PhraseData;
+import tools.dscode.common.util.Polling;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -22,10 +25,23 @@ import static tools.dscode.common.domoperations.HumanInteractions.blur;
 import static tools.dscode.common.domoperations.SeleniumUtils.hasAlert;
 import static tools.dscode.common.domoperations.SeleniumUtils.waitMilliseconds;
 import static tools.dscode.common.domoperations.SeleniumUtils.windowsChanged;
+import static tools.dscode.common.evaluations.AviatorUtil.isTruthy;
 import static tools.dscode.common.reporting.logging.LogForwarder.logWarn;
+import static tools.dscode.common.util.GeneralUtils.toLongOrZero;
+import static tools.dscode.common.variables.RunVars.resolveFromVarsOrDefault;
 
 public final class LeanWaits {
 
+    /**
+     * Event-driven readiness, enabled with {@code pkb_eventWaits=true}. Page readiness is one
+     * async script that resolves once the page has been quiet, with no DOM mutations and no
+     * fetch/XHR in flight, for {@code pkb_eventWaitsQuietMs} (default 300). Element waits
+     * re-check only when the DOM changes, backing off while it does not.
+     */
+    public static final boolean EVENT_WAITS = isTruthy(resolveFromVarsOrDefault("pkb_eventWaits", false));
+
+    static final long EVENT_QUIET_MS = positiveOrDefault(resolveFromVarsOrDefault("pkb_eventWaitsQuietMs", 300), 300);
+
     private LeanWaits() {
     }
 
@@ -99,6 +115,10 @@ public final class LeanWaits {
      * The total time for both phases will not exceed the given timeout.
      */
     public static void waitForPageReady(WebDriver driver, Duration timeout) {
+        if (EVENT_WAITS) {
+            awaitPageQuiet(driver, timeout);
+            return;
+        }
 
         final Instant start = Instant.now();
         final long timeoutMillis = timeout.toMillis();
@@ -148,16 +168,21 @@ public final class LeanWaits {
             WebElement element,
             Duration timeout
     ) {
+        Function<WebDriver, WebElement> visible = d -> {
+            if (element == null) return null;
+            return element.isDisplayed() ? element : null;
+        };
+        if (EVENT_WAITS) {
+            return awaitOnDomChange(driver, timeout, visible);
+        }
+
         FluentWait<WebDriver> wait = new FluentWait<>(driver)
                 .withTimeout(timeout)
                 .pollingEvery(Duration.ofMillis(150))
                 .ignoring(StaleElementReferenceException.class)
                 .ignoring(WebDriverException.class);
 
-        return wait.until(d -> {
-            if (element == null) return null;
-            return element.isDisplayed() ? element : null;
-        });
+        return wait.until(visible);
     }
 
 
@@ -169,18 +194,95 @@ public final class LeanWaits {
             WebElement element,
             Duration timeout
     ) {
+        Function<WebDriver, WebElement> present = d -> {
+            if (element == null) return null;
+            Boolean connected = (Boolean) ((JavascriptExecutor) d)
+                    .executeScript(IS_CONNECTED_JS, element);
+            return Boolean.TRUE.equals(connected) ? element : null;
+        };
+        if (EVENT_WAITS) {
+            return awaitOnDomChange(driver, timeout, present);
+        }
+
         FluentWait<WebDriver> wait = new FluentWait<>(driver)
                 .withTimeout(timeout)
                 .pollingEvery(Duration.ofMillis(150))
                 .ignoring(StaleElementReferenceException.class)
                 .ignoring(WebDriverException.class);
 
-        return wait.until(d -> {
-            if (element == null) return null;
-            Boolean connected = (Boolean) ((JavascriptExecutor) d)
-                    .executeScript(IS_CONNECTED_JS, element);
-            return Boolean.TRUE.equals(connected) ? element : null;
-        });
+        return wait.until(present);
+    }
+
+
+    // --- event-driven waits (pkb_eventWaits) ---
+
+    /**
+     * Waits in one async script per call for document.readyState 'complete' followed by
+     * {@link #EVENT_QUIET_MS} without DOM mutations or fetch/XHR requests in flight. A page
+     * that never goes quiet (polling, animations, long-lived requests) is accepted after
+     * 6 x the quiet period, as the polling quiet check does. Calls are split to fit the
+     * driver's script timeout, and a call cut short by navigation is retried on the new
+     * document.
+     */
+    static void awaitPageQuiet(WebDriver driver, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long scriptBudgetMillis = scriptBudgetMillis(driver);
+        while (true) {
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                throw new TimeoutException("Page did not become quiet within " + timeout.toMillis() + " ms");
+            }
+            try {
+                Object ready = ((JavascriptExecutor) driver).executeAsyncScript(
+                        PAGE_QUIET_JS, EVENT_QUIET_MS, Math.min(remainingMillis, scriptBudgetMillis));
+                if (Boolean.TRUE.equals(ready)) {
+                    return;
+                }
+            } catch (JavascriptException | ScriptTimeoutException e) {
+                // The document was replaced mid-wait; give the new one a moment to exist.
+                waitMilliseconds(50);
+            }
+        }
+    }
+
+    /**
+     * Evaluates {@code condition} now and again when the DOM changes, as reported by
+     * {@link DomChangeSignal}. The re-checks back off whether or not anything changes, so a
+     * static page costs a handful of round trips rather than one per 150 ms, and a page that
+     * never stops changing is not re-checked continuously.
+     */
+    static <T> T awaitOnDomChange(WebDriver driver, Duration timeout, Function<WebDriver, T> condition) {
+        Polling polling = Polling.withTimeout(timeout).wakeOn(DomChangeSignal.of(driver));
+        while (true) {
+            T result;
+            try {
+                result = condition.apply(driver);
+            } catch (WebDriverException e) {
+                result = null;
+            }
+            if (result != null) {
+                return result;
+            }
+            if (!polling.pause()) {
+                throw new TimeoutException("Condition not met within " + timeout.toMillis() + " ms ("
+                        + polling.describe() + ")");
+            }
+        }
+    }
+
+    /** Longest single async script call, leaving a second of the driver's script timeout spare. */
+    private static long scriptBudgetMillis(WebDriver driver) {
+        try {
+            long scriptTimeout = driver.manage().timeouts().getScriptTimeout().toMillis();
+            return Math.max(1000, scriptTimeout - 1000);
+        } catch (RuntimeException e) {
+            return 29_000;
+        }
+    }
+
+    private static long positiveOrDefault(Object value, long fallback) {
+        long parsed = toLongOrZero(value);
+        return parsed > 0 ? parsed : fallback;
     }
 
 
@@ -221,6 +323,89 @@ public final class LeanWaits {
             check();
             """;
 
+    /**
+     * Resolves true once the page is ready and quiet, false when the wait limit is reached first.
+     * Installs fetch/XHR in-flight counting on the page the first time it runs there; requests
+     * started before that are not counted.
+     */
+    private static final String PAGE_QUIET_JS =
+            """
+            const quietMs = arguments[0];
+            const maxMs = arguments[1];
+            const done = arguments[arguments.length - 1];
+            
+            if (!window.__pkbInflight) {
+              const state = window.__pkbInflight = { count: 0, listeners: new Set() };
+              const change = (delta) => {
+                state.count = Math.max(0, state.count + delta);
+                state.listeners.forEach(l => l());
+              };
+              if (window.fetch) {
+                const originalFetch = window.fetch;
+                window.fetch = function () {
+                  change(1);
+                  let settled = false;
+                  const settle = () => { if (!settled) { settled = true; change(-1); } };
+                  try {
+                    return originalFetch.apply(this, arguments).then(
+                      r => { settle(); return r; },
+                      e => { settle(); throw e; });
+                  } catch (e) { settle(); throw e; }
+                };
+              }
+              if (window.XMLHttpRequest) {
+                const originalSend = XMLHttpRequest.prototype.send;
+                XMLHttpRequest.prototype.send = function () {
+                  change(1);
+                  this.addEventListener('loadend', () => change(-1), { once: true });
+                  try { return originalSend.apply(this, arguments); } catch (e) { change(-1); throw e; }
+                };
+              }
+            }
+            
+            const state = window.__pkbInflight;
+            let last = Date.now();
+            let completeAt = null;
+            let finished = false;
+            let timer = null;
+            
+            const finish = (ready) => {
+              if (finished) return;
+              finished = true;
+              mo.disconnect();
+              state.listeners.delete(onActivity);
+              document.removeEventListener('readystatechange', check);
+              clearTimeout(timer);
+              clearTimeout(limit);
+              done(ready);
+            };
+            
+            // Runs on every event that could change the outcome; no fixed polling interval.
+            function check() {
+              if (finished || document.readyState !== 'complete') return;
+              const now = Date.now();
+              if (completeAt === null) completeAt = now;
+              clearTimeout(timer);
+              const noisyFor = now - completeAt;
+              if (noisyFor >= quietMs * 6) { finish(true); return; }
+              const quietIn = state.count > 0 ? quietMs : last + quietMs - now;
+              if (state.count === 0 && quietIn <= 0) { finish(true); return; }
+              timer = setTimeout(check, Math.min(quietIn, quietMs * 6 - noisyFor));
+            }
+            
+            function onActivity() {
+              last = Date.now();
+              check();
+            }
+            
+            const mo = new MutationObserver(onActivity);
+            mo.observe(document, {subtree:true, childList:true, attributes:true, characterData:true});
+            state.listeners.add(onActivity);
+            document.addEventListener('readystatechange', check);
+            const limit = setTimeout(() => finish(false), maxMs);
+            check();
+            """;
+
     // center-point hit test + basic style checks; shadow DOM aware via composedPath
     private static final String HIT_TEST_JS =
             """
@@ -428,15 +428,15 @@ public final class DriverConstruction {
     public static ClientConfig buildClientConfig(ObjectNode connectionSection) throws Exception {
         validateKeys(connectionSection, CONNECTION_KEYS, "driver.connection");
 
+        ClientConfig config = WebDriverCommandCounter.countingConfig();
+
         ObjectNode client = getObject(connectionSection, "clientConfig");
         if (client.isEmpty()) {
-            return null;
+            return config;
         }
 
         validateKeys(client, CLIENT_CONFIG_KEYS, "driver.connection.clientConfig");
 
-        ClientConfig config = ClientConfig.defaultConfig();
-
         String baseUrl = trimToNull(client.path("baseUrl").asText(null));
         if (baseUrl != null) {
             config = config.baseUrl(new URL(baseUrl));
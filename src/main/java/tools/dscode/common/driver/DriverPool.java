@@ -0,0 +1,306 @@
+package tools.dscode.common.driver;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import tools.dscode.common.browseroperations.WindowSwitch;
+import tools.dscode.common.reporting.logging.CleanupTrace;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static tools.dscode.common.evaluations.AviatorUtil.isTruthy;
+import static tools.dscode.common.reporting.logging.LogForwarder.logInfo;
+import static tools.dscode.common.util.GeneralUtils.toLongOrZero;
+import static tools.dscode.common.variables.RunVars.resolveFromVarsOrDefault;
+
+/**
+ * Keeps WebDriver sessions alive between scenarios so the next scenario with the same driver
+ * configuration can skip browser startup or grid session negotiation.
+ * <p>
+ * Sessions are keyed by browser name plus the full resolved driver configuration, so a
+ * scenario only ever receives a session built from the configuration it asked for. Releasing
+ * a session replaces all of its windows with one fresh blank tab and clears browser-wide state
+ * through Chrome DevTools: every cookie, and the storage of every origin found in the windows'
+ * navigation histories or among the cookies. Sessions without DevTools access (Firefox, Safari)
+ * cannot be cleared beyond the current origin, so they are quit rather than pooled. A session
+ * is also quit instead of kept when the reset fails, when it has served
+ * {@code pkb_driverPoolMaxUses} scenarios, or when the idle pool for its key already holds
+ * {@code pkb_driverPoolMaxIdle} sessions. Idle sessions are health-checked with one command
+ * before they are handed out.
+ * <p>
+ * Enable with {@code pkb_driverPool=true}. When disabled, {@link #acquire} always creates
+ * and {@link #release} always reports the session as unpooled, so callers quit it as before.
+ */
+public final class DriverPool {
+
+    public static final boolean ENABLED = isTruthy(resolveFromVarsOrDefault("pkb_driverPool", false));
+
+    static final int MAX_USES = positiveOrDefault(resolveFromVarsOrDefault("pkb_driverPoolMaxUses", 20), 20);
+    static final int MAX_IDLE = positiveOrDefault(resolveFromVarsOrDefault("pkb_driverPoolMaxIdle", 4), 4);
+
+    private static final Map<String, Deque<PooledSession>> IDLE = new ConcurrentHashMap<>();
+    private static final Map<RemoteWebDriver, PooledSession> LEASED = new ConcurrentHashMap<>();
+
+    private static volatile Boolean enabledOverride;
+
+    private DriverPool() {
+    }
+
+    static boolean enabled() {
+        Boolean override = enabledOverride;
+        return override != null ? override : ENABLED;
+    }
+
+    /** Fixes the pooling mode; null defers to {@code pkb_driverPool}. */
+    static void setEnabled(Boolean enabled) {
+        enabledOverride = enabled;
+    }
+
+    @FunctionalInterface
+    public interface DriverFactory {
+        RemoteWebDriver create(ObjectNode configuration) throws Exception;
+    }
+
+    private static final class PooledSession {
+        final String key;
+        final RemoteWebDriver driver;
+        final AtomicInteger uses = new AtomicInteger();
+
+        PooledSession(String key, RemoteWebDriver driver) {
+            this.key = key;
+            this.driver = driver;
+        }
+    }
+
+    /**
+     * Returns a healthy idle session built from an identical configuration, or creates one
+     * with {@code factory}. Reports how long the pool lookup and any creation took.
+     */
+    public static RemoteWebDriver acquire(ObjectNode configuration, DriverFactory factory) throws Exception {
+        if (!enabled()) {
+            return factory.create(configuration);
+        }
+
+        String key = keyFor(configuration);
+        long waitStart = System.nanoTime();
+        Deque<PooledSession> idle = IDLE.computeIfAbsent(key, ignored -> new ConcurrentLinkedDeque<>());
+
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            if (isHealthy(session.driver)) {
+                int use = session.uses.incrementAndGet();
+                LEASED.put(session.driver, session);
+                logInfo("Driver pool: reused " + describe(key) + " session " + session.driver.getSessionId()
+                        + " (use " + use + " of " + MAX_USES + ") after " + millisSince(waitStart) + " ms");
+                return session.driver;
+            }
+            quitQuietly(session, "failed health check");
+        }
+        long waitedMillis = millisSince(waitStart);
+
+        long createStart = System.nanoTime();
+        RemoteWebDriver driver = factory.create(configuration);
+        session = new PooledSession(key, driver);
+        session.uses.incrementAndGet();
+        LEASED.put(driver, session);
+        logInfo("Driver pool: created " + describe(key) + " session " + driver.getSessionId()
+                + " in " + millisSince(createStart) + " ms (no idle session after " + waitedMillis + " ms)");
+        return driver;
+    }
+
+    /**
+     * Resets a leased session and returns it to the idle pool, or quits it when it is worn out,
+     * unhealthy or surplus.
+     *
+     * @return {@code true} if the session came from this pool and has been released or quit;
+     * {@code false} if the caller still owns it and should quit it itself
+     */
+    public static boolean release(WebDriver driver) {
+        if (!(driver instanceof RemoteWebDriver remote)) {
+            return false;
+        }
+
+        PooledSession session = LEASED.remove(remote);
+        if (session == null) {
+            return false;
+        }
+
+        if (session.uses.get() >= MAX_USES) {
+            quitQuietly(session, "reached " + MAX_USES + " uses");
+            return true;
+        }
+
+        if (!reset(session.driver)) {
+            quitQuietly(session, "reset failed");
+            return true;
+        }
+
+        Deque<PooledSession> idle = IDLE.computeIfAbsent(session.key, ignored -> new ConcurrentLinkedDeque<>());
+        if (idle.size() >= MAX_IDLE) {
+            quitQuietly(session, "idle pool full");
+            return true;
+        }
+
+        idle.addFirst(session);
+        CleanupTrace.print("[DriverPool] Released " + describe(session.key) + " session " + remote.getSessionId());
+        return true;
+    }
+
+    /**
+     * Quits every idle session. Leased sessions are left to their scenario's cleanup.
+     */
+    public static void shutdown() {
+        for (Deque<PooledSession> idle : IDLE.values()) {
+            PooledSession session;
+            while ((session = idle.pollFirst()) != null) {
+                quitQuietly(session, "pool shutdown");
+            }
+        }
+    }
+
+    public static int idleCount() {
+        return IDLE.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    public static int leasedCount() {
+        return LEASED.size();
+    }
+
+    static String keyFor(ObjectNode configuration) {
+        String browser = DriverConstruction.resolveBrowserName(configuration);
+        ObjectNode identity = configuration.deepCopy();
+        identity.remove("_pathKey");
+        // The whole JSON rather than a hash of it: colliding configurations must never share sessions.
+        return browser + "#" + identity;
+    }
+
+    private static boolean isHealthy(RemoteWebDriver driver) {
+        try {
+            return driver.getSessionId() != null && driver.getWindowHandle() != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Swaps every window for one new blank tab, so no tab keeps its history or session storage,
+     * then clears all cookies and the storage of every origin the session is known to have
+     * visited. Returns false, so the session is quit, when the browser has no DevTools access.
+     */
+    private static boolean reset(RemoteWebDriver driver) {
+        HasCdp cdp = devTools(driver);
+        if (cdp == null) {
+            CleanupTrace.print("[DriverPool] Session " + driver.getSessionId()
+                    + " has no DevTools access, so its cookies and storage cannot be cleared");
+            return false;
+        }
+        try {
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            if (handles.isEmpty()) {
+                return false;
+            }
+            Set<String> origins = new LinkedHashSet<>();
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                addOrigin(origins, driver.getCurrentUrl());
+                Object entries = cdp.executeCdpCommand("Page.getNavigationHistory", Map.of()).get("entries");
+                if (entries instanceof List<?> list) {
+                    for (Object entry : list) {
+                        if (entry instanceof Map<?, ?> map) addOrigin(origins, map.get("url"));
+                    }
+                }
+            }
+            Object cookies = cdp.executeCdpCommand("Storage.getCookies", Map.of()).get("cookies");
+            if (cookies instanceof List<?> list) {
+                for (Object cookie : list) {
+                    if (cookie instanceof Map<?, ?> map && map.get("domain") instanceof String domain) {
+                        String host = domain.startsWith(".") ? domain.substring(1) : domain;
+                        origins.add("https://" + host);
+                        origins.add("http://" + host);
+                    }
+                }
+            }
+
+            driver.switchTo().newWindow(WindowType.TAB);
+            String fresh = driver.getWindowHandle();
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+            driver.switchTo().window(fresh);
+            WindowSwitch.clearHistory(driver);
+
+            cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            for (String origin : origins) {
+                cdp.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+            }
+            return true;
+        } catch (Exception e) {
+            CleanupTrace.printThrowable("[DriverPool] Reset failed for session " + driver.getSessionId(), e);
+            return false;
+        }
+    }
+
+    /** Local Chromium drivers speak CDP directly; remote ones do once augmented. */
+    private static HasCdp devTools(RemoteWebDriver driver) {
+        if (driver instanceof HasCdp cdp) {
+            return cdp;
+        }
+        try {
+            return new Augmenter().augment(driver) instanceof HasCdp cdp ? cdp : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void addOrigin(Set<String> origins, Object url) {
+        if (!(url instanceof String text)) {
+            return;
+        }
+        try {
+            URI uri = URI.create(text);
+            String scheme = uri.getScheme();
+            if (uri.getHost() != null && ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+                origins.add(scheme.toLowerCase() + "://" + uri.getHost() + (uri.getPort() < 0 ? "" : ":" + uri.getPort()));
+            }
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    private static void quitQuietly(PooledSession session, String reason) {
+        try {
+            session.driver.quit();
+            CleanupTrace.print("[DriverPool] Quit " + describe(session.key) + " session (" + reason + ")");
+        } catch (Exception ignored) {
+        }
+    }
+
+    private static String describe(String key) {
+        return key.substring(0, key.indexOf('#'));
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static int positiveOrDefault(Object value, int defaultValue) {
+        try {
+            long parsed = toLongOrZero(value);
+            return parsed > 0 ? (int) parsed : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package tools.dscode.common.driver;
+
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Filter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the WebDriver commands sent by drivers built through {@link DriverConstruction}.
+ *
+ * <p>Every WebDriver command is one HTTP request to the driver or grid, so the count is
+ * taken by an HTTP filter installed on the driver's {@link ClientConfig}. Counts are kept
+ * per calling thread, matching the one-scenario-per-thread execution model, so a step can
+ * read {@link #current()} before and after it runs to see how many round trips it cost.</p>
+ */
+public final class WebDriverCommandCounter {
+
+    private static final ThreadLocal<long[]> THREAD_COUNT = ThreadLocal.withInitial(() -> new long[1]);
+    private static final LongAdder TOTAL = new LongAdder();
+
+    public static final Filter FILTER = next -> request -> {
+        THREAD_COUNT.get()[0]++;
+        TOTAL.increment();
+        return next.execute(request);
+    };
+
+    private WebDriverCommandCounter() {
+    }
+
+    /** Commands issued so far by the current thread. */
+    public static long current() {
+        return THREAD_COUNT.get()[0];
+    }
+
+    /** Commands issued so far by every thread in this JVM. */
+    public static long total() {
+        return TOTAL.sum();
+    }
+
+    /** Returns a default client configuration with the counting filter installed. */
+    public static ClientConfig countingConfig() {
+        return ClientConfig.defaultConfig().withFilter(FILTER);
+    }
+}
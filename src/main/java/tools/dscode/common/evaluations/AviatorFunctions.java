@@ -14,7 +14,11 @@ import static tools.dscode.common.evaluations.AviatorUtil.isTruthy;
 
 public class AviatorFunctions {
 
-    static {
+    /**
+     * Registers the functions below with the default evaluator. Called once from
+     * {@link AviatorUtil}'s static initializer.
+     */
+    static void register() {
         AviatorEvaluator.addFunction(new FirstNotBlankFn());
         AviatorEvaluator.addFunction(new FirstNotEmptyFn());
         AviatorEvaluator.addFunction(new FirstNotNullFn());
@@ -1,6 +1,7 @@
 package tools.dscode.common.evaluations;
 
 import com.googlecode.aviator.AviatorEvaluator;
+import com.googlecode.aviator.Expression;
 import com.googlecode.aviator.lexer.token.OperatorType;
 import com.googlecode.aviator.runtime.function.AbstractFunction;
 import com.googlecode.aviator.runtime.type.AviatorBoolean;
@@ -22,6 +23,9 @@ public final class AviatorUtil {
         // bool(x) helper
         AviatorEvaluator.addFunction(new BoolFn());
 
+        // firstNotBlank, firstNotEmpty, firstNotNull, getBool
+        AviatorFunctions.register();
+
         // Override &&
         AviatorEvaluator.addOpFunction(OperatorType.AND, new AbstractFunction() {
             @Override
@@ -100,18 +104,15 @@ public final class AviatorUtil {
 
     /**
      * Evaluates an object by converting it to a String and running it through
-     * Aviator.
+     * Aviator. The compiled expression is reused via {@link ExpressionCache}.
      */
     public static Object eval(Object expr, Map<String, Object> map) {
         if (expr == null)
             return null;
         String processedExpression = preprocessExpression(expr.toString());
         try {
-            Object evalReturn;
-            if (map == null)
-                evalReturn = AviatorEvaluator.execute(processedExpression);
-            else
-                evalReturn = AviatorEvaluator.execute(processedExpression, map);
+            Expression compiled = ExpressionCache.compile(processedExpression);
+            Object evalReturn = map == null ? compiled.execute() : compiled.execute(map);
             logTrace("Evaluated: '" + expr + "' -> '" + evalReturn + "'");
             return evalReturn;
         } catch (Exception e) {
@@ -124,7 +125,7 @@ public final class AviatorUtil {
      */
     public static boolean evalToBoolean(Object expr, Map<String, Object> map) {
         try {
-            boolean evalReturn = expr != null && (boolean) AviatorEvaluator.execute(preprocessExpression(expr.toString()), map, true);
+            boolean evalReturn = expr != null && (boolean) ExpressionCache.compile(preprocessExpression(expr.toString())).execute(map);
             logInfo("Evaluated To Bool: '" + expr + "' -> '" + evalReturn + "'");
             return evalReturn;
         } catch (Exception e) {
@@ -0,0 +1,103 @@
+package tools.dscode.common.evaluations;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.googlecode.aviator.AviatorEvaluator;
+import com.googlecode.aviator.Expression;
+import tools.dscode.common.util.CacheReport;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded, thread-safe cache of compiled Aviator expressions.
+ *
+ * <p>A compiled {@link Expression} holds no evaluation state; variables are read from the
+ * env passed to each {@code execute} call. One compiled expression can therefore serve every
+ * thread and env that evaluates the same text, and a condition re-checked in a polling loop
+ * is compiled once instead of on every check. Entries are keyed by the preprocessed
+ * expression text. Text that fails to compile is not cached, so the error is raised again
+ * on the next evaluation.</p>
+ *
+ * <p>Every compile goes through {@link AviatorUtil}, whose static initializer registers the
+ * custom functions and operator overrides, so they are in place before the first compile.</p>
+ */
+public final class ExpressionCache {
+
+    public static final int MAX_EXPRESSIONS = 2048;
+
+    /**
+     * Expression bodies written with the default bookends, {@code <{...}>} and
+     * {@code ~[~{...}~]~}, as they appear in feature-file text before resolution.
+     */
+    private static final Pattern EMBEDDED_EXPRESSION = Pattern.compile(
+            "<\\{([^\\r\\n]+?)}>|~\\[~\\{([^\\r\\n]+?)}~]~");
+
+    private static final Cache<String, Expression> EXPRESSIONS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_EXPRESSIONS)
+            .recordStats()
+            .build();
+
+    static {
+        CacheReport.register("ExpressionCache", EXPRESSIONS);
+    }
+
+    private ExpressionCache() {
+    }
+
+    static Expression compile(String expression) {
+        Expression cached = EXPRESSIONS.getIfPresent(expression);
+        if (cached == null) {
+            cached = AviatorEvaluator.compile(expression);
+            EXPRESSIONS.put(expression, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Compiles {@code expression} ahead of its first evaluation.
+     *
+     * @return {@code false} if the text does not compile on its own, e.g. because it still
+     * contains unresolved map references
+     */
+    public static boolean precompile(String expression) {
+        if (expression == null || expression.isBlank()) {
+            return false;
+        }
+        try {
+            compile(AviatorUtil.preprocessExpression(expression.trim()));
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Precompiles every expression embedded in {@code text} with the default bookends.
+     * A trailing {@code ?}, which asks for boolean coercion, is not part of the compiled text.
+     *
+     * @return the number of expressions compiled
+     */
+    public static int precompileEmbedded(String text) {
+        if (text == null || !text.contains("{")) {
+            return 0;
+        }
+        int compiled = 0;
+        Matcher matcher = EMBEDDED_EXPRESSION.matcher(text);
+        while (matcher.find()) {
+            String body = (matcher.group(1) != null ? matcher.group(1) : matcher.group(2)).trim();
+            if (body.endsWith("?")) {
+                body = body.substring(0, body.length() - 1);
+            }
+            if (precompile(body)) {
+                compiled++;
+            }
+        }
+        return compiled;
+    }
+
+    /** Drops every compiled expression. */
+    public static void clear() {
+        EXPRESSIONS.invalidateAll();
+    }
+}
@@ -0,0 +1,628 @@
+package tools.dscode.common.mappings;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import tools.dscode.common.util.CacheReport;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static tools.dscode.common.GlobalConstants.BOOK_END;
+import static tools.dscode.common.GlobalConstants.MATCH_BREAK;
+import static tools.dscode.common.evaluations.AviatorUtil.eval;
+import static tools.dscode.common.evaluations.AviatorUtil.evalToBoolean;
+import static tools.dscode.common.mappings.MappingProcessor.EXPRESSION;
+import static tools.dscode.common.mappings.MappingProcessor.INTERNAL_EXPRESSION_CLOSE;
+import static tools.dscode.common.mappings.MappingProcessor.INTERNAL_EXPRESSION_OPEN;
+import static tools.dscode.common.mappings.MappingProcessor.INTERNAL_MAP_CLOSE;
+import static tools.dscode.common.mappings.MappingProcessor.INTERNAL_MAP_OPEN;
+import static tools.dscode.common.mappings.MappingProcessor.MAP_PLACEHOLDER;
+import static tools.dscode.common.mappings.MappingProcessor.UNQUOTE_SUFFIX;
+import static tools.dscode.common.mappings.MappingProcessor.getStringValue;
+import static tools.dscode.common.mappings.MappingProcessor.normalizeBookends;
+import static tools.dscode.common.mappings.MappingProcessor.restoreBookends;
+import static tools.dscode.common.util.StringUtilities.decodeBackToText;
+
+/**
+ * Text for {@link MappingProcessor#resolveWholeText} parsed once into literals,
+ * map references, expressions and quoted segments.
+ *
+ * <p>The full resolver rebuilds a {@link QuoteParser} and re-runs its
+ * normalization and regex passes for every bookend style until the text stops
+ * changing. A compiled template records where the dynamic parts are, so
+ * resolving it only looks up map references and evaluates expressions. Text
+ * without dynamic parts is returned as is. Templates are cached by input text
+ * and delimiter replacements.</p>
+ *
+ * <p>Only input whose parts cannot interact is compiled: every opening
+ * bookend belongs to a reference, references are plain keys (no {@code &},
+ * {@code $}, {@code ~unquote}, {@code &&}/{@code ||} or nested references),
+ * expressions contain no references, and the text carries none of the
+ * resolver's internal marker characters. Anything else keeps using the full
+ * resolver.</p>
+ *
+ * <p>A resolved value could itself contain template syntax, quotes or
+ * escapes. It could also form a bookend together with the text next to it.
+ * The full resolver would process such a value again, so {@link #resolve}
+ * returns {@code null} and the caller falls back to the full resolver. The
+ * expression values computed up to that point are handed to the full
+ * resolver, which uses them instead of evaluating the same expressions again.
+ * Map lookups are repeated; they are plain reads of the maps.</p>
+ */
+final class CompiledTemplate {
+
+    public static final int MAX_TEMPLATES = 4096;
+
+    /** Longer input, e.g. large doc strings, is resolved without caching a template. */
+    public static final int MAX_TEMPLATE_LENGTH = 8192;
+
+    private static final CompiledTemplate UNCOMPILED = new CompiledTemplate(null, null, null, null);
+
+    private static final Pattern QUOTE_MASK = Pattern.compile(
+            QuoteParser.MASK_BOUNDARY + "\u2404+" + QuoteParser.MASK_BOUNDARY);
+
+    private static final List<String> ESCAPE_SEQUENCES = List.of("\\'", "\\\"", "\\`", "\\\\");
+
+    private record Key(String input, List<String> delimiterReplacements) {
+    }
+
+    private static final Cache<Key, CompiledTemplate> TEMPLATES = CacheBuilder.newBuilder()
+            .maximumSize(MAX_TEMPLATES)
+            .recordStats()
+            .build();
+
+    static {
+        CacheReport.register("CompiledTemplate", TEMPLATES);
+    }
+
+    sealed interface Node permits Literal, MapReference, Expression, Quoted {
+    }
+
+    /** Text copied to the output unchanged. */
+    record Literal(String text) implements Node {
+    }
+
+    /** A reference, resolved with {@link MappingProcessor#get(String)}; {@code source} is kept when unresolved. */
+    record MapReference(String key, boolean optional, String source) implements Node {
+    }
+
+    /** An expression with its text ready for evaluation; {@code source} is kept when evaluations are off. */
+    record Expression(String text, boolean toBoolean, String source) implements Node {
+    }
+
+    /** A quoted segment, resolved on its own and re-wrapped in its quote character. */
+    record Quoted(char quote, List<Node> inner) implements Node {
+    }
+
+    private final String input;
+    private final List<Node> nodes;
+    private final MapReference wholeReference;
+    private final List<String> tokens;
+
+    private CompiledTemplate(String input, List<Node> nodes, MapReference wholeReference, List<String> tokens) {
+        this.input = input;
+        this.nodes = nodes;
+        this.wholeReference = wholeReference;
+        this.tokens = tokens;
+    }
+
+    /**
+     * Returns the compiled form of {@code input}, or a template that always defers to the
+     * full resolver when the input cannot be compiled.
+     */
+    static CompiledTemplate of(String input, String... delimiterReplacements) {
+        if (input == null || input.length() > MAX_TEMPLATE_LENGTH) {
+            return UNCOMPILED;
+        }
+        Key key = new Key(input, delimiterReplacements == null
+                ? List.of()
+                : Arrays.asList(delimiterReplacements.clone()));
+        CompiledTemplate cached = TEMPLATES.getIfPresent(key);
+        if (cached == null) {
+            cached = compile(input, MappingProcessor.dialectsFor(input, delimiterReplacements));
+            TEMPLATES.put(key, cached);
+        }
+        return cached;
+    }
+
+    boolean isCompiled() {
+        return nodes != null;
+    }
+
+    /**
+     * Resolves the template against {@code processor}.
+     *
+     * @return the resolved text or whole-reference object, or {@code null} when the input was
+     * not compiled or a resolved value needs the full resolver
+     */
+    Object resolve(MappingProcessor processor, boolean resolveEvaluations, boolean preserveWholeObject) {
+        return resolve(processor, resolveEvaluations, preserveWholeObject, new HashMap<>());
+    }
+
+    /**
+     * Same as {@link #resolve(MappingProcessor, boolean, boolean)}, and adds every expression
+     * evaluated on the way to {@code evaluated}, keyed by the text the full resolver evaluates,
+     * in input order. When this returns {@code null} the caller passes them to the full resolver.
+     */
+    Object resolve(
+            MappingProcessor processor,
+            boolean resolveEvaluations,
+            boolean preserveWholeObject,
+            Map<String, Deque<String>> evaluated
+    ) {
+        if (nodes == null) {
+            return null;
+        }
+        if (tokens == null) {
+            return input;
+        }
+
+        // Identity keys: the same reference or expression written twice is resolved twice,
+        // as the full resolver does.
+        Map<Node, String> values = new IdentityHashMap<>();
+        if (preserveWholeObject && wholeReference != null) {
+            Object value = processor.get(wholeReference.key());
+            if (value != null && !(value instanceof String)) {
+                return value;
+            }
+            if (!putReference(wholeReference, value, values)) {
+                return null;
+            }
+        }
+
+        // References first, so a value that needs the full resolver is found before any
+        // expression has run.
+        if (!resolveReferences(nodes, processor, values, preserveWholeObject)) {
+            return null;
+        }
+        if (resolveEvaluations) {
+            boolean inert;
+            try {
+                inert = evaluateExpressions(nodes, processor, values, evaluated);
+            } catch (RuntimeException e) {
+                // Same form as the full resolver's failures.
+                throw new RuntimeException("Could not resolve '" + input + "' due to '" + e.getMessage() + "'", e);
+            }
+            if (!inert) {
+                return null;
+            }
+        }
+
+        Output output = new Output();
+        write(nodes, values, output);
+        return output.formsNewSyntax(tokens) ? null : output.text.toString();
+    }
+
+    static long size() {
+        return TEMPLATES.size();
+    }
+
+    /** Drops every compiled template. */
+    static void clear() {
+        TEMPLATES.invalidateAll();
+    }
+
+    // ---- resolution ----
+
+    /** Output text plus the offsets where resolved values start and end. */
+    private static final class Output {
+        final StringBuilder text = new StringBuilder();
+        final List<Integer> boundaries = new ArrayList<>();
+
+        void appendResolved(String value) {
+            boundaries.add(text.length());
+            text.append(value);
+            boundaries.add(text.length());
+        }
+
+        /** Whether any bookend or escape sequence now spans a resolved value's edge. */
+        boolean formsNewSyntax(List<String> tokens) {
+            for (int boundary : boundaries) {
+                for (String token : tokens) {
+                    for (int start = Math.max(0, boundary - token.length() + 1); start < boundary; start++) {
+                        if (matchesAt(text, token, start)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static boolean matchesAt(StringBuilder text, String token, int start) {
+            if (start + token.length() > text.length()) {
+                return false;
+            }
+            for (int i = 0; i < token.length(); i++) {
+                if (text.charAt(start + i) != token.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @param textOnly whether an object value must defer to the full resolver: when the values
+     *                 around it resolve to empty text, the full resolver finds a whole reference
+     *                 and returns the object itself
+     */
+    private boolean resolveReferences(
+            List<Node> nodes,
+            MappingProcessor processor,
+            Map<Node, String> values,
+            boolean textOnly
+    ) {
+        for (Node node : nodes) {
+            if (node instanceof MapReference reference) {
+                if (values.containsKey(reference)) {
+                    continue;
+                }
+                Object value = processor.get(reference.key());
+                if ((textOnly && value != null && !(value instanceof String))
+                        || !putReference(reference, value, values)) {
+                    return false;
+                }
+            } else if (node instanceof Quoted quoted
+                    && !resolveReferences(quoted.inner(), processor, values, false)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean putReference(MapReference reference, Object value, Map<Node, String> values) {
+        if (value == null) {
+            values.put(reference, reference.optional() ? "" : reference.source());
+            return true;
+        }
+        String text = getStringValue(value);
+        values.put(reference, text);
+        return isInert(text);
+    }
+
+    /**
+     * Evaluates every expression, including those after a value that needs the full resolver,
+     * so that the full resolver evaluates none of them again.
+     *
+     * @return whether every value can be inserted as is
+     */
+    private boolean evaluateExpressions(
+            List<Node> nodes,
+            MappingProcessor processor,
+            Map<Node, String> values,
+            Map<String, Deque<String>> evaluated
+    ) {
+        boolean inert = true;
+        for (Node node : nodes) {
+            if (node instanceof Expression expression) {
+                String text = expression.toBoolean()
+                        ? String.valueOf(evalToBoolean(expression.text(), processor))
+                        : String.valueOf(eval(expression.text(), processor));
+                values.put(expression, text);
+                evaluated.computeIfAbsent(expression.toBoolean() ? expression.text() + "?" : expression.text(),
+                        key -> new ArrayDeque<>()).add(text);
+                inert &= isInert(text);
+            } else if (node instanceof Quoted quoted) {
+                inert &= evaluateExpressions(quoted.inner(), processor, values, evaluated);
+            }
+        }
+        return inert;
+    }
+
+    private static void write(List<Node> nodes, Map<Node, String> values, Output output) {
+        for (Node node : nodes) {
+            switch (node) {
+                case Literal literal -> output.text.append(literal.text());
+                case MapReference reference -> output.appendResolved(values.get(reference));
+                case Expression expression -> output.appendResolved(values.getOrDefault(expression, expression.source()));
+                case Quoted quoted -> {
+                    output.text.append(quoted.quote());
+                    write(quoted.inner(), values, output);
+                    output.text.append(quoted.quote());
+                }
+            }
+        }
+    }
+
+    // ---- compilation ----
+
+    private static CompiledTemplate compile(String input, List<MappingProcessor.Bookends> dialects) {
+        if (containsReservedCharacter(input)) {
+            return UNCOMPILED;
+        }
+        QuoteParser quotes = new QuoteParser(input);
+        if (!quotes.restore().equals(input)) {
+            return UNCOMPILED;
+        }
+
+        List<String> tokens = tokensOf(dialects);
+        List<Node> nodes = parseSegment(quotes.masked(), dialects, quotes, tokens, true);
+        if (nodes == null) {
+            return UNCOMPILED;
+        }
+        if (nodes.stream().allMatch(node -> node instanceof Literal)) {
+            return new CompiledTemplate(input, nodes, null, null);
+        }
+
+        MapReference whole = nodes.size() == 1 && nodes.getFirst() instanceof MapReference reference
+                ? reference
+                : null;
+        return new CompiledTemplate(input, List.copyOf(nodes), whole, tokens);
+    }
+
+    /**
+     * Parses one segment with each bookend style in turn. Each style only sees the literal
+     * text left by the styles before it, which is what the full resolver sees too, since
+     * resolved values never contain bookends.
+     */
+    private static List<Node> parseSegment(
+            String text,
+            List<MappingProcessor.Bookends> dialects,
+            QuoteParser quotes,
+            List<String> tokens,
+            boolean masked
+    ) {
+        List<Node> nodes = List.of(new Literal(text));
+        for (MappingProcessor.Bookends dialect : dialects) {
+            List<Node> next = new ArrayList<>();
+            for (Node node : nodes) {
+                if (node instanceof Literal literal) {
+                    List<Node> parsed = parseWithBookends(literal.text(), dialect, dialects, quotes);
+                    if (parsed == null) {
+                        return null;
+                    }
+                    next.addAll(parsed);
+                } else {
+                    next.add(node);
+                }
+            }
+            nodes = next;
+        }
+        return masked ? expandQuotes(nodes, dialects, quotes, tokens) : nodes;
+    }
+
+    private static List<Node> parseWithBookends(
+            String text,
+            MappingProcessor.Bookends dialect,
+            List<MappingProcessor.Bookends> dialects,
+            QuoteParser quotes
+    ) {
+        String normalized = normalizeBookends(text, dialect);
+        List<Node> nodes = new ArrayList<>();
+        int position = 0;
+
+        Matcher expressions = EXPRESSION.matcher(normalized);
+        while (expressions.find()) {
+            if (!parseReferences(normalized.substring(position, expressions.start()), dialect, dialects, nodes)) {
+                return null;
+            }
+            Expression expression = toExpression(expressions, dialect, dialects, quotes);
+            if (expression == null) {
+                return null;
+            }
+            nodes.add(expression);
+            position = expressions.end();
+        }
+        if (!parseReferences(normalized.substring(position), dialect, dialects, nodes)) {
+            return null;
+        }
+        return nodes;
+    }
+
+    private static boolean parseReferences(
+            String normalized,
+            MappingProcessor.Bookends dialect,
+            List<MappingProcessor.Bookends> dialects,
+            List<Node> nodes
+    ) {
+        int position = 0;
+        Matcher references = MAP_PLACEHOLDER.matcher(normalized);
+        while (references.find()) {
+            if (!addLiteral(normalized.substring(position, references.start()), dialect, nodes)) {
+                return false;
+            }
+            String key = references.group(1);
+            if (!isPlainKey(key, dialects)) {
+                return false;
+            }
+            nodes.add(new MapReference(key, key.length() > 1 && key.startsWith("?"), dialect.wrap(key)));
+            position = references.end();
+        }
+        return addLiteral(normalized.substring(position), dialect, nodes);
+    }
+
+    /** Adds literal text; an opening bookend outside a reference could pair with a resolved value. */
+    private static boolean addLiteral(String normalized, MappingProcessor.Bookends dialect, List<Node> nodes) {
+        if (normalized.contains(INTERNAL_MAP_OPEN)
+                || normalized.contains(INTERNAL_EXPRESSION_OPEN)
+                || normalized.contains(INTERNAL_EXPRESSION_CLOSE)) {
+            return false;
+        }
+        String text = restoreBookends(normalized, dialect);
+        if (text.endsWith(dialect.open())) {
+            return false;
+        }
+        if (!text.isEmpty()) {
+            nodes.add(new Literal(text));
+        }
+        return true;
+    }
+
+    private static Expression toExpression(
+            Matcher match,
+            MappingProcessor.Bookends dialect,
+            List<MappingProcessor.Bookends> dialects,
+            QuoteParser quotes
+    ) {
+        String body = match.group(1);
+        if (body.contains(INTERNAL_MAP_OPEN)) {
+            return null;
+        }
+
+        String source = restoreBookends(match.group(), dialect);
+        for (MappingProcessor.Bookends other : dialects) {
+            if (other != dialect && (source.contains(other.open()) || source.contains(other.close()))) {
+                return null;
+            }
+        }
+
+        // Quoted text inside an expression is restored as written, which is only what the
+        // full resolver evaluates when that quoted text has nothing to resolve.
+        Matcher masks = QUOTE_MASK.matcher(body);
+        while (masks.find()) {
+            String inner = quotes.get(masks.group());
+            if (inner == null || !isStatic(inner, dialects, quotes)) {
+                return null;
+            }
+        }
+
+        String key = body.trim()
+                .replace(INTERNAL_MAP_OPEN, dialect.open())
+                .replace(INTERNAL_MAP_CLOSE, dialect.close());
+        key = quotes.restoreAndStripBookEnds(decodeBackToText(key));
+        boolean toBoolean = key.endsWith("?");
+        return new Expression(
+                toBoolean ? key.substring(0, key.length() - 1) : key,
+                toBoolean,
+                quotes.restoreFrom(source));
+    }
+
+    /** Splits literal text at masked quotes; triple-quoted text is never resolved. */
+    private static List<Node> expandQuotes(
+            List<Node> nodes,
+            List<MappingProcessor.Bookends> dialects,
+            QuoteParser quotes,
+            List<String> tokens
+    ) {
+        List<Node> expanded = new ArrayList<>();
+        for (Node node : nodes) {
+            if (!(node instanceof Literal literal)) {
+                expanded.add(node);
+                continue;
+            }
+            Matcher masks = QUOTE_MASK.matcher(literal.text());
+            int position = 0;
+            while (masks.find()) {
+                if (masks.start() > position) {
+                    expanded.add(new Literal(literal.text().substring(position, masks.start())));
+                }
+                String placeholder = masks.group();
+                String delimiter = quotes.delimiterOf(placeholder);
+                String inner = quotes.get(placeholder);
+                if (QuoteParser.TRIPLE_SINGLE.equals(delimiter)) {
+                    expanded.add(new Literal(quotes.restoreFrom(placeholder)));
+                } else {
+                    List<Node> parsed = parseSegment(inner, dialects, quotes, tokens, false);
+                    if (parsed == null) {
+                        return null;
+                    }
+                    expanded.add(parsed.stream().allMatch(part -> part instanceof Literal)
+                            ? new Literal(quotes.restoreFrom(placeholder))
+                            : new Quoted(delimiter.charAt(0), escapeLiterals(parsed, delimiter.charAt(0))));
+                }
+                position = masks.end();
+            }
+            if (position < literal.text().length()) {
+                expanded.add(new Literal(literal.text().substring(position)));
+            }
+        }
+        return expanded;
+    }
+
+    /** Quoted text is re-escaped on restore; resolved values never contain quotes. */
+    private static List<Node> escapeLiterals(List<Node> nodes, char quote) {
+        List<Node> escaped = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            escaped.add(node instanceof Literal literal
+                    ? new Literal(literal.text().replace(String.valueOf(quote), "\\" + quote))
+                    : node);
+        }
+        return escaped;
+    }
+
+    private static boolean isStatic(String text, List<MappingProcessor.Bookends> dialects, QuoteParser quotes) {
+        List<Node> parsed = parseSegment(text, dialects, quotes, List.of(), false);
+        return parsed != null && parsed.stream().allMatch(node -> node instanceof Literal);
+    }
+
+    private static boolean isPlainKey(String key, List<MappingProcessor.Bookends> dialects) {
+        if (key.startsWith("&")
+                || key.startsWith("$")
+                || key.endsWith(UNQUOTE_SUFFIX)
+                || key.contains("&&")
+                || key.contains("||")
+                || QUOTE_MASK.matcher(key).find()) {
+            return false;
+        }
+        for (MappingProcessor.Bookends dialect : dialects) {
+            if (key.contains(dialect.open()) || key.contains(dialect.close())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> tokensOf(List<MappingProcessor.Bookends> dialects) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (MappingProcessor.Bookends dialect : dialects) {
+            tokens.add(dialect.open());
+            tokens.add(dialect.close());
+            tokens.add(dialect.expressionOpen());
+            tokens.add(dialect.expressionClose());
+        }
+        tokens.addAll(ESCAPE_SEQUENCES);
+        return List.copyOf(tokens);
+    }
+
+    /**
+     * Whether a resolved value can be inserted without the full resolver treating any part
+     * of it as syntax on a later pass.
+     */
+    private boolean isInert(String value) {
+        if (containsReservedCharacter(value)) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\'' || c == '"' || c == '`' || c == '\\') {
+                return false;
+            }
+        }
+        for (String token : tokens) {
+            if (value.contains(token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Internal markers of the resolver, quote masking, step-text bookends and
+     * punctuation encoding, none of which pass through resolution unchanged.
+     */
+    private static boolean containsReservedCharacter(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c >= '\uE000' && c <= '\uE005')
+                    || c == '\u2404'
+                    || c == QuoteParser.MASK_BOUNDARY
+                    || c == '\u206A'
+                    || c == MATCH_BREAK.charAt(0)
+                    || c == BOOK_END.charAt(0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
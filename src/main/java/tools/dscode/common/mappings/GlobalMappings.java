@@ -1,16 +1,37 @@
 package tools.dscode.common.mappings;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.LinkedListMultimap;
+import tools.dscode.common.mappings.queries.Tokenized;
+import tools.dscode.common.variables.SysEnv;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import static tools.dscode.common.evaluations.AviatorUtil.isTruthy;
+import static tools.dscode.common.variables.RunVars.resolveFromVarsOrDefault;
+import static tools.dscode.common.variables.SysEnv.cachedPickleBallProperty;
 import static tools.dscode.common.variables.SysEnv.getPickleBallProperty;
 
 /**
  * GlobalMappings Identical to NodeMap, but the public getters/setters are made
- * thread-safe: - put(...): write-locked - get(...), getPojo(...): read-locked
+ * thread-safe: - put(...), merge(...) and the other writers: write-locked -
+ * get(...): read-locked, or lock-free with {@code pkb_globalSnapshots}.
  * All other behavior (wildcards, direct path auto-creation, POJO sidecar, Guava
  * support, etc.) is inherited unchanged from NodeMap.
+ * <p>
+ * In snapshot mode every write publishes a new root that readers pick up
+ * without locking. Published roots are never changed again: a writer first
+ * swaps in a private copy of the top-level field it is about to modify, so
+ * untouched top-level fields stay shared between consecutive snapshots.
+ * {@link #getRoot()} still returns the live root; changes made through it are
+ * only seen by readers after the next write. Snapshot mode also remembers
+ * {@code pkb.} property lookups, misses included, so a property set outside
+ * {@link SysEnv} is only seen after {@link SysEnv#clearPickleBallPropertyCache()}.
  */
 public class GlobalMappings extends NodeMap {
 
@@ -19,25 +40,43 @@ public class GlobalMappings extends NodeMap {
 
 
     private GlobalMappings() {
+        this(null);
+    }
+
+    /** Fixes the read mode instead of taking it from {@code pkb_globalSnapshots}; null defers to the flag. */
+    GlobalMappings(Boolean snapshots) {
         super(MapConfigurations.MapType.GLOBAL_NODE);
+        this.snapshots = snapshots;
+        published.set(shallowCopy(root));
     }
 
     private final ReadWriteLock rw = new ReentrantReadWriteLock();
     private final Lock r = rw.readLock();
     private final Lock w = rw.writeLock();
 
+    private final AtomicReference<ObjectNode> published = new AtomicReference<>();
+    private final Boolean snapshots;
+
+    // Resolved on first use: RunVars is not necessarily initialized when GLOBALS is built.
+    private static final class Mode {
+        static final boolean SNAPSHOTS = isTruthy(resolveFromVarsOrDefault("pkb_globalSnapshots", false));
+    }
+
+    public boolean snapshotReads() {
+        return snapshots != null ? snapshots : Mode.SNAPSHOTS;
+    }
+
     @Override
-    public void put(String key, Object value) {
-        w.lock();
-        try {
-            super.put(key, value);
-        } finally {
-            w.unlock();
-        }
+    protected ObjectNode readRoot() {
+        return snapshotReads() ? published.get() : root;
     }
 
     @Override
     public Object get(String key) {
+        if (snapshotReads()) {
+            Object returnObj = cachedPickleBallProperty(key);
+            return returnObj != null ? returnObj : super.get(key);
+        }
         Object returnObj = getPickleBallProperty(key);
         if (returnObj != null) return returnObj;
         r.lock();
@@ -47,4 +86,96 @@ public class GlobalMappings extends NodeMap {
             r.unlock();
         }
     }
+
+    @Override
+    public void put(String key, Object value) {
+        put(Tokenized.of(key), value);
+    }
+
+    @Override
+    public void put(Tokenized query, Object value) {
+        write(query.writeRoot(), () -> super.put(query, value));
+    }
+
+    @Override
+    public void putAsSingleton(String query, Object value) {
+        write(Tokenized.singletonWrite(query).writeRoot(), () -> super.putAsSingleton(query, value));
+    }
+
+    @Override
+    public void clearValues(String... keys) {
+        replaceFields(() -> super.clearValues(keys));
+    }
+
+    @Override
+    public void merge(ObjectNode other) {
+        replaceFields(() -> super.merge(other));
+    }
+
+    @Override
+    public void merge(Map<?, ?> other) {
+        replaceFields(() -> super.merge(other));
+    }
+
+    @Override
+    public void merge(LinkedListMultimap<?, ?> other) {
+        replaceFields(() -> super.merge(other));
+    }
+
+    @Override
+    public void directPut(String key, Object value) {
+        replaceFields(() -> super.directPut(key, value));
+    }
+
+    @Override
+    public void putReference(String key, JsonNode value) {
+        replaceFields(() -> super.putReference(key, value));
+    }
+
+    /**
+     * Runs a write that may change the inside of {@code field}, or of any
+     * top-level field when {@code field} is null.
+     */
+    private void write(String field, Runnable change) {
+        w.lock();
+        try {
+            if (snapshotReads()) {
+                if (field == null) {
+                    root.properties().forEach(e -> e.setValue(e.getValue().deepCopy()));
+                } else if (root.get(field) != null) {
+                    root.set(field, root.get(field).deepCopy());
+                }
+            }
+            change.run();
+            publish();
+        } finally {
+            w.unlock();
+        }
+    }
+
+    /** Runs a write that only adds, replaces or removes top-level fields. */
+    private void replaceFields(Runnable change) {
+        w.lock();
+        try {
+            change.run();
+            publish();
+        } finally {
+            w.unlock();
+        }
+    }
+
+    private void publish() {
+        if (snapshotReads()) {
+            published.set(shallowCopy(root));
+        }
+        // Again after publishing, so a reader that saw the stamp from inside the write cannot
+        // keep a result from the previous snapshot.
+        touch();
+    }
+
+    private static ObjectNode shallowCopy(ObjectNode node) {
+        ObjectNode copy = MAPPER.createObjectNode();
+        copy.setAll(node);
+        return copy;
+    }
 }
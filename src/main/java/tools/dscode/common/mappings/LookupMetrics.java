@@ -0,0 +1,105 @@
+package tools.dscode.common.mappings;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters for layered lookups in {@link MappingProcessor#get(String)}.
+ *
+ * <p>Each layer a lookup evaluates is recorded under its {@link MapConfigurations.MapType}
+ * with the time the evaluation took and whether it produced a value, so slow or
+ * rarely-hit layers show up per map type. Hits and misses of the per-processor
+ * resolution cache are counted separately; a cache hit evaluates no layers.</p>
+ */
+public final class LookupMetrics {
+
+    private static final MapConfigurations.MapType[] TYPES = MapConfigurations.MapType.values();
+
+    private static final LongAdder[] LOOKUPS = adders();
+    private static final LongAdder[] FOUND = adders();
+    private static final LongAdder[] NANOS = adders();
+
+    private static final LongAdder CACHE_HITS = new LongAdder();
+    private static final LongAdder CACHE_MISSES = new LongAdder();
+
+    private LookupMetrics() {
+    }
+
+    static void record(MapConfigurations.MapType mapType, long nanos, boolean found) {
+        int index = mapType.ordinal();
+        LOOKUPS[index].increment();
+        NANOS[index].add(nanos);
+        if (found) {
+            FOUND[index].increment();
+        }
+    }
+
+    static void cacheHit() {
+        CACHE_HITS.increment();
+    }
+
+    static void cacheMiss() {
+        CACHE_MISSES.increment();
+    }
+
+    /** Number of times a layer of this type was evaluated. */
+    public static long lookups(MapConfigurations.MapType mapType) {
+        return LOOKUPS[mapType.ordinal()].sum();
+    }
+
+    /** Number of evaluations of this map type that produced a value. */
+    public static long found(MapConfigurations.MapType mapType) {
+        return FOUND[mapType.ordinal()].sum();
+    }
+
+    /** Total time spent evaluating layers of this map type. */
+    public static long totalNanos(MapConfigurations.MapType mapType) {
+        return NANOS[mapType.ordinal()].sum();
+    }
+
+    public static long cacheHits() {
+        return CACHE_HITS.sum();
+    }
+
+    public static long cacheMisses() {
+        return CACHE_MISSES.sum();
+    }
+
+    public static void reset() {
+        for (int i = 0; i < TYPES.length; i++) {
+            LOOKUPS[i].reset();
+            FOUND[i].reset();
+            NANOS[i].reset();
+        }
+        CACHE_HITS.reset();
+        CACHE_MISSES.reset();
+    }
+
+    /** Cache counters followed by every map type that has been evaluated at least once. */
+    public static String describe() {
+        StringBuilder out = new StringBuilder("LookupMetrics{cache=[hits=")
+                .append(cacheHits())
+                .append(", misses=")
+                .append(cacheMisses())
+                .append("]");
+        for (MapConfigurations.MapType mapType : TYPES) {
+            long lookups = lookups(mapType);
+            if (lookups == 0) {
+                continue;
+            }
+            out.append(", ").append(mapType)
+                    .append("=[lookups=").append(lookups)
+                    .append(", found=").append(found(mapType))
+                    .append(", avgNanos=").append(totalNanos(mapType) / lookups)
+                    .append("]");
+        }
+        return out.append("}").toString();
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[TYPES.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -12,7 +12,9 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.ValueNode;
 import com.google.common.collect.LinkedListMultimap;
+import tools.dscode.common.dataoperations.TableQueries;
 import tools.dscode.common.mappings.queries.Tokenized;
 import tools.dscode.common.treeparsing.parsedComponents.ElementMatch;
 
@@ -20,11 +22,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -43,8 +48,10 @@ import static tools.dscode.common.dataoperations.DataComparisons.filterGroupedVa
 import static tools.dscode.common.dataoperations.TableQueries.findCells;
 import static tools.dscode.common.dataoperations.TableQueries.findHeaders;
 import static tools.dscode.common.dataoperations.TableQueries.findRows;
+import static tools.dscode.common.dataoperations.TableQueries.findStreamedRows;
 import static tools.dscode.common.evaluations.AviatorUtil.eval;
 import static tools.dscode.common.evaluations.AviatorUtil.evalToBoolean;
+import static tools.dscode.common.evaluations.AviatorUtil.isTruthy;
 import static tools.dscode.common.mappings.FileAndDataParsing.buildJsonFromPath;
 import static tools.dscode.common.mappings.GlobalMappings.GLOBALS;
 import static tools.dscode.common.mappings.NodeMap.getNodeMap;
@@ -53,6 +60,7 @@ import static tools.dscode.common.reporting.logging.LogForwarder.logTrace;
 import static tools.dscode.common.util.StringUtilities.decodeBackToText;
 import static tools.dscode.common.util.StringUtilities.encodeToPlaceHolders;
 import static tools.dscode.common.variables.RunVars.resolveFromVars;
+import static tools.dscode.common.variables.RunVars.resolveFromVarsOrDefault;
 import static tools.dscode.coredefinitions.GeneralSteps.getReturnValue;
 import static tools.dscode.testengine.PKB_props.PKB_PREFIX;
 
@@ -63,6 +71,51 @@ public abstract class MappingProcessor implements Map<String, Object> {
     protected final List<MapConfigurations.MapType> keyOrder = new ArrayList<>();
     protected final List<MapConfigurations.MapType> singletonOrder = new ArrayList<>();
 
+    /** Most (prefix, key) results one processor keeps before starting over. */
+    public static final int MAX_RESOLUTIONS = 1024;
+
+    /**
+     * A finished {@link #get(String)}: the layers it searched, the newest modification stamp
+     * among them when the search started, and the result, which may be a miss. It stays valid
+     * while the processor resolves to the same layers and none of them has been written, since
+     * any write gives that layer a stamp higher than every earlier one.
+     */
+    private record Resolution(NodeMap[] layers, long stamp, Object value) {
+    }
+
+    private volatile Map<ParsedMapPrefix, Resolution> resolutions;
+    private Boolean cacheLookups;
+
+    // Resolved on first use, like the GlobalMappings read mode.
+    private static final class LookupCacheMode {
+        static final boolean ENABLED = isTruthy(resolveFromVarsOrDefault("pkb_lookupCache", false));
+    }
+
+    /** Whether {@link #get(String)} reuses earlier results; off unless {@code pkb_lookupCache} is set. */
+    public boolean cacheLookups() {
+        return cacheLookups != null ? cacheLookups : LookupCacheMode.ENABLED;
+    }
+
+    /** Fixes the lookup cache mode for this processor; null defers to {@code pkb_lookupCache}. */
+    void setCacheLookups(Boolean cacheLookups) {
+        this.cacheLookups = cacheLookups;
+        clearResolutions();
+    }
+
+    /** Drops every cached result of this processor. */
+    public void clearResolutions() {
+        resolutions = null;
+    }
+
+    private Map<ParsedMapPrefix, Resolution> resolutions() {
+        Map<ParsedMapPrefix, Resolution> cache = resolutions;
+        if (cache == null) {
+            cache = new ConcurrentHashMap<>();
+            resolutions = cache;
+        }
+        return cache;
+    }
+
     public static ThreadLocal<NodeMap> runMap = new ThreadLocal<>();
     public static ThreadLocal<NodeMap> singletonMap = new ThreadLocal<>();
     public static ThreadLocal<NodeMap> overridesMap = new ThreadLocal<>();
@@ -335,7 +388,7 @@ public abstract class MappingProcessor implements Map<String, Object> {
             "<\\s*[A-Za-z_][A-Za-z0-9_.-]*"
                     + "(?:\\s+[^<>]*?)?/\\s*>");
 
-    private record Bookends(
+    record Bookends(
             String open,
             String close,
             String expressionOpen,
@@ -355,16 +408,16 @@ public abstract class MappingProcessor implements Map<String, Object> {
     private static final String INTERNAL_MAP_BOOKEND_FLAG = "\uE002";
     private static final String INTERNAL_EXPRESSION_BOOKEND_FLAG = "\uE003";
 
-    private static final String INTERNAL_MAP_OPEN =
+    static final String INTERNAL_MAP_OPEN =
             INTERNAL_OPEN_BOOKEND_SUB + INTERNAL_MAP_BOOKEND_FLAG;
-    private static final String INTERNAL_MAP_CLOSE =
+    static final String INTERNAL_MAP_CLOSE =
             INTERNAL_MAP_BOOKEND_FLAG + INTERNAL_CLOSE_BOOKEND_SUB;
-    private static final String INTERNAL_EXPRESSION_OPEN =
+    static final String INTERNAL_EXPRESSION_OPEN =
             INTERNAL_OPEN_BOOKEND_SUB + INTERNAL_EXPRESSION_BOOKEND_FLAG;
-    private static final String INTERNAL_EXPRESSION_CLOSE =
+    static final String INTERNAL_EXPRESSION_CLOSE =
             INTERNAL_EXPRESSION_BOOKEND_FLAG + INTERNAL_CLOSE_BOOKEND_SUB;
 
-    private static final String UNQUOTE_SUFFIX = "~unquote";
+    static final String UNQUOTE_SUFFIX = "~unquote";
     private static final String INTERNAL_UNQUOTE_OPEN = "\uE004";
     private static final String INTERNAL_UNQUOTE_CLOSE = "\uE005";
 
@@ -385,12 +438,12 @@ public abstract class MappingProcessor implements Map<String, Object> {
                     + INTERNAL_EXPRESSION_BOOKEND_FLAG
                     + "]+";
 
-    private static final Pattern MAP_PLACEHOLDER = Pattern.compile(
+    static final Pattern MAP_PLACEHOLDER = Pattern.compile(
             Pattern.quote(INTERNAL_MAP_OPEN)
                     + "(" + MAP_BODY + ")"
                     + Pattern.quote(INTERNAL_MAP_CLOSE));
 
-    private static final Pattern EXPRESSION = Pattern.compile(
+    static final Pattern EXPRESSION = Pattern.compile(
             Pattern.quote(INTERNAL_EXPRESSION_OPEN)
                     + "(" + EXPRESSION_BODY + ")"
                     + Pattern.quote(INTERNAL_EXPRESSION_CLOSE));
@@ -495,43 +548,79 @@ public abstract class MappingProcessor implements Map<String, Object> {
     ) {
         validateDelimiterReplacements(delimiterReplacements);
 
-        Object resolvedValue;
-        if (usesDualDefaultOuterBookends(delimiterReplacements)
-                && looksLikeXml(input)) {
-            Bookends xmlSafeBookends = createBookendsForOuter(
-                    SECONDARY_DEFAULT_OPEN_BOOKEND,
-                    SECONDARY_DEFAULT_CLOSE_BOOKEND,
-                    delimiterReplacements);
+        Map<String, Deque<String>> evaluated = new HashMap<>();
+        Object resolvedValue = CompiledTemplate.of(input, delimiterReplacements)
+                .resolve(this, resolveEvaluations, preserveWholeObject, evaluated);
+        if (resolvedValue == null) {
+            Map<String, Deque<String>> outer = EVALUATED_EXPRESSIONS.get();
+            EVALUATED_EXPRESSIONS.set(evaluated);
+            try {
+                resolvedValue = resolveWholeUncompiled(
+                        input, resolveEvaluations, preserveWholeObject, delimiterReplacements);
+            } finally {
+                EVALUATED_EXPRESSIONS.set(outer);
+            }
+        }
 
-            resolvedValue = resolveUsingBookends(
-                    input, xmlSafeBookends, resolveEvaluations, preserveWholeObject);
-        } else if (usesDualDefaultOuterBookends(delimiterReplacements)) {
-            Bookends angleBookends = createBookendsForOuter(
-                    DEFAULT_OPEN_BOOKEND,
-                    DEFAULT_CLOSE_BOOKEND,
-                    delimiterReplacements);
+        logTrace("Resolved: '" + input + "' -> '" + resolvedValue + "'");
+        return resolvedValue;
+    }
 
-            Bookends tildeSquareBookends = createBookendsForOuter(
+    /**
+     * Expression values a {@link CompiledTemplate} computed before deferring to the full
+     * resolver, by expression text and in input order. {@link #resolveExpression} takes one
+     * from here before evaluating, so deferring does not evaluate an expression twice.
+     */
+    private static final ThreadLocal<Map<String, Deque<String>>> EVALUATED_EXPRESSIONS = new ThreadLocal<>();
+
+    /**
+     * Resolves by repeated normalization and regex passes, without a
+     * {@link CompiledTemplate}. Used for input the template compiler does not
+     * take on, and as the reference its output must match.
+     */
+    Object resolveWholeUncompiled(
+            String input,
+            boolean resolveEvaluations,
+            boolean preserveWholeObject,
+            String... delimiterReplacements
+    ) {
+        List<Bookends> dialects = dialectsFor(input, delimiterReplacements);
+        if (dialects.size() == 1) {
+            return resolveUsingBookends(
+                    input, dialects.getFirst(), resolveEvaluations, preserveWholeObject);
+        }
+        return resolveUntilStable(
+                input,
+                resolveEvaluations,
+                preserveWholeObject,
+                dialects.toArray(Bookends[]::new));
+    }
+
+    /**
+     * The bookend styles {@code input} is resolved with, in the order they are
+     * applied: both built-in styles, only the XML-safe style for XML-like input,
+     * or the single custom style when an outer delimiter is supplied.
+     */
+    static List<Bookends> dialectsFor(String input, String... delimiterReplacements) {
+        if (usesDualDefaultOuterBookends(delimiterReplacements)
+                && looksLikeXml(input)) {
+            return List.of(createBookendsForOuter(
                     SECONDARY_DEFAULT_OPEN_BOOKEND,
                     SECONDARY_DEFAULT_CLOSE_BOOKEND,
-                    delimiterReplacements);
-
-            resolvedValue = resolveUntilStable(
-                    input,
-                    resolveEvaluations,
-                    preserveWholeObject,
-                    angleBookends,
-                    tildeSquareBookends);
-        } else {
-            resolvedValue = resolveUsingBookends(
-                    input,
-                    createBookends(delimiterReplacements),
-                    resolveEvaluations,
-                    preserveWholeObject);
+                    delimiterReplacements));
         }
-
-        logTrace("Resolved: '" + input + "' -> '" + resolvedValue + "'");
-        return resolvedValue;
+        if (usesDualDefaultOuterBookends(delimiterReplacements)) {
+            return List.of(
+                    createBookendsForOuter(
+                            DEFAULT_OPEN_BOOKEND,
+                            DEFAULT_CLOSE_BOOKEND,
+                            delimiterReplacements),
+                    createBookendsForOuter(
+                            SECONDARY_DEFAULT_OPEN_BOOKEND,
+                            SECONDARY_DEFAULT_CLOSE_BOOKEND,
+                            delimiterReplacements));
+        }
+        return List.of(createBookends(delimiterReplacements));
     }
 
     /**
@@ -851,6 +940,12 @@ public abstract class MappingProcessor implements Map<String, Object> {
         }
     }
 
+    private static String takeEvaluated(String key) {
+        Map<String, Deque<String>> evaluated = EVALUATED_EXPRESSIONS.get();
+        Deque<String> values = evaluated == null ? null : evaluated.get(key);
+        return values == null ? null : values.pollFirst();
+    }
+
     private String resolveExpression(String input, QuoteParser parsedObj, Bookends bookends) {
         Matcher matcher = EXPRESSION.matcher(input);
         StringBuffer output = new StringBuffer();
@@ -866,9 +961,12 @@ public abstract class MappingProcessor implements Map<String, Object> {
 
             key = parsedObj.restoreAndStripBookEnds(decodeBackToText(key));
 
-            String replacement = key.endsWith("?")
-                    ? String.valueOf(evalToBoolean(key.substring(0, key.length() - 1), this))
-                    : String.valueOf(eval(key, this));
+            String replacement = takeEvaluated(key);
+            if (replacement == null) {
+                replacement = key.endsWith("?")
+                        ? String.valueOf(evalToBoolean(key.substring(0, key.length() - 1), this))
+                        : String.valueOf(eval(key, this));
+            }
 
             logTrace("'" + bookends.expressionOpen() + key
                     + bookends.expressionClose() + "' -> '" + replacement + "'");
@@ -891,7 +989,7 @@ public abstract class MappingProcessor implements Map<String, Object> {
      * is ignored when it is immediately preceded by whitespace. This avoids
      * treating common comparison operators as map-reference delimiters.
      */
-    private static String normalizeBookends(String input, Bookends bookends) {
+    static String normalizeBookends(String input, Bookends bookends) {
         if (input == null || input.isEmpty()) {
             return input;
         }
@@ -911,7 +1009,7 @@ public abstract class MappingProcessor implements Map<String, Object> {
                 .replaceAll(Matcher.quoteReplacement(INTERNAL_MAP_CLOSE));
     }
 
-    private static String restoreBookends(String input, Bookends bookends) {
+    static String restoreBookends(String input, Bookends bookends) {
         return input
                 .replace(INTERNAL_MAP_OPEN, bookends.open())
                 .replace(INTERNAL_MAP_CLOSE, bookends.close())
@@ -1045,21 +1143,52 @@ public abstract class MappingProcessor implements Map<String, Object> {
             key = key.substring(1, key.length() - 1);
         } else {
             if (key.startsWith(FILE_REFERENCE_PREFIX)) {
-                return buildJsonFromPath(key.substring(FILE_REFERENCE_PREFIX.length()));
+                String path = key.substring(FILE_REFERENCE_PREFIX.length());
+                return StreamingDataSource.isStreamReference(path)
+                        ? StreamingDataSource.of(path)
+                        : buildJsonFromPath(path);
             }
             if (key.contains("_") && key.toLowerCase().startsWith(PKB_PREFIX)) {
                 return resolveFromVars(key);
             }
         }
 
-        Tokenized tokenized = new Tokenized(key);
+        NodeMap[] layers = resolutionLayers(parsed.prefix);
+        // JSONata functions and variables ($now(), $x) can give a different answer for the same maps.
+        if (!cacheLookups() || key.indexOf('$') >= 0) {
+            return lookup(layers, key, directGet);
+        }
+
+        // Read before evaluating: a write that lands during the lookup leaves the entry stale-stamped.
+        long stamp = newestStamp(layers);
+        Map<ParsedMapPrefix, Resolution> cache = resolutions();
+        Resolution cached = cache.get(parsed);
+        if (cached != null && cached.stamp() == stamp && sameLayers(cached.layers(), layers)) {
+            LookupMetrics.cacheHit();
+            return cached.value();
+        }
+        LookupMetrics.cacheMiss();
+
+        Object value = lookup(layers, key, directGet);
+        if (isImmutableResult(value)) {
+            if (cache.size() >= MAX_RESOLUTIONS) {
+                cache.clear();
+            }
+            cache.put(parsed, new Resolution(layers, stamp, value));
+        }
+        return value;
+    }
+
+    private static Object lookup(NodeMap[] layers, String key, boolean directGet) {
+        Tokenized tokenized = Tokenized.of(key);
         Object returnReplacement = null;
         while (true) {
-            for (NodeMap map : getMapsForResolution(parsed.prefix)) {
+            for (NodeMap map : layers) {
                 if (map == null) {
                     continue;
                 }
 
+                long start = System.nanoTime();
                 Object replacement;
                 if (directGet) {
                     replacement = map.directGet(key);
@@ -1071,6 +1200,7 @@ public abstract class MappingProcessor implements Map<String, Object> {
                 } else {
                     replacement = map.get(tokenized);
                 }
+                LookupMetrics.record(map.getMapType(), System.nanoTime() - start, replacement != null);
 
                 if (replacement != null) {
                     if (replacement instanceof String replacementString
@@ -1095,6 +1225,61 @@ public abstract class MappingProcessor implements Map<String, Object> {
         return returnReplacement;
     }
 
+    /**
+     * Layers for one lookup, in resolution order. Same as {@link #getMapsForResolution(String)}
+     * but built straight into an array, once per lookup rather than once per pass.
+     */
+    private NodeMap[] resolutionLayers(String mapTypes) {
+        if (mapTypes != null && !mapTypes.isBlank()) {
+            return getMapsForResolution(mapTypes).toArray(new NodeMap[0]);
+        }
+        int size = 0;
+        for (MapConfigurations.MapType type : keyOrder) {
+            size += maps.get(type).size();
+        }
+        NodeMap[] layers = new NodeMap[size];
+        int i = 0;
+        for (MapConfigurations.MapType type : keyOrder) {
+            for (NodeMap map : maps.get(type)) {
+                layers[i++] = map;
+            }
+        }
+        return layers;
+    }
+
+    private static long newestStamp(NodeMap[] layers) {
+        long newest = 0;
+        for (NodeMap map : layers) {
+            if (map != null) {
+                newest = Math.max(newest, map.modificationStamp());
+            }
+        }
+        return newest;
+    }
+
+    private static boolean sameLayers(NodeMap[] cached, NodeMap[] current) {
+        if (cached.length != current.length) {
+            return false;
+        }
+        for (int i = 0; i < cached.length; i++) {
+            if (cached[i] != current[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Containers are left out: callers may change a returned node without the map seeing a write.
+    private static boolean isImmutableResult(Object value) {
+        return value == null
+                || value instanceof String
+                || value instanceof Number
+                || value instanceof Boolean
+                || value instanceof Character
+                || value instanceof Enum<?>
+                || value instanceof ValueNode;
+    }
+
     public List<?> get(ElementMatch element) {
         String categoryName = element.category.replaceFirst("(?i:s)$", "");
         boolean noQuotedText = element.defaultText == null || element.defaultText.isNullOrBlank();
@@ -1134,23 +1319,33 @@ public abstract class MappingProcessor implements Map<String, Object> {
         NodeMap phraseMap = getPhraseMap();
         switch (categoryName) {
             case ENTRY_KEY:
-                JsonNode jsonNode = phraseMap.getRoot().get(ROW_KEY);
+                StreamingDataSource streamedEntries = findStreamedRows(phraseMap.readRoot());
+                if (streamedEntries != null) {
+                    try (Stream<JsonNode> rows = streamedEntries.rows()) {
+                        return rows.toList();
+                    }
+                }
+                JsonNode jsonNode = phraseMap.readRoot().get(ROW_KEY);
                 ArrayList<JsonNode> list = new ArrayList<>();
                 if (jsonNode instanceof ArrayNode arrayNode) {
                     arrayNode.forEach(list::add);
                 } else {
-                    phraseMap.getRoot().elements().forEachRemaining(list::add);
+                    phraseMap.readRoot().elements().forEachRemaining(list::add);
                 }
                 return list;
 
             case ROW_KEY:
-                List<JsonNode> rowsArray = findRows(phraseMap.getRoot());
+                StreamingDataSource streamedRows = findStreamedRows(phraseMap.readRoot());
+                if (streamedRows != null) {
+                    return filterGroupedValues(streamedRows.rows(), TableQueries::firstCellText, element, false);
+                }
+                List<JsonNode> rowsArray = findRows(phraseMap.readRoot());
                 List<String> keyList = new ArrayList<>();
                 rowsArray.forEach(row -> keyList.add(row.values().next().get(0).asText()));
                 return filterGroupedValues(keyList, rowsArray, element, false);
 
             case CELL_KEY:
-                List<JsonNode> cellsArray = findCells(phraseMap.getRoot());
+                List<JsonNode> cellsArray = findCells(phraseMap.readRoot());
                 List<String> cellKeys = new ArrayList<>();
                 List<String> cellValues = new ArrayList<>();
                 for (JsonNode cell : cellsArray) {
@@ -1202,7 +1397,7 @@ public abstract class MappingProcessor implements Map<String, Object> {
             return oldValue;
         }
 
-        Tokenized tokenized = new Tokenized(key);
+        Tokenized tokenized = Tokenized.of(key);
 
         if (key.startsWith("`") && key.endsWith("`")) {
             key = key.substring(1, key.length() - 1);
@@ -18,6 +18,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 
 import static io.cucumber.core.runner.GlobalState.getClosestScenarioStepAncestor;
@@ -68,16 +69,35 @@ public class NodeMap extends ValueFormatting {
         this(toObjectNode(multimap));
     }
 
+    /**
+     * Returns the live root. Callers may change it, so this counts as a write. A change made
+     * after later lookups is not seen by their cached results; make it with {@link #update}.
+     */
     public ObjectNode getRoot() {
+        touch();
         return root;
     }
 
+    /** Applies {@code change} to the live root and records the write once it is done. */
+    public <T> T update(Function<ObjectNode, T> change) {
+        try {
+            return change.apply(root);
+        } finally {
+            touch();
+        }
+    }
+
+    /** Records a change made to a node this map holds by reference, see {@link #putReference}. */
+    public void referenceChanged() {
+        touch();
+    }
+
     public Object get(String query) {
-        return new Tokenized(query).get(root);
+        return Tokenized.of(query).get(readRoot());
     }
 
     public Object get(Tokenized query) {
-        Object obj = query.get(root);
+        Object obj = query.get(readRoot());
 
         if (query.returnsWholeCollection) {
             return obj;
@@ -99,33 +119,37 @@ public class NodeMap extends ValueFormatting {
     }
 
     public List<JsonNode> getAsList(String query) {
-        return new Tokenized(query).getList(root);
+        return Tokenized.of(query).getList(readRoot());
     }
 
     public List<JsonNode> getAsList(Tokenized query) {
-        return query.getList(root);
+        return query.getList(readRoot());
     }
 
     public void put(String query, Object value) {
-        new Tokenized(query).put(root, value);
+        Tokenized.of(query).put(root, value);
+        touch();
     }
 
     public void put(Tokenized query, Object value) {
         query.put(root, value);
+        touch();
     }
 
     public void putAsSingleton(String query, Object value) {
         Tokenized.singletonWrite(query).put(root, value);
+        touch();
     }
 
     public void clearValues(String... keys) {
         if (keys == null || keys.length == 0) {
             root.removeAll();
-            return;
+        } else {
+            Arrays.stream(keys)
+                    .filter(Objects::nonNull)
+                    .forEach(root::remove);
         }
-        Arrays.stream(keys)
-                .filter(Objects::nonNull)
-                .forEach(root::remove);
+        touch();
     }
 
     public MapConfigurations.MapType getMapType() {
@@ -135,6 +159,7 @@ public class NodeMap extends ValueFormatting {
     public void setMapType(MapConfigurations.MapType mapType) {
         this.mapType = Objects.requireNonNullElse(mapType, MapConfigurations.MapType.DEFAULT);
         root.set(MAP_TYPE_KEY, toSafeJsonNode(this.mapType));
+        touch();
     }
 
     public Set<MapConfigurations.DataSource> getDataSources() {
@@ -163,18 +188,21 @@ public class NodeMap extends ValueFormatting {
     public void merge(ObjectNode other) {
         if (other != null) {
             root.setAll(other);
+            touch();
         }
     }
 
     public void merge(Map<?, ?> other) {
         if (other != null) {
             root.setAll(toObjectNode(other));
+            touch();
         }
     }
 
     public void merge(LinkedListMultimap<?, ?> other) {
         if (other != null) {
             root.setAll(toObjectNode(other));
+            touch();
         }
     }
 
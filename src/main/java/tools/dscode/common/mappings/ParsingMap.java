@@ -23,7 +23,7 @@ public class ParsingMap extends MappingProcessor {
         // Skip template resolution: configs may contain late-bound placeholders
         // (e.g. <$ScenarioNameAndLine>) that require a running step.
         JsonNode configsNode = FileAndDataParsing.buildJsonFromPath(configsRoot, false);
-        GLOBALS.root.set(configsRoot, configsNode);
+        GLOBALS.putReference(configsRoot, configsNode);
     }
 
     public static ParsingMap getGlobalsParsingmap() {
@@ -65,6 +65,14 @@ public final class QuoteParser extends LinkedHashMap<String, String> {
         delimiterOf.putAll(pass2.delimiterByPlaceholder);
     }
 
+    /** Independent copy of {@code source}: same placeholders, values and masked text. */
+    public QuoteParser(QuoteParser source) {
+        super(source);
+        this.original = source.original;
+        this.masked = source.masked;
+        this.delimiterOf.putAll(source.delimiterOf);
+    }
+
     // Single masking pass over a particular pattern
     private ParsePass applyMaskingPass(String in, Pattern pattern, AtomicInteger n) {
         Matcher m = pattern.matcher(in);
@@ -0,0 +1,354 @@
+package tools.dscode.common.mappings;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static io.cucumber.core.runner.util.TableUtils.ROW_KEY;
+import static tools.dscode.common.mappings.FileAndDataParsing.JSON_MAPPER;
+
+/**
+ * Row-at-a-time view of a large data file, referenced as {@code file:<path>#stream}.
+ * <p>
+ * Unlike regular {@code file:} references, the file is neither size-limited nor parsed into one
+ * tree. Each call to {@link #rows()} reopens it and parses one row at a time, so memory stays
+ * bounded by the rows a caller keeps. Supported formats, chosen by extension:
+ * <ul>
+ *     <li>{@code csv}: RFC 4180. The first record is the header. Quoted fields may contain commas,
+ *     doubled quotes and line breaks. Unquoted fields are trimmed and blank lines are skipped.</li>
+ *     <li>{@code ndjson} / {@code jsonl}: one JSON value per non-blank line.</li>
+ *     <li>{@code json}: a top-level array, read element by element.</li>
+ * </ul>
+ * The path is resolved on the classpath first and then on the file system. Templates in the
+ * file are not resolved, since that would need the whole text in memory.
+ * <p>
+ * In a phrase's data context the source sits under {@code Data Row} as a POJO node, so
+ * {@code Data Row} filtering streams through it.
+ */
+public final class StreamingDataSource {
+
+    public static final String STREAM_SUFFIX = "#stream";
+
+    private final String path;
+    private final String format;
+
+    private StreamingDataSource(String path, String format) {
+        this.path = path;
+        this.format = format;
+    }
+
+    public static boolean isStreamReference(String reference) {
+        return reference != null && reference.trim().endsWith(STREAM_SUFFIX);
+    }
+
+    public static StreamingDataSource of(String reference) {
+        String path = reference.trim();
+        if (path.endsWith(STREAM_SUFFIX)) {
+            path = path.substring(0, path.length() - STREAM_SUFFIX.length()).trim();
+        }
+
+        int dot = path.lastIndexOf('.');
+        String extension = dot < 0 ? "" : path.substring(dot + 1).toLowerCase();
+        String format = switch (extension) {
+            case "csv" -> "csv";
+            case "ndjson", "jsonl" -> "ndjson";
+            case "json" -> "json";
+            default -> throw new IllegalArgumentException(
+                    "Streaming data source '" + path + "' must end in .csv, .ndjson, .jsonl or .json");
+        };
+        return new StreamingDataSource(path, format);
+    }
+
+    public String path() {
+        return path;
+    }
+
+    /**
+     * Opens the file and returns its rows lazily. The stream holds the file open until it is
+     * closed or fully consumed, so callers should use try-with-resources.
+     */
+    public Stream<JsonNode> rows() {
+        BufferedReader reader = open();
+        try {
+            Iterator<JsonNode> iterator = switch (format) {
+                case "csv" -> new CsvRows(reader);
+                case "ndjson" -> new NdjsonRows(reader);
+                default -> new JsonArrayRows(reader, path);
+            };
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                    .onClose(() -> closeQuietly(reader));
+        } catch (RuntimeException e) {
+            closeQuietly(reader);
+            throw e;
+        }
+    }
+
+    /** Field names of the first row, or an empty list when the source has no object rows. */
+    public List<String> headers() {
+        try (Stream<JsonNode> rows = rows()) {
+            return rows.findFirst()
+                    .filter(JsonNode::isObject)
+                    .map(row -> {
+                        List<String> names = new ArrayList<>();
+                        row.fieldNames().forEachRemaining(names::add);
+                        return names;
+                    })
+                    .orElse(List.of());
+        }
+    }
+
+    /** Phrase-map root that exposes this source as the phrase's {@code Data Row} collection. */
+    public ObjectNode toPhraseNode() {
+        ObjectNode node = JSON_MAPPER.createObjectNode();
+        node.putPOJO(ROW_KEY, this);
+        return node;
+    }
+
+    @Override
+    public String toString() {
+        return "file:" + path + STREAM_SUFFIX;
+    }
+
+    private BufferedReader open() {
+        InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(path);
+        try {
+            if (in == null) {
+                Path file = Path.of(path);
+                if (!Files.isRegularFile(file)) {
+                    throw new IllegalArgumentException("Streaming data source not found: " + path);
+                }
+                in = Files.newInputStream(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open streaming data source '" + path + "'", e);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    private static void closeQuietly(Reader reader) {
+        try {
+            reader.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private abstract static class RowIterator implements Iterator<JsonNode> {
+        private JsonNode next;
+        private boolean done;
+
+        abstract JsonNode readNext() throws IOException;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = readNext();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public JsonNode next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            JsonNode row = next;
+            next = null;
+            return row;
+        }
+    }
+
+    private static final class NdjsonRows extends RowIterator {
+        private final BufferedReader reader;
+
+        NdjsonRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        JsonNode readNext() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    return JSON_MAPPER.readTree(line);
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class JsonArrayRows extends RowIterator {
+        private final JsonParser parser;
+
+        JsonArrayRows(Reader reader, String path) {
+            try {
+                parser = JSON_MAPPER.createParser(reader);
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException(
+                            "Streaming JSON source '" + path + "' must contain a top-level array");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        JsonNode readNext() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            return parser.readValueAsTree();
+        }
+    }
+
+    /**
+     * RFC 4180 tokenizer: one record per call, header taken from the first non-blank record.
+     * Records shorter than the header get nulls for the missing columns, as {@code parseCsv} does.
+     */
+    private static final class CsvRows extends RowIterator {
+        private final Reader reader;
+        private final StringBuilder field = new StringBuilder();
+        private List<String> headers;
+        private int pushedBack = -2;
+
+        CsvRows(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        JsonNode readNext() throws IOException {
+            if (headers == null) {
+                List<String> first = readRecord();
+                if (first == null) {
+                    return null;
+                }
+                headers = new ArrayList<>(first.size());
+                for (int c = 0; c < first.size(); c++) {
+                    String key = first.get(c);
+                    headers.add(key == null || key.isBlank() ? "col_" + (c + 1) : key);
+                }
+            }
+
+            List<String> record = readRecord();
+            if (record == null) {
+                return null;
+            }
+
+            ObjectNode row = JSON_MAPPER.createObjectNode();
+            for (int c = 0; c < headers.size(); c++) {
+                String value = c < record.size() ? record.get(c) : null;
+                if (value != null) {
+                    row.put(headers.get(c), value);
+                } else {
+                    row.putNull(headers.get(c));
+                }
+            }
+            return row;
+        }
+
+        private List<String> readRecord() throws IOException {
+            while (true) {
+                int ch = read();
+                if (ch == -1) {
+                    return null;
+                }
+                if (ch == '\r' || ch == '\n') {
+                    continue;
+                }
+                unread(ch);
+                return readFields();
+            }
+        }
+
+        private List<String> readFields() throws IOException {
+            List<String> fields = new ArrayList<>();
+            while (true) {
+                field.setLength(0);
+                boolean quoted = false;
+                int ch = read();
+
+                while (ch == ' ' || ch == '\t') {
+                    ch = read();
+                }
+
+                if (ch == '"') {
+                    quoted = true;
+                    while (true) {
+                        ch = read();
+                        if (ch == -1) {
+                            break;
+                        }
+                        if (ch == '"') {
+                            int following = read();
+                            if (following == '"') {
+                                field.append('"');
+                                continue;
+                            }
+                            ch = following;
+                            break;
+                        }
+                        field.append((char) ch);
+                    }
+                    while (ch == ' ' || ch == '\t') {
+                        ch = read();
+                    }
+                }
+
+                while (ch != -1 && ch != ',' && ch != '\r' && ch != '\n') {
+                    field.append((char) ch);
+                    ch = read();
+                }
+
+                fields.add(quoted ? field.toString() : field.toString().trim());
+
+                if (ch == ',') {
+                    continue;
+                }
+                if (ch == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        unread(following);
+                    }
+                }
+                return fields;
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -2) {
+                int ch = pushedBack;
+                pushedBack = -2;
+                return ch;
+            }
+            return reader.read();
+        }
+
+        private void unread(int ch) {
+            pushedBack = ch;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static tools.dscode.common.mappings.custommappings.ValConverter.valConverter;
 
@@ -28,11 +29,12 @@ public abstract class ValueFormatting {
     }
 
     public Object directGet(String key) {
-        return root.get(key);
+        return readRoot().get(key);
     }
 
     public void directPut(String key, Object value) {
         root.put(key , MAPPER.valueToTree(value));
+        touch();
     }
 
     public static final String NON_SERIALIZABLE_FIELD = "_NonSerializableReferenceID";
@@ -53,6 +55,28 @@ public abstract class ValueFormatting {
         this.root = root;
     }
 
+    // One counter for every map, so a new stamp is always higher than any stamp handed out before it.
+    private static final AtomicLong STAMPS = new AtomicLong();
+    private volatile long stamp = STAMPS.incrementAndGet();
+
+    /**
+     * Increases whenever this map is written, and whenever its live root is handed out for
+     * changes made outside these methods. Stamps come from one counter shared by all maps.
+     */
+    public long modificationStamp() {
+        return stamp;
+    }
+
+    /** Records a write; call it after the root has been changed. */
+    protected void touch() {
+        stamp = STAMPS.incrementAndGet();
+    }
+
+    /** Root that reads evaluate against; subclasses may serve a published copy instead. */
+    protected ObjectNode readRoot() {
+        return root;
+    }
+
     /**
      * Forward conversion:
      * - For safe packages → MAPPER.valueToTree(obj)
@@ -128,6 +152,7 @@ public abstract class ValueFormatting {
     }
 
     public Object getByNormalizedPath(String periodSeparatedPath) {
+        ObjectNode root = readRoot();
         if (root == null || periodSeparatedPath == null) return null;
 
         String path = periodSeparatedPath.trim();
@@ -268,6 +293,7 @@ public abstract class ValueFormatting {
         } else {
             root.set(key, value);
         }
+        touch();
     }
 
 }
@@ -0,0 +1,122 @@
+package tools.dscode.common.mappings.queries;
+
+import com.api.jsonata4java.expressions.Expressions;
+import com.api.jsonata4java.expressions.ParseException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import tools.dscode.common.util.CacheReport;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded, thread-safe caches for compiled NodeMap queries.
+ *
+ * <p>{@link Tokenized} instances are immutable once constructed, so a query
+ * compiled for one lookup can be shared by every NodeMap and thread that reads
+ * or writes the same text. Parsed JSONata {@link Expressions} are cached
+ * separately, keyed by the normalized expression text, because read, list and
+ * selector expressions from different queries frequently normalize to the
+ * same JSONata.</p>
+ *
+ * <p>Parsed expressions are cached per thread: JSONata4Java keeps evaluation
+ * state in the {@link Expressions} instance, so one instance must never be
+ * evaluated by two parallel scenarios at once. Expressions containing a
+ * variable binding ({@code :=}) are never cached at all, because their
+ * bindings would carry over into the next evaluation on the same thread.</p>
+ */
+public final class QueryCache {
+
+    public static final int MAX_QUERIES = 4096;
+    public static final int MAX_EXPRESSIONS = 4096;
+
+    private static final Cache<String, Tokenized> QUERIES = CacheBuilder.newBuilder()
+            .maximumSize(MAX_QUERIES)
+            .recordStats()
+            .build();
+
+    private static final Cache<String, Tokenized> SINGLETON_WRITES = CacheBuilder.newBuilder()
+            .maximumSize(MAX_QUERIES)
+            .recordStats()
+            .build();
+
+    static {
+        CacheReport.register("QueryCache.queries", QUERIES);
+        CacheReport.register("QueryCache.singletonWrites", SINGLETON_WRITES);
+    }
+
+    /** Bumped by {@link #clear()} so every thread drops its expressions on next use. */
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    private static final ThreadLocal<ThreadExpressions> EXPRESSIONS =
+            ThreadLocal.withInitial(ThreadExpressions::new);
+
+    private QueryCache() {
+    }
+
+    static Tokenized query(String query) {
+        if (query == null) {
+            return new Tokenized(query);
+        }
+        Tokenized cached = QUERIES.getIfPresent(query);
+        if (cached == null) {
+            cached = new Tokenized(query);
+            QUERIES.put(query, cached);
+        }
+        return cached;
+    }
+
+    static Tokenized singletonWrite(String query) {
+        if (query == null) {
+            return Tokenized.compileSingletonWrite(query);
+        }
+        Tokenized cached = SINGLETON_WRITES.getIfPresent(query);
+        if (cached == null) {
+            cached = Tokenized.compileSingletonWrite(query);
+            SINGLETON_WRITES.put(query, cached);
+        }
+        return cached;
+    }
+
+    static Expressions expression(String expression) throws ParseException, IOException {
+        if (expression.contains(":=")) {
+            return Expressions.parse(expression);
+        }
+        ThreadExpressions local = EXPRESSIONS.get();
+        int generation = GENERATION.get();
+        if (local.generation != generation) {
+            local.clear();
+            local.generation = generation;
+        }
+        Expressions cached = local.get(expression);
+        if (cached == null) {
+            cached = Expressions.parse(expression);
+            local.put(expression, cached);
+        }
+        return cached;
+    }
+
+    /** Drops every cached query and expression. */
+    public static void clear() {
+        QUERIES.invalidateAll();
+        SINGLETON_WRITES.invalidateAll();
+        GENERATION.incrementAndGet();
+    }
+
+    /** Least-recently-used expressions parsed on one thread. */
+    private static final class ThreadExpressions extends LinkedHashMap<String, Expressions> {
+
+        private int generation = GENERATION.get();
+
+        private ThreadExpressions() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Expressions> eldest) {
+            return size() > MAX_EXPRESSIONS;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package tools.dscode.common.mappings.queries;
 
 import com.api.jsonata4java.expressions.EvaluateException;
-import com.api.jsonata4java.expressions.Expressions;
 import com.api.jsonata4java.expressions.ParseException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -75,8 +74,17 @@ public final class Tokenized {
         this.singletonRoot = singletonRoot;
     }
 
+    /** Returns the shared compiled form of a query, compiling it on first use. */
+    public static Tokenized of(String query) {
+        return QueryCache.query(query);
+    }
+
     /** Creates an explicit singleton write without encoding it in query punctuation. */
     public static Tokenized singletonWrite(String query) {
+        return QueryCache.singletonWrite(query);
+    }
+
+    static Tokenized compileSingletonWrite(String query) {
         return new Tokenized(query, true);
     }
 
@@ -102,6 +110,18 @@ public final class Tokenized {
         return List.of(result);
     }
 
+    /**
+     * Top-level property a write through this query can change, or {@code null}
+     * when the write selects its targets while evaluating.
+     */
+    public String writeRoot() {
+        return writePlan instanceof Direct direct
+                && !direct.steps().isEmpty()
+                && direct.steps().getFirst() instanceof PropertyStep property
+                ? property.name()
+                : null;
+    }
+
     /** Applies this query as a write against a NodeMap root. */
     public void put(ObjectNode root, Object value) {
         if (root == null) {
@@ -128,7 +148,7 @@ public final class Tokenized {
             return null;
         }
         try {
-            return Expressions.parse(expression).evaluate(root);
+            return QueryCache.expression(expression).evaluate(root);
         } catch (ParseException | IOException | EvaluateException ex) {
             return null;
         }
@@ -0,0 +1,66 @@
+package tools.dscode.common.reporting;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the updates of one {@link WorkBook} into at most one background write per interval.
+ * <p>
+ * The first change after a write schedules the next one; further changes before it runs ride
+ * along with it, so a scenario that enters hundreds of cells costs one file write instead of
+ * hundreds. The scheduled write is skipped when nothing changed since the last write. Writes
+ * for all workbooks run one at a time on a single daemon thread, so a write still pending at
+ * JVM exit is dropped; the explicit {@link WorkBook#write()} at the end of the run is the final
+ * flush and cancels anything still scheduled.
+ * <p>
+ * A background failure (typically the file being open in Excel) is held rather than thrown,
+ * since the next write may well succeed. If the final write fails too, the held failure is
+ * attached to its exception as suppressed.
+ */
+final class DebouncedWriter {
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("workbook-writer").daemon().factory());
+
+    private final WorkBook book;
+    private ScheduledFuture<?> pending;
+    private Exception failure;
+
+    DebouncedWriter(WorkBook book) {
+        this.book = book;
+    }
+
+    /** Schedules a write {@code delayMillis} from now unless one is already waiting. */
+    synchronized void schedule(long delayMillis) {
+        if (pending == null) {
+            pending = TIMER.schedule(this::run, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Drops the waiting write, if any, and returns the failure held since the last call. */
+    synchronized Exception cancel() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        Exception held = failure;
+        failure = null;
+        return held;
+    }
+
+    private void run() {
+        synchronized (this) {
+            // Changes made while this write runs schedule the next one.
+            pending = null;
+        }
+        try {
+            book.writeIfChanged();
+        } catch (Exception e) {
+            synchronized (this) {
+                failure = e;
+            }
+        }
+    }
+}
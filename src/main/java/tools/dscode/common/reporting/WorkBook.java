@@ -2,6 +2,8 @@ package tools.dscode.common.reporting;
 
 import org.apache.poi.common.usermodel.HyperlinkType;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.IOException;
@@ -14,6 +16,9 @@ import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
+import static tools.dscode.common.util.GeneralUtils.toLongOrZero;
+import static tools.dscode.common.variables.RunVars.resolveFromVarsOrDefault;
+
 public final class WorkBook extends WorkSheet {
 
     public enum ColumnType { STRING, BOOLEAN, INTEGER, DECIMAL, DATE, DATETIME }
@@ -46,6 +51,24 @@ public final class WorkBook extends WorkSheet {
     private final SheetDefaults globalDefaults = new SheetDefaults();
     private final DateTimeFormatter isoFallback = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
 
+    // Write settings; null means "use the run default" (see WriteDefaults).
+    private Integer streamingRowWindow = null;
+    private Duration writeInterval = null;
+    private DebouncedWriter debouncedWriter = null;
+
+    // Bumped by every put; lets a background write skip when nothing changed.
+    private long changes = 0;
+    private long writtenChanges = -1;
+    private final Object writeLock = new Object();
+
+    // Resolved on first use, once RunVars is available.
+    private static final class WriteDefaults {
+        static final int ROW_WINDOW = (int) Math.max(0, Math.min(Integer.MAX_VALUE,
+                toLongOrZero(resolveFromVarsOrDefault("pkb_reportRowWindow", 0))));
+        static final Duration WRITE_INTERVAL = Duration.ofMillis(Math.max(0,
+                toLongOrZero(resolveFromVarsOrDefault("pkb_reportWriteIntervalMillis", 0))));
+    }
+
     // ---------------- constructors ----------------
 
     public WorkBook(Path outputFile) {
@@ -194,6 +217,35 @@ public final class WorkBook extends WorkSheet {
         return this;
     }
 
+    /**
+     * Writes the file through a streaming SXSSF workbook that keeps only the last
+     * {@code rowWindow} rows of each sheet in memory; 0 or less uses a full XSSFWorkbook.
+     * Defaults to {@code pkb_reportRowWindow} (0).
+     */
+    public synchronized WorkBook setStreamingRowWindow(int rowWindow) {
+        this.streamingRowWindow = Math.max(0, rowWindow);
+        return this;
+    }
+
+    /**
+     * Writes the file in the background at most once per {@code interval} while data is being
+     * put, instead of only when {@link #write()} is called; null or zero turns this off.
+     * Defaults to {@code pkb_reportWriteIntervalMillis} (0).
+     */
+    public synchronized WorkBook setWriteInterval(Duration interval) {
+        this.writeInterval = (interval == null || interval.isNegative()) ? Duration.ZERO : interval;
+        if (writeInterval.isZero() && debouncedWriter != null) debouncedWriter.cancel();
+        return this;
+    }
+
+    private int rowWindow() {
+        return (streamingRowWindow != null) ? streamingRowWindow : WriteDefaults.ROW_WINDOW;
+    }
+
+    private Duration writeInterval() {
+        return (writeInterval != null) ? writeInterval : WriteDefaults.WRITE_INTERVAL;
+    }
+
     // =========================================================
     // Sheet-level helpers (used by WorkSheet)
     // =========================================================
@@ -287,6 +339,9 @@ public final class WorkBook extends WorkSheet {
                 s.inferredTypes.put(header, ColumnType.STRING);
             }
         }
+
+        changes++;
+        scheduleWrite();
     }
 
     synchronized void putRowInternal(String sheet, String rowKey, Map<String, ?> valuesByHeader) {
@@ -301,15 +356,59 @@ public final class WorkBook extends WorkSheet {
     // Write
     // =========================================================
 
+    private void scheduleWrite() {
+        Duration interval = writeInterval();
+        if (interval.isZero()) return;
+        if (debouncedWriter == null) debouncedWriter = new DebouncedWriter(this);
+        debouncedWriter.schedule(interval.toMillis());
+    }
+
+    /**
+     * Writes the whole workbook now, replacing the file. Any background write still waiting
+     * is cancelled, since this one includes its changes.
+     */
     public void write() throws IOException {
-        final List<SheetSnapshot> snapshots;
+        DebouncedWriter writer;
         synchronized (this) {
-            if (sheets.isEmpty()) {
-                ensureSheet(defaultSheetName);
+            writer = debouncedWriter;
+        }
+        Exception backgroundFailure = (writer == null) ? null : writer.cancel();
+        try {
+            write(false);
+        } catch (IOException | RuntimeException e) {
+            if (backgroundFailure != null) e.addSuppressed(backgroundFailure);
+            throw e;
+        }
+    }
+
+    /** Background write: does nothing when no data was put since the last write. */
+    void writeIfChanged() throws IOException {
+        write(true);
+    }
+
+    private void write(boolean onlyIfChanged) throws IOException {
+        // One write at a time, so an older snapshot can never replace a newer file.
+        synchronized (writeLock) {
+            final List<SheetSnapshot> snapshots;
+            final long snapshotChanges;
+            final int rowWindow;
+            synchronized (this) {
+                if (onlyIfChanged && changes == writtenChanges) return;
+                if (sheets.isEmpty()) {
+                    ensureSheet(defaultSheetName);
+                }
+                snapshots = snapshotAllSheets();
+                snapshotChanges = changes;
+                rowWindow = rowWindow();
+            }
+            writeFile(snapshots, rowWindow);
+            synchronized (this) {
+                writtenChanges = snapshotChanges;
             }
-            snapshots = snapshotAllSheets();
         }
+    }
 
+    private void writeFile(List<SheetSnapshot> snapshots, int rowWindow) throws IOException {
         Path target = outputFile.toAbsolutePath();
         Path parent = target.getParent();
         if (parent != null) Files.createDirectories(parent);
@@ -319,7 +418,9 @@ public final class WorkBook extends WorkSheet {
         Path tmp = Files.createTempFile(parent, baseName + ".", ".tmp");
 
         try {
-            try (Workbook wb = new XSSFWorkbook()) {
+            // SXSSF flushes rows beyond the window to compressed temp files as they are created;
+            // closing the workbook deletes them.
+            try (Workbook wb = (rowWindow > 0) ? new SXSSFWorkbook(null, rowWindow, true) : new XSSFWorkbook()) {
                 for (SheetSnapshot s : snapshots) writeOneSheet(wb, s);
                 try (OutputStream out = Files.newOutputStream(tmp)) {
                     wb.write(out);
@@ -360,6 +461,13 @@ public final class WorkBook extends WorkSheet {
         final String rowKey;
         final LinkedHashMap<String, Object> values = new LinkedHashMap<>();
         RowData(String rowKey) { this.rowKey = rowKey; }
+
+        /** Detached copy, so a snapshot can be written while puts continue. */
+        RowData copy() {
+            RowData out = new RowData(rowKey);
+            out.values.putAll(values);
+            return out;
+        }
     }
 
     private static final class SortSpec {
@@ -513,6 +621,7 @@ public final class WorkBook extends WorkSheet {
             List<String> headers = getFinalHeaderOrder(s);
             Map<String, ColumnType> types = computeFinalTypes(s, headers);
             List<RowData> orderedRows = getFinalRowOrder(s, headers, types);
+            orderedRows.replaceAll(RowData::copy);
 
             boolean includeRowKeyColumn = s.includeRowKeyColumn;
             String rowKeyHeaderName = s.rowKeyHeaderName;
@@ -581,6 +690,9 @@ public final class WorkBook extends WorkSheet {
         DataFormat dataFormat = wb.createDataFormat();
         Sheet sheet = wb.createSheet(snap.sheetName);
 
+        // Streamed rows are gone by the time columns are sized, so measure them as they are flushed
+        if (snap.autoSizeColumns && sheet instanceof SXSSFSheet streamed) streamed.trackAllColumnsForAutoSizing();
+
         // Styles
         CellStyle headerStyle = wb.createCellStyle();
         Font headerFont = wb.createFont();
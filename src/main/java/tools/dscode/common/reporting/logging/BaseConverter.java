@@ -22,6 +22,7 @@ public abstract class BaseConverter {
     private final AtomicBoolean runCompleteStarted = new AtomicBoolean(false);
     private final CompletableFuture<Void> scenarioCleanupFuture = new CompletableFuture<>();
     private final CompletableFuture<Void> runCompleteFuture = new CompletableFuture<>();
+    private final ConverterDispatcher dispatcher = ConverterDispatcher.ENABLED ? new ConverterDispatcher(this) : null;
 
 
     /**
@@ -110,9 +111,14 @@ public abstract class BaseConverter {
 
     /**
      * Closes this converter instance (idempotent).
+     * <p>
+     * With asynchronous dispatch, waits for every queued callback to run before {@link #onClose()}.
      */
     public final BaseConverter close() {
         if (closed.compareAndSet(false, true)) {
+            if (dispatcher != null) {
+                dispatcher.drained().join();
+            }
             onClose();
         }
         return this;
@@ -121,10 +127,11 @@ public abstract class BaseConverter {
     /**
      * Starts this converter's per-scenario cleanup/completion phase once and returns
      * a future that completes when the converter no longer needs scenario resources.
+     * Queued callbacks are flushed first.
      */
     public final CompletableFuture<Void> cleanupScenario() {
         if (scenarioCleanupStarted.compareAndSet(false, true)) {
-            completeFromHook(scenarioCleanupFuture, this::onScenarioCleanup);
+            completeAfterFlush(scenarioCleanupFuture, this::onScenarioCleanup);
         }
         return scenarioCleanupFuture;
     }
@@ -132,14 +139,37 @@ public abstract class BaseConverter {
     /**
      * Starts this converter's run-level completion phase once and returns a future
      * that completes when run-level converter work has finished.
+     * Queued callbacks are flushed first.
      */
     public final CompletableFuture<Void> completeRun() {
         if (runCompleteStarted.compareAndSet(false, true)) {
-            completeFromHook(runCompleteFuture, this::onRunComplete);
+            completeAfterFlush(runCompleteFuture, this::onRunComplete);
         }
         return runCompleteFuture;
     }
 
+    /**
+     * Returns a future that completes once every callback delivered so far has run.
+     * <p>
+     * Completes immediately unless asynchronous dispatch ({@code pkb_asyncReporting}) is enabled.
+     * Fails with the first callback failure since the previous flush.
+     */
+    public final CompletableFuture<Void> flush() {
+        return dispatcher == null ? CompletableFuture.completedFuture(null) : dispatcher.flush();
+    }
+
+    /**
+     * Runs a callback for this converter now or, with asynchronous dispatch, queues it behind
+     * the callbacks already delivered.
+     */
+    final void deliver(Runnable callback) {
+        if (dispatcher == null) {
+            callback.run();
+        } else {
+            dispatcher.dispatch(callback);
+        }
+    }
+
     public final boolean isClosed() {
         return closed.get();
     }
@@ -169,6 +199,22 @@ public abstract class BaseConverter {
         CompletableFuture<Void> call();
     }
 
+    private void completeAfterFlush(CompletableFuture<Void> target, CompletionHook hook) {
+        flush().whenComplete((ignored, flushFailure) -> {
+            CompletableFuture<Void> hooked = new CompletableFuture<>();
+            completeFromHook(hooked, hook);
+
+            hooked.whenComplete((ignoredToo, hookFailure) -> {
+                Throwable failure = flushFailure != null ? unwrapCompletionFailure(flushFailure) : hookFailure;
+                if (failure == null) {
+                    target.complete(null);
+                } else {
+                    target.completeExceptionally(failure);
+                }
+            });
+        });
+    }
+
     private static void completeFromHook(CompletableFuture<Void> target, CompletionHook hook) {
         try {
             CompletableFuture<Void> source = hook.call();
@@ -0,0 +1,142 @@
+package tools.dscode.common.reporting.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static tools.dscode.common.evaluations.AviatorUtil.isTruthy;
+import static tools.dscode.common.variables.RunVars.resolveFromVarsOrDefault;
+
+/**
+ * Runs one converter's callbacks off the logging thread.
+ * <p>
+ * Callers add callbacks to a bounded queue and return straight away. A single drain task per
+ * converter takes callbacks off the queue in batches and runs them in queue order. Events a
+ * scenario thread emits therefore reach the converter in the order they were logged, and the
+ * converter never sees two callbacks at once. The drain task runs on a virtual thread and
+ * ends when the queue is empty, so idle converters hold no thread. If a converter falls
+ * {@link #CAPACITY} callbacks behind, callers wait for room. A callback gets a read-only copy of
+ * the entry and its ancestors taken when the event was logged, so it sees the entry as it was
+ * then, whatever the logging thread has changed since. The copy has no children.
+ * <p>
+ * {@link #flush()} queues a barrier that completes once every earlier callback has run. A
+ * callback failure is held and fails the next flush, so it shows up at scenario cleanup
+ * instead of being lost on the drain thread.
+ * <p>
+ * Enable with {@code pkb_asyncReporting=true}.
+ */
+final class ConverterDispatcher {
+
+    static final boolean ENABLED = isTruthy(resolveFromVarsOrDefault("pkb_asyncReporting", false));
+
+    static final int CAPACITY = 4096;
+    static final int BATCH_SIZE = 256;
+
+    private static final ExecutorService DRAINERS =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("converter-dispatch-", 0).factory());
+
+    private final BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(CAPACITY);
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final String converterName;
+    private volatile Thread drainThread;
+
+    ConverterDispatcher(BaseConverter converter) {
+        this.converterName = converter.getClass().getName();
+    }
+
+    void dispatch(Runnable callback) {
+        if (Thread.currentThread() == drainThread) {
+            // A callback logging back into the same converter runs in place, as it did when
+            // dispatch was synchronous; queueing it could wait on this very thread.
+            run(callback);
+            return;
+        }
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(callback);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        scheduleDrain();
+    }
+
+    /**
+     * Returns a future that completes once every callback queued before this call has run,
+     * failing with the first callback failure since the previous flush.
+     */
+    CompletableFuture<Void> flush() {
+        return barrier(true);
+    }
+
+    /**
+     * Like {@link #flush()}, but never fails; a held callback failure is left for the next flush.
+     */
+    CompletableFuture<Void> drained() {
+        return barrier(false);
+    }
+
+    private CompletableFuture<Void> barrier(boolean reportFailure) {
+        CompletableFuture<Void> barrier = new CompletableFuture<>();
+        dispatch(() -> {
+            Throwable t = reportFailure ? failure.getAndSet(null) : null;
+            if (t == null) {
+                barrier.complete(null);
+            } else {
+                barrier.completeExceptionally(t);
+            }
+        });
+        return barrier;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            DRAINERS.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        drainThread = Thread.currentThread();
+        List<Runnable> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (queue.drainTo(batch, BATCH_SIZE) > 0) {
+                for (Runnable callback : batch) {
+                    run(callback);
+                }
+                batch.clear();
+            }
+        } finally {
+            drainThread = null;
+            draining.set(false);
+        }
+
+        // A callback queued after the last drainTo but before draining was cleared saw a
+        // drain already running and did not schedule one.
+        if (!queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void run(Runnable callback) {
+        try {
+            callback.run();
+        } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+            CleanupTrace.printThrowable("[ConverterDispatcher] THROWABLE: " + converterName, t);
+        }
+    }
+}
@@ -32,14 +32,21 @@ public class Entry {
     protected Map<String, AtomicInteger> typeCounts = new ConcurrentHashMap<>();
     protected Map<String, AtomicInteger> typeFlatCounts = new ConcurrentHashMap<>();;
 
-    private static final Object THREAD_SAFE_LOCK = new Object();
+    private static final ThreadLocal<HeldLocks> HELD_LOCKS = ThreadLocal.withInitial(HeldLocks::new);
+
+    /**
+     * Guards {@link #threadSafe()} and {@link #sharedChildren()} entries. One lock per tree,
+     * shared by the root and all its descendants, so parallel scenarios only contend on
+     * trees they actually share, such as the global run log.
+     */
+    private final Object treeLock;
 
     private volatile boolean inheritedDefaultsApplied;
     private volatile boolean includeInPassFailSummary = true;
     private volatile boolean threadSafe;
     private volatile boolean sharedChildren;
 
-    public final String id = UUID.randomUUID().toString();
+    public final String id;
     public final Entry parent;
     public final long seq;
     public final int nestingLevel;
@@ -51,26 +58,61 @@ public class Entry {
     public volatile Status status;
     public volatile Level level;
 
-    public final Map<String, Object> fields = new LinkedHashMap<>();
-    public final List<String> tags = new ArrayList<>();
-    public final List<Attachment> attachments = new ArrayList<>();
-    public final List<Entry> children = new ArrayList<>();
+    public final Map<String, Object> fields;
+    public final List<String> tags;
+    public final List<Attachment> attachments;
+    public final List<Entry> children;
 
     private final List<BaseConverter> converters = new CopyOnWriteArrayList<>();
     private final AtomicLong seqGen;
 
     private Entry(String text, Entry parent, AtomicLong seqGen, boolean threadSafe) {
+        this.id = UUID.randomUUID().toString();
+        this.fields = new LinkedHashMap<>();
+        this.tags = new ArrayList<>();
+        this.attachments = new ArrayList<>();
+        this.children = new ArrayList<>();
         this.text = text.replaceAll(BOOK_END, "");
         this.parent = parent;
         this.seqGen = seqGen;
         this.threadSafe = threadSafe;
         this.seq = seqGen.incrementAndGet();
+        this.treeLock = parent == null ? new Object() : parent.treeLock;
         this.nestingLevel = parent == null
                 ? 0
                 : parent.nestingLevel + 1;
 
     }
 
+    /**
+     * Read-only copy of {@code source} as it is now, below {@code parent}, which is a copy of
+     * the source's parent. Children are not copied and the copy has no converters.
+     */
+    private Entry(Entry source, Entry parent) {
+        this.id = source.id;
+        this.parent = parent;
+        this.seqGen = source.seqGen;
+        this.seq = source.seq;
+        this.nestingLevel = source.nestingLevel;
+        this.treeLock = parent == null ? new Object() : parent.treeLock;
+        this.text = source.text;
+        this.startedAt = source.startedAt;
+        this.stoppedAt = source.stoppedAt;
+        this.timestampedAt = source.timestampedAt;
+        this.status = source.status;
+        this.level = source.level;
+        this.count = source.count;
+        this.flatCount = source.flatCount;
+        this.nestedCounts = source.nestedCounts;
+        this.normalizedType = source.normalizedType;
+        this.includeInPassFailSummary = source.includeInPassFailSummary;
+        this.inheritedDefaultsApplied = true;
+        this.fields = Collections.unmodifiableMap(new LinkedHashMap<>(source.fields));
+        this.tags = Collections.unmodifiableList(new ArrayList<>(source.tags));
+        this.attachments = Collections.unmodifiableList(new ArrayList<>(source.attachments));
+        this.children = List.of();
+    }
+
     public static Entry of(String text) {
         return new Entry(text, null, new AtomicLong(), false);
     }
@@ -377,7 +419,7 @@ public class Entry {
             String appendedText =  texts.length == 0 ? "" : ": "+  String.join(", ", texts);
             print(Entry.of("STARTED: " + safe(text) + appendedText).level(Level.DEBUG), LEVEL);
             startedAt = at;
-            emit((scope, converter) -> converter.onStart(scope, this));
+            emit((scope, entry, converter) -> converter.onStart(scope, entry));
             return this;
         });
     }
@@ -389,7 +431,7 @@ public class Entry {
     public Entry timestamp(Instant at) {
         return guarded(() -> {
             timestampedAt = at;
-            emit((scope, converter) -> converter.onTimestamp(scope, this));
+            emit((scope, entry, converter) -> converter.onTimestamp(scope, entry));
             return this;
         });
     }
@@ -398,7 +440,7 @@ public class Entry {
         return guarded(() -> {
             print(Entry.of("STOPPED: " + safe(text)).level(Level.DEBUG), LEVEL);
             stoppedAt = Instant.now();
-            emit((scope, converter) -> converter.onStop(scope, this));
+            emit((scope, entry, converter) -> converter.onStop(scope, entry));
             return this;
         });
     }
@@ -408,7 +450,7 @@ public class Entry {
             this.status = status;
             print(Entry.of("STOPPED: " + safe(text)).level(Level.INFO), LEVEL);
             stoppedAt = Instant.now();
-            emit((scope, converter) -> converter.onStop(scope, this));
+            emit((scope, entry, converter) -> converter.onStop(scope, entry));
             return this;
         });
     }
@@ -460,6 +502,7 @@ public class Entry {
     /**
      * Starts the per-scenario cleanup/completion phase for all converters attached
      * to this entry and returns a future that completes when all of them complete.
+     * Each converter first runs every callback still queued for it.
      */
     public CompletableFuture<Void> cleanupScenarioConverters() {
         List<CompletableFuture<Void>> futures = convertersSnapshot().stream()
@@ -473,6 +516,7 @@ public class Entry {
      * Starts the run-level completion phase for all converters attached to this
      * entry.  Most callers should use a global registry for run-level completion,
      * but this is useful when a scenario/root entry owns all its converter instances.
+     * Each converter first runs every callback still queued for it.
      */
     public CompletableFuture<Void> completeRunConverters() {
         List<CompletableFuture<Void>> futures = convertersSnapshot().stream()
@@ -519,9 +563,7 @@ public class Entry {
         Entry entry = new Entry(text, this, seqGen, threadSafe);
 
         if (threadSafe || sharedChildren) {
-            synchronized (THREAD_SAFE_LOCK) {
-                children.add(entry);
-            }
+            locked(() -> children.add(entry));
         } else {
             children.add(entry);
         }
@@ -531,10 +573,11 @@ public class Entry {
 
     private void emit(EmitCall call) {
         if (threadSafe) {
-            synchronized (THREAD_SAFE_LOCK) {
+            locked(() -> {
                 applyInheritedDefaultsToThisEntry();
                 emitUnsafe(call);
-            }
+                return null;
+            });
         } else {
             applyInheritedDefaultsToThisEntry();
             emitUnsafe(call);
@@ -543,13 +586,75 @@ public class Entry {
 
     private void emitUnsafe(EmitCall call) {
         IdentityHashMap<BaseConverter, Entry> seen = new IdentityHashMap<>();
+        IdentityHashMap<Entry, Entry> copies = null;
 
         for (Entry n = this; n != null; n = n.parent) {
             for (BaseConverter converter : n.converters) {
                 if (seen.putIfAbsent(converter, n) == null) {
-                    call.apply(n, converter);
+                    if (ConverterDispatcher.ENABLED) {
+                        // The callback runs later on the converter's own thread, so it gets this
+                        // entry and its ancestors as they are now rather than the live entries.
+                        if (copies == null) {
+                            copies = copyWithAncestors();
+                        }
+                        Entry scope = copies.get(n);
+                        Entry entry = copies.get(this);
+                        deliver(converter, () -> call.apply(scope, entry, converter));
+                    } else {
+                        call.apply(n, this, converter);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Read-only copies of this entry and each of its ancestors, keyed by the original. */
+    IdentityHashMap<Entry, Entry> copyWithAncestors() {
+        List<Entry> chain = new ArrayList<>();
+        for (Entry n = this; n != null; n = n.parent) {
+            chain.add(n);
+        }
+
+        IdentityHashMap<Entry, Entry> copies = new IdentityHashMap<>();
+        Entry copiedParent = null;
+        for (Entry original : chain.reversed()) {
+            copiedParent = new Entry(original, copiedParent);
+            copies.put(original, copiedParent);
+        }
+        return copies;
+    }
+
+    /**
+     * Hands a callback to an asynchronous converter. While this thread holds any tree lock the
+     * hand-off is deferred until the last one is released: a full converter queue must never be
+     * waited on under a lock, because the converter's own callbacks may need it.
+     */
+    private static void deliver(BaseConverter converter, Runnable callback) {
+        HeldLocks held = HELD_LOCKS.get();
+        if (held.depth > 0) {
+            held.deferred.add(() -> converter.deliver(callback));
+        } else {
+            converter.deliver(callback);
+        }
+    }
+
+    private <T> T locked(Supplier<T> supplier) {
+        HeldLocks held = HELD_LOCKS.get();
+        try {
+            synchronized (treeLock) {
+                held.depth++;
+                try {
+                    return supplier.get();
+                } finally {
+                    held.depth--;
                 }
             }
+        } finally {
+            if (held.depth == 0 && !held.deferred.isEmpty()) {
+                List<Runnable> pending = List.copyOf(held.deferred);
+                held.deferred.clear();
+                pending.forEach(Runnable::run);
+            }
         }
     }
 
@@ -666,16 +771,19 @@ public class Entry {
 
     private <T> T guarded(Supplier<T> supplier) {
         if (threadSafe) {
-            synchronized (THREAD_SAFE_LOCK) {
-                return supplier.get();
-            }
+            return locked(supplier);
         }
 
         return supplier.get();
     }
 
+    private static final class HeldLocks {
+        int depth;
+        final List<Runnable> deferred = new ArrayList<>();
+    }
+
     @FunctionalInterface
     private interface EmitCall {
-        void apply(Entry scope, BaseConverter converter);
+        void apply(Entry scope, Entry entry, BaseConverter converter);
     }
 }
\ No newline at end of file
@@ -1,8 +1,8 @@
 package tools.dscode.common.seleniumextensions;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.openqa.selenium.*;
-import org.openqa.selenium.NoSuchElementException;
 import tools.dscode.common.domoperations.ExecutionDictionary;
 import tools.dscode.common.treeparsing.parsedComponents.ElementMatch;
 import tools.dscode.common.assertions.ValueWrapper;
@@ -14,7 +14,6 @@ import static tools.dscode.common.assertions.ValueWrapper.createValueWrapper;
 import static tools.dscode.common.domoperations.LeanWaits.safeWaitForElementReady;
 import static tools.dscode.common.domoperations.LeanWaits.safeWaitForPageReady;
 import static tools.dscode.common.domoperations.SeleniumUtils.intersection;
-import static tools.dscode.common.domoperations.SeleniumUtils.safeDomAttribute;
 import static tools.dscode.common.domoperations.SeleniumUtils.safeDomProperty;
 import static tools.dscode.common.domoperations.SeleniumUtils.union;
 import static tools.dscode.common.domoperations.elementstates.BinaryStateConditions.isCheckedSelectedOrOn;
@@ -35,8 +34,9 @@ public class ElementWrapper implements WebElement, WrapsElement {
     private final WebDriver driver;
     public WebElement element;
     public ObjectNode attributeSnapshot;
-    private final String xpath1;
-    private final String xpath2;
+    private List<ObjectNode> locatorHints = List.of();
+    private String xpath1;
+    private String xpath2;
     public final ElementMatch elementMatch;
     public final Integer matchIndex;
 
@@ -48,6 +48,99 @@ public class ElementWrapper implements WebElement, WrapsElement {
             "textContent"
     );
 
+    /**
+     * Relocation XPath recipes, in the order they are tried by {@link #refindUniqueElement()}:
+     * the maximum number of ancestors to inspect, and attribute groups in priority order.
+     */
+    private static final List<List<Object>> XPATH_PLANS = List.of(
+            List.of(10, List.of(
+                    List.of("id", "data-user-id"),
+                    List.of("name", "title"),
+                    List.of("role", "aria-label", "class"))),
+            List.of(10, List.of(
+                    List.of("href", "target", "src", "index")))
+    );
+
+    /**
+     * Captures everything the wrapper needs from a list of elements in a single round trip:
+     * tag, display text, selected child values, attributes, sibling indexes, and the
+     * descendant/ancestor attribute hints used to build relocation XPaths.
+     */
+    private static final String SNAPSHOT_SCRIPT = """
+            var els = arguments[0], plans = arguments[1], out = [];
+            function attr(el, name) { var v = el.getAttribute(name); return v == null ? '' : v; }
+            function hints(el, plan) {
+              var maxAnc = plan[0], groups = plan[1], desc = null, anc = null, tags = null;
+              descLoop: for (var g = 0; g < groups.length; g++) {
+                for (var a = 0; a < groups[g].length; a++) {
+                  var own = attr(el, groups[g][a]);
+                  if (own) { desc = [groups[g][a], own]; break descLoop; }
+                }
+                var d = el.querySelector(groups[g].map(function (n) { return '[' + CSS.escape(n) + ']'; }).join(','));
+                if (!d) continue;
+                for (var b = 0; b < groups[g].length; b++) {
+                  var dv = attr(d, groups[g][b]);
+                  if (dv) { desc = [groups[g][b], dv]; break descLoop; }
+                }
+              }
+              if (!desc) {
+                tags = [];
+                for (var c = el.firstElementChild; c; c = c.nextElementSibling) {
+                  var t = c.tagName.toLowerCase();
+                  if (tags.indexOf(t) < 0) tags.push(t);
+                }
+              }
+              ancLoop: for (var h = 0; h < groups.length; h++) {
+                var cur = el, checked = 0;
+                while (maxAnc <= 0 || checked < maxAnc) {
+                  cur = cur.parentElement;
+                  if (!cur) break;
+                  checked++;
+                  for (var k = 0; k < groups[h].length; k++) {
+                    var av = attr(cur, groups[h][k]);
+                    if (av) { anc = [groups[h][k], av]; break ancLoop; }
+                  }
+                }
+              }
+              return {descendant: desc, ancestor: anc, childTags: tags};
+            }
+            for (var i = 0; i < els.length; i++) {
+              var el = els[i], tag = (el.tagName || '').toLowerCase() || '*', text;
+              if (tag === 'textarea' || tag === 'input') {
+                text = el.getAttribute('value');
+              } else if (tag === 'select') {
+                text = el.options[el.selectedIndex] ? el.options[el.selectedIndex].text : '';
+              } else {
+                text = el.innerText;
+                if (!text) text = el.getAttribute('value');
+              }
+              var attrs = {};
+              for (var j = 0; j < el.attributes.length; j++) attrs[el.attributes[j].name] = el.attributes[j].value;
+              var selectedCount = 0, childValue = '';
+              for (var s = el.firstElementChild; s; s = s.nextElementSibling) {
+                if (!s.hasAttribute('selected')) continue;
+                selectedCount++;
+                var sv = s.getAttribute('value');
+                childValue += sv != null ? sv : (s.innerText || '').trim();
+              }
+              var siblingIndex = 0, sameTagIndex = 0;
+              for (var p = el.previousElementSibling; p; p = p.previousElementSibling) {
+                siblingIndex++;
+                if (p.tagName === el.tagName) sameTagIndex++;
+              }
+              out.push({
+                tagName: tag,
+                textContent: text == null ? '' : text,
+                childValue: selectedCount ? childValue : null,
+                attributes: attrs,
+                siblingIndex: siblingIndex,
+                sameTagIndex: sameTagIndex,
+                locators: plans.map(function (plan) { return hints(el, plan); })
+              });
+            }
+            return out;
+            """;
+
     public static List<ElementWrapper> getWrappedElements(ElementMatch elementMatch) {
         if (elementMatch.parentPhrase.contextElement != null)
             return Collections.singletonList(elementMatch.parentPhrase.contextElement);
@@ -58,31 +151,57 @@ public class ElementWrapper implements WebElement, WrapsElement {
         List<WebElement> elements = elementMatch.contextWrapper.getElements(searchContext);
         boolean singleElement = elementMatch.selectionType.isBlank();
         logTrace("getWrappedElements-elements: " + elements.size());
+        List<WebElement> targets = singleElement && elements.size() > 1 ? elements.subList(0, 1) : elements;
+        List<Map<String, Object>> snapshots = captureSnapshots(elementMatch.parentPhrase.getDriver(), targets);
         int index = 0;
-        for (WebElement element : elements) {
-            ElementWrapper ew = new ElementWrapper(element, elementMatch, ++index);
+        for (WebElement element : targets) {
+            ElementWrapper ew = snapshots == null
+                    ? new ElementWrapper(element, elementMatch, index + 1)
+                    : new ElementWrapper(element, elementMatch, index + 1, snapshots.get(index));
             elementWrappers.add(ew);
-            if (singleElement) break;
+            index++;
         }
         logTrace("getWrappedElements-elementWrappers: " + elementWrappers.size());
         return elementWrappers;
     }
 
+    /**
+     * Snapshots every element in one script call. Returns {@code null} when the batch cannot be
+     * taken (for example one element went stale), so callers fall back to per-element snapshots.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> captureSnapshots(WebDriver driver, List<WebElement> elements) {
+        if (elements.isEmpty() || !(driver instanceof JavascriptExecutor js)) {
+            return null;
+        }
+        try {
+            Object result = js.executeScript(SNAPSHOT_SCRIPT, elements, XPATH_PLANS);
+            if (result instanceof List<?> list && list.size() == elements.size()) {
+                return (List<Map<String, Object>>) list;
+            }
+        } catch (WebDriverException e) {
+            logTrace("captureSnapshots: batch snapshot failed, falling back to per-element snapshots: " + e.getMessage());
+        }
+        return null;
+    }
+
     ElementWrapper(WebElement element, ElementMatch elementMatch, Integer matchIndex) {
+        this(element, elementMatch, matchIndex, null);
+    }
+
+    private ElementWrapper(WebElement element, ElementMatch elementMatch, Integer matchIndex, Map<String, Object> snapshot) {
         this.driver = elementMatch.parentPhrase.getDriver();
         this.matchIndex = matchIndex;
         this.elementMatch = elementMatch;
         this.element = Objects.requireNonNull(element, "element must not be null");
 
-        takeSnapshot(this.element);
+        if (snapshot == null) {
+            takeSnapshot(this.element);
+        } else {
+            applySnapshot(snapshot);
+        }
         if (debugFlags.contains("elementsnapshot"))
             System.out.println(attributeSnapshot.toPrettyString());
-        this.xpath1 = buildXPathForElement(driver, element, 10, 30,
-                List.of("id", "data-user-id"),
-                List.of("name", "title"),
-                List.of("role", "aria-label", "class"));
-        this.xpath2 = buildXPathForElement(driver, element, 10, 15,
-                List.of("href", "target", "src", "index"));
     }
 
     public void takeSnapshot() {
@@ -94,84 +213,54 @@ public class ElementWrapper implements WebElement, WrapsElement {
 
     @SuppressWarnings("unchecked")
     private void takeSnapshot(WebElement snapshotElement) {
-        ObjectNode snapshot = MAPPER.createObjectNode();
-        JavascriptExecutor js = javascriptExecutor();
+        Object result = javascriptExecutor().executeScript(SNAPSHOT_SCRIPT, List.of(snapshotElement), XPATH_PLANS);
+        if (!(result instanceof List<?> list) || list.size() != 1) {
+            throw new WebDriverException("Element snapshot script returned an unexpected result: " + result);
+        }
+        applySnapshot((Map<String, Object>) list.getFirst());
+    }
 
-        String tagName = safeTagName(snapshotElement);
-        snapshot.put("tagName", tagName);
+    @SuppressWarnings("unchecked")
+    private void applySnapshot(Map<String, Object> raw) {
+        ObjectNode snapshot = MAPPER.createObjectNode();
+        snapshot.put("tagName", String.valueOf(raw.get("tagName")));
+        snapshot.put("textContent", String.valueOf(raw.get("textContent")));
+        if (raw.get("childValue") != null) {
+            snapshot.put("childValue", String.valueOf(raw.get("childValue")));
+        }
+        ObjectNode attrNode = snapshot.putObject("attributes");
+        if (raw.get("attributes") instanceof Map<?, ?> attrs) {
+            attrs.forEach((name, value) -> attrNode.put(String.valueOf(name), value == null ? null : String.valueOf(value)));
+        }
+        snapshot.put("siblingIndex", ((Number) raw.get("siblingIndex")).intValue());
+        snapshot.put("sameTagIndex", ((Number) raw.get("sameTagIndex")).intValue());
 
-        String textContent;
-        if ("textarea".equals(tagName) || "input".equals(tagName)) {
-            textContent = safeDomAttribute(snapshotElement, "value");
-        } else if ("select".equals(tagName)) {
-            textContent = (String) js.executeScript(
-                    "var sel = arguments[0]; return sel.options[sel.selectedIndex] ? sel.options[sel.selectedIndex].text : '';",
-                    snapshotElement
-            );
-        } else {
-            textContent = (String) js.executeScript(
-                    "return arguments[0].innerText;",
-                    snapshotElement
-            );
-            if (textContent == null || textContent.isEmpty()) {
-                textContent = safeDomAttribute(snapshotElement, "value");
+        List<ObjectNode> hints = new ArrayList<>();
+        if (raw.get("locators") instanceof List<?> locators) {
+            for (Object locator : locators) {
+                JsonNode hint = MAPPER.valueToTree(locator);
+                hints.add(hint instanceof ObjectNode objectHint ? objectHint : MAPPER.createObjectNode());
             }
         }
-        snapshot.put("textContent", textContent == null ? "" : textContent);
 
-        List<WebElement> children = withoutImplicitWait(
-                driver,
-                () -> snapshotElement.findElements(By.xpath("./*[@selected]"))
-        );
-        StringBuilder childValue = new StringBuilder();
-        for (WebElement child : children) {
-            String value = safeDomAttribute(child, "value");
-            childValue.append(value == null ? child.getText() : value);
-        }
-        if (!children.isEmpty()) {
-            snapshot.put("childValue", childValue.toString());
-        }
-
-        Map<String, String> attrs = (Map<String, String>) js.executeScript(
-                "var el = arguments[0];" +
-                        "var out = {}; " +
-                        "for (var i = 0; i < el.attributes.length; i++) {" +
-                        "  var a = el.attributes[i];" +
-                        "  out[a.name] = a.value;" +
-                        "}" +
-                        "return out;",
-                snapshotElement
-        );
-        ObjectNode attrNode = snapshot.putObject("attributes");
-        if (attrs != null) {
-            attrs.forEach(attrNode::put);
-        }
-
-        int siblingIndex = ((Number) js.executeScript(
-                "var el = arguments[0];" +
-                        "var i = 0;" +
-                        "while (el.previousElementSibling) {" +
-                        "  el = el.previousElementSibling;" +
-                        "  i++;" +
-                        "}" +
-                        "return i;",
-                snapshotElement
-        )).intValue();
-        snapshot.put("siblingIndex", siblingIndex);
-
-        int sameTagIndex = ((Number) js.executeScript(
-                "var el = arguments[0];" +
-                        "var tag = el.tagName;" +
-                        "var i = 0;" +
-                        "while (el.previousElementSibling) {" +
-                        "  el = el.previousElementSibling;" +
-                        "  if (el.tagName === tag) i++;" +
-                        "}" +
-                        "return i;",
-                snapshotElement
-        )).intValue();
-        snapshot.put("sameTagIndex", sameTagIndex);
         this.attributeSnapshot = snapshot;
+        this.locatorHints = hints;
+        this.xpath1 = null;
+        this.xpath2 = null;
+    }
+
+    private String xpath1() {
+        if (xpath1 == null) {
+            xpath1 = buildXPathFromHints(0);
+        }
+        return xpath1;
+    }
+
+    private String xpath2() {
+        if (xpath2 == null) {
+            xpath2 = buildXPathFromHints(1);
+        }
+        return xpath2;
     }
 
     public ObjectNode getAttributeSnapshot() {
@@ -292,12 +381,12 @@ public class ElementWrapper implements WebElement, WrapsElement {
     }
 
     private WebElement refindUniqueElement() {
-        List<WebElement> elementList1 = getElementList(driver, xpath1);
+        List<WebElement> elementList1 = getElementList(driver, xpath1());
         if (elementList1.size() == 1) {
             return elementList1.getFirst();
         }
 
-        List<WebElement> elementList2 = getElementList(driver, xpath2);
+        List<WebElement> elementList2 = getElementList(driver, xpath2());
         if (elementList2.size() == 1) {
             return elementList2.getFirst();
         }
@@ -357,286 +446,52 @@ public class ElementWrapper implements WebElement, WrapsElement {
         throw new RuntimeException("Failed to relocate " + elementMatch);
     }
 
-    private static String buildXPathForElement(
-            WebDriver driver,
-            WebElement element,
-            int maxAncestorNodes,
-            int maxDescendantNodes,
-            String... attrPriority
-    ) {
-        String tag = safeTagName(element);
-
-        String[] effectiveAttrs = (attrPriority == null || attrPriority.length == 0)
-                ? new String[]{"id", "data-user-id"}
-                : attrPriority;
-
-        String descAttrName = null;
-        String descAttrValue = null;
-
-        outerDesc:
-        for (String attr : effectiveAttrs) {
-            String selfVal = getAttrOrEmpty(element, attr);
-            if (!selfVal.isEmpty()) {
-                descAttrName = attr;
-                descAttrValue = selfVal;
-                break;
-            }
-
-            try {
-                String xpathExpr;
-                if (maxDescendantNodes > 0) {
-                    xpathExpr = "(.//*[@" + attr + "])[position() <= " + maxDescendantNodes + "]";
-                } else {
-                    xpathExpr = ".//*[@" + attr + "]";
-                }
-                WebElement d = withoutImplicitWait(
-                        driver,
-                        () -> element.findElement(By.xpath(xpathExpr))
-                );
-                String v = getAttrOrEmpty(d, attr);
-                if (!v.isEmpty()) {
-                    descAttrName = attr;
-                    descAttrValue = v;
-                    break outerDesc;
-                }
-            } catch (NoSuchElementException ignored) {
-            }
-        }
-
-        String mainPredicate;
-        if (descAttrName != null) {
-            mainPredicate = "descendant-or-self::*[@" + descAttrName + "="
-                    + quoteForXPath(descAttrValue) + "]";
-        } else {
-            mainPredicate = buildChildrenShapePredicate(driver, element);
-        }
-
-        String ancAttrName = null;
-        String ancAttrValue = null;
-
-        outerAnc:
-        for (String attr : effectiveAttrs) {
-            WebElement current = element;
-            int checkedAncestors = 0;
-            while (true) {
-                if (maxAncestorNodes > 0 && checkedAncestors >= maxAncestorNodes) {
-                    break;
-                }
-                WebElement parent;
-                try {
-                    final WebElement currentForParentLookup = current;
-                    parent = withoutImplicitWait(
-                            driver,
-                            () -> currentForParentLookup.findElement(By.xpath("parent::*"))
-                    );
-                } catch (NoSuchElementException | InvalidSelectorException e) {
-                    break;
-                }
-                if (parent.equals(current)) {
-                    break;
-                }
-
-                current = parent;
-                checkedAncestors++;
-                String v = getAttrOrEmpty(current, attr);
-                if (!v.isEmpty()) {
-                    ancAttrName = attr;
-                    ancAttrValue = v;
-                    break outerAnc;
-                }
-            }
-        }
-
-        StringBuilder predicateBuilder = new StringBuilder();
-        predicateBuilder.append(mainPredicate);
-        if (ancAttrName != null) {
-            predicateBuilder.append(" and ancestor-or-self::*[@")
-                    .append(ancAttrName)
-                    .append("=")
-                    .append(quoteForXPath(ancAttrValue))
-                    .append("]");
-        }
-
-        return "//" + tag + "[" + predicateBuilder + "]";
-    }
-
-    @SafeVarargs
-    private static String buildXPathForElement(
-            WebDriver driver,
-            WebElement element,
-            int maxAncestorNodes,
-            int maxDescendantNodes,
-            List<String>... attrPriorityGroups
-    ) {
-        String tag = safeTagName(element);
-        List<List<String>> effectiveGroups =
-                (attrPriorityGroups == null || attrPriorityGroups.length == 0)
-                        ? List.of(List.of("id", "data-user-id"))
-                        : Arrays.asList(attrPriorityGroups);
-
-        String descAttrName = null;
-        String descAttrValue = null;
-
-        outerDesc:
-        for (List<String> group : effectiveGroups) {
-            for (String attr : group) {
-                String selfVal = getAttrOrEmpty(element, attr);
-                if (!selfVal.isEmpty()) {
-                    descAttrName = attr;
-                    descAttrValue = selfVal;
-                    break outerDesc;
-                }
-            }
-
-            try {
-                String orPredicate = group.stream()
-                        .map(a -> "@" + a)
-                        .reduce((a, b) -> a + " or " + b)
-                        .orElse(null);
-
-                if (orPredicate == null) {
-                    continue;
-                }
-
-                String xpathExpr;
-                if (maxDescendantNodes > 0) {
-                    xpathExpr = "(.//*[" + orPredicate + "])[position() <= " + maxDescendantNodes + "]";
-                } else {
-                    xpathExpr = ".//*[" + orPredicate + "]";
-                }
-
-                WebElement d = withoutImplicitWait(
-                        driver,
-                        () -> element.findElement(By.xpath(xpathExpr))
-                );
-                for (String attr : group) {
-                    String v = getAttrOrEmpty(d, attr);
-                    if (!v.isEmpty()) {
-                        descAttrName = attr;
-                        descAttrValue = v;
-                        break outerDesc;
-                    }
-                }
-            } catch (NoSuchElementException ignored) {
-            }
-        }
+    /**
+     * Composes a relocation XPath from the hints captured with the last snapshot, so no
+     * WebDriver calls are needed and the XPath stays available after the element goes stale.
+     */
+    private String buildXPathFromHints(int planIndex) {
+        String tag = attributeSnapshot.path("tagName").asText("*");
+        ObjectNode hints = planIndex < locatorHints.size() ? locatorHints.get(planIndex) : MAPPER.createObjectNode();
 
         String mainPredicate;
-        if (descAttrName != null) {
-            mainPredicate = "descendant-or-self::*[@" + descAttrName + "="
-                    + quoteForXPath(descAttrValue) + "]";
+        JsonNode descendant = hints.path("descendant");
+        if (descendant.isArray() && descendant.size() == 2) {
+            mainPredicate = "descendant-or-self::*[@" + descendant.get(0).asText() + "="
+                    + quoteForXPath(descendant.get(1).asText()) + "]";
         } else {
-            mainPredicate = buildChildrenShapePredicate(driver, element);
-        }
-
-        String ancAttrName = null;
-        String ancAttrValue = null;
-
-        outerAnc:
-        for (List<String> group : effectiveGroups) {
-            WebElement current = element;
-            int checkedAncestors = 0;
-            while (true) {
-                if (maxAncestorNodes > 0 && checkedAncestors >= maxAncestorNodes) {
-                    break;
-                }
-                WebElement parent;
-                try {
-                    final WebElement currentForParentLookup = current;
-                    parent = withoutImplicitWait(
-                            driver,
-                            () -> currentForParentLookup.findElement(By.xpath("parent::*"))
-                    );
-                } catch (NoSuchElementException | InvalidSelectorException e) {
-                    break;
-                }
-
-                if (parent.equals(current)) {
-                    break;
-                }
-                current = parent;
-                checkedAncestors++;
-
-                for (String attr : group) {
-                    String v = getAttrOrEmpty(current, attr);
-                    if (!v.isEmpty()) {
-                        ancAttrName = attr;
-                        ancAttrValue = v;
-                        break outerAnc;
-                    }
-                }
-            }
+            mainPredicate = buildChildrenShapePredicate(hints.path("childTags"));
         }
 
         StringBuilder predicateBuilder = new StringBuilder();
         predicateBuilder.append(mainPredicate);
-        if (ancAttrName != null) {
+        JsonNode ancestor = hints.path("ancestor");
+        if (ancestor.isArray() && ancestor.size() == 2) {
             predicateBuilder.append(" and ancestor-or-self::*[@")
-                    .append(ancAttrName)
+                    .append(ancestor.get(0).asText())
                     .append("=")
-                    .append(quoteForXPath(ancAttrValue))
+                    .append(quoteForXPath(ancestor.get(1).asText()))
                     .append("]");
         }
 
         return "//" + tag + "[" + predicateBuilder + "]";
     }
 
-    private static String buildXPathForElement(
-            WebDriver driver,
-            WebElement element,
-            int maxAncestorDepth,
-            int maxDescendantDepth) {
-        return buildXPathForElement(
-                driver,
-                element,
-                maxAncestorDepth,
-                maxDescendantDepth,
-                (String[]) null
-        );
-    }
-
-    private static String buildChildrenShapePredicate(WebDriver driver, WebElement element) {
-        List<WebElement> children = withoutImplicitWait(
-                driver,
-                () -> element.findElements(By.xpath("./*"))
-        );
-        if (children.isEmpty()) {
+    private static String buildChildrenShapePredicate(JsonNode childTags) {
+        if (!childTags.isArray() || childTags.isEmpty()) {
             return "not(*)";
         }
 
-        Set<String> tags = new LinkedHashSet<>();
-        for (WebElement child : children) {
-            tags.add(safeTagName(child));
-        }
-
         StringBuilder sb = new StringBuilder();
         boolean first = true;
-        for (String t : tags) {
+        for (JsonNode t : childTags) {
             if (!first) sb.append(" and ");
-            sb.append("child::").append(t);
+            sb.append("child::").append(t.asText());
             first = false;
         }
         return sb.toString();
     }
 
-    private static String safeTagName(WebElement element) {
-        try {
-            String tag = element.getTagName();
-            return (tag == null || tag.isBlank()) ? "*" : tag.toLowerCase();
-        } catch (WebDriverException e) {
-            return "*";
-        }
-    }
-
-    private static String getAttrOrEmpty(WebElement el, String name) {
-        try {
-            String v = safeDomAttribute(el, name);
-            return v == null ? "" : v;
-        } catch (WebDriverException e) {
-            return "";
-        }
-    }
-
     private static String quoteForXPath(String value) {
         if (value == null) return "''";
         if (!value.contains("'")) return "'" + value + "'";
@@ -0,0 +1,100 @@
+package tools.dscode.common.servicecalls;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.http.HttpConnection;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+
+import static tools.dscode.common.mappings.ValueFormatting.MAPPER;
+
+/**
+ * Timing of one service call, reported as the {@code timing} object of its RESPONSE.
+ *
+ * <p>{@link RestAssuredUtil#execute} adds a new instance as the last filter of the request,
+ * which measures the whole exchange including reading the body. Clients from
+ * {@link HttpClientPool} also report when the connection was ready to send on and when the
+ * response headers arrived, and whether the connection had already carried earlier requests.
+ * Without a pooled client only {@code totalMillis} is available.</p>
+ *
+ * <p>The exchange runs on the thread that called {@code execute}, so the instance being
+ * measured is found through a thread-local for the duration of the call.</p>
+ */
+public final class CallTiming implements Filter {
+
+    private static final ThreadLocal<CallTiming> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<CallTiming> LAST = new ThreadLocal<>();
+
+    private long started;
+    private long connected;
+    private long firstByte;
+    private long finished;
+    private Boolean reusedConnection;
+
+    @Override
+    public Response filter(
+            FilterableRequestSpecification requestSpec,
+            FilterableResponseSpecification responseSpec,
+            FilterContext ctx
+    ) {
+        CURRENT.set(this);
+        started = System.nanoTime();
+        try {
+            return ctx.next(requestSpec, responseSpec);
+        } finally {
+            finished = System.nanoTime();
+            CURRENT.remove();
+            LAST.set(this);
+        }
+    }
+
+    /** Request interceptor hook: the connection is leased and open, the request is about to go out. */
+    static void connectionReady(HttpContext context) {
+        CallTiming timing = CURRENT.get();
+        if (timing == null || timing.connected != 0) {
+            return;
+        }
+        timing.connected = System.nanoTime();
+        if (context.getAttribute(HttpCoreContext.HTTP_CONNECTION) instanceof HttpConnection connection) {
+            timing.reusedConnection = connection.getMetrics().getRequestCount() > 0;
+        }
+    }
+
+    /** Response interceptor hook: the status line and headers have been read. */
+    static void responseHeadersRead() {
+        CallTiming timing = CURRENT.get();
+        if (timing != null && timing.firstByte == 0) {
+            timing.firstByte = System.nanoTime();
+        }
+    }
+
+    /** Returns and forgets the timing of the last call completed on this thread. */
+    static CallTiming takeLast() {
+        CallTiming timing = LAST.get();
+        LAST.remove();
+        return timing;
+    }
+
+    public ObjectNode toJson() {
+        ObjectNode node = MAPPER.createObjectNode();
+        if (connected != 0) {
+            node.put("connectMillis", millis(connected - started));
+        }
+        if (firstByte != 0) {
+            node.put("timeToFirstByteMillis", millis(firstByte - started));
+        }
+        node.put("totalMillis", millis(finished - started));
+        if (reusedConnection != null) {
+            node.put("reusedConnection", reusedConnection);
+        }
+        return node;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
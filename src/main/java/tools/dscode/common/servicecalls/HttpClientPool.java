@@ -0,0 +1,131 @@
+package tools.dscode.common.servicecalls;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import tools.dscode.common.util.CacheReport;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static tools.dscode.common.evaluations.AviatorUtil.isTruthy;
+import static tools.dscode.common.util.GeneralUtils.toLongOrZero;
+import static tools.dscode.common.variables.RunVars.resolveFromVarsOrDefault;
+
+/**
+ * Keep-alive HTTP clients shared by service calls that use the same connection settings.
+ *
+ * <p>REST Assured normally creates an HTTP client per request and shuts its connection manager
+ * down afterwards, so every call opens a new TCP connection and repeats the TLS handshake.
+ * Here each distinct connection key (see {@link RestAssuredUtil#buildRequest(JsonNode, JsonNode)})
+ * gets one client over a pooled connection manager, handed to REST Assured with
+ * {@link HttpClientConfig#reuseHttpClientInstance()} so the connections stay open between
+ * calls. Calls with different keys never share a client, since REST Assured applies proxy,
+ * SSL settings and basic or digest credentials to the client itself.</p>
+ *
+ * <p>Enable with {@code pkb_pooledHttp=true}; otherwise every request gets its own client. Pool sizes come
+ * from {@code pkb_httpMaxPerRoute} (default 20) and {@code pkb_httpMaxTotal} (default 200).
+ * Idle connections are kept for at most {@code pkb_httpKeepAliveSeconds} (default 30), or less
+ * when the server says so.</p>
+ */
+public final class HttpClientPool {
+
+    public static final int MAX_CLIENTS = 64;
+
+    private record Pooled(PoolingClientConnectionManager connections, HttpClientConfig config) {
+    }
+
+    private static final RemovalListener<JsonNode, Pooled> SHUTDOWN =
+            removal -> removal.getValue().connections().shutdown();
+
+    private static final Cache<JsonNode, Pooled> CLIENTS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CLIENTS)
+            .removalListener(SHUTDOWN)
+            .recordStats()
+            .build();
+
+    static {
+        CacheReport.register("HttpClientPool", CLIENTS);
+    }
+
+    // Resolved on first use, once RunVars is available.
+    private static final class Settings {
+        static final boolean ENABLED = isTruthy(resolveFromVarsOrDefault("pkb_pooledHttp", false));
+        static final int MAX_PER_ROUTE = positive("pkb_httpMaxPerRoute", 20);
+        static final int MAX_TOTAL = positive("pkb_httpMaxTotal", 200);
+        static final long KEEP_ALIVE_MILLIS = TimeUnit.SECONDS.toMillis(positive("pkb_httpKeepAliveSeconds", 30));
+
+        private static int positive(String name, int defaultValue) {
+            long value = toLongOrZero(resolveFromVarsOrDefault(name, defaultValue));
+            return value > 0 ? (int) Math.min(value, Integer.MAX_VALUE) : defaultValue;
+        }
+    }
+
+    private static volatile Boolean enabledOverride;
+
+    private HttpClientPool() {
+    }
+
+    public static boolean enabled() {
+        Boolean override = enabledOverride;
+        return override != null ? override : Settings.ENABLED;
+    }
+
+    /** Fixes the pooling mode; null defers to {@code pkb_pooledHttp}. */
+    static void setEnabled(Boolean enabled) {
+        enabledOverride = enabled;
+    }
+
+    /**
+     * The global REST Assured configuration with its HTTP client swapped for the pooled client of
+     * {@code connectionKey}. The key is used as a map key, so it must not be changed afterwards.
+     */
+    public static RestAssuredConfig configFor(JsonNode connectionKey) {
+        Pooled pooled;
+        try {
+            pooled = CLIENTS.get(connectionKey, HttpClientPool::create);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("Could not create a pooled HTTP client", exception.getCause());
+        }
+        return RestAssured.config().httpClient(pooled.config());
+    }
+
+    // REST Assured still drives the deprecated AbstractHttpClient API.
+    @SuppressWarnings("deprecation")
+    private static Pooled create() {
+        PoolingClientConnectionManager connections = new PoolingClientConnectionManager();
+        connections.setDefaultMaxPerRoute(Settings.MAX_PER_ROUTE);
+        connections.setMaxTotal(Math.max(Settings.MAX_TOTAL, Settings.MAX_PER_ROUTE));
+
+        DefaultHttpClient client = new DefaultHttpClient(connections);
+        DefaultConnectionKeepAliveStrategy serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE;
+        client.setKeepAliveStrategy((response, context) -> {
+            long requested = serverKeepAlive.getKeepAliveDuration(response, context);
+            return requested > 0 ? Math.min(requested, Settings.KEEP_ALIVE_MILLIS) : Settings.KEEP_ALIVE_MILLIS;
+        });
+        client.addRequestInterceptor((request, context) -> CallTiming.connectionReady(context));
+        client.addResponseInterceptor((response, context) -> CallTiming.responseHeadersRead());
+
+        HttpClientConfig config = RestAssured.config()
+                .getHttpClientConfig()
+                .httpClientFactory(() -> client)
+                .reuseHttpClientInstance();
+        return new Pooled(connections, config);
+    }
+
+    public static long size() {
+        return CLIENTS.size();
+    }
+
+    /** Shuts down every pooled client. */
+    public static void clear() {
+        CLIENTS.invalidateAll();
+    }
+}
@@ -56,6 +56,11 @@ public final class RestAssuredUtil {
      * request values take precedence where REST Assured uses replacement
      * semantics. Unknown CONFIGURATION properties are treated as REST Assured
      * method paths and invoked reflectively.</p>
+     *
+     * <p>With pooling on, the request is sent over the shared
+     * {@link HttpClientPool} client for its CONFIGURATION, request.config,
+     * request.proxy and request.auth, so calls with the same connection
+     * settings and credentials reuse open connections.</p>
      */
     public static RequestSpecification buildRequest(
             JsonNode request,
@@ -65,6 +70,9 @@ public final class RestAssuredUtil {
         ObjectNode configurationObject = optionalObject(configuration, "CONFIGURATION");
 
         RequestSpecification specification = RestAssured.given();
+        if (HttpClientPool.enabled()) {
+            specification.config(HttpClientPool.configFor(connectionKey(requestObject, configurationObject)));
+        }
 
         applyStandardProperties(specification, configurationObject);
         applyConfiguredMethods(specification, configurationObject);
@@ -82,6 +90,20 @@ public final class RestAssuredUtil {
         return specification;
     }
 
+    /**
+     * Everything REST Assured applies to the HTTP client itself rather than to the request,
+     * copied so later edits cannot alter it. Basic and digest credentials end up in the
+     * client's credentials provider, so calls with different auth must not share a client.
+     */
+    private static JsonNode connectionKey(ObjectNode request, ObjectNode configuration) {
+        ObjectNode key = MAPPER.createObjectNode();
+        key.set("configuration", configuration.deepCopy());
+        key.set("config", request.path("config").deepCopy());
+        key.set("proxy", request.path("proxy").deepCopy());
+        key.set("auth", request.path("auth").deepCopy());
+        return key;
+    }
+
     public static RequestSpecification logRequestAndResponse(
             RequestSpecification specification,
             PrintStream logStream
@@ -100,7 +122,9 @@ public final class RestAssuredUtil {
                 ? "GET"
                 : method.trim().toUpperCase(java.util.Locale.ROOT);
         String requestEndpoint = endpoint == null ? "" : endpoint.trim();
-        return specification.request(requestMethod, requestEndpoint);
+        return specification
+                .filter(new CallTiming())
+                .request(requestMethod, requestEndpoint);
     }
 
     /**
@@ -121,9 +145,12 @@ public final class RestAssuredUtil {
     /**
      * Converts a REST Assured response into a mapping-friendly ObjectNode.
      * A null response produces an empty object rather than an execution error.
+     * When the response came from {@link #execute} on this thread, its
+     * {@link CallTiming} is included as {@code timing}.
      */
     public static ObjectNode extractResponse(Response response) {
         ObjectNode result = MAPPER.createObjectNode();
+        CallTiming timing = CallTiming.takeLast();
         if (response == null) {
             return result;
         }
@@ -158,6 +185,9 @@ public final class RestAssuredUtil {
             result.put("body", body == null ? "" : body);
         }
 
+        if (timing != null) {
+            result.set("timing", timing.toJson());
+        }
         return result;
     }
 
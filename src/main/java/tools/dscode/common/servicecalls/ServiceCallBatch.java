@@ -0,0 +1,157 @@
+package tools.dscode.common.servicecalls;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Sends the HTTP requests of a group of service calls concurrently.
+ *
+ * <p>Requests are built on the scenario thread as usual and handed to {@link #submit}, which
+ * runs {@link RestAssuredUtil#execute} and {@link RestAssuredUtil#extractResponse} on a virtual
+ * thread, at most {@code maxInFlight} at a time. Nothing else runs off the scenario thread:
+ * {@link #awaitAll()} waits for every call and hands each result to its callback on the
+ * calling thread, in the order the calls were submitted, so responses are merged back into
+ * the mappings in declaration order whatever order they arrived in.</p>
+ *
+ * <p>A batch is opened for a fixed set of owners (the service-call scenarios it was created
+ * for) and is visible to the opening thread through {@link #active(Object)} until it is
+ * closed. Calls made by anything else, such as an inline {@code CALL:} inside one of those
+ * scenarios, still run synchronously.</p>
+ */
+public final class ServiceCallBatch implements AutoCloseable {
+
+    private static final ThreadLocal<ServiceCallBatch> ACTIVE = new ThreadLocal<>();
+
+    /** Outcome of one call; {@code failure} is set instead of {@code response} when it threw. */
+    public record Completed(ObjectNode response, RuntimeException failure, String log, long elapsedMillis) {
+    }
+
+    private record Pending(Future<Completed> result, Consumer<Completed> onComplete) {
+    }
+
+    private final Set<Object> owners = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<Pending> pending = new ArrayList<>();
+    private final Semaphore inFlight;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("service-call-", 0).factory());
+    private final ServiceCallBatch outer;
+
+    private ServiceCallBatch(int maxInFlight, Collection<?> owners) {
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight), true);
+        this.owners.addAll(owners);
+        this.outer = ACTIVE.get();
+    }
+
+    /** Opens a batch for {@code owners} on the current thread. Close it to restore any outer batch. */
+    public static ServiceCallBatch open(int maxInFlight, Collection<?> owners) {
+        ServiceCallBatch batch = new ServiceCallBatch(maxInFlight, owners);
+        ACTIVE.set(batch);
+        return batch;
+    }
+
+    /** The open batch that {@code owner} belongs to, or {@code null} when its call should run now. */
+    public static ServiceCallBatch active(Object owner) {
+        ServiceCallBatch batch = ACTIVE.get();
+        return batch != null && batch.owners.contains(owner) ? batch : null;
+    }
+
+    /**
+     * Starts the request in the background. {@code onComplete} runs later on the thread that
+     * calls {@link #awaitAll()}.
+     */
+    public void submit(
+            RequestSpecification specification,
+            String method,
+            String endpoint,
+            Consumer<Completed> onComplete
+    ) {
+        pending.add(new Pending(executor.submit(() -> send(specification, method, endpoint)), onComplete));
+    }
+
+    private Completed send(RequestSpecification specification, String method, String endpoint)
+            throws InterruptedException {
+        inFlight.acquire();
+        long started = System.nanoTime();
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        try (PrintStream restLog = new PrintStream(log, true, StandardCharsets.UTF_8)) {
+            RestAssuredUtil.logRequestAndResponse(specification, restLog);
+            Response response = RestAssuredUtil.execute(specification, method, endpoint);
+            ObjectNode responseNode = RestAssuredUtil.extractResponse(response);
+            return new Completed(responseNode, null, log.toString(StandardCharsets.UTF_8), elapsedMillis(started));
+        } catch (Exception exception) {
+            // REST Assured rethrows checked I/O failures (connection refused, timeouts) unwrapped.
+            RuntimeException failure = exception instanceof RuntimeException runtime
+                    ? runtime
+                    : new IllegalStateException(exception);
+            return new Completed(null, failure, log.toString(StandardCharsets.UTF_8), elapsedMillis(started));
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Waits for every submitted call and runs the callbacks in submission order. When calls
+     * or callbacks fail, every callback still runs and the first failure is thrown afterwards
+     * with the others suppressed.
+     */
+    public void awaitAll() {
+        RuntimeException failure = null;
+        List<Pending> calls = new ArrayList<>(pending);
+        pending.clear();
+        for (Pending call : calls) {
+            try {
+                call.onComplete().accept(call.result().get());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                failure = remember(failure, new IllegalStateException("Interrupted waiting for service calls", exception));
+            } catch (ExecutionException exception) {
+                failure = remember(failure, new IllegalStateException("Service call failed", exception.getCause()));
+            } catch (RuntimeException exception) {
+                failure = remember(failure, exception);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /** Restores the outer batch and waits for any request still on the wire. */
+    @Override
+    public void close() {
+        if (outer == null) {
+            ACTIVE.remove();
+        } else {
+            ACTIVE.set(outer);
+        }
+        executor.close();
+    }
+
+    private static RuntimeException remember(RuntimeException primary, RuntimeException next) {
+        if (primary == null) {
+            return next;
+        }
+        primary.addSuppressed(next);
+        return primary;
+    }
+
+    private static long elapsedMillis(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
@@ -1,5 +1,7 @@
 package tools.dscode.common.treeparsing;
 
+import tools.dscode.common.treeparsing.preparsing.ParseCache;
+
 import java.lang.reflect.Field;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -171,7 +173,9 @@ public abstract class    NodeDictionary {
             depthStack.push(depth + 1);
         }
 
+        root.compilePlan();
         this.root = root;
+        ParseCache.invalidate(this);
         return root;
     }
 
@@ -2,9 +2,13 @@ package tools.dscode.common.treeparsing;
 
 import com.google.common.collect.LinkedListMultimap;
 import org.intellij.lang.annotations.Language;
+import tools.dscode.common.reporting.logging.Level;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -12,6 +16,7 @@ import static tools.dscode.common.treeparsing.MatchNode.createMatchNode;
 import static tools.dscode.common.treeparsing.RegexUtil.TOKEN_END;
 import static tools.dscode.common.treeparsing.RegexUtil.TOKEN_START;
 import static tools.dscode.common.reporting.logging.LogForwarder.logTrace;
+import static tools.dscode.common.reporting.logging.LogForwarder.shouldLog;
 
 
 public class ParseNode {
@@ -26,6 +31,14 @@ public class ParseNode {
      */
     public final List<ParseNode> parseChildren = new ArrayList<>();
 
+    /**
+     * Compiled form of {@link #selfRegex}; recompiled only if the regex text is replaced.
+     */
+    private volatile CompiledRegex compiledRegex;
+
+    private record CompiledRegex(String source, Pattern pattern) {
+    }
+
     // ----- ctors -----
     public ParseNode() {
         this(null, null, null, null, false);
@@ -91,6 +104,37 @@ public class ParseNode {
         return selfRegex;
     }
 
+    /**
+     * The compiled {@link #getRegexPattern()} (DOTALL), compiled once and reused for every parse.
+     */
+    public Pattern getCompiledPattern() {
+        String source = selfRegex;
+        if (source == null) return null;
+        CompiledRegex compiled = compiledRegex;
+        if (compiled == null || compiled.source() != source) {
+            compiled = new CompiledRegex(source, Pattern.compile(source, Pattern.DOTALL));
+            compiledRegex = compiled;
+        }
+        return compiled.pattern();
+    }
+
+    /**
+     * Compiles the patterns of this node and every reachable child, so that parsing never
+     * compiles a regex. Called by {@link NodeDictionary#buildFromYaml(String)} once the
+     * dictionary's templates are resolved and its tree is wired.
+     */
+    public void compilePlan() {
+        compilePlan(Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private void compilePlan(Set<ParseNode> visited) {
+        if (!visited.add(this)) return;
+        getCompiledPattern();
+        for (ParseNode child : parseChildren) {
+            child.compilePlan(visited);
+        }
+    }
+
     // ----- hooks -----
 
     /**
@@ -165,18 +209,20 @@ public class ParseNode {
             if (!childDef.hasRegex()) continue;
 
             // Keep the Pattern so we can build NamedGroupMap later
-            Pattern pattern = Pattern.compile(childDef.getRegexPattern(), Pattern.DOTALL);
+            Pattern pattern = childDef.getCompiledPattern();
 
             Matcher m = pattern.matcher(parentSnapshot);
 
-
+            boolean trace = shouldLog(Level.TRACE);
 
             StringBuilder newMasked = new StringBuilder(parentSnapshot.length());
             int lastEnd = 0;
             int occurrence = 1;
-            logTrace("MatchNode: name: " + childDef.getName() );
-            logTrace("MatchNode: pattern: " + pattern );
-            logTrace("MatchNode: parentSnapshot: " + parentSnapshot);
+            if (trace) {
+                logTrace("MatchNode: name: " + childDef.getName() );
+                logTrace("MatchNode: pattern: " + pattern );
+                logTrace("MatchNode: parentSnapshot: " + parentSnapshot);
+            }
             while (m.find()) {
                 if (m.start() > lastEnd) {
                     newMasked.append(parentSnapshot, lastEnd, m.start());
@@ -184,8 +230,10 @@ public class ParseNode {
 
                 String childOriginal = m.group(0);
 
-                logTrace("MatchNode: name: " + childDef.getName() );
-                logTrace("Matched: " + childOriginal);
+                if (trace) {
+                    logTrace("MatchNode: name: " + childDef.getName() );
+                    logTrace("Matched: " + childOriginal);
+                }
 
                 // Build token with Option A format
                 String childToken = childDef.keyBase();
@@ -4,6 +4,7 @@ package tools.dscode.common.treeparsing.parsedComponents;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.cucumber.core.runner.StepExtension;
 import tools.dscode.common.domoperations.ExecutionDictionary;
+import tools.dscode.common.mappings.StreamingDataSource;
 import tools.dscode.common.reporting.logging.Level;
 import tools.dscode.common.seleniumextensions.ContextWrapper;
 import tools.dscode.common.seleniumextensions.ElementWrapper;
@@ -259,7 +260,9 @@ public final class Phrase extends PhraseData {
 
     public void saveToPhraseParsingMap(PhraseData phraseData, String key, Object object) {
         if (key == null) {
-            if (object instanceof ObjectNode objectNode) {
+            if (object instanceof StreamingDataSource source) {
+                phraseData.setPhraseParsingMap(source.toPhraseNode());
+            } else if (object instanceof ObjectNode objectNode) {
                 phraseData.setPhraseParsingMap(objectNode);
             } else {
                 phraseData.setPhraseParsingMap(MAPPER.valueToTree(object));
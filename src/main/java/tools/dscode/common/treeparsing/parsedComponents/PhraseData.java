@@ -23,6 +23,7 @@ import tools.dscode.common.treeparsing.parsedComponents.phraseoperations.Asserti
 import tools.dscode.common.treeparsing.parsedComponents.phraseoperations.OperationsInterface;
 import tools.dscode.common.treeparsing.parsedComponents.phraseoperations.PlaceHolderMatch;
 import tools.dscode.common.treeparsing.preparsing.LineData;
+import tools.dscode.common.treeparsing.preparsing.ParseCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -212,7 +213,7 @@ public abstract class PhraseData extends PassedData {
         hasTextToResolve = hasResolvedText || text.matches(".*<.*>.*");
         termination = delimiter;
 
-        MatchNode returnMatchNode = getNodeDictionary().parse(resolvedText);
+        MatchNode returnMatchNode = ParseCache.parse(getNodeDictionary(), resolvedText);
         phraseNode = returnMatchNode.getChild("phrase");
         assert phraseNode != null;
         booleanValues = phraseNode.getOrderedChildren("booleanValue").stream().map(ValueWrapper::createValueWrapper).toList();
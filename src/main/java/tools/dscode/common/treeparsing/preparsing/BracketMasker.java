@@ -54,6 +54,14 @@ public final class BracketMasker extends HashMap<String, String> {
         }
     }
 
+    /** Independent copy of {@code source}: same placeholders, values and masked text. */
+    public BracketMasker(BracketMasker source) {
+        super(source);
+        this.original = source.original;
+        this.masked = source.masked;
+        this.bracketOf.putAll(source.bracketOf);
+    }
+
     /** Original input string. */
     public String original() {
         return original;
@@ -81,19 +81,41 @@ public abstract class LineData implements Cloneable {
 
         this.original = input;
 
+        // Quote and bracket masking plus the phrase split depend only on the text
+        ParseCache.LineSkeleton skeleton = ParseCache.line(input);
+        this.qp = skeleton.quoteParser();
+        this.bm = skeleton.bracketMasker();
+        this.fullyMasked = bm.masked();
+
+        for (ParseCache.PhraseChunk chunk : skeleton.chunks()) {
+            addPhrase(chunk.text(), chunk.termination(), chunk.sentenceIndex());
+        }
+
+        PhraseData lastPhrase = null;
+        for (PhraseData phrase : this.phrases) {
+            if (lastPhrase != null) {
+                phrase.setPreviousPhrase(lastPhrase);
+                lastPhrase.setNextPhrase(phrase);
+            }
+            lastPhrase = phrase;
+        }
+    }
+
+    static ParseCache.LineSkeleton splitLine(String input) {
         // 1) Mask quotes first
-        this.qp = new QuoteParser(input);
+        QuoteParser qp = new QuoteParser(input);
         String afterQuotes = qp.masked();
 
         // 2) Mask brackets second
-        this.bm = getBracketMasker(afterQuotes);
-        this.fullyMasked = bm.masked();
+        BracketMasker bm = getBracketMasker(afterQuotes);
+        String fullyMasked = bm.masked();
 
-        if (!original.startsWith(",")) return;
+        if (!input.startsWith(",")) return new ParseCache.LineSkeleton(qp, bm, List.of());
 
 //        String preParsedNormalized = preParseDynamicStepString(fullyMasked);
         String preParsedNormalized = fullyMasked;
 
+        List<ParseCache.PhraseChunk> chunks = new ArrayList<>();
         StringBuilder buf = new StringBuilder();
 
         int sentenceCount = 0;
@@ -103,7 +125,7 @@ public abstract class LineData implements Cloneable {
                 String chunk = buf.toString();
                 String unmasked = qp.restoreFromWithOuterBookend(bm.restoreFrom(chunk), BOOK_END);
                 if (!unmasked.isBlank()) {
-                    addPhrase(unmasked, c, sentenceCount);
+                    chunks.add(new ParseCache.PhraseChunk(unmasked, c, sentenceCount));
                 }
                 buf.setLength(0);
                 if (c != ',' && c != ';') sentenceCount++;
@@ -111,15 +133,7 @@ public abstract class LineData implements Cloneable {
                 buf.append(c);
             }
         }
-
-        PhraseData lastPhrase = null;
-        for (PhraseData phrase : this.phrases) {
-            if (lastPhrase != null) {
-                phrase.setPreviousPhrase(lastPhrase);
-                lastPhrase.setNextPhrase(phrase);
-            }
-            lastPhrase = phrase;
-        }
+        return new ParseCache.LineSkeleton(qp, bm, chunks);
     }
 
     private static boolean isDelimiterAt(String s, int index) {
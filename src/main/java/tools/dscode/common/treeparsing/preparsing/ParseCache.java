@@ -0,0 +1,126 @@
+package tools.dscode.common.treeparsing.preparsing;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import tools.dscode.common.mappings.QuoteParser;
+import tools.dscode.common.treeparsing.MatchNode;
+import tools.dscode.common.treeparsing.NodeDictionary;
+import tools.dscode.common.util.CacheReport;
+
+import java.util.List;
+
+/**
+ * Bounded, thread-safe caches for the two pure stages of step-line parsing.
+ *
+ * <p>Splitting a line into phrases depends only on the normalized line text, so the
+ * {@link QuoteParser}, {@link BracketMasker} and phrase chunks are cached as a
+ * {@link LineSkeleton} for every {@link LineData} built from the same text. The parser
+ * and masker are mutable maps, so each {@code LineData} gets its own copy of them; only
+ * the immutable chunks are shared. Fresh {@code PhraseData} objects are still created
+ * for each run.</p>
+ *
+ * <p>Parsing a resolved phrase depends only on the phrase text and the
+ * {@link NodeDictionary} it is parsed with, so the resulting {@link MatchNode} tree is
+ * cached per dictionary instance. Parse callbacks only write node state while the tree
+ * is being built, so a finished tree is read-only and can be shared between phrases
+ * and threads.</p>
+ */
+public final class ParseCache {
+
+    public static final int MAX_LINES = 2048;
+    public static final int MAX_PHRASES = 4096;
+
+    /** Phrase text with the delimiter that ended it and the sentence it belongs to. */
+    public record PhraseChunk(String text, char termination, int sentenceIndex) {
+    }
+
+    /**
+     * Masking and phrase split of one normalized line. The cached parser and masker are
+     * never handed out: the accessors return copies that callers may change freely.
+     */
+    public static final class LineSkeleton {
+        private final QuoteParser quoteParser;
+        private final BracketMasker bracketMasker;
+        private final List<PhraseChunk> chunks;
+
+        LineSkeleton(QuoteParser quoteParser, BracketMasker bracketMasker, List<PhraseChunk> chunks) {
+            this.quoteParser = quoteParser;
+            this.bracketMasker = bracketMasker;
+            this.chunks = List.copyOf(chunks);
+        }
+
+        /** A new copy of the line's quote parser. */
+        public QuoteParser quoteParser() {
+            return new QuoteParser(quoteParser);
+        }
+
+        /** A new copy of the line's bracket masker. */
+        public BracketMasker bracketMasker() {
+            return new BracketMasker(bracketMasker);
+        }
+
+        public List<PhraseChunk> chunks() {
+            return chunks;
+        }
+    }
+
+    private record PhraseKey(NodeDictionary dictionary, String text) {
+    }
+
+    private static final Cache<String, LineSkeleton> LINES = CacheBuilder.newBuilder()
+            .maximumSize(MAX_LINES)
+            .recordStats()
+            .build();
+
+    private static final Cache<PhraseKey, MatchNode> PHRASES = CacheBuilder.newBuilder()
+            .maximumSize(MAX_PHRASES)
+            .recordStats()
+            .build();
+
+    static {
+        CacheReport.register("ParseCache.lines", LINES);
+        CacheReport.register("ParseCache.phrases", PHRASES);
+    }
+
+    private ParseCache() {
+    }
+
+    static LineSkeleton line(String normalizedInput) {
+        LineSkeleton cached = LINES.getIfPresent(normalizedInput);
+        if (cached == null) {
+            cached = LineData.splitLine(normalizedInput);
+            LINES.put(normalizedInput, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Parses {@code text} with {@code dictionary}, reusing the tree from an earlier parse
+     * of the same text with the same dictionary instance.
+     */
+    public static MatchNode parse(NodeDictionary dictionary, String text) {
+        PhraseKey key = new PhraseKey(dictionary, text);
+        MatchNode cached = PHRASES.getIfPresent(key);
+        if (cached == null) {
+            cached = dictionary.parse(text);
+            PHRASES.put(key, cached);
+        }
+        return cached;
+    }
+
+    /** Lines served from the cache so far; not reset by {@link #clear()}. */
+    static long lineHits() {
+        return LINES.stats().hitCount();
+    }
+
+    /** Drops every cached line and parse tree. */
+    public static void clear() {
+        LINES.invalidateAll();
+        PHRASES.invalidateAll();
+    }
+
+    /** Drops the parse trees produced by {@code dictionary}, e.g. after its nodes are rebuilt. */
+    public static void invalidate(NodeDictionary dictionary) {
+        PHRASES.asMap().keySet().removeIf(key -> key.dictionary() == dictionary);
+    }
+}
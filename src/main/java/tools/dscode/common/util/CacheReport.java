@@ -0,0 +1,39 @@
+package tools.dscode.common.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
+
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Hit, miss and eviction counts for the run's bounded caches, reported once
+ * when the run ends. A cache joins the report when its class initializes, so
+ * caches the run never touched are left out. Counts are cumulative; clearing
+ * a cache does not reset them.
+ */
+public final class CacheReport {
+
+    private static final Map<String, Cache<?, ?>> CACHES = new ConcurrentSkipListMap<>();
+
+    private CacheReport() {
+    }
+
+    /** Adds {@code cache}, built with {@code recordStats()}, to the report under {@code name}. */
+    public static void register(String name, Cache<?, ?> cache) {
+        CACHES.put(name, cache);
+    }
+
+    public static String describe() {
+        StringJoiner out = new StringJoiner(", ", "caches{", "}");
+        CACHES.forEach((name, cache) -> {
+            CacheStats stats = cache.stats();
+            out.add(name + "[size=" + cache.size()
+                    + ", hits=" + stats.hitCount()
+                    + ", misses=" + stats.missCount()
+                    + ", evictions=" + stats.evictionCount() + "]");
+        });
+        return out.toString();
+    }
+}
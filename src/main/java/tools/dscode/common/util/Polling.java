@@ -0,0 +1,180 @@
+package tools.dscode.common.util;
+
+import tools.dscode.common.reporting.logging.Entry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Deadline-bounded polling with exponential backoff and jitter.
+ * <p>
+ * The first pause is short, so a condition that is almost met is noticed quickly. Each
+ * further pause doubles, up to {@link #MAX_DELAY}, so a long wait costs little CPU and few
+ * remote calls. Pauses are jittered by ±25% so parallel scenarios polling the same service
+ * do not fall into step. No pause runs past the deadline.
+ * <p>
+ * An optional {@link ChangeSignal} ends a pause early, e.g. when the page's DOM changes, but
+ * never before {@link #MIN_PAUSE_FRACTION} of its delay has passed, and the backoff keeps
+ * growing. A system that changes all the time, such as a page with an animation, is therefore
+ * polled no more often than every quarter of the current delay rather than continuously.
+ * <p>
+ * A Polling instance is stateful and belongs to one loop on one thread.
+ */
+public final class Polling {
+
+    public static final Duration INITIAL_DELAY = Duration.ofMillis(25);
+    public static final Duration MAX_DELAY = Duration.ofSeconds(1);
+    private static final double JITTER = 0.25;
+    /** Shortest part of a pause that a change signal can cut it down to. */
+    public static final double MIN_PAUSE_FRACTION = 0.25;
+
+    /** Ends a pause early when the system under test changes. */
+    @FunctionalInterface
+    public interface ChangeSignal {
+        /**
+         * Blocks for at most {@code maxWait}.
+         *
+         * @return {@code true} if a change was seen before {@code maxWait} elapsed
+         */
+        boolean awaitChange(Duration maxWait);
+    }
+
+    private final Duration timeout;
+    private final boolean unbounded;
+    private final long deadlineNanos;
+    private ChangeSignal changeSignal;
+    private long nextDelayNanos = INITIAL_DELAY.toNanos();
+    private int iterations;
+    private int earlyWakes;
+    private long waitedNanos;
+
+    private Polling(Duration timeout) {
+        this.timeout = timeout;
+        this.unbounded = isUnbounded(timeout);
+        this.deadlineNanos = unbounded ? 0 : System.nanoTime() + timeout.toNanos();
+    }
+
+    /** Starts polling now. A null, zero or negative timeout means no deadline. */
+    public static Polling withTimeout(Duration timeout) {
+        return new Polling(timeout);
+    }
+
+    /** Wakes pauses early on {@code signal}; {@code null} removes any signal. */
+    public Polling wakeOn(ChangeSignal signal) {
+        this.changeSignal = signal;
+        return this;
+    }
+
+    /**
+     * Runs {@code attempt} until {@code done} accepts its result, pausing between attempts.
+     *
+     * @return the accepted result
+     * @throws RuntimeException if the deadline passes first
+     */
+    public <T> T until(Supplier<T> attempt, Predicate<? super T> done) {
+        while (true) {
+            T result = attempt.get();
+            if (done.test(result)) {
+                iterations++;
+                return result;
+            }
+            if (!pause()) {
+                throw new RuntimeException("Condition not met within " + timeout.toMillis() + " ms (" + describe() + ")");
+            }
+        }
+    }
+
+    /**
+     * Counts one attempt and pauses before the next.
+     *
+     * @return {@code false}, without pausing, if the deadline has passed
+     */
+    public boolean pause() {
+        iterations++;
+        long remaining = unbounded ? Long.MAX_VALUE : deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            return false;
+        }
+
+        long backoff = jittered(nextDelayNanos);
+        long delay = Math.min(backoff, remaining);
+        nextDelayNanos = Math.min(nextDelayNanos * 2, MAX_DELAY.toNanos());
+
+        long start = System.nanoTime();
+        if (changeSignal != null && awaitChange(delay)) {
+            earlyWakes++;
+            // Measured against the full backoff: near the deadline a fraction of the shortened
+            // delay would allow ever smaller pauses.
+            sleep(Math.min((long) (backoff * MIN_PAUSE_FRACTION), delay) - (System.nanoTime() - start));
+        } else {
+            sleep(delay - (System.nanoTime() - start));
+        }
+        waitedNanos += System.nanoTime() - start;
+        return true;
+    }
+
+    public boolean expired() {
+        return !unbounded && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /** Attempts made so far. */
+    public int iterations() {
+        return iterations;
+    }
+
+    /** Time spent pausing between attempts, excluding the attempts themselves. */
+    public Duration waited() {
+        return Duration.ofNanos(waitedNanos);
+    }
+
+    public String describe() {
+        return "iterations=" + iterations
+                + ", waited=" + waited().toMillis() + " ms"
+                + (changeSignal == null ? "" : ", earlyWakes=" + earlyWakes);
+    }
+
+    /** Adds the iteration count and time spent waiting to {@code entry} as fields. */
+    public void recordOn(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        entry.field(
+                "pollIterations", String.valueOf(iterations),
+                "pollWaitMillis", String.valueOf(waited().toMillis()));
+    }
+
+    private boolean awaitChange(long delayNanos) {
+        try {
+            return changeSignal.awaitChange(Duration.ofNanos(delayNanos));
+        } catch (RuntimeException e) {
+            // A signal that cannot be read (closed window, navigation) must not end the poll;
+            // fall back to plain backoff for the rest of this loop.
+            changeSignal = null;
+            return false;
+        }
+    }
+
+    private static long jittered(long delayNanos) {
+        double factor = 1 - JITTER + ThreadLocalRandom.current().nextDouble() * 2 * JITTER;
+        return (long) (delayNanos * factor);
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static boolean isUnbounded(Duration timeout) {
+        return timeout == null || timeout.isZero() || timeout.isNegative();
+    }
+}
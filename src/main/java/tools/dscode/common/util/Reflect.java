@@ -180,6 +180,24 @@ public final class Reflect {
         final Class<?> clazz = staticCall ? (Class<?>) target : target.getClass();
         final Object receiver = staticCall ? null : target;
 
+        ReflectCache.Target resolved = ReflectCache.target(
+                ReflectCache.CallShape.of(clazz, staticCall, methodName, a),
+                () -> selectMethod(clazz, staticCall, methodName, a));
+        if (resolved == null)
+            return null;
+        try {
+            return invokeResolved(resolved, receiver, a);
+        } catch (Throwable ignore) {
+            return null;
+        }
+    }
+
+    /**
+     * The uncached overload choice described on
+     * {@link #invokeAnyMethod(Object, String, Object...)}. Returns null when no
+     * method has the name.
+     */
+    private static Method selectMethod(Class<?> clazz, boolean staticCall, String methodName, Object[] a) {
         // Collect candidates by name, preferring instance methods first for
         // instance calls.
         List<Method> instanceNamed = new ArrayList<>();
@@ -214,7 +232,7 @@ public final class Reflect {
 
         // Fast path: a single candidate → try it.
         if (named.size() == 1) {
-            return tryInvoke(receiver, named.get(0), a);
+            return named.get(0);
         }
 
         // Filter by parameter count (respecting varargs)
@@ -227,10 +245,10 @@ public final class Reflect {
         if (byCount.isEmpty()) {
             // No exact/vararg count match; fall back to first by name (may
             // still succeed)
-            return tryInvoke(receiver, named.get(0), a);
+            return named.get(0);
         }
         if (byCount.size() == 1) {
-            return tryInvoke(receiver, byCount.get(0), a);
+            return byCount.get(0);
         }
 
         // Choose best by assignability score
@@ -245,21 +263,19 @@ public final class Reflect {
         }
         if (best == null)
             best = byCount.get(0);
-        return tryInvoke(receiver, best, a);
+        return best;
     }
 
     // ---- internals
     // -----------------------------------------------------------
 
-    private static Object tryInvoke(Object receiver, Method m, Object[] args) {
-        try {
-            makeAccessible(m, receiver);
-            Object[] callArgs = prepareArgsForVarargs(m, args);
-            // For static methods, receiver may be null (that's fine).
-            return m.invoke(receiver, callArgs);
-        } catch (Throwable ignore) {
-            return null;
+    private static Object invokeResolved(ReflectCache.Target resolved, Object receiver, Object[] args) throws Throwable {
+        if (resolved.handle() == null) {
+            return tryInvokeOrThrow(receiver, resolved.method(), args);
         }
+        Object[] callArgs = prepareArgsForVarargs(resolved.method(), args);
+        // For static methods the handle ignores the receiver.
+        return (Object) resolved.handle().invokeExact(receiver, callArgs);
     }
 
     private static void makeAccessible(Method m, Object receiver) {
@@ -460,8 +476,13 @@ public final class Reflect {
         return current;
     }
 
-    // --- helpers (unchanged) ---
+    // --- helpers: hierarchy scans, cached per class and name ---
     private static Field findField(Class<?> type, String name) {
+        return ReflectCache.member(new ReflectCache.MemberKey(type, name, ReflectCache.MemberKind.FIELD, null),
+                () -> scanField(type, name));
+    }
+
+    private static Field scanField(Class<?> type, String name) {
         for (Class<?> c = type; c != null; c = c.getSuperclass()) {
             try {
                 return c.getDeclaredField(name);
@@ -472,6 +493,11 @@ public final class Reflect {
     }
 
     public static Method findZeroArgMethod(Class<?> type, String name) {
+        return ReflectCache.member(new ReflectCache.MemberKey(type, name, ReflectCache.MemberKind.ZERO_ARG_METHOD, null),
+                () -> scanZeroArgMethod(type, name));
+    }
+
+    private static Method scanZeroArgMethod(Class<?> type, String name) {
         for (Class<?> c = type; c != null; c = c.getSuperclass()) {
             try {
                 return c.getDeclaredMethod(name);
@@ -575,6 +601,12 @@ public final class Reflect {
     // ----------------------------------------------
 
     private static Method findOneArgMethod(Class<?> type, String name, Object value) {
+        Class<?> valueType = value == null ? null : value.getClass();
+        return ReflectCache.member(new ReflectCache.MemberKey(type, name, ReflectCache.MemberKind.ONE_ARG_METHOD, valueType),
+                () -> scanOneArgMethod(type, name, value));
+    }
+
+    private static Method scanOneArgMethod(Class<?> type, String name, Object value) {
         for (Class<?> c = type; c != null; c = c.getSuperclass()) {
             for (Method m : c.getDeclaredMethods()) {
                 if (!m.getName().equals(name) || m.getParameterCount() != 1)
@@ -609,73 +641,12 @@ public final class Reflect {
         final Class<?> clazz = staticCall ? (Class<?>) target : target.getClass();
         final Object receiver = staticCall ? null : target;
 
-        // Collect candidates by name, preferring instance methods first for
-        // instance calls.
-        List<Method> instanceNamed = new ArrayList<>();
-        List<Method> staticNamed = new ArrayList<>();
-
-        for (Class<?> k = clazz; k != null; k = k.getSuperclass()) {
-            for (Method m : k.getDeclaredMethods()) {
-                if (!m.getName().equals(methodName))
-                    continue;
-                if (Modifier.isStatic(m.getModifiers())) {
-                    staticNamed.add(m);
-                } else {
-                    instanceNamed.add(m);
-                }
-            }
-        }
-
-        List<Method> named = new ArrayList<>();
-        if (staticCall) {
-            // Static target: only consider static methods.
-            named.addAll(staticNamed);
-        } else {
-            // Instance target: prefer instance methods; fallback to static if
-            // needed.
-            named.addAll(instanceNamed);
-            if (named.isEmpty())
-                named.addAll(staticNamed);
-        }
-
-        if (named.isEmpty())
+        ReflectCache.Target resolved = ReflectCache.target(
+                ReflectCache.CallShape.of(clazz, staticCall, methodName, a),
+                () -> selectMethod(clazz, staticCall, methodName, a));
+        if (resolved == null)
             return null;
-
-        // Fast path: a single candidate → try it.
-        if (named.size() == 1) {
-            return tryInvokeOrThrow(receiver, named.get(0), a);
-        }
-
-        // Filter by parameter count (respecting varargs)
-        List<Method> byCount = new ArrayList<>();
-        for (Method m : named) {
-            if (acceptsArgCount(m, a.length)) {
-                byCount.add(m);
-            }
-        }
-        if (byCount.isEmpty()) {
-            // No exact/vararg count match; fall back to first by name (may
-            // still succeed)
-            return tryInvokeOrThrow(receiver, named.get(0), a);
-        }
-        if (byCount.size() == 1) {
-            return tryInvokeOrThrow(receiver, byCount.get(0), a);
-        }
-
-        // Choose best by assignability score
-        Method best = null;
-        int bestScore = Integer.MIN_VALUE;
-        for (Method m : byCount) {
-            int score = applicabilityScore(m, a);
-            if (score > bestScore) {
-                bestScore = score;
-                best = m;
-            }
-        }
-        if (best == null)
-            best = byCount.get(0);
-
-        return tryInvokeOrThrow(receiver, best, a);
+        return invokeResolved(resolved, receiver, a);
     }
 
     public static Object tryInvokeOrThrow(Object receiver, Method m, Object[] args) throws Throwable {
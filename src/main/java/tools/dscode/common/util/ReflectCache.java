@@ -0,0 +1,131 @@
+package tools.dscode.common.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, thread-safe cache of what {@link Reflect} resolves by scanning class hierarchies.
+ *
+ * <p>Method calls are keyed by target class, static-or-instance, method name and the runtime
+ * classes of the arguments ({@code null} for a null argument). Those are all the overload
+ * choice in {@link Reflect#invokeAnyMethod(Object, String, Object...)} depends on, so one
+ * resolution serves every later call with the same shape. The chosen method is kept with a
+ * {@link MethodHandle} spread to {@code (receiver, args[]) -> result}. Fields and getter or
+ * setter methods used for property access are keyed by class, name and, for setters, the
+ * value's class. Misses are cached as well, so a name that does not exist is not searched
+ * for again.</p>
+ */
+public final class ReflectCache {
+
+    public static final int MAX_ENTRIES = 4096;
+
+    /**
+     * A resolved call. {@code handle} is null when the method could not be unreflected, e.g.
+     * because the module system blocks access; callers then use {@code method} directly.
+     */
+    record Target(Method method, MethodHandle handle) {
+    }
+
+    record CallShape(Class<?> type, boolean staticCall, String name, Class<?>[] argTypes) {
+
+        static CallShape of(Class<?> type, boolean staticCall, String name, Object[] args) {
+            Class<?>[] argTypes = new Class<?>[args.length];
+            for (int i = 0; i < args.length; i++) {
+                argTypes[i] = args[i] == null ? null : args[i].getClass();
+            }
+            return new CallShape(type, staticCall, name, argTypes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CallShape other
+                    && type == other.type
+                    && staticCall == other.staticCall
+                    && name.equals(other.name)
+                    && Arrays.equals(argTypes, other.argTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * (31 * type.hashCode() + Boolean.hashCode(staticCall)) + name.hashCode())
+                    + Arrays.hashCode(argTypes);
+        }
+    }
+
+    enum MemberKind { FIELD, ZERO_ARG_METHOD, ONE_ARG_METHOD }
+
+    record MemberKey(Class<?> type, String name, MemberKind kind, Class<?> argType) {
+    }
+
+    private static final Target NO_TARGET = new Target(null, null);
+
+    private static final Cache<CallShape, Target> CALLS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .recordStats()
+            .build();
+
+    private static final Cache<MemberKey, Optional<Member>> MEMBERS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .recordStats()
+            .build();
+
+    static {
+        CacheReport.register("ReflectCache.calls", CALLS);
+        CacheReport.register("ReflectCache.members", MEMBERS);
+    }
+
+    private ReflectCache() {
+    }
+
+    static Target target(CallShape shape, Supplier<Method> select) {
+        Target cached = CALLS.getIfPresent(shape);
+        if (cached == null) {
+            Method method = select.get();
+            cached = method == null ? NO_TARGET : new Target(method, spreadHandle(method));
+            CALLS.put(shape, cached);
+        }
+        return cached == NO_TARGET ? null : cached;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <M extends Member> M member(MemberKey key, Supplier<M> find) {
+        Optional<Member> cached = MEMBERS.getIfPresent(key);
+        if (cached == null) {
+            cached = Optional.ofNullable(find.get());
+            MEMBERS.put(key, cached);
+        }
+        return (M) cached.orElse(null);
+    }
+
+    /** Adapts a method to {@code (Object receiver, Object[] args)Object}; static methods ignore the receiver. */
+    private static MethodHandle spreadHandle(Method method) {
+        method.trySetAccessible();
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+            int params = method.getParameterCount();
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = handle.asType(MethodType.genericMethodType(params)).asSpreader(Object[].class, params);
+                return MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle.asType(MethodType.genericMethodType(params + 1)).asSpreader(Object[].class, params);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** Drops every resolution. */
+    public static void clear() {
+        CALLS.invalidateAll();
+        MEMBERS.invalidateAll();
+    }
+}
@@ -26,6 +26,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -35,6 +36,10 @@ import static tools.dscode.common.mappings.ValueFormatting.MAPPER;
 /**
  * Immutable + thread-safe (read-only after construction).
  * "Closed" overrides "Open". Outside open hours is closed by default.
+ *
+ * Open-time arithmetic runs on {@link YearTimeline}s, compiled lazily per calendar year and
+ * cached on the calendar; compiling is a pure function of the rules, so concurrent callers
+ * can at worst build the same year twice.
  */
 public final class BusinessCalendar {
 
@@ -61,6 +66,8 @@ public final class BusinessCalendar {
     private final String defaultOutputPattern;  // nullable
     private final ZoneId defaultOutputZone;     // nullable
 
+    private final ConcurrentHashMap<Integer, YearTimeline> timelines = new ConcurrentHashMap<>();
+
     public Optional<String> defaultOutputPattern() {
         return Optional.ofNullable(defaultOutputPattern);
     }
@@ -165,7 +172,8 @@ public final class BusinessCalendar {
 
     /** A business date is any local calendar date with at least one effective open interval. */
     public boolean isBusinessDate(LocalDate date) {
-        return !effectiveOpenIntervalsFor(Objects.requireNonNull(date, "date")).isEmpty();
+        Objects.requireNonNull(date, "date");
+        return timeline(date.getYear()).isBusinessDate(date);
     }
 
     ZonedDateTime addBusinessDateUnits(Object start, long amount, ChronoUnit unit) {
@@ -182,6 +190,8 @@ public final class BusinessCalendar {
 
         int direction = amount > 0 ? 1 : -1;
         long remaining = Math.abs(amount);
+        if (unit == ChronoUnit.DAYS) return addBusinessDays(cur, direction, remaining);
+
         while (remaining > 0) {
             cur = plusDateUnit(cur, unit, direction);
 
@@ -202,22 +212,50 @@ public final class BusinessCalendar {
         return cur;
     }
 
+    /**
+     * Business days step from business date to business date, so the n-th step lands on the
+     * n-th business date after the start date; whole runs of a year's business dates are
+     * skipped by ordinal instead of one day at a time.
+     */
+    private ZonedDateTime addBusinessDays(ZonedDateTime cur, int direction, long remaining) {
+        LocalDate date = cur.toLocalDate();
+        while (remaining > 0) {
+            LocalDate step = date.plusDays(direction);
+            LocalDate adjusted = direction > 0
+                    ? nextBusinessDateOnOrAfter(step)
+                    : previousBusinessDateOnOrBefore(step);
+            if (adjusted == null) {
+                throw new IllegalStateException("No business date found within "
+                        + BUSINESS_DATE_SEARCH_LIMIT_DAYS + " days of " + step);
+            }
+            remaining--;
+
+            YearTimeline year = timeline(adjusted.getYear());
+            int index = year.businessDateIndex(adjusted);
+            long skip = direction > 0
+                    ? Math.min(remaining, year.businessDateCount() - 1 - index)
+                    : Math.min(remaining, index);
+            date = year.businessDate((int) (index + direction * skip));
+            remaining -= skip;
+        }
+        return ZonedDateTime.of(date, cur.toLocalTime(), zone);
+    }
+
     /** Next open time >= input time (best-effort for ambiguous inputs). */
     public ZonedDateTime nextOpen(Object t) {
         ZonedDateTime z = normalizeForQuery(t);
-        if (isOpenAt(z)) return z;
+        Instant at = z.toInstant();
+        LocalDate limit = z.toLocalDate().plusDays(BUSINESS_DATE_SEARCH_LIMIT_DAYS);
 
-        for (int d = 0; d < 370; d++) {
-            LocalDate date = z.toLocalDate().plusDays(d);
-            for (Interval open : openIntervalsFor(date)) {
-                ZonedDateTime cand = open.start;
-                if (d == 0 && cand.isBefore(z)) {
-                    if (z.isBefore(open.end)) cand = z;
-                    else continue;
-                }
-                cand = skipIfClosed(cand);
-                if (cand.isBefore(open.end) && isOpenAt(cand)) return cand;
-            }
+        for (int y = z.getYear(); y <= limit.getYear(); y++) {
+            YearTimeline year = timeline(y);
+            long offset = year.firstOpenAtOrAfter(Math.max(0, year.offset(at)));
+            if (offset < 0) continue;
+
+            Instant found = year.instant(offset);
+            if (found.equals(at)) return z;
+            ZonedDateTime cand = found.atZone(zone);
+            return cand.toLocalDate().isBefore(limit) ? cand : null;
         }
         return null;
     }
@@ -225,28 +263,21 @@ public final class BusinessCalendar {
     public ZonedDateTime lastOpen(Object t) {
         ZonedDateTime z = normalizeForQuery(t);
         if (isOpenAt(z)) return z;
+        return lastOpenBefore(z);
+    }
 
-        for (int d = 0; d < 370; d++) {
-            LocalDate date = z.toLocalDate().minusDays(d);
-
-            List<Interval> opens = effectiveOpenIntervalsFor(date);
-            // reverse order for backward search
-            for (int i = opens.size() - 1; i >= 0; i--) {
-                Interval open = opens.get(i);
-                if (!open.start.isBefore(open.end)) continue;
+    /** Latest open instant strictly before {@code z}, within the business-date search limit. */
+    private ZonedDateTime lastOpenBefore(ZonedDateTime z) {
+        Instant at = z.toInstant();
+        LocalDate limit = z.toLocalDate().minusDays(BUSINESS_DATE_SEARCH_LIMIT_DAYS);
 
-                ZonedDateTime cand;
-                if (d == 0) {
-                    if (!open.start.isBefore(z)) continue;
-                    cand = open.end.isAfter(z) ? z.minusNanos(1) : open.end.minusNanos(1);
-                } else {
-                    cand = open.end.minusNanos(1);
-                }
+        for (int y = z.getYear(); y >= limit.getYear(); y--) {
+            YearTimeline year = timeline(y);
+            long offset = year.lastOpenBefore(Math.min(year.length(), year.offset(at)));
+            if (offset < 0) continue;
 
-                if (!cand.isBefore(open.start) && isOpenAt(cand)) {
-                    return cand;
-                }
-            }
+            ZonedDateTime cand = year.instant(offset).atZone(zone);
+            return cand.toLocalDate().isAfter(limit) ? cand : null;
         }
         return null;
     }
@@ -366,41 +397,24 @@ public final class BusinessCalendar {
         ZonedDateTime cur = nextOpen(start);
         if (cur == null || remaining.isZero()) return cur;
 
-        while (remaining.compareTo(Duration.ZERO) > 0) {
-            cur = skipIfClosed(cur);
-            Interval open = openIntervalCovering(cur);
-            if (open == null) {
-                cur = nextOpen(cur.plusNanos(1));
-                if (cur == null) return null;
-                continue;
-            }
-
-            ZonedDateTime limit = open.end;
-            ZonedDateTime nextClosedStart = nextClosedStartBefore(cur, limit);
-            if (nextClosedStart != null && nextClosedStart.isAfter(cur) && nextClosedStart.isBefore(limit)) {
-                limit = nextClosedStart;
-            }
-
-            Duration available = Duration.between(cur, limit);
-            if (available.compareTo(Duration.ZERO) <= 0) {
-                cur = nextOpen(cur.plusNanos(1));
-                if (cur == null) return null;
-                continue;
-            }
-
-            if (remaining.compareTo(available) <= 0) {
-                return cur.plus(remaining);
+        long nanos = remaining.toNanos();
+        Instant at = cur.toInstant();
+        LocalDate lastOpenDate = cur.toLocalDate();
+        for (int y = cur.getYear(); ; y++) {
+            YearTimeline year = timeline(y);
+            long used = year.openNanosBefore(Math.max(0, year.offset(at)));
+            long available = year.totalOpenNanos() - used;
+            if (nanos <= available) {
+                return year.instant(year.offsetReaching(used + nanos)).atZone(zone);
             }
+            nanos -= available;
 
-            cur = limit;
-            remaining = remaining.minus(available);
-
-            if (remaining.compareTo(Duration.ZERO) > 0) {
-                cur = nextOpen(cur);
-                if (cur == null) return null;
+            if (available > 0) {
+                lastOpenDate = year.instant(year.lastEnd()).atZone(zone).toLocalDate();
+            } else if (LocalDate.of(y + 1, 1, 1).isAfter(lastOpenDate.plusDays(BUSINESS_DATE_SEARCH_LIMIT_DAYS))) {
+                return null;
             }
         }
-        return cur;
     }
 
 
@@ -424,66 +438,46 @@ public final class BusinessCalendar {
         ZonedDateTime cur = normalizeForQuery(start);
 
         // Cursor is EXCLUSIVE: we subtract open time strictly before "cur".
-        // If start is not open, use the end boundary of the most recent effective open segment.
-        if (!isOpenAt(cur)) {
-            cur = previousOpenCursorAtOrBefore(cur);
-            if (cur == null) return null;
-        }
-
-        while (remaining.compareTo(Duration.ZERO) > 0) {
-            Interval seg = effectiveOpenSegmentBeforeCursor(cur);
-
-            if (seg == null) {
-                ZonedDateTime prev = previousOpenCursorAtOrBefore(cur.minusNanos(1));
-                if (prev == null) return null;
-                cur = prev;
-                continue;
+        // lastOpenDate is the date the backward search starts from; like lastOpen, each search
+        // only reaches back BUSINESS_DATE_SEARCH_LIMIT_DAYS dates.
+        long nanos = remaining.toNanos();
+        Instant at = cur.toInstant();
+        LocalDate lastOpenDate = cur.toLocalDate();
+        for (int y = cur.getYear(); ; y--) {
+            YearTimeline year = timeline(y);
+            long to = Math.min(year.length(), year.offset(at));
+            long available = year.openNanosBefore(to);
+            if (available > 0) {
+                LocalDate found = year.instant(year.lastOpenBefore(to)).atZone(zone).toLocalDate();
+                if (!found.isAfter(lastOpenDate.minusDays(BUSINESS_DATE_SEARCH_LIMIT_DAYS))) return null;
             }
-
-            // Segment end to subtract from is the earlier of cursor and seg.end (cursor can be mid-segment).
-            ZonedDateTime segEndExclusive = seg.end.isBefore(cur) ? seg.end : cur;
-
-            Duration available = Duration.between(seg.start, segEndExclusive);
-
-            if (available.compareTo(Duration.ZERO) <= 0) {
-                ZonedDateTime prev = previousOpenCursorAtOrBefore(seg.start.minusNanos(1));
-                if (prev == null) return null;
-                cur = prev;
-                continue;
+            if (nanos <= available) {
+                return year.instant(year.offsetLeaving(available - nanos)).atZone(zone);
             }
+            nanos -= available;
 
-            if (remaining.compareTo(available) <= 0) {
-                return segEndExclusive.minus(remaining);
+            if (available > 0) {
+                lastOpenDate = year.instant(year.firstStart()).minusNanos(1).atZone(zone).toLocalDate();
+            } else if (LocalDate.of(y, 1, 1).isBefore(lastOpenDate.minusDays(BUSINESS_DATE_SEARCH_LIMIT_DAYS))) {
+                return null;
             }
-
-            remaining = remaining.minus(available);
-            cur = seg.start;
         }
-
-        return cur;
     }
 
-    private Interval effectiveOpenSegmentBeforeCursor(ZonedDateTime cursor) {
-        List<Interval> segs = effectiveOpenIntervalsFor(cursor.toLocalDate());
-        for (int i = segs.size() - 1; i >= 0; i--) {
-            Interval s = segs.get(i);
-            if (s.start.isBefore(cursor)) return s;
-        }
-        return null;
-    }
+    /** Open time between two instants; negative when {@code end} is before {@code start}. */
+    public Duration openDurationBetween(Object start, Object end) {
+        ZonedDateTime from = normalizeForQuery(start);
+        ZonedDateTime to = normalizeForQuery(end);
+        if (to.isBefore(from)) return openDurationBetween(to, from).negated();
 
-    private ZonedDateTime previousOpenCursorAtOrBefore(ZonedDateTime z) {
-        for (int d = 0; d < 370; d++) {
-            LocalDate date = z.toLocalDate().minusDays(d);
-            List<Interval> segs = effectiveOpenIntervalsFor(date);
-            for (int i = segs.size() - 1; i >= 0; i--) {
-                Interval s = segs.get(i);
-                if (!s.start.isBefore(s.end)) continue;
-                if (d == 0 && s.end.isAfter(z)) continue;
-                return s.end;
-            }
+        long nanos = 0;
+        for (int y = from.getYear(); y <= to.getYear(); y++) {
+            YearTimeline year = timeline(y);
+            long a = Math.max(0, year.offset(from.toInstant()));
+            long b = Math.min(year.length(), year.offset(to.toInstant()));
+            nanos += year.openNanosBefore(b) - year.openNanosBefore(a);
         }
-        return null;
+        return Duration.ofNanos(nanos);
     }
 
 
@@ -573,28 +567,16 @@ public final class BusinessCalendar {
     // ---------------- internals ----------------
 
     private boolean isOpenAt(ZonedDateTime z) {
-        if (isClosedAt(z)) return false;
-        return openIntervalCovering(z) != null;
-    }
-
-    private boolean isClosedAt(ZonedDateTime z) {
-        return closedIntervalCovering(z) != null;
+        YearTimeline year = timeline(z.getYear());
+        return year.isOpenAt(year.offset(z.toInstant()));
     }
 
-    private ZonedDateTime skipIfClosed(ZonedDateTime z) {
-        while (isClosedAt(z)) {
-            Interval c = closedIntervalCovering(z);
-            if (c == null) return z.plusNanos(1);
-            z = c.end;
-        }
-        return z;
+    YearTimeline timeline(int year) {
+        return timelines.computeIfAbsent(year, y -> YearTimeline.compile(y, zone, openRules, closedRules));
     }
 
-    private Interval openIntervalCovering(ZonedDateTime z) {
-        for (Interval i : openIntervalsFor(z.toLocalDate())) {
-            if (!z.isBefore(i.start) && z.isBefore(i.end)) return i;
-        }
-        return null;
+    private boolean isClosedAt(ZonedDateTime z) {
+        return closedIntervalCovering(z) != null;
     }
 
     private Interval effectiveOpenIntervalCovering(ZonedDateTime z) {
@@ -611,20 +593,6 @@ public final class BusinessCalendar {
         return null;
     }
 
-    private ZonedDateTime nextClosedStartBefore(ZonedDateTime z, ZonedDateTime limit) {
-        LocalDate startDate = z.toLocalDate();
-        LocalDate endDate = limit.toLocalDate();
-        ZonedDateTime best = null;
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            for (Interval i : closedIntervalsFor(date)) {
-                if (i.start.isAfter(z) && i.start.isBefore(limit) && (best == null || i.start.isBefore(best))) {
-                    best = i.start;
-                }
-            }
-        }
-        return best;
-    }
-
     private List<Interval> openIntervalsFor(LocalDate date) {
         ZonedDateTime dayStart = date.atStartOfDay(zone);
         ZonedDateTime dayEnd = date.plusDays(1).atStartOfDay(zone);
@@ -677,17 +645,19 @@ public final class BusinessCalendar {
     }
 
     private LocalDate nextBusinessDateOnOrAfter(LocalDate date) {
-        for (int offset = 0; offset <= BUSINESS_DATE_SEARCH_LIMIT_DAYS; offset++) {
-            LocalDate candidate = date.plusDays(offset);
-            if (isBusinessDate(candidate)) return candidate;
+        LocalDate limit = date.plusDays(BUSINESS_DATE_SEARCH_LIMIT_DAYS);
+        for (int y = date.getYear(); y <= limit.getYear(); y++) {
+            LocalDate candidate = timeline(y).firstBusinessDateOnOrAfter(date);
+            if (candidate != null) return candidate.isAfter(limit) ? null : candidate;
         }
         return null;
     }
 
     private LocalDate previousBusinessDateOnOrBefore(LocalDate date) {
-        for (int offset = 0; offset <= BUSINESS_DATE_SEARCH_LIMIT_DAYS; offset++) {
-            LocalDate candidate = date.minusDays(offset);
-            if (isBusinessDate(candidate)) return candidate;
+        LocalDate limit = date.minusDays(BUSINESS_DATE_SEARCH_LIMIT_DAYS);
+        for (int y = date.getYear(); y >= limit.getYear(); y--) {
+            LocalDate candidate = timeline(y).lastBusinessDateOnOrBefore(date);
+            if (candidate != null) return candidate.isBefore(limit) ? null : candidate;
         }
         return null;
     }
@@ -746,6 +716,192 @@ public final class BusinessCalendar {
         Interval(ZonedDateTime start, ZonedDateTime end) { this.start = start; this.end = end; }
     }
 
+    /**
+     * Effective open time of one calendar year: open rules minus closed rules, merged into
+     * sorted half-open intervals stored as nanos from the start of the year, with a running
+     * total of open nanos and the year's business dates so lookups are binary searches.
+     * Rules are materialized from Dec 31 of the previous year so overnight ranges carry over.
+     */
+    static final class YearTimeline {
+        private final Instant yearStart;
+        private final long length;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] openBefore;        // openBefore[i] = open nanos before starts[i]; last = total
+        private final LocalDate[] businessDates;
+
+        private YearTimeline(Instant yearStart, long length, long[] starts, long[] ends, LocalDate[] businessDates) {
+            this.yearStart = yearStart;
+            this.length = length;
+            this.starts = starts;
+            this.ends = ends;
+            this.businessDates = businessDates;
+            this.openBefore = new long[starts.length + 1];
+            for (int i = 0; i < starts.length; i++) {
+                openBefore[i + 1] = openBefore[i] + (ends[i] - starts[i]);
+            }
+        }
+
+        static YearTimeline compile(int year, ZoneId zone, List<WeeklyOpenRule> openRules, List<ClosedRule> closedRules) {
+            LocalDate first = LocalDate.of(year, 1, 1);
+            LocalDate next = first.plusYears(1);
+            Instant yearStart = first.atStartOfDay(zone).toInstant();
+            long length = Duration.between(yearStart, next.atStartOfDay(zone).toInstant()).toNanos();
+
+            List<long[]> opens = new ArrayList<>();
+            List<long[]> closeds = new ArrayList<>();
+            for (LocalDate d = first.minusDays(1); d.isBefore(next); d = d.plusDays(1)) {
+                for (WeeklyOpenRule r : openRules) {
+                    for (Interval i : r.materialize(d, zone)) clip(opens, i, yearStart, length);
+                }
+                for (ClosedRule r : closedRules) {
+                    for (Interval i : r.materialize(d, zone)) clip(closeds, i, yearStart, length);
+                }
+            }
+            List<long[]> open = subtract(union(opens), union(closeds));
+
+            long[] starts = new long[open.size()];
+            long[] ends = new long[open.size()];
+            for (int i = 0; i < open.size(); i++) {
+                starts[i] = open.get(i)[0];
+                ends[i] = open.get(i)[1];
+            }
+
+            List<LocalDate> businessDates = new ArrayList<>();
+            int k = 0;
+            for (LocalDate d = first; d.isBefore(next); d = d.plusDays(1)) {
+                long dayStart = Duration.between(yearStart, d.atStartOfDay(zone).toInstant()).toNanos();
+                long dayEnd = Duration.between(yearStart, d.plusDays(1).atStartOfDay(zone).toInstant()).toNanos();
+                while (k < ends.length && ends[k] <= dayStart) k++;
+                if (k < starts.length && starts[k] < dayEnd) businessDates.add(d);
+            }
+
+            return new YearTimeline(yearStart, length, starts, ends, businessDates.toArray(LocalDate[]::new));
+        }
+
+        private static void clip(List<long[]> out, Interval i, Instant yearStart, long length) {
+            long start = Math.max(0, Duration.between(yearStart, i.start.toInstant()).toNanos());
+            long end = Math.min(length, Duration.between(yearStart, i.end.toInstant()).toNanos());
+            if (start < end) out.add(new long[]{start, end});
+        }
+
+        private static List<long[]> union(List<long[]> intervals) {
+            intervals.sort(Comparator.comparingLong(a -> a[0]));
+            List<long[]> out = new ArrayList<>();
+            for (long[] i : intervals) {
+                long[] last = out.isEmpty() ? null : out.get(out.size() - 1);
+                if (last != null && i[0] <= last[1]) last[1] = Math.max(last[1], i[1]);
+                else out.add(new long[]{i[0], i[1]});
+            }
+            return out;
+        }
+
+        private static List<long[]> subtract(List<long[]> opens, List<long[]> closeds) {
+            List<long[]> out = new ArrayList<>();
+            int c = 0;
+            for (long[] o : opens) {
+                long cur = o[0];
+                while (c < closeds.size() && closeds.get(c)[1] <= cur) c++;
+                for (int j = c; j < closeds.size() && closeds.get(j)[0] < o[1]; j++) {
+                    long[] closed = closeds.get(j);
+                    if (cur < closed[0]) out.add(new long[]{cur, closed[0]});
+                    cur = Math.max(cur, closed[1]);
+                }
+                if (cur < o[1]) out.add(new long[]{cur, o[1]});
+            }
+            return out;
+        }
+
+        long length() { return length; }
+        long totalOpenNanos() { return openBefore[starts.length]; }
+        long firstStart() { return starts.length == 0 ? 0 : starts[0]; }
+        long lastEnd() { return ends.length == 0 ? length : ends[ends.length - 1]; }
+
+        long offset(Instant t) { return Duration.between(yearStart, t).toNanos(); }
+        Instant instant(long offset) { return yearStart.plusNanos(offset); }
+
+        boolean isOpenAt(long offset) {
+            int i = firstEndingAfter(offset);
+            return i < starts.length && starts[i] <= offset;
+        }
+
+        /** First open offset at or after {@code offset}, or -1. */
+        long firstOpenAtOrAfter(long offset) {
+            int i = firstEndingAfter(offset);
+            return i == starts.length ? -1 : Math.max(starts[i], offset);
+        }
+
+        /** Last open offset strictly before {@code offset}, or -1. */
+        long lastOpenBefore(long offset) {
+            int i = firstEndingAfter(offset);
+            if (i < starts.length && starts[i] < offset) return offset - 1;
+            return i == 0 ? -1 : ends[i - 1] - 1;
+        }
+
+        /** Open nanos in [start of year, offset). */
+        long openNanosBefore(long offset) {
+            int i = firstEndingAfter(offset);
+            if (i == starts.length) return totalOpenNanos();
+            return openBefore[i] + Math.max(0, offset - starts[i]);
+        }
+
+        /** Earliest offset with {@code target} open nanos before it; 0 < target <= total. */
+        long offsetReaching(long target) {
+            int lo = 0, hi = starts.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (openBefore[mid + 1] >= target) hi = mid;
+                else lo = mid + 1;
+            }
+            return starts[lo] + (target - openBefore[lo]);
+        }
+
+        /** Latest offset with {@code target} open nanos before it; 0 <= target < total. */
+        long offsetLeaving(long target) {
+            int lo = 0, hi = starts.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (openBefore[mid] <= target) lo = mid;
+                else hi = mid - 1;
+            }
+            return starts[lo] + (target - openBefore[lo]);
+        }
+
+        private int firstEndingAfter(long offset) {
+            int lo = 0, hi = ends.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (ends[mid] > offset) hi = mid;
+                else lo = mid + 1;
+            }
+            return lo;
+        }
+
+        boolean isBusinessDate(LocalDate date) {
+            return Arrays.binarySearch(businessDates, date) >= 0;
+        }
+
+        int businessDateCount() { return businessDates.length; }
+        LocalDate businessDate(int index) { return businessDates[index]; }
+
+        /** Index of a date known to be a business date of this year. */
+        int businessDateIndex(LocalDate date) {
+            return Arrays.binarySearch(businessDates, date);
+        }
+
+        LocalDate firstBusinessDateOnOrAfter(LocalDate date) {
+            int i = Arrays.binarySearch(businessDates, date);
+            if (i < 0) i = -i - 1;
+            return i < businessDates.length ? businessDates[i] : null;
+        }
+
+        LocalDate lastBusinessDateOnOrBefore(LocalDate date) {
+            int i = Arrays.binarySearch(businessDates, date);
+            if (i < 0) i = -i - 2;
+            return i >= 0 ? businessDates[i] : null;
+        }
+    }
+
     static final class TimeRange {
         static final long NANOS_PER_DAY = BusinessTimeRange.NANOS_PER_DAY;
 
@@ -37,6 +37,7 @@ public class RunVars extends NodeMap {
     @Override
     public synchronized void put(String key, Object value) {
         root.set(key, MAPPER.valueToTree(value));
+        touch();
     }
 
     public synchronized void putAll(Object value) {
@@ -44,6 +45,7 @@ public class RunVars extends NodeMap {
             return;
         }
         root.setAll((ObjectNode) MAPPER.valueToTree(value));
+        touch();
     }
 
 
@@ -9,6 +9,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class SysEnv {
 
@@ -19,6 +20,11 @@ public final class SysEnv {
     public static final String bambooVarPrefix     = "bamboo_";
     public static final String githubVarPrefix     = "GITHUB_";
 
+    // Absent keys are remembered as "" (never a present value) so misses skip the property scans too.
+    private static final int MAX_CACHED_PICKLEBALL_PROPERTIES = 10_000;
+    private static final String ABSENT = "";
+    private static final Map<String, String> pickleBallPropertyCache = new ConcurrentHashMap<>();
+
     public static String putPickleBallProperty(String key, String value) {
         if (key == null || value == null) return null;
 
@@ -26,9 +32,32 @@ public final class SysEnv {
                 ? key.trim()
                 : pickleBallVarPrefix + key.trim();
 
+        clearPickleBallPropertyCache();
         return System.setProperty(finalKey, value);
     }
 
+    /**
+     * Single-key {@link #getPickleBallProperty(String...)} that remembers the
+     * answer, including misses. Properties set without going through this class
+     * are only seen after {@link #clearPickleBallPropertyCache()}.
+     */
+    public static String cachedPickleBallProperty(String key) {
+        if (key == null) return null;
+        String value = pickleBallPropertyCache.get(key);
+        if (value == null) {
+            if (pickleBallPropertyCache.size() >= MAX_CACHED_PICKLEBALL_PROPERTIES) {
+                pickleBallPropertyCache.clear();
+            }
+            value = Objects.requireNonNullElse(getPickleBallProperty(key), ABSENT);
+            pickleBallPropertyCache.put(key, value);
+        }
+        return isPresent(value) ? value : null;
+    }
+
+    public static void clearPickleBallPropertyCache() {
+        pickleBallPropertyCache.clear();
+    }
+
 
     public static String getPickleBallProperty(String... keys) {
         String[] newKeys = Arrays.stream(keys)
@@ -8,6 +8,7 @@ import org.openqa.selenium.remote.LocalFileDetector;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import tools.dscode.common.domoperations.SeleniumUtils;
 import tools.dscode.common.driver.DriverConstruction;
+import tools.dscode.common.driver.DriverPool;
 import tools.dscode.parallelutilities.Stagger;
 
 import java.time.Duration;
@@ -61,17 +62,17 @@ public class BrowserSteps {
 
     @Given(ObjectRegistrationSteps.objCreation + "CREATE_DRIVER$")
     public RemoteWebDriver createDriver(ObjectNode configuration) throws Exception {
-        return DriverConstruction.createDriver(configuration);
+        return DriverPool.acquire(configuration, DriverConstruction::createDriver);
     }
 
     @Given(ObjectRegistrationSteps.objCreation + "CREATE_LOCAL_DRIVER$")
     public RemoteWebDriver createLocalDriver(ObjectNode configuration) throws Exception {
-        return DriverConstruction.createLocalDriver(configuration);
+        return DriverPool.acquire(configuration, DriverConstruction::createLocalDriver);
     }
 
     @Given(ObjectRegistrationSteps.objCreation + "CREATE_REMOTE_DRIVER$")
     public RemoteWebDriver createRemoteDriver(ObjectNode configuration) throws Exception {
-        return DriverConstruction.createRemoteDriver(configuration);
+        return DriverPool.acquire(configuration, DriverConstruction::createRemoteDriver);
     }
 
     @Given(ObjectRegistrationSteps.objAction + "NAVIGATE: (.*)$")
@@ -176,7 +177,9 @@ public class BrowserSteps {
     @Given(ObjectRegistrationSteps.objAction + "QUIT_LOCAL_DRIVER$")
     public Object quitLocalDriver(Object value) {
         RemoteWebDriver driver = (RemoteWebDriver) value;
-        driver.quit();
+        if (!DriverPool.release(driver)) {
+            driver.quit();
+        }
         return value;
     }
 }
\ No newline at end of file
@@ -11,10 +11,12 @@ import tools.dscode.common.CoreSteps;
 import tools.dscode.common.annotations.DefinitionFlag;
 import tools.dscode.common.annotations.DefinitionFlags;
 import tools.dscode.common.annotations.Phase;
+import tools.dscode.common.driver.DriverPool;
 import tools.dscode.common.reporting.logging.CleanupTrace;
 import tools.dscode.common.reporting.logging.Log;
 import tools.dscode.common.exceptions.SoftRuntimeException;
 import tools.dscode.common.reporting.logging.reportportal.ReportPortalBridge;
+import tools.dscode.common.util.CacheReport;
 
 import java.lang.reflect.Method;
 import java.util.concurrent.ConcurrentHashMap;
@@ -156,6 +158,7 @@ public class GeneralSteps extends CoreSteps {
     @AfterAll
     public static void afterAll() {
         CleanupTrace.print("[AfterAll] START");
+        CleanupTrace.print("[AfterAll] " + CacheReport.describe());
 
         Throwable failure = null;
 
@@ -168,6 +171,15 @@ public class GeneralSteps extends CoreSteps {
             failure = rememberFailure(failure, t);
         }
 
+        CleanupTrace.print("[AfterAll] START: DriverPool.shutdown()");
+        try {
+            DriverPool.shutdown();
+            CleanupTrace.print("[AfterAll] END: DriverPool.shutdown()");
+        } catch (Throwable t) {
+            CleanupTrace.printThrowable("[AfterAll] THROWABLE: DriverPool.shutdown()", t);
+            failure = rememberFailure(failure, t);
+        }
+
         CleanupTrace.print("[AfterAll] START: Log.global().closeAll()");
         try {
             Log.global().closeAll();
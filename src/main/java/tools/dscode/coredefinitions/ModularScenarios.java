@@ -200,11 +200,11 @@ public class ModularScenarios extends CoreSteps {
     ) {
         child.parentStep = parent;
         child.previousSibling = previous;
-        child.nextSibling = null;
+        child.setNextSibling(null);
         parent.childSteps.add(child);
 
         if (previous != null) {
-            previous.nextSibling = child;
+            previous.setNextSibling(child);
         }
 
         return child;
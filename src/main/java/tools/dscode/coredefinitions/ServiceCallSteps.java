@@ -12,12 +12,15 @@ import io.restassured.specification.RequestSpecification;
 import tools.dscode.common.CoreSteps;
 import tools.dscode.common.mappings.NodeMap;
 import tools.dscode.common.servicecalls.RestAssuredUtil;
+import tools.dscode.common.servicecalls.ServiceCallBatch;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -27,7 +30,9 @@ import static tools.dscode.common.mappings.MappingProcessor.getRunMap;
 import static tools.dscode.common.mappings.ParsingMap.getClosestScenarioStepAncestorNodeMap;
 import static tools.dscode.common.mappings.ValueFormatting.MAPPER;
 import static tools.dscode.common.reporting.logging.LogForwarder.logInfo;
+import static tools.dscode.common.util.GeneralUtils.toLongOrZero;
 import static tools.dscode.common.variables.RunVars.resolveFromVars;
+import static tools.dscode.common.variables.RunVars.resolveFromVarsOrDefault;
 
 /**
  * Cucumber-facing service-call definitions.
@@ -37,6 +42,9 @@ import static tools.dscode.common.variables.RunVars.resolveFromVars;
  * RESPONSE is written by EXECUTE SERVICE CALL. The scenario root is registered
  * by reference in the calling scenario's RunMap before execution, so later
  * mutations are immediately visible through the RunMap entry.</p>
+ *
+ * <p>PARALLEL SERVICE CALLS runs the same scenarios one after another but
+ * sends their requests concurrently; see {@link #parallelServiceCalls}.</p>
  */
 public class ServiceCallSteps extends CoreSteps {
 
@@ -49,6 +57,8 @@ public class ServiceCallSteps extends CoreSteps {
     static final String RESPONSE = "RESPONSE";
     static final String PARENT = "PARENT";
 
+    static final int DEFAULT_MAX_PARALLEL_CALLS = 8;
+
     @Given("^(?:\"([^\"]+)\"\\s+)?SERVICE CALLS?:?(.*)?$")
     public static void serviceCalls(
             String inlineServiceCallObjectName,
@@ -71,6 +81,56 @@ public class ServiceCallSteps extends CoreSteps {
         );
     }
 
+    /**
+     * Runs each matched service-call scenario before this step ends. Its steps
+     * still run in order on the scenario thread, each with the NodeMap and
+     * ParsingMap of its own ScenarioStep. EXECUTE SERVICE CALL sends the request
+     * on a virtual thread and moves on to the next scenario instead of waiting.
+     * At most {@code pkb_maxParallelServiceCalls} requests (default 8) are in
+     * flight at once. RESPONSE objects are written back in declaration order
+     * once every request has finished, so they are available to the steps after
+     * this one but not inside the service-call scenarios themselves.
+     */
+    @Given("^(?:\"([^\"]+)\"\\s+)?PARALLEL SERVICE CALLS?:?(.*)?$")
+    public static void parallelServiceCalls(
+            String inlineServiceCallObjectName,
+            String inlineTags,
+            DataTable dataTable
+    ) {
+        StepExtension triggerStep = getRunningStep();
+        List<ScenarioStep> calls = new ArrayList<>();
+
+        ModularScenarios.populateRunScenariosStep(
+                triggerStep,
+                inlineTags,
+                dataTable,
+                callsPath(),
+                "service call",
+                (scenarioStep, passedValues) -> {
+                    registerServiceCallReference(
+                            scenarioStep,
+                            passedValues,
+                            inlineServiceCallObjectName
+                    );
+                    calls.add(scenarioStep);
+                }
+        );
+
+        // Run here rather than as deferred children so the batch can be awaited before this step ends.
+        for (ScenarioStep call : calls) {
+            triggerStep.childSteps.remove(call);
+            call.previousSibling = null;
+            call.setNextSibling(null);
+        }
+
+        try (ServiceCallBatch batch = ServiceCallBatch.open(maxParallelCalls(), calls)) {
+            for (ScenarioStep call : calls) {
+                getCurrentScenarioState().runStep(call);
+            }
+            batch.awaitAll();
+        }
+    }
+
     @Given("^CALL:(.*)$")
     public static Object inlineCall(String inlineTags) {
         StepExtension triggerStep = getRunningStep();
@@ -104,7 +164,7 @@ public class ServiceCallSteps extends CoreSteps {
          */
         triggerStep.childSteps.remove(nestedScenarioStep);
         nestedScenarioStep.previousSibling = null;
-        nestedScenarioStep.nextSibling = null;
+        nestedScenarioStep.setNextSibling(null);
 
         getCurrentScenarioState().runStep(nestedScenarioStep);
 
@@ -122,13 +182,10 @@ public class ServiceCallSteps extends CoreSteps {
     public static void executeServiceCall() {
         ScenarioStep scenarioStep = scenarioStep(getRunningStep());
         NodeMap serviceCallMap = scenarioStep.getDefaultStepNodeMap();
-        ObjectNode serviceCallObject = serviceCallMap.getRoot();
 
-        // This same ObjectNode is already stored by reference in the caller's
-        // RunMap. Replacing RESPONSE here is therefore visible to the caller.
         // The empty object remains available if validation/execution throws or
         // REST Assured returns no Response instance.
-        serviceCallObject.set(RESPONSE, MAPPER.createObjectNode());
+        setResponse(serviceCallMap, MAPPER.createObjectNode());
 
         ObjectNode request = requiredObject(serviceCallMap, REQUEST);
         ObjectNode configuration = optionalObject(serviceCallMap, CONFIGURATION);
@@ -164,6 +221,15 @@ public class ServiceCallSteps extends CoreSteps {
                     request,
                     configuration
             );
+
+            ServiceCallBatch batch = ServiceCallBatch.active(scenarioStep);
+            if (batch != null) {
+                String requestMethod = method;
+                batch.submit(specification, method, endpoint, completed ->
+                        mergeResponse(serviceCallMap, requestMethod, completed));
+                return;
+            }
+
             RestAssuredUtil.logRequestAndResponse(specification, restLog);
 
             Response response = RestAssuredUtil.execute(specification, method, endpoint);
@@ -173,7 +239,7 @@ public class ServiceCallSteps extends CoreSteps {
             if (!responseNode.isEmpty()) {
                 responseNode.put("method", method);
             }
-            serviceCallObject.set(RESPONSE, responseNode);
+            setResponse(serviceCallMap, responseNode);
 
             logInfo(
                     "REST Assured service call completed in "
@@ -191,6 +257,64 @@ public class ServiceCallSteps extends CoreSteps {
         }
     }
 
+    /**
+     * Replaces RESPONSE in the service-call root. The same ObjectNode is stored
+     * by reference in the caller's RunMap, so the change is visible to the
+     * caller, and both maps record it as a write.
+     */
+    private static void setResponse(NodeMap serviceCallMap, ObjectNode responseNode) {
+        serviceCallMap.update(root -> root.set(RESPONSE, responseNode));
+        NodeMap runMap = getRunMap();
+        if (runMap != null) {
+            runMap.referenceChanged();
+        }
+    }
+
+    /** Writes a parallel call's RESPONSE and replays its REST log on the scenario thread. */
+    private static void mergeResponse(
+            NodeMap serviceCallMap,
+            String method,
+            ServiceCallBatch.Completed completed
+    ) {
+        try (PrintStream restLog = new PrintStream(
+                new LogInfoOutputStream(),
+                true,
+                StandardCharsets.UTF_8
+        )) {
+            restLog.print(completed.log());
+        }
+
+        if (completed.failure() != null) {
+            logInfo(
+                    "REST Assured service call failed after "
+                            + completed.elapsedMillis()
+                            + " ms: "
+                            + completed.failure()
+            );
+            throw completed.failure();
+        }
+
+        ObjectNode responseNode = completed.response();
+        if (!responseNode.isEmpty()) {
+            responseNode.put("method", method);
+        }
+        setResponse(serviceCallMap, responseNode);
+
+        logInfo(
+                "REST Assured service call completed in "
+                        + completed.elapsedMillis()
+                        + " ms"
+        );
+    }
+
+    private static int maxParallelCalls() {
+        long configured = toLongOrZero(resolveFromVarsOrDefault(
+                "pkb_maxParallelServiceCalls",
+                DEFAULT_MAX_PARALLEL_CALLS
+        ));
+        return configured > 0 ? (int) Math.min(configured, Integer.MAX_VALUE) : DEFAULT_MAX_PARALLEL_CALLS;
+    }
+
     public static ScenarioStep scenarioStep(StepBase step) {
         if (step instanceof ScenarioStep scenarioStep) {
             return scenarioStep;
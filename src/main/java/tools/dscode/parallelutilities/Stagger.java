@@ -2,30 +2,76 @@ package tools.dscode.parallelutilities;
 
 import java.net.IDN;
 import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static tools.dscode.common.util.GeneralUtils.toLongOrZero;
+import static tools.dscode.common.variables.RunVars.resolveFromVarsOrDefault;
+
+/**
+ * Serializes work that must not overlap across parallel scenarios.
+ * <p>
+ * The keyed helpers ({@link #call(Callable)}, {@link #callUrlHost}, {@link #callMatching})
+ * coordinate through one lane per key. A lane admits callers in arrival order, up to its
+ * max concurrency (default 1), and can enforce a minimum spacing between starts to
+ * rate-limit a host. A release wakes only the next caller for that key. Lane limits for URL
+ * hosts default to {@code pkb_staggerUrlHostMaxConcurrent} and
+ * {@code pkb_staggerUrlHostSpacingMs}, and can be set per host with {@link #limitUrlHost}.
+ * <p>
+ * {@link #call(Object, BiPredicate, Callable)} with an arbitrary predicate coordinates per
+ * value class. Waiters are admitted in arrival order: a caller starts once it conflicts with
+ * neither a running caller nor an earlier waiter, and the releasing thread hands off directly
+ * to the waiters it unblocks.
+ * <p>
+ * Waits park on {@code java.util.concurrent} locks rather than monitors, so virtual threads
+ * waiting here do not pin their carrier. Time spent waiting is recorded per group in
+ * {@link #waitTimes()}.
+ */
 public final class Stagger {
 
     private Stagger() {}
 
-    private static final Object LOCK = new Object();
-    private static final List<Entry> ACTIVE = new ArrayList<>();
+    static final int URL_HOST_MAX_CONCURRENT =
+            (int) positiveOrDefault(resolveFromVarsOrDefault("pkb_staggerUrlHostMaxConcurrent", 1), 1);
+    static final long URL_HOST_SPACING_MS =
+            Math.max(0, toLongOrZero(resolveFromVarsOrDefault("pkb_staggerUrlHostSpacingMs", 0)));
+
+    private static final String GLOBAL_GROUP = "global";
+    private static final String MATCHING_GROUP = "matching";
+    private static final String URL_HOST_GROUP = "urlHost";
+
+    private static final Map<LaneKey, Lane> LANES = new ConcurrentHashMap<>();
+    private static final Map<LaneKey, Limits> LIMITS = new ConcurrentHashMap<>();
+    private static final Map<Object, ConflictGroup> GROUPS = new ConcurrentHashMap<>();
+    private static final Map<String, WaitHistogram> WAIT_TIMES = new ConcurrentHashMap<>();
 
     private enum Global {
         INSTANCE
     }
 
     public static <R> R call(Callable<R> work) {
-        return call(Global.INSTANCE, alwaysAgainst(), work);
+        return callInLanes(GLOBAL_GROUP, List.of(Global.INSTANCE), work);
     }
 
     public static void run(CheckedRunnable work) {
@@ -43,28 +89,24 @@ public final class Stagger {
         Objects.requireNonNull(against, "against");
         Objects.requireNonNull(work, "work");
 
-        Entry self = new Entry(groupFor(value), value);
+        Object group = groupFor(value);
+        ConflictGroup conflicts = GROUPS.computeIfAbsent(group, g -> new ConflictGroup());
+        WaitHistogram waits = waitHistogram(group instanceof Class<?> type ? type.getName() : String.valueOf(group));
 
+        Waiter self;
+        long queuedAt = System.nanoTime();
         try {
-            synchronized (LOCK) {
-                while (hasConflict(self, value, against)) {
-                    waitOnLock();
-                }
-
-                ACTIVE.add(self);
-            }
-
-            return work.call();
+            self = conflicts.admit(value, against);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new StaggerException("Staggered call was interrupted", e);
-        } catch (Exception e) {
-            throw new StaggerException("Staggered call failed", e);
+        }
+        waits.record(System.nanoTime() - queuedAt);
+
+        try {
+            return callDirect(work);
         } finally {
-            synchronized (LOCK) {
-                ACTIVE.remove(self);
-                LOCK.notifyAll();
-            }
+            conflicts.release(self);
         }
     }
 
@@ -90,11 +132,8 @@ public final class Stagger {
             return callDirect(work);
         }
 
-        return call(
-                keys,
-                Stagger::overlaps,
-                work
-        );
+        // Sorted, so two callers sharing several keys always take their lanes in the same order.
+        return callInLanes(MATCHING_GROUP, List.copyOf(new TreeSet<>(keys)), work);
     }
 
     public static void runMatching(
@@ -118,11 +157,7 @@ public final class Stagger {
             return callDirect(work);
         }
 
-        return call(
-                key,
-                String::equals,
-                work
-        );
+        return callInLanes(URL_HOST_GROUP, List.of(key), work);
     }
 
     public static void runUrlHost(
@@ -135,6 +170,52 @@ public final class Stagger {
         });
     }
 
+    /**
+     * Sets how many calls may run at once against {@code urlOrHost}'s registered domain, and
+     * the minimum time between their starts. Callers already inside the previous lane finish
+     * under its limits; later callers use the new ones.
+     */
+    public static void limitUrlHost(String urlOrHost, int maxConcurrent, Duration minSpacing) {
+        String key = registeredHostKey(urlOrHost);
+        if (key == null || key.isBlank()) {
+            throw new IllegalArgumentException("No host in '" + urlOrHost + "'");
+        }
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1");
+        }
+        LaneKey laneKey = new LaneKey(URL_HOST_GROUP, key);
+        LIMITS.put(laneKey, new Limits(maxConcurrent, minSpacing == null ? 0 : minSpacing.toNanos()));
+        LANES.remove(laneKey);
+    }
+
+    /** Wait-time histograms by group: {@code global}, {@code matching}, {@code urlHost} or a value class name. */
+    public static Map<String, WaitHistogram.Snapshot> waitTimes() {
+        Map<String, WaitHistogram.Snapshot> snapshots = new TreeMap<>();
+        WAIT_TIMES.forEach((group, histogram) -> snapshots.put(group, histogram.snapshot()));
+        return snapshots;
+    }
+
+    public static String describe() {
+        StringBuilder out = new StringBuilder("Stagger{");
+        waitTimes().forEach((group, snapshot) -> out
+                .append(out.length() > 8 ? ", " : "")
+                .append(group).append('=').append(snapshot));
+        return out.append('}').toString();
+    }
+
+    /** Callers waiting to enter the lane for {@code url}'s registered domain. */
+    static int queuedForUrlHost(String url) {
+        Lane lane = LANES.get(new LaneKey(URL_HOST_GROUP, registeredHostKey(url)));
+        return lane == null ? 0 : lane.permits.getQueueLength();
+    }
+
+    static void reset() {
+        LANES.clear();
+        LIMITS.clear();
+        GROUPS.clear();
+        WAIT_TIMES.clear();
+    }
+
     public static <T, K> BiPredicate<T, T> sameBy(Function<T, K> keyExtractor) {
         Objects.requireNonNull(keyExtractor, "keyExtractor");
 
@@ -148,25 +229,41 @@ public final class Stagger {
         return (a, b) -> true;
     }
 
-    @SuppressWarnings("unchecked")
-    private static <T> boolean hasConflict(
-            Entry self,
-            T value,
-            BiPredicate<T, T> against
-    ) {
-        for (Entry entry : ACTIVE) {
-            if (!Objects.equals(entry.group, self.group)) {
-                continue;
-            }
-
-            T other = (T) entry.value;
+    private static <R> R callInLanes(String group, List<?> keys, Callable<R> work) {
+        Objects.requireNonNull(work, "work");
 
-            if (against.test(value, other)) {
-                return true;
+        List<Lane> entered = new ArrayList<>(keys.size());
+        long queuedAt = System.nanoTime();
+        try {
+            for (Object key : keys) {
+                Lane lane = lane(new LaneKey(group, key));
+                lane.enter();
+                entered.add(lane);
+            }
+            waitHistogram(group).record(System.nanoTime() - queuedAt);
+            return callDirect(work);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StaggerException("Staggered call was interrupted", e);
+        } finally {
+            for (int i = entered.size() - 1; i >= 0; i--) {
+                entered.get(i).exit();
             }
         }
+    }
+
+    private static Lane lane(LaneKey key) {
+        return LANES.computeIfAbsent(key, k -> new Lane(LIMITS.getOrDefault(k, defaultLimits(k))));
+    }
 
-        return false;
+    private static Limits defaultLimits(LaneKey key) {
+        return URL_HOST_GROUP.equals(key.group())
+                ? new Limits(URL_HOST_MAX_CONCURRENT, TimeUnit.MILLISECONDS.toNanos(URL_HOST_SPACING_MS))
+                : Limits.EXCLUSIVE;
+    }
+
+    private static WaitHistogram waitHistogram(String group) {
+        return WAIT_TIMES.computeIfAbsent(group, g -> new WaitHistogram());
     }
 
     private static Set<String> regexKeys(String text, Pattern pattern) {
@@ -195,16 +292,6 @@ public final class Stagger {
         return keys;
     }
 
-    private static boolean overlaps(Set<String> a, Set<String> b) {
-        for (String value : a) {
-            if (b.contains(value)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
     private static String registeredHostKey(String url) {
         String host = extractHost(url);
 
@@ -272,23 +359,214 @@ public final class Stagger {
         }
     }
 
-    private static void waitOnLock() throws InterruptedException {
-        LOCK.wait();
-    }
-
     private static Object groupFor(Object value) {
         return value == null ? NullValue.class : value.getClass();
     }
 
+    private static long positiveOrDefault(Object value, long fallback) {
+        long parsed = toLongOrZero(value);
+        return parsed > 0 ? parsed : fallback;
+    }
+
     private static final class NullValue {}
 
-    private static final class Entry {
-        private final Object group;
+    private record LaneKey(String group, Object key) {}
+
+    private record Limits(int maxConcurrent, long minSpacingNanos) {
+        static final Limits EXCLUSIVE = new Limits(1, 0);
+    }
+
+    /** FIFO admission for one key: a fair semaphore, plus a reserved start slot per caller. */
+    private static final class Lane {
+        private final Semaphore permits;
+        private final long minSpacingNanos;
+        private final AtomicLong nextStartNanos = new AtomicLong(Long.MIN_VALUE);
+
+        private Lane(Limits limits) {
+            this.permits = new Semaphore(limits.maxConcurrent(), true);
+            this.minSpacingNanos = limits.minSpacingNanos();
+        }
+
+        void enter() throws InterruptedException {
+            permits.acquire();
+            if (minSpacingNanos <= 0) {
+                return;
+            }
+            try {
+                long now = System.nanoTime();
+                long slot = nextStartNanos.getAndAccumulate(now, (reserved, at) ->
+                        (reserved == Long.MIN_VALUE || reserved - at < 0 ? at : reserved) + minSpacingNanos);
+                long start = slot == Long.MIN_VALUE || slot - now < 0 ? now : slot;
+                long delay = start - System.nanoTime();
+                if (delay > 0) {
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                }
+            } catch (InterruptedException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        void exit() {
+            permits.release();
+        }
+    }
+
+    /**
+     * Admission for callers of one value class under an arbitrary conflict predicate. All
+     * state is guarded by {@code lock}; each waiter parks on its own condition and is
+     * signalled only when it has been admitted.
+     */
+    private static final class ConflictGroup {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<Waiter> active = new ArrayList<>();
+        private final Deque<Waiter> queue = new ArrayDeque<>();
+
+        <T> Waiter admit(T value, BiPredicate<T, T> against) throws InterruptedException {
+            lock.lock();
+            try {
+                Waiter self = new Waiter(value, against, lock.newCondition());
+                if (!conflictsWith(self, active) && !conflictsWith(self, queue)) {
+                    active.add(self);
+                    return self;
+                }
+                queue.addLast(self);
+                try {
+                    while (!self.admitted) {
+                        self.turn.await();
+                    }
+                } catch (InterruptedException e) {
+                    if (self.admitted) {
+                        release(self);
+                    } else {
+                        queue.remove(self);
+                        admitWaiting();
+                    }
+                    throw e;
+                }
+                return self;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(Waiter self) {
+            lock.lock();
+            try {
+                active.remove(self);
+                admitWaiting();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Admits, in order, every waiter that conflicts with no running or earlier waiting caller. */
+        private void admitWaiting() {
+            List<Waiter> ahead = new ArrayList<>();
+            for (var it = queue.iterator(); it.hasNext(); ) {
+                Waiter waiter = it.next();
+                if (!conflictsWith(waiter, active) && !conflictsWith(waiter, ahead)) {
+                    it.remove();
+                    waiter.admitted = true;
+                    active.add(waiter);
+                    waiter.turn.signal();
+                } else {
+                    ahead.add(waiter);
+                }
+            }
+        }
+
+        private static boolean conflictsWith(Waiter waiter, Iterable<Waiter> others) {
+            for (Waiter other : others) {
+                if (waiter.conflictsWith(other)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Waiter {
         private final Object value;
+        private final BiPredicate<Object, Object> against;
+        private final Condition turn;
+        private boolean admitted;
 
-        private Entry(Object group, Object value) {
-            this.group = group;
+        @SuppressWarnings("unchecked")
+        private <T> Waiter(T value, BiPredicate<T, T> against, Condition turn) {
             this.value = value;
+            this.against = (BiPredicate<Object, Object>) against;
+            this.turn = turn;
+        }
+
+        boolean conflictsWith(Waiter other) {
+            return against.test(value, other.value);
+        }
+    }
+
+    /** Lock-free histogram of wait times in power-of-two millisecond buckets. */
+    public static final class WaitHistogram {
+        /** Upper bounds of the buckets in milliseconds; the last bucket is open-ended. */
+        static final long[] BOUNDS_MS = {1, 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024, 2048, 4096, 8192, 16384, 32768};
+
+        private final LongAdder[] buckets = new LongAdder[BOUNDS_MS.length + 1];
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        WaitHistogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long waitNanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+            int bucket = 0;
+            while (bucket < BOUNDS_MS.length && millis >= BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            totalNanos.add(waitNanos);
+            maxNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+
+        Snapshot snapshot() {
+            long[] counts = new long[buckets.length];
+            long count = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                count += counts[i];
+            }
+            return new Snapshot(count, Duration.ofNanos(totalNanos.sum()), Duration.ofNanos(maxNanos.get()), counts);
+        }
+
+        /**
+         * @param bucketCounts calls per bucket; bucket {@code i} holds waits under
+         *                     {@code BOUNDS_MS[i]} ms and at least the previous bound
+         */
+        public record Snapshot(long count, Duration total, Duration max, long[] bucketCounts) {
+
+            /** Smallest bucket bound, in ms, at or below which {@code percentile} of waits fall. */
+            public long percentileUpperBoundMillis(double percentile) {
+                long threshold = (long) Math.ceil(count * percentile / 100.0);
+                long seen = 0;
+                for (int i = 0; i < bucketCounts.length; i++) {
+                    seen += bucketCounts[i];
+                    if (seen >= threshold && seen > 0) {
+                        return i < BOUNDS_MS.length ? BOUNDS_MS[i] : Long.MAX_VALUE;
+                    }
+                }
+                return 0;
+            }
+
+            @Override
+            public String toString() {
+                return "[count=" + count
+                        + ", avgMs=" + (count == 0 ? 0 : total.toMillis() / count)
+                        + ", p50<=" + percentileUpperBoundMillis(50)
+                        + ", p99<=" + percentileUpperBoundMillis(99)
+                        + ", maxMs=" + max.toMillis() + "]";
+            }
         }
     }
 
@@ -1,10 +1,13 @@
 // src/main/java/tools/dscode/registry/GlobalRegistry.java
 package tools.dscode.registry;
 import org.openqa.selenium.WebDriver;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static tools.dscode.common.reporting.logging.LogForwarder.logError;
 import static tools.dscode.common.reporting.logging.LogForwarder.logTrace;
@@ -24,15 +27,37 @@ public final class GlobalRegistry {
     }
 
     public static final ConcurrentHashMap<String, Object> GLOBAL = new ConcurrentHashMap<>();
-    public static final ThreadLocal<ConcurrentHashMap<String, Object>> LOCAL =
-            ThreadLocal.withInitial(ConcurrentHashMap::new);
+    public static final ThreadLocal<LocalScope> LOCAL =
+            ThreadLocal.withInitial(LocalScope::new);
+
+    /**
+     * Typed keys: every class gets its normalized key once and an index into
+     * the per-thread slot arrays, shared by classes with the same key.
+     */
+    private record Slot(int index, String key) {
+    }
+
+    private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+    private static final ConcurrentHashMap<String, Slot> SLOTS_BY_KEY = new ConcurrentHashMap<>();
+    private static final ClassValue<Slot> SLOTS = new ClassValue<>() {
+        @Override
+        protected Slot computeValue(Class<?> type) {
+            return SLOTS_BY_KEY.computeIfAbsent(normalizeKey(type.getName()),
+                    key -> new Slot(NEXT_SLOT.getAndIncrement(), key));
+        }
+    };
 
     public static String normalizeKey(String key) {
         return key.toLowerCase(Locale.ROOT);
     }
 
     public static String keyFor(Class<?> type) {
-        return normalizeKey(type.getName());
+        return SLOTS.get(type).key();
+    }
+
+    /** Starts an empty local scope for the current thread, e.g. for a new scenario. */
+    public static void resetLocal() {
+        LOCAL.set(new LocalScope());
     }
 
 //    public static List<Runner> runners = new CopyOnWriteArrayList<>();
@@ -90,17 +115,20 @@ public final class GlobalRegistry {
         return (T) inst;
     }
 
-    // Class-exact lookups
+    // Class-exact lookups: no key is built per call and local hits are an array read
     public static <T> T globalOf(Class<T> type) {
-        return type.cast(globalOf(type.getName()));
+        return type.cast(GLOBAL.get(keyFor(type)));
     }
 
     public static <T> T localOf(Class<T> type) {
-        return type.cast(localOf(type.getName()));
+        return type.cast(LOCAL.get().get(SLOTS.get(type)));
     }
 
     public static <T> T localOrGlobalOf(Class<T> type) {
-        return type.cast(localOrGlobalOf(type.getName()));
+        Slot slot = SLOTS.get(type);
+        Object inst = LOCAL.get().get(slot);
+        if (inst == null) inst = GLOBAL.get(slot.key());
+        return type.cast(inst);
     }
 
     // 🔹 NEW: assignable lookups (handles interfaces/abstracts vs concrete impls)
@@ -113,8 +141,7 @@ public final class GlobalRegistry {
     }
 
     public static <T> T localAssignableOf(Class<T> type) {
-        for (Map.Entry<String, Object> e : LOCAL.get().entrySet()) {
-            Object v = e.getValue();
+        for (Object v : LOCAL.get().values()) {
             if (type.isInstance(v)) return type.cast(v);
         }
         return null;
@@ -133,4 +160,60 @@ public final class GlobalRegistry {
         LOCAL.remove();
     }
 
+    /**
+     * One thread's registrations. The map is authoritative; typed lookups read
+     * a slot array that writes keep in step and misses fill from the map.
+     */
+    public static final class LocalScope {
+        private final ConcurrentHashMap<String, Object> byKey = new ConcurrentHashMap<>();
+        private Object[] slots = new Object[16];
+
+        public Object get(String normalizedKey) {
+            return byKey.get(normalizedKey);
+        }
+
+        public void put(String normalizedKey, Object value) {
+            byKey.put(normalizedKey, value);
+            setSlot(SLOTS_BY_KEY.get(normalizedKey), value);
+        }
+
+        public Object putIfAbsent(String normalizedKey, Object value) {
+            Object existing = byKey.putIfAbsent(normalizedKey, value);
+            if (existing == null) setSlot(SLOTS_BY_KEY.get(normalizedKey), value);
+            return existing;
+        }
+
+        public Object remove(String normalizedKey) {
+            setSlot(SLOTS_BY_KEY.get(normalizedKey), null);
+            return byKey.remove(normalizedKey);
+        }
+
+        public Collection<Object> values() {
+            return byKey.values();
+        }
+
+        public void clear() {
+            byKey.clear();
+            Arrays.fill(slots, null);
+        }
+
+        private Object get(Slot slot) {
+            Object[] current = slots;
+            Object value = slot.index() < current.length ? current[slot.index()] : null;
+            if (value == null) {
+                value = byKey.get(slot.key());
+                if (value != null) setSlot(slot, value);
+            }
+            return value;
+        }
+
+        private void setSlot(Slot slot, Object value) {
+            if (slot == null) return;
+            if (slot.index() >= slots.length) {
+                if (value == null) return;
+                slots = Arrays.copyOf(slots, Math.max(slots.length * 2, slot.index() + 1));
+            }
+            slots[slot.index()] = value;
+        }
+    }
 }
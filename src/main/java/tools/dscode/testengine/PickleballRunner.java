@@ -2,6 +2,7 @@ package tools.dscode.testengine;
 
 import io.cucumber.core.runner.CurrentScenarioState;
 import tools.dscode.common.reporting.logging.Level;
+import tools.dscode.common.variables.SysEnv;
 
 import java.io.InputStream;
 import java.net.URL;
@@ -169,6 +170,7 @@ public abstract class PickleballRunner {
             System.setProperty(key, value);
             count++;
         }
+        SysEnv.clearPickleBallPropertyCache();
 
 
         debug("Published " + count + " value(s) to system properties (skipped "
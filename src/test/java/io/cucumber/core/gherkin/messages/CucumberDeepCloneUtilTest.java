@@ -0,0 +1,200 @@
+package io.cucumber.core.gherkin.messages;
+
+import io.cucumber.gherkin.GherkinDialectProvider;
+import io.cucumber.messages.types.PickleStep;
+import io.cucumber.messages.types.PickleStepArgument;
+import io.cucumber.messages.types.PickleStepType;
+import io.cucumber.messages.types.PickleTable;
+import io.cucumber.messages.types.PickleTableCell;
+import io.cucumber.messages.types.PickleTableRow;
+import io.cucumber.plugin.event.Location;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CucumberDeepCloneUtilTest {
+
+    /** Mutable graph with one field of every primitive kind, an array and a cycle. */
+    static class Node {
+        boolean flag = true;
+        byte b = 1;
+        short s = 2;
+        char c = 'c';
+        int i = 3;
+        long l = 4L;
+        float f = 5.5f;
+        double d = 6.25;
+        String name;
+        int[] counts = {1, 2, 3};
+        List<Node> children = new ArrayList<>();
+        Node parent;
+        Optional<Location> location = Optional.of(new Location(7, 8));
+        Runnable action;
+        Pair pair;
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+
+    record Pair(String label, List<String> values) {
+    }
+
+    static final class Leaf extends Node {
+        private final long extra;
+
+        Leaf(String name, long extra) {
+            super(name);
+            this.extra = extra;
+        }
+    }
+
+    private static PickleStep pickleStep() {
+        PickleTable table = new PickleTable(List.of(
+                new PickleTableRow(List.of(new PickleTableCell("a"), new PickleTableCell("b"))),
+                new PickleTableRow(List.of(new PickleTableCell("1"), new PickleTableCell("2")))));
+        return new PickleStep(
+                new PickleStepArgument(null, table),
+                new ArrayList<>(List.of("ast-1", "ast-2")),
+                "step-1",
+                PickleStepType.ACTION,
+                "I click the button");
+    }
+
+    private static GherkinMessagesStep gherkinStep() {
+        return new GherkinMessagesStep(
+                pickleStep(),
+                new GherkinDialectProvider().getDefaultDialect(),
+                "Given ",
+                new Location(12, 5),
+                "When ");
+    }
+
+    private static Node graph() {
+        Node root = new Node("root");
+        Leaf leaf = new Leaf("leaf", 42L);
+        leaf.parent = root;
+        root.children.add(leaf);
+        List<String> captured = new ArrayList<>();
+        root.action = () -> captured.add("ran");
+        root.pair = new Pair("pair", new ArrayList<>(List.of("x", "y")));
+        return root;
+    }
+
+    private static void assertPlanMatchesReflection(Object source) {
+        Object planned = CucumberDeepCloneUtil.deepCloneAny(source);
+        Object reflected = CucumberDeepCloneUtil.deepCloneAnyReflectively(source);
+
+        assertNotSame(source, planned);
+        assertSameState(reflected, planned, new IdentityHashMap<>());
+        assertSameState(source, planned, new IdentityHashMap<>());
+    }
+
+    @Test
+    void gherkinStepClonesMatchReflectiveClones() {
+        assertPlanMatchesReflection(gherkinStep());
+    }
+
+    @Test
+    void pickleStepClonesMatchReflectiveClones() {
+        assertPlanMatchesReflection(pickleStep());
+    }
+
+    @Test
+    void mutableGraphClonesMatchReflectiveClones() {
+        assertPlanMatchesReflection(graph());
+    }
+
+    @Test
+    void clonesAreDetachedAndKeepCycles() {
+        for (UnaryOperator<Node> cloner : List.<UnaryOperator<Node>>of(
+                CucumberDeepCloneUtil::deepCloneAny, CucumberDeepCloneUtil::deepCloneAnyReflectively)) {
+            Node source = graph();
+            Node clone = cloner.apply(source);
+
+            assertSame(clone, clone.children.getFirst().parent);
+            clone.counts[0] = 99;
+            clone.children.getFirst().name = "changed";
+            clone.pair.values().add("z");
+
+            assertEquals(1, source.counts[0]);
+            assertEquals("leaf", source.children.getFirst().name);
+            assertEquals(List.of("x", "y"), source.pair.values());
+            assertEquals(42L, ((Leaf) clone.children.getFirst()).extra);
+        }
+    }
+
+    @Test
+    void recordsAreRebuiltAndLambdasShared() {
+        Node source = graph();
+        for (Node clone : List.of(
+                CucumberDeepCloneUtil.deepCloneAny(source), CucumberDeepCloneUtil.deepCloneAnyReflectively(source))) {
+            assertNotSame(source.pair, clone.pair);
+            assertNotSame(source.pair.values(), clone.pair.values());
+            assertEquals(source.pair, clone.pair);
+            assertTrue(source.action.getClass().isHidden());
+            assertSame(source.action, clone.action);
+        }
+    }
+
+    /** Field-by-field comparison of two object graphs, java.* values compared by equals. */
+    private static void assertSameState(Object expected, Object actual, IdentityHashMap<Object, Object> visited) {
+        if (expected == null || actual == null) {
+            assertSame(expected, actual);
+            return;
+        }
+        assertSame(expected.getClass(), actual.getClass());
+        if (visited.put(expected, actual) != null) {
+            return;
+        }
+        Class<?> type = expected.getClass();
+        if (type.isArray()) {
+            assertEquals(Array.getLength(expected), Array.getLength(actual));
+            for (int i = 0; i < Array.getLength(expected); i++) {
+                assertSameState(Array.get(expected, i), Array.get(actual, i), visited);
+            }
+        } else if (expected instanceof Optional<?> optional) {
+            assertSameState(optional.orElse(null), ((Optional<?>) actual).orElse(null), visited);
+        } else if (expected instanceof Collection<?> collection) {
+            Collection<?> other = (Collection<?>) actual;
+            assertEquals(collection.size(), other.size());
+            Iterator<?> left = collection.iterator();
+            Iterator<?> right = other.iterator();
+            while (left.hasNext()) {
+                assertSameState(left.next(), right.next(), visited);
+            }
+        } else if (expected instanceof Map<?, ?> || type.getName().startsWith("java.") || type.isHidden()
+                || expected instanceof Enum<?>) {
+            assertEquals(expected, actual);
+        } else {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    try {
+                        assertSameState(field.get(expected), field.get(actual), visited);
+                    } catch (IllegalAccessException e) {
+                        throw new AssertionError(e);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.cucumber.core.runner;
+
+import io.cucumber.datatable.DataTable;
+import io.cucumber.docstring.DocString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.dscode.common.mappings.ParsingMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step cloning in a 500-step scenario where every step has two children.
+ *
+ * <p>{@code repeatLoopIteration} is one pass of an until loop on a step in the
+ * middle of the list: clone it, drop the sibling link, clone it again for its
+ * inheritance phrase and descend into the children. {@code cloneAndWalkChain}
+ * clones the first step and then visits every following sibling, which is the
+ * copy every clone used to make up front. Add JMH's {@code -prof gc} to compare
+ * bytes allocated per operation.</p>
+ *
+ * <p>Run with {@code gradle jmh -PjmhInclude=StepCloneBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StepCloneBenchmark {
+
+    private static final int STEPS = 500;
+    private static final int CHILDREN = 2;
+
+    private List<StepBase> steps;
+
+    @Setup
+    public void setUp() {
+        StepBase root = new BenchmarkStep();
+        steps = new ArrayList<>(STEPS);
+        StepBase previous = null;
+        for (int i = 0; i < STEPS; i++) {
+            StepBase step = new BenchmarkStep();
+            step.parentStep = root;
+            link(previous, step);
+            StepBase previousChild = null;
+            for (int c = 0; c < CHILDREN; c++) {
+                StepBase child = new BenchmarkStep();
+                child.parentStep = step;
+                link(previousChild, child);
+                step.childSteps.add(child);
+                previousChild = child;
+            }
+            root.childSteps.add(step);
+            steps.add(step);
+            previous = step;
+        }
+    }
+
+    @Benchmark
+    public StepBase repeatLoopIteration() {
+        StepBase clone = steps.get(STEPS / 2).clone();
+        clone.setNextSibling(null);
+        StepBase repeat = clone.clone();
+        StepBase last = null;
+        for (StepBase child : repeat.childSteps) {
+            last = child;
+        }
+        return last;
+    }
+
+    @Benchmark
+    public StepBase cloneAndWalkChain() {
+        StepBase step = steps.getFirst().clone();
+        StepBase last = step;
+        while (step != null) {
+            last = step;
+            step = step.getNextSibling();
+        }
+        return last;
+    }
+
+    private static void link(StepBase previous, StepBase next) {
+        if (previous != null) {
+            previous.setNextSibling(next);
+            next.previousSibling = previous;
+        }
+    }
+
+    private static final class BenchmarkStep extends StepBase {
+
+        @Override
+        public void setStepParsingMap(ParsingMap stepParsingMap) {
+        }
+
+        @Override
+        protected DocString getDocString() {
+            return docString;
+        }
+
+        @Override
+        protected DataTable getDataTable() {
+            return dataTable;
+        }
+    }
+}
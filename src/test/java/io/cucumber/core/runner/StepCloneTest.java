@@ -0,0 +1,184 @@
+package io.cucumber.core.runner;
+
+import io.cucumber.datatable.DataTable;
+import io.cucumber.docstring.DocString;
+import org.junit.jupiter.api.Test;
+import tools.dscode.common.mappings.ParsingMap;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class StepCloneTest {
+
+    /** Three top-level steps, each with two chained children holding one grandchild. */
+    private static TestStep scenario() {
+        TestStep root = new TestStep("root");
+        TestStep previous = null;
+        for (String name : List.of("A", "B", "C")) {
+            TestStep step = new TestStep(name);
+            root.addChild(step, previous);
+            TestStep previousChild = null;
+            for (int c = 1; c <= 2; c++) {
+                TestStep child = new TestStep(name + c);
+                step.addChild(child, previousChild);
+                child.addChild(new TestStep(name + c + "a"), null);
+                previousChild = child;
+            }
+            previous = step;
+        }
+        return root;
+    }
+
+    /** The copy {@link StepBase#clone()} made before cloning became lazy. */
+    private static StepBase eagerClone(StepBase step) {
+        TestStep copy = new TestStep(((TestStep) step).name);
+        copy.parentStep = step.parentStep;
+        for (StepBase child : step.childSteps) {
+            copy.childSteps.add(eagerClone(child));
+        }
+        if (step.getNextSibling() != null) {
+            StepBase next = eagerClone(step.getNextSibling());
+            copy.setNextSibling(next);
+            next.previousSibling = copy;
+        }
+        return copy;
+    }
+
+    @Test
+    void lazyCloneOfTheRootMatchesAnEagerCloneAfterEdits() {
+        TestStep original = scenario();
+        String before = render(original);
+
+        Consumer<StepBase> edits = clone -> {
+            rename(clone, "root*");
+            rename(clone.childSteps.get(1), "B*");
+            rename(clone.childSteps.getFirst().childSteps.getFirst().childSteps.getFirst(), "A1a*");
+
+            StepBase a = clone.childSteps.getFirst();
+            TestStep inserted = new TestStep("A1.5");
+            a.childSteps.getFirst().insertNextSiblings(List.of(inserted));
+            a.childSteps.add(1, inserted);
+            inserted.parentStep = a;
+
+            a.insertNextSiblings(List.of(new TestStep("M1"), new TestStep("M2")));
+        };
+
+        StepBase lazy = original.clone();
+        StepBase eager = eagerClone(original);
+        edits.accept(lazy);
+        edits.accept(eager);
+
+        assertEquals(render(eager), render(lazy));
+        assertEquals(before, render(original));
+    }
+
+    @Test
+    void insertingAfterAnUntouchedLazyCloneKeepsTheRestOfTheChain() {
+        TestStep original = scenario();
+        String before = render(original);
+
+        Consumer<StepBase> edits = clone -> {
+            clone.insertNextSiblings(List.of(new TestStep("M1"), new TestStep("M2")));
+            rename(clone.getNextSibling().getNextSibling().getNextSibling(), "B*");
+            rename(clone.childSteps.get(1).childSteps.getFirst(), "A2a*");
+        };
+
+        StepBase a = original.childSteps.getFirst();
+        StepBase lazy = a.clone();
+        StepBase eager = eagerClone(a);
+        edits.accept(lazy);
+        edits.accept(eager);
+
+        assertEquals("A > M1 > M2 > B* > C", chain(lazy));
+        assertEquals(render(eager), render(lazy));
+        assertEquals(before, render(original));
+    }
+
+    @Test
+    void cloneOfAnUntouchedCloneMatchesAnEagerCloneOfTheClone() {
+        TestStep original = scenario();
+        StepBase first = original.childSteps.get(1).clone();
+        StepBase again = first.clone();
+        StepBase eager = eagerClone(eagerClone(original.childSteps.get(1)));
+
+        rename(first.childSteps.getFirst(), "B1*");
+        rename(again.getNextSibling(), "C*");
+        rename(eager.getNextSibling(), "C*");
+
+        assertEquals(render(eager), render(again));
+        assertEquals("B > C", chain(first));
+    }
+
+    @Test
+    void siblingsCopiedOnTraversalPointBackAtTheClone() {
+        StepBase lazy = scenario().childSteps.getFirst().clone();
+        StepBase next = lazy.getNextSibling();
+
+        assertSame(lazy, next.previousSibling);
+        assertSame(next, lazy.getNextSibling());
+        assertSame(next, next.getNextSibling().previousSibling);
+    }
+
+    private static void rename(StepBase step, String name) {
+        ((TestStep) step).name = name;
+    }
+
+    /** The subtree under {@code step}, followed by the subtree of every sibling after it. */
+    private static String render(StepBase step) {
+        StringBuilder out = new StringBuilder(((TestStep) step).name);
+        if (!step.childSteps.isEmpty()) {
+            StringJoiner children = new StringJoiner(", ", "{", "}");
+            for (StepBase child : step.childSteps) {
+                children.add(render(child));
+            }
+            out.append(children);
+        }
+        if (step.getNextSibling() != null) {
+            out.append(" > ").append(render(step.getNextSibling()));
+        }
+        return out.toString();
+    }
+
+    private static String chain(StepBase step) {
+        StringJoiner names = new StringJoiner(" > ");
+        for (StepBase s = step; s != null; s = s.getNextSibling()) {
+            names.add(((TestStep) s).name);
+        }
+        return names.toString();
+    }
+
+    private static final class TestStep extends StepBase {
+        String name;
+
+        TestStep(String name) {
+            this.name = name;
+        }
+
+        void addChild(TestStep child, TestStep previous) {
+            child.parentStep = this;
+            if (previous != null) {
+                previous.setNextSibling(child);
+                child.previousSibling = previous;
+            }
+            childSteps.add(child);
+        }
+
+        @Override
+        public void setStepParsingMap(ParsingMap stepParsingMap) {
+        }
+
+        @Override
+        protected DocString getDocString() {
+            return docString;
+        }
+
+        @Override
+        protected DataTable getDataTable() {
+            return dataTable;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.cucumber.core.runner;
+
+import io.cucumber.core.backend.ParameterInfo;
+import io.cucumber.core.backend.StepDefinition;
+import io.cucumber.core.backend.TypeResolver;
+import io.cucumber.core.gherkin.Pickle;
+import io.cucumber.core.gherkin.Step;
+import io.cucumber.core.runtime.TimeServiceEventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static io.cucumber.core.gherkin.messages.NGherkinFactory.createGherkinMessagesPickle;
+
+/**
+ * Step-definition matching from eight threads at once, as with {@code pkb_parallel=8}.
+ *
+ * <p>The glue holds 200 step definitions and each thread cycles through 64 recurring
+ * step texts built with the same pickle factory {@code getPickleStepTestStepFromStrings}
+ * uses. {@code synchronizedGlue} is the previous path, one monitor around
+ * {@code CachingGlue.stepDefinitionMatch}; {@code matchCache} goes through
+ * {@link StepDefinitionMatchCache}.</p>
+ *
+ * <p>Run with {@code gradle jmh -PjmhInclude=StepMatchContentionBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class StepMatchContentionBenchmark {
+
+    private static final int DEFINITIONS = 200;
+    private static final int STEP_TEXTS = 64;
+    private static final URI FEATURE_URI = URI.create("memory:/contention.feature");
+
+    @State(Scope.Benchmark)
+    public static class Glue {
+        CachingGlue glue;
+        List<Step> steps;
+
+        @Setup
+        public void setUp() throws Exception {
+            glue = new CachingGlue(new TimeServiceEventBus(Clock.systemUTC(), UUID::randomUUID));
+            for (int i = 0; i < DEFINITIONS; i++) {
+                glue.addStepDefinition(new FixedStepDefinition("step {int} of group " + i + " uses {string}"));
+            }
+            glue.prepareGlue(Locale.ENGLISH);
+
+            steps = new ArrayList<>();
+            for (int i = 0; i < STEP_TEXTS; i++) {
+                int group = (i * 37) % DEFINITIONS;
+                String text = "step " + i + " of group " + group + " uses \"value " + i + "\"";
+                Pickle pickle = createGherkinMessagesPickle("* ", text, null);
+                steps.add(pickle.getSteps().getFirst());
+            }
+            StepDefinitionMatchCache.clear();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        Step step(Glue glue) {
+            next = (next + 1) % glue.steps.size();
+            return glue.steps.get(next);
+        }
+    }
+
+    @Benchmark
+    public PickleStepDefinitionMatch synchronizedGlue(Glue glue, Cursor cursor) throws Exception {
+        Step step = cursor.step(glue);
+        synchronized (glue.glue) {
+            return glue.glue.stepDefinitionMatch(FEATURE_URI, step);
+        }
+    }
+
+    @Benchmark
+    public PickleStepDefinitionMatch matchCache(Glue glue, Cursor cursor) throws Exception {
+        return StepDefinitionMatchCache.match(glue.glue, FEATURE_URI, cursor.step(glue));
+    }
+
+    private record FixedStepDefinition(String pattern) implements StepDefinition {
+
+        @Override
+        public void execute(Object[] args) {
+        }
+
+        @Override
+        public List<ParameterInfo> parameterInfos() {
+            return List.of(new FixedParameter(Integer.class), new FixedParameter(String.class));
+        }
+
+        @Override
+        public String getPattern() {
+            return pattern;
+        }
+
+        @Override
+        public boolean isDefinedAt(StackTraceElement stackTraceElement) {
+            return false;
+        }
+
+        @Override
+        public String getLocation() {
+            return "StepMatchContentionBenchmark";
+        }
+    }
+
+    private record FixedParameter(Type type) implements ParameterInfo {
+
+        @Override
+        public Type getType() {
+            return type;
+        }
+
+        @Override
+        public boolean isTransposed() {
+            return false;
+        }
+
+        @Override
+        public TypeResolver getTypeResolver() {
+            return () -> type;
+        }
+    }
+}
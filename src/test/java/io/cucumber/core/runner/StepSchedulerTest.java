@@ -0,0 +1,158 @@
+package io.cucumber.core.runner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StepSchedulerTest {
+
+    private static final int STEPS = 10_000;
+
+    /** Stand-in for a step: children run before the next sibling, as in CurrentScenarioState. */
+    private static final class Node {
+        final String name;
+        final List<Node> children = new ArrayList<>();
+        Node next;
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class Walk {
+        final StepScheduler scheduler = new StepScheduler();
+        final List<String> order = new ArrayList<>();
+        final List<Long> depths = new ArrayList<>();
+
+        void start(Node node) {
+            order.add(node.name);
+            depths.add(StackWalker.getInstance().walk(Stream::count));
+            if (node.next != null) {
+                scheduler.push(() -> start(node.next));
+            }
+            if (!node.children.isEmpty()) {
+                scheduler.push(() -> start(node.children.getFirst()));
+            }
+        }
+    }
+
+    /** 1,000 top-level steps with nine chained children each. */
+    private static Node syntheticScenario(List<String> expected) {
+        Node first = null;
+        Node previous = null;
+        for (int i = 0; i < STEPS / 10; i++) {
+            Node step = new Node("step " + i);
+            expected.add(step.name);
+            Node previousChild = null;
+            for (int c = 0; c < 9; c++) {
+                Node child = new Node("step " + i + "." + c);
+                expected.add(child.name);
+                step.children.add(child);
+                if (previousChild != null) {
+                    previousChild.next = child;
+                }
+                previousChild = child;
+            }
+            if (previous == null) {
+                first = step;
+            } else {
+                previous.next = step;
+            }
+            previous = step;
+        }
+        return first;
+    }
+
+    @Test
+    void tenThousandStepsRunInOrderAtConstantStackDepth() {
+        List<String> expected = new ArrayList<>();
+        Node first = syntheticScenario(expected);
+
+        Walk walk = new Walk();
+        walk.scheduler.run(() -> walk.start(first));
+
+        assertEquals(STEPS, walk.order.size());
+        assertEquals(expected, walk.order);
+        assertEquals(1, walk.depths.stream().distinct().count());
+    }
+
+    @Test
+    void deepNestingAndLongSiblingChainsFitInASmallStack() throws InterruptedException {
+        Node root = new Node("root");
+        Node parent = root;
+        for (int i = 0; i < STEPS; i++) {
+            Node child = new Node("nested " + i);
+            parent.children.add(child);
+            parent = child;
+        }
+        Node previous = parent;
+        for (int i = 0; i < STEPS; i++) {
+            Node sibling = new Node("sibling " + i);
+            previous.next = sibling;
+            previous = sibling;
+        }
+
+        Walk walk = new Walk();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread = new Thread(null, () -> {
+            try {
+                walk.scheduler.run(() -> walk.start(root));
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        }, "small-stack", 128 * 1024);
+        thread.start();
+        thread.join();
+
+        assertNull(failure.get());
+        assertEquals(2 * STEPS + 1, walk.order.size());
+        assertTrue(walk.scheduler.highWater() <= 2);
+    }
+
+    @Test
+    void nestedRunFinishesBeforeTheOuterTaskContinues() {
+        StepScheduler outer = new StepScheduler();
+        List<String> order = new ArrayList<>();
+
+        outer.run(() -> {
+            outer.push(() -> order.add("outer sibling"));
+            StepScheduler nested = new StepScheduler();
+            nested.run(() -> {
+                nested.push(() -> order.add("nested second"));
+                order.add("nested first");
+            });
+            order.add("outer after nested");
+        });
+
+        assertEquals(List.of("nested first", "nested second", "outer after nested", "outer sibling"), order);
+    }
+
+    @Test
+    void failureDropsPendingWork() {
+        StepScheduler scheduler = new StepScheduler();
+        List<String> order = new ArrayList<>();
+        IllegalStateException failure = new IllegalStateException("step failed");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> scheduler.run(() -> {
+            scheduler.push(() -> order.add("never runs"));
+            scheduler.push(() -> {
+                throw failure;
+            });
+        }));
+
+        assertSame(failure, thrown);
+        assertTrue(order.isEmpty());
+
+        scheduler.run(() -> order.add("reused"));
+        assertEquals(List.of("reused"), order);
+    }
+}
@@ -0,0 +1,234 @@
+package tools.dscode.common.driver;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static tools.dscode.common.mappings.ValueFormatting.MAPPER;
+
+class DriverPoolTest {
+
+    private static ObjectNode configuration(String argument) {
+        ObjectNode configuration = MAPPER.createObjectNode();
+        configuration.put("browser", "Chrome");
+        configuration.putObject("driver").putArray("arguments").add(argument);
+        return configuration;
+    }
+
+    @AfterEach
+    void emptyPool() {
+        DriverPool.shutdown();
+        DriverPool.setEnabled(null);
+    }
+
+    @Test
+    void configurationsWithCollidingHashCodesGetDifferentKeys() {
+        // "Aa" and "BB" have the same String.hashCode(), and so do the two serialized configurations.
+        ObjectNode first = configuration("--lang=Aa");
+        ObjectNode second = configuration("--lang=BB");
+        assertEquals(first.toString().hashCode(), second.toString().hashCode());
+
+        assertNotEquals(DriverPool.keyFor(first), DriverPool.keyFor(second));
+    }
+
+    @Test
+    void identicalConfigurationsShareAKey() {
+        assertEquals(DriverPool.keyFor(configuration("--headless")), DriverPool.keyFor(configuration("--headless")));
+    }
+
+    @Test
+    void pathKeyDoesNotAffectTheKey() {
+        ObjectNode withPath = configuration("--headless");
+        withPath.put("_pathKey", "configs.chrome");
+
+        assertEquals(DriverPool.keyFor(configuration("--headless")), DriverPool.keyFor(withPath));
+        assertEquals("chrome", DriverPool.keyFor(withPath).substring(0, DriverPool.keyFor(withPath).indexOf('#')));
+    }
+
+    @Test
+    void releaseClearsCookiesAndStorageOfEveryOriginTheSessionVisited() throws Exception {
+        DriverPool.setEnabled(true);
+        FakeChromium browser = new FakeChromium();
+        RemoteWebDriver driver = DriverPool.acquire(configuration("--reset"), ignored -> browser);
+
+        browser.visit("https://app.example.test/home");
+        browser.visit("https://sso.example.test:8443/login");
+        browser.visit("https://app.example.test/dashboard");
+        browser.openWindow("https://reports.example.test/monthly");
+        browser.cookies.put("app.example.test", "session");
+        browser.cookies.put(".sso.example.test", "sso-token");
+        browser.storage.put("https://app.example.test", "user");
+        browser.storage.put("https://sso.example.test:8443", "sso-state");
+        browser.storage.put("https://reports.example.test", "filters");
+
+        assertTrue(DriverPool.release(driver));
+
+        assertEquals(Map.of(), browser.cookies);
+        assertEquals(Map.of(), browser.storage);
+        assertEquals(1, browser.windows.size());
+        assertEquals(List.of("about:blank"), browser.windows.values().iterator().next());
+        assertFalse(browser.quit);
+        assertEquals(1, DriverPool.idleCount());
+        assertSame(driver, DriverPool.acquire(configuration("--reset"), ignored -> fail("session was not reused")));
+    }
+
+    @Test
+    void sessionsWithoutDevToolsAreQuitInsteadOfPooled() throws Exception {
+        DriverPool.setEnabled(true);
+        FakeBrowser browser = new FakeBrowser();
+        RemoteWebDriver driver = DriverPool.acquire(configuration("--no-cdp"), ignored -> browser);
+        browser.visit("https://app.example.test/home");
+
+        assertTrue(DriverPool.release(driver));
+
+        assertTrue(browser.quit);
+        assertEquals(0, DriverPool.idleCount());
+    }
+
+    /** In-memory browser: windows with navigation histories, cookies by domain and storage by origin. */
+    private static class FakeBrowser extends RemoteWebDriver {
+        final Map<String, List<String>> windows = new LinkedHashMap<>();
+        final Map<String, String> cookies = new HashMap<>();
+        final Map<String, String> storage = new HashMap<>();
+        private final SessionId sessionId = new SessionId("fake");
+        private String current;
+        private int opened;
+        boolean quit;
+
+        FakeBrowser() {
+            openWindow("about:blank");
+        }
+
+        void visit(String url) {
+            windows.get(current).add(url);
+        }
+
+        void openWindow(String url) {
+            current = "window-" + ++opened;
+            windows.put(current, new ArrayList<>(List.of(url)));
+        }
+
+        @Override
+        public SessionId getSessionId() {
+            return sessionId;
+        }
+
+        @Override
+        public String getWindowHandle() {
+            return current;
+        }
+
+        @Override
+        public Set<String> getWindowHandles() {
+            return Set.copyOf(windows.keySet());
+        }
+
+        @Override
+        public String getCurrentUrl() {
+            return windows.get(current).getLast();
+        }
+
+        @Override
+        public void close() {
+            windows.remove(current);
+        }
+
+        @Override
+        public void quit() {
+            quit = true;
+        }
+
+        @Override
+        public TargetLocator switchTo() {
+            return new TargetLocator() {
+                @Override
+                public WebDriver window(String handle) {
+                    if (!windows.containsKey(handle)) throw new NoSuchWindowException(handle);
+                    current = handle;
+                    return FakeBrowser.this;
+                }
+
+                @Override
+                public WebDriver newWindow(WindowType type) {
+                    openWindow("about:blank");
+                    return FakeBrowser.this;
+                }
+
+                @Override
+                public WebDriver frame(int index) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public WebDriver frame(String nameOrId) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public WebDriver frame(WebElement frameElement) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public WebDriver parentFrame() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public WebDriver defaultContent() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public WebElement activeElement() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public Alert alert() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    /** Answers the DevTools commands the pool uses, with Chrome's browser-wide semantics. */
+    private static final class FakeChromium extends FakeBrowser implements HasCdp {
+        @Override
+        public Map<String, Object> executeCdpCommand(String command, Map<String, Object> parameters) {
+            switch (command) {
+                case "Page.getNavigationHistory" -> {
+                    return Map.of("entries", windows.get(getWindowHandle()).stream().map(url -> Map.of("url", url)).toList());
+                }
+                case "Storage.getCookies" -> {
+                    return Map.of("cookies", cookies.keySet().stream().map(domain -> Map.of("domain", domain)).toList());
+                }
+                case "Network.clearBrowserCookies" -> cookies.clear();
+                case "Storage.clearDataForOrigin" -> storage.remove((String) parameters.get("origin"));
+                default -> throw new UnsupportedOperationException(command);
+            }
+            return Map.of();
+        }
+    }
+}
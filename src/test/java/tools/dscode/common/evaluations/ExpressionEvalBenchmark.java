@@ -0,0 +1,72 @@
+package tools.dscode.common.evaluations;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares condition evaluation with an empty expression cache, as every evaluation
+ * behaved before compiled expressions were cached, against evaluation with every
+ * expression already compiled, as in a polling loop re-checking the same conditions.
+ *
+ * <p>Run with {@code gradle jmh -PjmhInclude=ExpressionEvalBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionEvalBenchmark {
+
+    private static final List<String> CONDITIONS = List.of(
+            "status == 200",
+            "count > 3 && name != nil",
+            "retries < 5 || done",
+            "string.length(name) > 2 ? 'long' : 'short'",
+            "bool(flag) && !done",
+            "total * 1.08 >= limit");
+
+    private Map<String, Object> env;
+
+    @Setup
+    public void setUp() {
+        env = new HashMap<>();
+        env.put("status", 200);
+        env.put("count", 7);
+        env.put("name", "Ada");
+        env.put("retries", 2);
+        env.put("done", false);
+        env.put("flag", "yes");
+        env.put("total", 42.5);
+        env.put("limit", 40);
+    }
+
+    @Benchmark
+    public void coldEvaluation(Blackhole blackhole) {
+        ExpressionCache.clear();
+        for (String condition : CONDITIONS) {
+            blackhole.consume(AviatorUtil.eval(condition, env));
+        }
+    }
+
+    @Benchmark
+    public void warmEvaluation(Blackhole blackhole) {
+        for (String condition : CONDITIONS) {
+            blackhole.consume(AviatorUtil.eval(condition, env));
+        }
+    }
+}
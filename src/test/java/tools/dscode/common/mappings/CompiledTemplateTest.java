@@ -0,0 +1,230 @@
+package tools.dscode.common.mappings;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Differential test: wherever a compiled template produces a result, it must be identical to
+ * the full resolver's result for the same input and map contents.
+ */
+class CompiledTemplateTest {
+
+    private static final Path FEATURES = Path.of("maven-consumer-project/src/test/resources/features");
+    private static final Pattern REFERENCE = Pattern.compile("<([^<>\\s=][^<>]*?)>|~\\[~(.*?)~]~");
+    private static final String[][] DELIMITERS = {{}, {null, null, "[", "]"}, {"[[", "]]"}};
+    private static final int SEEDS = 20;
+
+    /** Values that are plain text, empty, objects, or themselves look like template syntax. */
+    private static final List<Object> VALUES = List.of(
+            "plain", "", "42", "a b", "<other>", "x<y", "y>x", "~[~k~]~", "'q'", "\"dq\"", "a\\b",
+            "{", "}", ">", "<", "<{1+1}>", "~unquote", "?", "&&", "`b`", "}>", "~]~",
+            7, true, 3.5, List.of(1, 2), Map.of("a", 1));
+
+    private NodeMap map;
+    private MappingProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        CompiledTemplate.clear();
+        map = new NodeMap(MapConfigurations.MapType.RUN_MAP);
+        processor = new MappingProcessor(map) {
+        };
+    }
+
+    @Test
+    void featureTextResolvesIdenticallyWhenCompiled() throws IOException {
+        List<String> inputs = featureInputs();
+        List<String> keys = referencedKeys(inputs);
+        int compiled = 0;
+
+        for (int seed = 0; seed < SEEDS; seed++) {
+            setUp();
+            Random random = new Random(seed);
+            for (String key : keys) {
+                Object value = seed == 0 ? "value" : VALUES.get(random.nextInt(VALUES.size()));
+                if (seed != 1 && random.nextInt(4) != 0) {
+                    map.put(key, value);
+                }
+            }
+            for (String input : inputs) {
+                for (String[] delimiters : DELIMITERS) {
+                    for (int flags = 0; flags < 4; flags++) {
+                        if (assertSameResolution(input, (flags & 1) == 0, (flags & 2) != 0, delimiters)) {
+                            compiled++;
+                        }
+                    }
+                }
+            }
+        }
+
+        assertTrue(compiled > 0, "No feature text was resolved through a compiled template");
+    }
+
+    @Test
+    void wholeReferenceKeepsObjectValues() {
+        map.put("order", Map.of("id", 1));
+        map.put("blank", "");
+
+        Object whole = CompiledTemplate.of("<order>").resolve(processor, true, true);
+        assertTrue(whole instanceof JsonNode node && node.isObject(), "Expected the object, got " + whole);
+
+        // Once <blank> resolves to empty text the full resolver sees a whole reference, so an
+        // embedded object value is left to it.
+        assertNull(CompiledTemplate.of("<blank><order>").resolve(processor, true, true));
+        assertSameResolution("<blank><order>", true, true);
+    }
+
+    @Test
+    void valuesThatFormNewSyntaxDeferToFullResolver() {
+        map.put("open", "<");
+        map.put("name", "first");
+        map.put("first", "resolved");
+
+        assertNull(CompiledTemplate.of("<open>name>").resolve(processor, true, false));
+        assertSameResolution("<open>name>", true, false);
+        assertEquals("first and resolved", processor.resolveWholeText("<name> and <first>"));
+    }
+
+    @Test
+    void deferredTemplatesDoNotEvaluateExpressionsAgain() {
+        AtomicInteger reads = new AtomicInteger();
+        processor = new MappingProcessor(map) {
+            @Override
+            public Object get(String key) {
+                if (key.equals("quoted")) {
+                    reads.incrementAndGet();
+                }
+                return super.get(key);
+            }
+        };
+        map.put("quoted", "it's");
+        String input = "say <{quoted}> and <{quoted}>";
+
+        // The value contains a quote, so the template evaluates and then defers.
+        assertNull(CompiledTemplate.of(input).resolve(processor, true, false));
+        int perResolution = reads.getAndSet(0);
+        assertTrue(perResolution > 0);
+
+        Object resolved = processor.resolveWholeText(input);
+        assertEquals(perResolution, reads.get());
+        assertEquals(processor.resolveWholeUncompiled(input, true, false), resolved);
+    }
+
+    @Test
+    void evaluationFailuresAreReportedNotDeferred() {
+        RuntimeException failure = assertThrows(RuntimeException.class,
+                () -> CompiledTemplate.of("total <{1 +}>").resolve(processor, true, false));
+        assertTrue(failure.getMessage().startsWith("Could not resolve 'total <{1 +}>'"), failure.getMessage());
+        assertThrows(RuntimeException.class, () -> processor.resolveWholeUncompiled("total <{1 +}>", true, false));
+    }
+
+    @Test
+    void plainAndOversizedInputIsNotCompiled() {
+        assertEquals("no templates here", CompiledTemplate.of("no templates here").resolve(processor, true, false));
+
+        String oversized = "<name>".repeat(CompiledTemplate.MAX_TEMPLATE_LENGTH);
+        assertFalse(CompiledTemplate.of(oversized).isCompiled());
+        assertEquals(1, CompiledTemplate.size());
+    }
+
+    /** @return whether the compiled template produced the result */
+    private boolean assertSameResolution(
+            String input,
+            boolean resolveEvaluations,
+            boolean preserveWholeObject,
+            String... delimiters
+    ) {
+        Object compiled;
+        try {
+            compiled = CompiledTemplate.of(input, delimiters)
+                    .resolve(processor, resolveEvaluations, preserveWholeObject);
+        } catch (RuntimeException e) {
+            assertThrows(RuntimeException.class,
+                    () -> processor.resolveWholeUncompiled(input, resolveEvaluations, preserveWholeObject, delimiters),
+                    () -> "Compiled template threw for '" + input + "' but the full resolver did not");
+            return false;
+        }
+        if (compiled == null) {
+            return false;
+        }
+
+        Object expected = processor.resolveWholeUncompiled(
+                input, resolveEvaluations, preserveWholeObject, delimiters);
+        assertEquals(expected, compiled, () -> "Compiled template diverged for '" + input + "'");
+        assertEquals(expected.getClass(), compiled.getClass());
+        return true;
+    }
+
+    /** Step text, docstrings and table cells from the consumer project's feature files. */
+    private static List<String> featureInputs() throws IOException {
+        List<String> inputs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(FEATURES)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".feature")).sorted().toList()) {
+                StringBuilder docString = null;
+                for (String line : Files.readAllLines(file)) {
+                    String text = line.trim();
+                    if (text.startsWith("\"\"\"") || text.startsWith("```")) {
+                        if (docString == null) {
+                            docString = new StringBuilder();
+                        } else {
+                            inputs.add(docString.toString());
+                            docString = null;
+                        }
+                        continue;
+                    }
+                    if (docString != null) {
+                        docString.append(docString.isEmpty() ? "" : "\n").append(text);
+                    }
+                    inputs.add(text);
+                    if (text.startsWith("|")) {
+                        for (String cell : text.split("\\|")) {
+                            inputs.add(cell.trim());
+                        }
+                    }
+                }
+            }
+        }
+        return inputs;
+    }
+
+    private static List<String> referencedKeys(List<String> inputs) {
+        Set<String> keys = new TreeSet<>(List.of("other", "k"));
+        for (String input : inputs) {
+            Matcher matcher = REFERENCE.matcher(input);
+            while (matcher.find()) {
+                String key = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+                if (key.endsWith(MappingProcessor.UNQUOTE_SUFFIX)) {
+                    key = key.substring(0, key.length() - MappingProcessor.UNQUOTE_SUFFIX.length());
+                }
+                if (key.startsWith("?")) {
+                    key = key.substring(1);
+                }
+                if (!key.isBlank() && key.matches("[A-Za-z_][\\w .\\[\\]-]*")) {
+                    keys.add(key);
+                }
+            }
+        }
+        return new ArrayList<>(keys);
+    }
+}
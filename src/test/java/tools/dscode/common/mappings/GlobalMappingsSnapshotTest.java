@@ -0,0 +1,71 @@
+package tools.dscode.common.mappings;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GlobalMappingsSnapshotTest {
+
+    @Test
+    void publishedRootIsNotChangedByLaterWrites() {
+        GlobalMappings map = new GlobalMappings(true);
+        map.put("customer.name", "Ada");
+        map.put("settings.timeout", 30);
+
+        ObjectNode before = map.readRoot();
+        String beforeJson = before.toString();
+
+        map.put("customer.name", "Grace");
+        map.putAsSingleton("_flags.fast", true);
+        map.merge(Map.of("orders", Map.of("id", 1)));
+        map.clearValues("settings");
+
+        assertEquals(beforeJson, before.toString());
+        assertNotEquals(beforeJson, map.readRoot().toString());
+        assertEquals(map.getRoot().toString(), map.readRoot().toString());
+    }
+
+    @Test
+    void untouchedTopLevelFieldsAreSharedBetweenSnapshots() {
+        GlobalMappings map = new GlobalMappings(true);
+        map.put("customer.name", "Ada");
+        map.put("settings.timeout", 30);
+
+        ObjectNode before = map.readRoot();
+        map.put("customer.name", "Grace");
+        ObjectNode after = map.readRoot();
+
+        assertNotSame(before, after);
+        assertNotSame(before.get("customer"), after.get("customer"));
+        assertSame(before.get("settings"), after.get("settings"));
+    }
+
+    @Test
+    void lockedModeReadsTheLiveRoot() {
+        GlobalMappings map = new GlobalMappings(false);
+        map.put("customer.name", "Ada");
+
+        assertSame(map.getRoot(), map.readRoot());
+    }
+
+    @Test
+    void lockedModeSeesPickleBallPropertiesSetAfterAMiss() {
+        GlobalMappings map = new GlobalMappings(false);
+        String key = "globalmappings.lateproperty";
+
+        assertNull(map.get(key));
+        System.setProperty("pkb." + key, "late");
+        try {
+            assertEquals("late", map.get(key));
+        } finally {
+            System.clearProperty("pkb." + key);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package tools.dscode.common.mappings;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Global mapping reads from 1 to 32 threads while one writer updates a
+ * counter every millisecond, as when parallel scenarios share {@code GLOBALS}.
+ *
+ * <p>{@code lockedN} takes the read lock of the default mode; {@code snapshotN}
+ * reads the published root of {@code pkb_globalSnapshots} mode without locking.</p>
+ *
+ * <p>Run with {@code gradle jmh -PjmhInclude=GlobalSnapshotReadBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalSnapshotReadBenchmark {
+
+    private static final List<String> QUERIES = List.of(
+            "customer.name",
+            "customer.address.city",
+            "configs.timeouts.page",
+            "orders#last.total",
+            "counter.value");
+
+    @State(Scope.Benchmark)
+    public static class Globals {
+        GlobalMappings locked;
+        GlobalMappings snapshots;
+        ScheduledExecutorService writer;
+
+        @Setup
+        public void setUp() {
+            locked = populate(new GlobalMappings(false));
+            snapshots = populate(new GlobalMappings(true));
+
+            AtomicInteger counter = new AtomicInteger();
+            writer = Executors.newSingleThreadScheduledExecutor();
+            writer.scheduleAtFixedRate(() -> {
+                int value = counter.incrementAndGet();
+                locked.put("counter.value", value);
+                snapshots.put("counter.value", value);
+            }, 1, 1, TimeUnit.MILLISECONDS);
+        }
+
+        @TearDown
+        public void tearDown() {
+            writer.shutdownNow();
+        }
+
+        private static GlobalMappings populate(GlobalMappings map) {
+            map.put("customer.name", "Ada");
+            map.put("customer.address.city", "Phoenix");
+            map.put("configs.timeouts.page", 30);
+            map.put("configs.timeouts.element", 10);
+            map.put("orders", Map.of("id", 1, "total", 5));
+            map.put("orders", Map.of("id", 2, "total", 25));
+            map.put("counter.value", 0);
+            return map;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        String query() {
+            next = (next + 1) % QUERIES.size();
+            return QUERIES.get(next);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object locked1(Globals globals, Cursor cursor) {
+        return globals.locked.get(cursor.query());
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Object locked2(Globals globals, Cursor cursor) {
+        return globals.locked.get(cursor.query());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object locked4(Globals globals, Cursor cursor) {
+        return globals.locked.get(cursor.query());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object locked8(Globals globals, Cursor cursor) {
+        return globals.locked.get(cursor.query());
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object locked16(Globals globals, Cursor cursor) {
+        return globals.locked.get(cursor.query());
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Object locked32(Globals globals, Cursor cursor) {
+        return globals.locked.get(cursor.query());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object snapshot1(Globals globals, Cursor cursor) {
+        return globals.snapshots.get(cursor.query());
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Object snapshot2(Globals globals, Cursor cursor) {
+        return globals.snapshots.get(cursor.query());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object snapshot4(Globals globals, Cursor cursor) {
+        return globals.snapshots.get(cursor.query());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object snapshot8(Globals globals, Cursor cursor) {
+        return globals.snapshots.get(cursor.query());
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object snapshot16(Globals globals, Cursor cursor) {
+        return globals.snapshots.get(cursor.query());
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Object snapshot32(Globals globals, Cursor cursor) {
+        return globals.snapshots.get(cursor.query());
+    }
+}
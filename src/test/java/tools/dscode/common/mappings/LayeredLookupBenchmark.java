@@ -0,0 +1,99 @@
+package tools.dscode.common.mappings;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layered {@link MappingProcessor#get(String)} over eight maps, with and without
+ * the per-processor resolution cache.
+ *
+ * <p>One key is found in the last layer and one is missing, so both pay for every
+ * layer; the missing one pays twice because of the {@code ?} retry.
+ * {@code cachedAfterWrite} writes to a layer before each pair of lookups, which
+ * invalidates the cached results and shows what checking the stamps costs on top
+ * of an uncached lookup.</p>
+ *
+ * <p>Run with {@code gradle jmh -PjmhInclude=LayeredLookupBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayeredLookupBenchmark {
+
+    private static final MapConfigurations.MapType[] LAYERS = {
+            MapConfigurations.MapType.OVERRIDE_MAP,
+            MapConfigurations.MapType.PHRASE_MAP,
+            MapConfigurations.MapType.STEP_MAP,
+            MapConfigurations.MapType.DATATABLE,
+            MapConfigurations.MapType.DOCSTRING,
+            MapConfigurations.MapType.RUN_MAP,
+            MapConfigurations.MapType.SINGLETON,
+            MapConfigurations.MapType.DEFAULT};
+
+    private LayeredProcessor uncached;
+    private LayeredProcessor cached;
+    private int writes;
+
+    @Setup
+    public void setUp() {
+        uncached = new LayeredProcessor(false);
+        cached = new LayeredProcessor(true);
+    }
+
+    @Benchmark
+    public void uncached(Blackhole blackhole) {
+        lookups(uncached, blackhole);
+    }
+
+    @Benchmark
+    public void cached(Blackhole blackhole) {
+        lookups(cached, blackhole);
+    }
+
+    @Benchmark
+    public void cachedAfterWrite(Blackhole blackhole) {
+        cached.runMap.put("counter", writes++);
+        lookups(cached, blackhole);
+    }
+
+    private static void lookups(MappingProcessor processor, Blackhole blackhole) {
+        blackhole.consume(processor.get("customer.address.city"));
+        blackhole.consume(processor.get("missing placeholder"));
+    }
+
+    private static final class LayeredProcessor extends MappingProcessor {
+
+        final NodeMap runMap;
+
+        LayeredProcessor(boolean cacheLookups) {
+            super(new NodeMap(LAYERS[0]));
+            NodeMap run = null;
+            for (int i = 1; i < LAYERS.length; i++) {
+                NodeMap layer = new NodeMap(LAYERS[i]);
+                layer.put("layer" + i, i);
+                if (LAYERS[i] == MapConfigurations.MapType.RUN_MAP) {
+                    run = layer;
+                }
+                addMaps(layer);
+                keyOrder.add(LAYERS[i]);
+            }
+            maps.get(MapConfigurations.MapType.DEFAULT).getFirst().put("customer.address.city", "Phoenix");
+            runMap = run;
+            setCacheLookups(cacheLookups);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package tools.dscode.common.mappings;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MappingProcessorLookupCacheTest {
+
+    private static MappingProcessor cachingProcessor(NodeMap layer) {
+        MappingProcessor processor = new MappingProcessor(layer) {
+        };
+        processor.setCacheLookups(true);
+        return processor;
+    }
+
+    @Test
+    void repeatedLookupIsServedFromTheCache() {
+        NodeMap run = new NodeMap(MapConfigurations.MapType.RUN_MAP);
+        run.put("customer.name", "Ada");
+        MappingProcessor processor = cachingProcessor(run);
+
+        assertEquals("Ada", processor.get("customer.name"));
+        long hits = LookupMetrics.cacheHits();
+        assertEquals("Ada", processor.get("customer.name"));
+        assertEquals(hits + 1, LookupMetrics.cacheHits());
+    }
+
+    @Test
+    void writeToALayerInvalidatesCachedMiss() {
+        NodeMap run = new NodeMap(MapConfigurations.MapType.RUN_MAP);
+        MappingProcessor processor = cachingProcessor(run);
+
+        assertNull(processor.get("customer.name"));
+        run.put("customer.name", "Ada");
+        assertEquals("Ada", processor.get("customer.name"));
+
+        run.getRoot().remove("customer");
+        assertNull(processor.get("customer.name"));
+    }
+
+    @Test
+    void updateThroughTheMapInvalidatesLookupsMadeAfterTheRootWasHandedOut() {
+        NodeMap run = new NodeMap(MapConfigurations.MapType.RUN_MAP);
+        MappingProcessor processor = cachingProcessor(run);
+        run.getRoot();
+
+        assertNull(processor.get("RESPONSE.status"));
+        run.update(root -> root.putObject("RESPONSE").put("status", "ok"));
+
+        assertEquals("ok", processor.get("RESPONSE.status"));
+    }
+
+    @Test
+    void changeToAReferencedNodeIsSeenOnceRecorded() {
+        NodeMap run = new NodeMap(MapConfigurations.MapType.RUN_MAP);
+        ObjectNode call = ValueFormatting.MAPPER.createObjectNode();
+        run.putReference("call", call);
+        MappingProcessor processor = cachingProcessor(run);
+
+        assertNull(processor.get("call.RESPONSE"));
+        call.put("RESPONSE", "ok");
+        run.referenceChanged();
+
+        assertEquals("ok", processor.get("call.RESPONSE"));
+    }
+
+    @Test
+    void replacingALayerInvalidatesCachedResult() {
+        NodeMap first = new NodeMap(MapConfigurations.MapType.RUN_MAP);
+        first.put("customer.name", "Ada");
+        MappingProcessor processor = cachingProcessor(first);
+        assertEquals("Ada", processor.get("customer.name"));
+
+        NodeMap second = new NodeMap(MapConfigurations.MapType.RUN_MAP);
+        second.put("customer.name", "Grace");
+        processor.replaceMaps(second);
+
+        assertEquals("Grace", processor.get("customer.name"));
+    }
+
+    @Test
+    void containerResultsAreNotCached() {
+        NodeMap run = new NodeMap(MapConfigurations.MapType.RUN_MAP);
+        run.put("customer.name", "Ada");
+        MappingProcessor processor = cachingProcessor(run);
+
+        processor.get("customer");
+        long misses = LookupMetrics.cacheMisses();
+        processor.get("customer");
+        assertEquals(misses + 1, LookupMetrics.cacheMisses());
+    }
+}
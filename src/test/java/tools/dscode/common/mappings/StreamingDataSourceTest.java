@@ -0,0 +1,156 @@
+package tools.dscode.common.mappings;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.dscode.common.dataoperations.DataComparisons;
+import tools.dscode.common.treeparsing.parsedComponents.ElementMatch;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingDataSourceTest {
+
+    private static final int ROWS = 100_000;
+    private static final int COLUMNS = 12;
+    private static final long HEAP_CEILING_BYTES = 32L * 1024 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void csvFieldsMayQuoteCommasQuotesAndLineBreaks() throws IOException {
+        Path file = write("quoted.csv", """
+                id, name ,note
+                1, Alice ,"likes ""quotes"", commas"
+
+                2,"Bob","line one
+                line two"
+                3,Carol
+                """);
+
+        List<JsonNode> rows = rows(file);
+
+        assertEquals(3, rows.size());
+        assertEquals("Alice", rows.get(0).get("name").asText());
+        assertEquals("likes \"quotes\", commas", rows.get(0).get("note").asText());
+        assertEquals("line one\nline two", rows.get(1).get("note").asText());
+        assertTrue(rows.get(2).get("note").isNull());
+    }
+
+    @Test
+    void ndjsonAndJsonArraysYieldOneRowPerValue() throws IOException {
+        Path ndjson = write("rows.ndjson", "{\"id\":1}\n\n{\"id\":2}\n");
+        Path json = write("rows.json", "[{\"id\":1},{\"id\":2},{\"id\":3}]");
+
+        assertEquals(2, rows(ndjson).size());
+        assertEquals(3, rows(json).getLast().get("id").asInt());
+        assertEquals(List.of("id"), StreamingDataSource.of(json + "#stream").headers());
+    }
+
+    @Test
+    void hundredThousandRowCsvStreamsUnderHeapCeiling() throws IOException {
+        Path file = dir.resolve("big.csv");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int c = 0; c < COLUMNS; c++) {
+                out.write((c == 0 ? "" : ",") + "column_" + c);
+            }
+            out.newLine();
+            for (int r = 0; r < ROWS; r++) {
+                for (int c = 0; c < COLUMNS; c++) {
+                    out.write((c == 0 ? "" : ",") + "\"row " + r + ", value " + c + "\"");
+                }
+                out.newLine();
+            }
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = usedHeapAfterGc(memory);
+        long peakGrowth = 0;
+        int count = 0;
+        JsonNode last = null;
+
+        try (Stream<JsonNode> rows = StreamingDataSource.of(file + "#stream").rows()) {
+            Iterator<JsonNode> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                last = iterator.next();
+                if (++count % 25_000 == 0) {
+                    peakGrowth = Math.max(peakGrowth, usedHeapAfterGc(memory) - baseline);
+                }
+            }
+        }
+
+        assertEquals(ROWS, count);
+        assertEquals("row 99999, value 11", last.get("column_11").asText());
+        assertTrue(peakGrowth < HEAP_CEILING_BYTES,
+                "Streaming retained " + peakGrowth / 1024 + " KiB; ceiling is " + HEAP_CEILING_BYTES / 1024 + " KiB");
+    }
+
+    @Test
+    void noneSelectionWithoutAPositionKeepsTheLastRowLikeTheListForm() throws IOException {
+        Path file = write("none.csv", "id\n1\n2\n3\n");
+
+        for (String selectionType : List.of("none", "none of")) {
+            List<JsonNode> streamed = streamedSelection(file, selectionType, "");
+
+            assertEquals(listSelection(file, selectionType, ""), streamed);
+            assertEquals("3", streamed.getFirst().get("id").asText());
+        }
+    }
+
+    @Test
+    void positionalStreamingSelectionsMatchTheListForm() throws IOException {
+        Path file = write("positions.csv", "id\n1\n2\n3\n");
+
+        for (String position : List.of("", "first", "last", "1", "2", "3", "4", "0", "-1", "-3")) {
+            assertEquals(listSelection(file, "", position), streamedSelection(file, "", position), position);
+        }
+        assertEquals(3, streamedSelection(file, "every", "").size());
+        assertTrue(streamedSelection(file, "", "-1").isEmpty());
+    }
+
+    private static ElementMatch selection(String selectionType, String elementPosition) {
+        ElementMatch match = new ElementMatch(null) {
+        };
+        match.selectionType = selectionType;
+        match.elementPosition = elementPosition;
+        return match;
+    }
+
+    private static List<JsonNode> streamedSelection(Path file, String selectionType, String elementPosition) {
+        return DataComparisons.filterGroupedValues(StreamingDataSource.of(file + "#stream").rows(),
+                row -> row.get("id").asText(), selection(selectionType, elementPosition), false);
+    }
+
+    private static List<JsonNode> listSelection(Path file, String selectionType, String elementPosition) {
+        List<JsonNode> rows = rows(file);
+        return DataComparisons.filterGroupedValues(rows.stream().map(row -> row.get("id").asText()).toList(),
+                rows, selection(selectionType, elementPosition), false);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+
+    private static List<JsonNode> rows(Path file) {
+        try (Stream<JsonNode> rows = StreamingDataSource.of(file + "#stream").rows()) {
+            return rows.toList();
+        }
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
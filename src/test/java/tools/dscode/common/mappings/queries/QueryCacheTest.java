@@ -0,0 +1,101 @@
+package tools.dscode.common.mappings.queries;
+
+import com.api.jsonata4java.expressions.Expressions;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class QueryCacheTest {
+
+    private static final String EXPRESSION = "customer.orders[total > 10].sku";
+
+    @Test
+    void sameExpressionEvaluatesAgainstDifferentRootsOnParallelThreads() throws Exception {
+        int threads = 8;
+        int rounds = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < rounds; round++) {
+                        String sku = "T" + thread + "-" + round;
+                        JsonNode result = Tokenized.evaluate(root(sku), EXPRESSION);
+                        assertEquals(sku, result == null ? null : result.asText(),
+                                "thread " + thread + " round " + round);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void parsedExpressionsAreReusedOnlyWithinOneThread() throws Exception {
+        Expressions here = QueryCache.expression(EXPRESSION);
+        assertSame(here, QueryCache.expression(EXPRESSION));
+
+        Expressions[] there = new Expressions[1];
+        Thread other = new Thread(() -> {
+            try {
+                there[0] = QueryCache.expression(EXPRESSION);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        other.start();
+        other.join();
+
+        assertNotSame(here, there[0]);
+    }
+
+    @Test
+    void clearDropsExpressionsParsedOnEveryThread() throws Exception {
+        Expressions before = QueryCache.expression(EXPRESSION);
+        QueryCache.clear();
+        assertNotSame(before, QueryCache.expression(EXPRESSION));
+    }
+
+    @Test
+    void bindingExpressionsAreNeverCached() throws Exception {
+        String binding = "($x := customer.name; $x)";
+        assertNotSame(QueryCache.expression(binding), QueryCache.expression(binding));
+    }
+
+    @Test
+    void invalidExpressionsEvaluateToNull() {
+        assertNull(Tokenized.evaluate(root("A"), "customer.orders["));
+    }
+
+    private static ObjectNode root(String sku) {
+        ObjectNode root = JsonNodeFactory.instance.objectNode();
+        ObjectNode customer = root.putObject("customer");
+        customer.putArray("orders")
+                .add(JsonNodeFactory.instance.objectNode().put("sku", "small-" + sku).put("total", 5))
+                .add(JsonNodeFactory.instance.objectNode().put("sku", sku).put("total", 25));
+        return root;
+    }
+}
@@ -0,0 +1,81 @@
+package tools.dscode.common.mappings.queries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.dscode.common.mappings.NodeMap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares placeholder resolution with an empty query cache against resolution
+ * with every query already compiled.
+ *
+ * <p>Run with {@code gradle jmh -PjmhInclude=TokenizedResolutionBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizedResolutionBenchmark {
+
+    private static final List<String> QUERIES = List.of(
+            "customerName",
+            "yamlCustomer.name",
+            "yamlCustomer.address.city",
+            "unquotedJson.RESPONSE.statusCode",
+            "unquotedJson.RESPONSE.body.body.items[1].sku",
+            "unquotedJson.RESPONSE.body.body.metadata.priority",
+            "unquotedJson.REQUEST.headers.X-Test-Trace",
+            "ops calendar date",
+            "orders#2.total",
+            "orders#first.lines#last.sku",
+            "orders[total > 10].id",
+            "_settings.timeout");
+
+    private NodeMap map;
+
+    @Setup
+    public void setUp() {
+        map = new NodeMap();
+        map.put("customerName", "Ada");
+        map.put("yamlCustomer.name", "Ada");
+        map.put("yamlCustomer.address.city", "Phoenix");
+        map.put("unquotedJson.RESPONSE.statusCode", 200);
+        map.put("unquotedJson.RESPONSE.body.body.items[0].sku", "A-1");
+        map.put("unquotedJson.RESPONSE.body.body.items[1].sku", "B-2");
+        map.put("unquotedJson.RESPONSE.body.body.metadata.priority", "high");
+        map.put("unquotedJson.REQUEST.headers.X-Test-Trace", "trace-1");
+        map.put("ops calendar date", "2026-01-02");
+        map.put("orders", Map.of("id", 1, "total", 5, "lines", List.of(Map.of("sku", "C-3"))));
+        map.put("orders", Map.of("id", 2, "total", 25, "lines", List.of(Map.of("sku", "D-4"))));
+        map.put("_settings.timeout", 30);
+    }
+
+    @Benchmark
+    public void coldResolution(Blackhole blackhole) {
+        QueryCache.clear();
+        for (String query : QUERIES) {
+            blackhole.consume(map.get(query));
+        }
+    }
+
+    @Benchmark
+    public void warmResolution(Blackhole blackhole) {
+        for (String query : QUERIES) {
+            blackhole.consume(map.get(query));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package tools.dscode.common.reporting;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkBookWriteTest {
+
+    private static final int ROWS = 5_000;
+
+    @TempDir
+    Path dir;
+
+    private static List<List<String>> read(Path file) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(file); Workbook wb = new XSSFWorkbook(in)) {
+            Sheet sheet = wb.getSheetAt(0);
+            for (Row row : sheet) {
+                List<String> cells = new ArrayList<>();
+                row.forEach(cell -> cells.add(cell.toString()));
+                rows.add(cells);
+            }
+        }
+        return rows;
+    }
+
+    private static void fill(WorkBook book, int rows) {
+        for (int i = 0; i < rows; i++) {
+            book.put(String.format("row-%05d", i), "Name", "name " + i);
+            book.put(String.format("row-%05d", i), "Count", i);
+        }
+    }
+
+    @Test
+    void streamingWriteMatchesInMemoryWrite() throws IOException {
+        WorkBook inMemory = new WorkBook(dir.resolve("memory.xlsx")).setStreamingRowWindow(0);
+        WorkBook streaming = new WorkBook(dir.resolve("streaming.xlsx")).setStreamingRowWindow(100);
+        fill(inMemory, ROWS);
+        fill(streaming, ROWS);
+
+        inMemory.write();
+        streaming.write();
+
+        List<List<String>> expected = read(inMemory.outputFile);
+        assertEquals(ROWS + 1, expected.size());
+        assertEquals(List.of("Name", "Count"), expected.getFirst());
+        assertEquals(expected, read(streaming.outputFile));
+    }
+
+    @Test
+    void puttingDataWritesTheFileInTheBackground() throws Exception {
+        WorkBook book = new WorkBook(dir.resolve("debounced.xlsx")).setWriteInterval(Duration.ofMillis(50));
+        fill(book, ROWS);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!(Files.exists(book.outputFile) && read(book.outputFile).size() == ROWS + 1)) {
+            assertTrue(System.nanoTime() < deadline, "background write did not catch up");
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void unchangedWorkbookIsNotRewrittenInTheBackground() throws Exception {
+        WorkBook book = new WorkBook(dir.resolve("idle.xlsx")).setWriteInterval(Duration.ofMillis(20));
+        fill(book, 10);
+        book.write();
+        FileTime written = Files.getLastModifiedTime(book.outputFile);
+
+        Thread.sleep(200);
+        book.writeIfChanged();
+
+        assertEquals(written, Files.getLastModifiedTime(book.outputFile));
+    }
+
+    @Test
+    void explicitWriteIncludesEverythingPutBeforeIt() throws IOException {
+        WorkBook book = new WorkBook(dir.resolve("final.xlsx"))
+                .setWriteInterval(Duration.ofSeconds(30))
+                .setStreamingRowWindow(50);
+        fill(book, ROWS);
+
+        book.write();
+
+        List<List<String>> rows = read(book.outputFile);
+        assertEquals(ROWS + 1, rows.size());
+        assertEquals(List.of("name " + (ROWS - 1), String.valueOf((double) (ROWS - 1))), rows.getLast());
+    }
+}
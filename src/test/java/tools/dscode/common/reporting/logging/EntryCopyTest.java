@@ -0,0 +1,48 @@
+package tools.dscode.common.reporting.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntryCopyTest {
+
+    @Test
+    void copiesKeepTheStateTheEntryHadWhenCopied() {
+        Entry root = Entry.of("run");
+        Entry step = root.child("step").field("key:value").tag("first").status(Status.PASS);
+
+        IdentityHashMap<Entry, Entry> copies = step.copyWithAncestors();
+        step.field("key:changed").tag("second").status(Status.FAIL);
+        step.text = "renamed";
+        root.status(Status.FAIL);
+
+        Entry copy = copies.get(step);
+        assertEquals("step", copy.text);
+        assertEquals(Status.PASS, copy.status);
+        assertEquals(Map.of("key", "value"), copy.fields);
+        assertEquals(List.of("first"), copy.tags);
+        assertEquals(step.id, copy.id);
+        assertSame(copies.get(root), copy.parent);
+        assertEquals(root.id, copy.parent.id);
+        assertEquals(null, copy.parent.status);
+        assertTrue(copy.children.isEmpty());
+    }
+
+    @Test
+    void copiesAreReadOnly() {
+        Entry copy = Entry.of("run").child("step").copyWithAncestors().values().stream()
+                .filter(entry -> entry.parent != null)
+                .findFirst()
+                .orElseThrow();
+
+        assertThrows(UnsupportedOperationException.class, () -> copy.field("key:value"));
+        assertThrows(UnsupportedOperationException.class, () -> copy.tag("tag"));
+    }
+}
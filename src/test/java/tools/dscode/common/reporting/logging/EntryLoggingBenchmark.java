@@ -0,0 +1,76 @@
+package tools.dscode.common.reporting.logging;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging throughput of {@code threadSafe()} entries from eight threads at once, as with
+ * {@code pkb_parallel=8}.
+ *
+ * <p>{@code sharedRoot} has every thread log into one tree, so all of them take the same lock,
+ * as every thread-safe entry did while the lock was JVM-wide. {@code rootPerThread} gives each
+ * thread its own scenario-style root and should scale with the thread count. Each operation
+ * updates a field and status and emits a timestamp to a no-op converter; no children are
+ * added, so the trees do not grow during the run.</p>
+ *
+ * <p>Run with {@code gradle jmh -PjmhInclude=EntryLoggingBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class EntryLoggingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedTree {
+        Entry step;
+
+        @Setup
+        public void setUp() {
+            step = newStep("Pickleball Run");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadTree {
+        Entry step;
+
+        @Setup
+        public void setUp() {
+            step = newStep("Scenario " + Thread.currentThread().getName());
+        }
+    }
+
+    @Benchmark
+    public Entry sharedRoot(SharedTree tree) {
+        return log(tree.step);
+    }
+
+    @Benchmark
+    public Entry rootPerThread(ThreadTree tree) {
+        return log(tree.step);
+    }
+
+    private static Entry log(Entry step) {
+        return step.field("phase:running").status(Status.PASS).timestamp();
+    }
+
+    private static Entry newStep(String rootText) {
+        Entry root = Entry.of(rootText).on(new BaseConverter() {
+        }).threadSafe();
+        return root.child("Step");
+    }
+}
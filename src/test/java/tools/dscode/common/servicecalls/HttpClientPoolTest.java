@@ -0,0 +1,160 @@
+package tools.dscode.common.servicecalls;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tools.dscode.common.mappings.ValueFormatting.MAPPER;
+
+class HttpClientPoolTest {
+
+    private HttpServer server;
+    private final Set<InetSocketAddress> clientPorts = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Loopback endpoints: /ping records which client socket each request arrived on, /whoami
+     * challenges for basic credentials and answers with the user name it was given.
+     */
+    @BeforeEach
+    void startServer() throws IOException {
+        HttpClientPool.setEnabled(true);
+        HttpClientPool.clear();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/ping", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress());
+            byte[] body = "{\"pong\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            exchange.close();
+        });
+        server.createContext("/whoami", exchange -> {
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (authorization == null || !authorization.startsWith("Basic ")) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Basic realm=\"test\"");
+                exchange.sendResponseHeaders(401, -1);
+                exchange.close();
+                return;
+            }
+            String credentials = new String(Base64.getDecoder().decode(authorization.substring(6)), StandardCharsets.UTF_8);
+            byte[] body = credentials.substring(0, credentials.indexOf(':')).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        HttpClientPool.clear();
+        HttpClientPool.setEnabled(null);
+    }
+
+    private ObjectNode newRequest() {
+        ObjectNode request = MAPPER.createObjectNode();
+        request.put("baseUri", "http://127.0.0.1:" + server.getAddress().getPort());
+        return request;
+    }
+
+    private ObjectNode call(JsonNode configuration) {
+        return RestAssuredUtil.extractResponse(RestAssuredUtil.execute(
+                RestAssuredUtil.buildRequest(newRequest(), configuration), "GET", "/ping"));
+    }
+
+    private ObjectNode whoAmI(String username) {
+        ObjectNode request = newRequest();
+        if (username != null) {
+            ObjectNode basic = request.putObject("auth").putObject("basic");
+            basic.put("username", username);
+            basic.put("password", username + "-secret");
+        }
+        return RestAssuredUtil.extractResponse(RestAssuredUtil.execute(
+                RestAssuredUtil.buildRequest(request, MAPPER.createObjectNode()), "GET", "/whoami"));
+    }
+
+    @Test
+    void callsWithTheSameConfigurationShareOneConnection() {
+        ObjectNode first = call(MAPPER.createObjectNode());
+        ObjectNode second = call(MAPPER.createObjectNode());
+
+        assertEquals(200, second.path("statusCode").asInt());
+        assertTrue(second.path("body").path("pong").asBoolean());
+        assertFalse(first.path("timing").path("reusedConnection").asBoolean(true));
+        assertTrue(second.path("timing").path("reusedConnection").asBoolean());
+        assertEquals(1, clientPorts.size());
+        assertEquals(1, HttpClientPool.size());
+    }
+
+    @Test
+    void timingIsReportedWithTheResponse() {
+        JsonNode timing = call(MAPPER.createObjectNode()).path("timing");
+
+        double connect = timing.path("connectMillis").asDouble(-1);
+        double firstByte = timing.path("timeToFirstByteMillis").asDouble(-1);
+        double total = timing.path("totalMillis").asDouble(-1);
+        assertTrue(connect >= 0);
+        assertTrue(firstByte >= connect);
+        assertTrue(total >= firstByte);
+    }
+
+    @Test
+    void differentConfigurationsGetSeparateClients() {
+        ObjectNode withHeader = MAPPER.createObjectNode();
+        withHeader.putObject("headers").put("X-Test", "1");
+
+        call(MAPPER.createObjectNode());
+        call(withHeader);
+        call(withHeader);
+
+        assertEquals(2, HttpClientPool.size());
+        assertEquals(2, clientPorts.size());
+    }
+
+    @Test
+    void clearingThePoolClosesItsConnections() {
+        call(MAPPER.createObjectNode());
+        HttpClientPool.clear();
+        ObjectNode afterClear = call(MAPPER.createObjectNode());
+
+        assertFalse(afterClear.path("timing").path("reusedConnection").asBoolean(true));
+        assertEquals(2, clientPorts.size());
+    }
+
+    @Test
+    void callsWithDifferentCredentialsNeverShareThem() {
+        ObjectNode alice = whoAmI("alice");
+        ObjectNode bob = whoAmI("bob");
+        ObjectNode anonymous = whoAmI(null);
+        ObjectNode aliceAgain = whoAmI("alice");
+
+        assertEquals("alice", alice.path("body").asText());
+        assertEquals("bob", bob.path("body").asText());
+        assertEquals(401, anonymous.path("statusCode").asInt());
+        assertEquals("alice", aliceAgain.path("body").asText());
+        assertEquals(3, HttpClientPool.size());
+    }
+}
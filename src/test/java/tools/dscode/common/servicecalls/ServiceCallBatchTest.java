@@ -0,0 +1,135 @@
+package tools.dscode.common.servicecalls;
+
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.RestAssured;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServiceCallBatchTest {
+
+    private HttpServer server;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    /** Loopback endpoint: /delay/{ms} answers {@code {"slept":ms}} after sleeping that long. */
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/delay/", exchange -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                String millis = exchange.getRequestURI().getPath().substring("/delay/".length());
+                Thread.sleep(Long.parseLong(millis));
+                byte[] body = ("{\"slept\":" + millis + "}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private RequestSpecification request() {
+        return RestAssured.given().baseUri("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @Test
+    void responsesAreMergedInSubmissionOrder() {
+        List<Integer> merged = new ArrayList<>();
+        Object owner = new Object();
+
+        try (ServiceCallBatch batch = ServiceCallBatch.open(8, List.of(owner))) {
+            for (int millis : new int[]{400, 300, 200, 100, 0}) {
+                batch.submit(request(), "GET", "/delay/" + millis, completed -> {
+                    assertNull(completed.failure());
+                    assertEquals(200, completed.response().get("statusCode").asInt());
+                    merged.add(completed.response().get("body").get("slept").asInt());
+                });
+            }
+            batch.awaitAll();
+        }
+
+        assertEquals(List.of(400, 300, 200, 100, 0), merged);
+    }
+
+    @Test
+    void requestsOverlapUpToTheInFlightLimit() {
+        List<Integer> merged = Collections.synchronizedList(new ArrayList<>());
+        long started = System.nanoTime();
+
+        try (ServiceCallBatch batch = ServiceCallBatch.open(3, List.of())) {
+            for (int i = 0; i < 6; i++) {
+                batch.submit(request(), "GET", "/delay/300", completed -> merged.add(completed.response().get("statusCode").asInt()));
+            }
+            batch.awaitAll();
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertEquals(6, merged.size());
+        assertEquals(3, maxInFlight.get());
+        assertTrue(elapsedMillis < 6 * 300, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void failedCallIsThrownAfterEveryCallbackRan() {
+        List<String> merged = new ArrayList<>();
+
+        try (ServiceCallBatch batch = ServiceCallBatch.open(2, List.of())) {
+            batch.submit(RestAssured.given().baseUri("http://127.0.0.1:1"), "GET", "/", completed -> {
+                merged.add("failed");
+                throw completed.failure();
+            });
+            batch.submit(request(), "GET", "/delay/0", completed -> merged.add("ok"));
+
+            assertThrows(RuntimeException.class, batch::awaitAll);
+        }
+
+        assertEquals(List.of("failed", "ok"), merged);
+    }
+
+    @Test
+    void batchIsActiveOnlyForItsOwnersUntilClosed() {
+        Object owner = new Object();
+        Object other = new Object();
+
+        try (ServiceCallBatch batch = ServiceCallBatch.open(1, List.of(owner))) {
+            assertSame(batch, ServiceCallBatch.active(owner));
+            assertNull(ServiceCallBatch.active(other));
+        }
+
+        assertNull(ServiceCallBatch.active(owner));
+    }
+}
@@ -0,0 +1,83 @@
+package tools.dscode.common.treeparsing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.dscode.common.mappings.QuoteParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static tools.dscode.common.GlobalConstants.BOOK_END;
+
+/**
+ * Parse throughput of {@link DefinitionContext#DEFAULT_NODE_DICTIONARY} over the dynamic-step
+ * phrases used in the consumer-project feature files.
+ *
+ * <p>Phrases are split from {@code * , ...} lines the same way {@code LineData} splits them:
+ * quotes are masked first, the masked line is split on phrase delimiters, and each phrase is
+ * restored with its quoted text wrapped in {@code BOOK_END}.</p>
+ *
+ * <p>Run with {@code gradle jmh -PjmhInclude=PhraseParseBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhraseParseBenchmark {
+
+    private static final Path FEATURES = Path.of("maven-consumer-project/src/test/resources/features");
+
+    private List<String> phrases;
+
+    @Setup
+    public void loadPhrases() throws IOException {
+        phrases = new ArrayList<>();
+        try (Stream<Path> files = Files.list(FEATURES)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".feature")).sorted().toList()) {
+                for (String line : Files.readAllLines(file)) {
+                    String step = line.strip();
+                    if (step.startsWith("* ,")) {
+                        addPhrases(step.substring(2));
+                    }
+                }
+            }
+        }
+        if (phrases.isEmpty()) {
+            throw new IllegalStateException("No dynamic-step phrases found under " + FEATURES.toAbsolutePath());
+        }
+    }
+
+    private void addPhrases(String line) {
+        QuoteParser qp = new QuoteParser(line);
+        for (String chunk : qp.masked().split(",|;|[.:!?](?=\\s|$)")) {
+            String phrase = qp.restoreFromWithOuterBookend(chunk, BOOK_END);
+            if (!phrase.isBlank()) {
+                phrases.add(phrase);
+            }
+        }
+    }
+
+    @Benchmark
+    public void parseConsumerPhrases(Blackhole blackhole) {
+        NodeDictionary dictionary = DefinitionContext.DEFAULT_NODE_DICTIONARY;
+        for (String phrase : phrases) {
+            blackhole.consume(dictionary.parse(phrase));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package tools.dscode.common.treeparsing.preparsing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.dscode.common.treeparsing.parsedComponents.PhraseData;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class ParseCacheTest {
+
+    // No leading ", " so the line is masked but not split into phrases.
+    private static final String LINE = "click \"OK\" in (the dialog) with {options}.";
+
+    private static LineData lineData(String input) {
+        return new LineData(input) {
+            @Override
+            public PhraseData runPhraseFromLine(PhraseData phrase) {
+                return phrase;
+            }
+
+            @Override
+            public void runPhrases() {
+            }
+        };
+    }
+
+    @BeforeEach
+    void clearCache() {
+        ParseCache.clear();
+    }
+
+    @Test
+    void secondLineDataComesFromTheCache() {
+        long hits = ParseCache.lineHits();
+
+        lineData(LINE);
+        lineData(LINE);
+
+        assertEquals(hits + 1, ParseCache.lineHits());
+    }
+
+    @Test
+    void lineDataBuiltFromOneCachedLineDoNotShareParsers() {
+        LineData first = lineData(LINE);
+        LineData second = lineData(LINE);
+        String maskedQuotes = second.quoteParser().masked();
+        String maskedBrackets = second.bracketMasker().masked();
+        int quoteCount = second.quoteParser().size();
+        int bracketCount = second.bracketMasker().size();
+
+        assertNotSame(first.quoteParser(), second.quoteParser());
+        assertNotSame(first.bracketMasker(), second.bracketMasker());
+
+        first.quoteParser().setMasked("changed");
+        first.quoteParser().replaceAll((placeholder, value) -> "changed");
+        first.quoteParser().put("extra", "value");
+        first.bracketMasker().setMasked("changed");
+        first.bracketMasker().replaceAll((placeholder, value) -> "changed");
+        first.bracketMasker().put("extra", "value");
+
+        assertEquals(maskedQuotes, second.quoteParser().masked());
+        assertEquals(maskedBrackets, second.bracketMasker().masked());
+        assertEquals(quoteCount, second.quoteParser().size());
+        assertEquals(bracketCount, second.bracketMasker().size());
+        assertFalse(second.quoteParser().containsValue("changed"));
+        assertFalse(second.bracketMasker().containsValue("changed"));
+        assertEquals(LINE, second.quoteParser().restoreFrom(second.bracketMasker().restore()));
+
+        // A line built after the changes still starts from the cached, unchanged state.
+        assertEquals(LINE, lineData(LINE).quoteParser().restoreFrom(lineData(LINE).bracketMasker().restore()));
+    }
+}
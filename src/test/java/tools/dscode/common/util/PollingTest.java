@@ -0,0 +1,94 @@
+package tools.dscode.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PollingTest {
+
+    @Test
+    void fastConditionIsNoticedWithinFirstBackoffSteps() {
+        AtomicInteger attempts = new AtomicInteger();
+        Polling polling = Polling.withTimeout(Duration.ofSeconds(10));
+
+        long start = System.nanoTime();
+        int result = polling.until(attempts::incrementAndGet, n -> n == 3);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(3, result);
+        assertEquals(3, polling.iterations());
+        assertTrue(elapsedMillis < 400, "Took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void deadlineEndsPollingWithFewAttempts() {
+        Polling polling = Polling.withTimeout(Duration.ofMillis(1500));
+
+        long start = System.nanoTime();
+        RuntimeException failure = assertThrows(RuntimeException.class,
+                () -> polling.until(() -> false, Boolean::booleanValue));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 1500 && elapsedMillis < 2500, "Took " + elapsedMillis + " ms");
+        // 25, 50, 100, 200, 400, 800 ms (±25%) reach the deadline in well under 15 attempts
+        assertTrue(polling.iterations() < 15, polling.describe());
+        assertTrue(polling.expired());
+        assertTrue(failure.getMessage().contains("iterations=" + polling.iterations()));
+    }
+
+    @Test
+    void changeSignalWakesPausesEarly() {
+        AtomicInteger signals = new AtomicInteger();
+        Polling polling = Polling.withTimeout(Duration.ofSeconds(10))
+                .wakeOn(maxWait -> signals.incrementAndGet() > 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        long start = System.nanoTime();
+        polling.until(attempts::incrementAndGet, n -> n == 5);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Plain backoff would pause 25 + 50 + 100 + 200 ms (±25%), at least 281 ms
+        assertEquals(4, signals.get());
+        assertTrue(elapsedMillis < 200, "Took " + elapsedMillis + " ms");
+        assertTrue(polling.describe().contains("earlyWakes=4"), polling.describe());
+    }
+
+    @Test
+    void constantChangesDoNotMakePollingBusy() {
+        Polling polling = Polling.withTimeout(Duration.ofMillis(1500))
+                .wakeOn(maxWait -> true);
+
+        assertThrows(RuntimeException.class, () -> polling.until(() -> false, Boolean::booleanValue));
+
+        // Pauses shrink to a quarter of the growing backoff: about 6, 12, 25, 50, 100, 200,
+        // then 250 ms each, so roughly a dozen attempts rather than one per mutation.
+        assertTrue(polling.iterations() < 25, polling.describe());
+        assertTrue(polling.waited().toMillis() >= 1000, polling.describe());
+    }
+
+    @Test
+    void failingChangeSignalFallsBackToBackoff() {
+        Polling polling = Polling.withTimeout(Duration.ofSeconds(10))
+                .wakeOn(maxWait -> {
+                    throw new IllegalStateException("window closed");
+                });
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertEquals(4, polling.until(attempts::incrementAndGet, n -> n == 4));
+        assertTrue(polling.waited().toMillis() >= 100, polling.describe());
+    }
+
+    @Test
+    void missingTimeoutNeverExpires() {
+        Polling polling = Polling.withTimeout(Duration.ZERO);
+
+        assertTrue(polling.pause());
+        assertFalse(polling.expired());
+    }
+}
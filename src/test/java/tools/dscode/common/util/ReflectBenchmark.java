@@ -0,0 +1,96 @@
+package tools.dscode.common.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reflective calls with an empty resolution cache, which scans the class
+ * hierarchy on every call as before the cache existed, against calls whose method,
+ * field and getter lookups are already resolved.
+ *
+ * <p>The target mixes the shapes seen from Aviator functions and step objects:
+ * overloads chosen by argument type, a varargs method, a static method, a field
+ * read through {@code getProperty} and a bean setter.</p>
+ *
+ * <p>Run with {@code gradle jmh -PjmhInclude=ReflectBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectBenchmark {
+
+    private Sample sample;
+
+    @Setup
+    public void setUp() {
+        sample = new Sample();
+        sample.child = new Sample();
+    }
+
+    @Benchmark
+    public void coldCalls(Blackhole blackhole) {
+        ReflectCache.clear();
+        calls(blackhole);
+    }
+
+    @Benchmark
+    public void warmCalls(Blackhole blackhole) {
+        calls(blackhole);
+    }
+
+    private void calls(Blackhole blackhole) {
+        blackhole.consume(Reflect.invokeAnyMethod(sample, "describe", "step", 3));
+        blackhole.consume(Reflect.invokeAnyMethod(sample, "describe", "step"));
+        blackhole.consume(Reflect.invokeAnyMethod(sample, "join", "a", "b", "c"));
+        blackhole.consume(Reflect.invokeAnyMethod(Sample.class, "twice", 21));
+        blackhole.consume(Reflect.getProperty(sample, "child.label"));
+        blackhole.consume(Reflect.setProperty(sample, "count", 5));
+    }
+
+    static class Base {
+        private String label = "base";
+
+        String describe(Object value) {
+            return label + ":" + value;
+        }
+    }
+
+    static class Sample extends Base {
+        Sample child;
+        private int count;
+
+        String describe(String text) {
+            return "text:" + text;
+        }
+
+        String describe(String text, int times) {
+            return text.repeat(times);
+        }
+
+        String join(String... parts) {
+            return String.join(",", parts);
+        }
+
+        static int twice(int value) {
+            return value * 2;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package tools.dscode.common.util.datetime;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Business-time arithmetic over a weekday calendar with holiday and partial-day closures.
+ *
+ * <p>Each operation spans months of calendar time, so the cost is dominated by how many
+ * open intervals and dates the calendar has to walk through.</p>
+ *
+ * <p>Run with {@code gradle jmh -PjmhInclude=BusinessCalendarTimelineBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusinessCalendarTimelineBenchmark {
+
+    private BusinessCalendar calendar;
+    private BusinessTime start;
+    private ZonedDateTime startTime;
+
+    @Setup
+    public void setUp() {
+        calendar = BusinessCalendar.fromJson("""
+                {
+                  "TimeZone": "America/New_York",
+                  "Open": ["MON-FRI 08:00-12:00", "MON-FRI 13:00-18:30"],
+                  "Closed": ["1 JAN", "4 JUL", "25 DEC", "24-27 DEC", "FRI 1500-1830"]
+                }
+                """);
+        startTime = ZonedDateTime.of(2025, 11, 14, 10, 30, 0, 0, ZoneId.of("America/New_York"));
+        start = new BusinessTime(calendar, startTime);
+    }
+
+    @Benchmark
+    public BusinessTime addBusinessDays() {
+        return start.add("+ 120 business days");
+    }
+
+    @Benchmark
+    public ZonedDateTime addOpenDuration() {
+        return calendar.addOpenDuration(startTime, Duration.ofHours(900));
+    }
+
+    @Benchmark
+    public ZonedDateTime subtractOpenDuration() {
+        return calendar.subtractOpenDuration(startTime, Duration.ofHours(900));
+    }
+
+    @Benchmark
+    public ZonedDateTime nextOpenAcrossHolidays() {
+        return calendar.nextOpen(startTime.withMonth(12).withDayOfMonth(24));
+    }
+}
@@ -0,0 +1,605 @@
+package tools.dscode.common.util.datetime;
+
+import org.junit.jupiter.api.Test;
+import tools.dscode.common.util.datetime.BusinessCalendar.ClosedRule;
+import tools.dscode.common.util.datetime.BusinessCalendar.Interval;
+import tools.dscode.common.util.datetime.BusinessCalendar.RulesParser;
+import tools.dscode.common.util.datetime.BusinessCalendar.WeeklyOpenRule;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Differential check of the compiled year timelines against the day-by-day walk they replaced.
+ * {@link DayWalkingCalendar} keeps the previous algorithms as they were, built from the same
+ * parsed rules, so every lookup below must agree with it except where the timelines were meant
+ * to change the answer; those cases have their own tests at the end.
+ */
+class BusinessCalendarTimelineTest {
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    private static final List<Duration> DURATIONS = List.of(
+            Duration.ofNanos(1), Duration.ofMinutes(1), Duration.ofMinutes(90),
+            Duration.ofHours(8), Duration.ofHours(37), Duration.ofHours(400));
+
+    private static final List<Long> BUSINESS_DAYS = List.of(1L, 3L, 20L, 260L, -1L, -3L, -20L, -260L);
+
+    @Test
+    void weekdayCalendarWithHolidaysMatchesDayWalking() {
+        assertMatchesDayWalking(
+                List.of("MON-FRI 08:00-12:00", "MON-FRI 13:00-18:30"),
+                List.of("1 JAN", "4 JUL", "25 DEC", "24-27 DEC", "FRI 1500-1830"),
+                DURATIONS, BUSINESS_DAYS);
+    }
+
+    @Test
+    void overnightIntervalsMatchDayWalking() {
+        // Closures stay clear of the overnight ranges; where they meet is an intended difference.
+        assertMatchesDayWalking(
+                List.of("MON-FRI 22:00-06:00", "SAT 10:00-14:00"),
+                List.of("WED 0700-2100", "31 DEC 1200-1800", "SAT 1100-1200"),
+                DURATIONS, BUSINESS_DAYS);
+    }
+
+    @Test
+    void dstTransitionsMatchDayWalking() {
+        // Opens inside both the spring-forward gap and the fall-back overlap.
+        assertMatchesDayWalking(
+                List.of("MON-SUN 00:30-03:30", "MON-SUN 20:00-23:00"),
+                List.of("SUN 0145-0215", "2 NOV 2025 0100-0130"),
+                DURATIONS, BUSINESS_DAYS);
+    }
+
+    @Test
+    void closedDayEdgeCasesMatchDayWalking() {
+        // Closures covering a whole open range, touching either end, and closing entire months.
+        assertMatchesDayWalking(
+                List.of("MON-FRI 09:00-17:00"),
+                List.of("MON 0900-1700", "TUE 1700-1800", "WED 0800-0900", "THU 1200-1300, 1300-1400",
+                        "FEB", "1-15 AUG"),
+                DURATIONS, BUSINESS_DAYS);
+    }
+
+    @Test
+    void searchLimitMatchesDayWalking() {
+        // Open on Jan 5 and Jan 20, except in 2025. From Dec 31 2024 the next open date is 370
+        // days away and from Jan 1 2025 it is 369; Jan 20 2024 is 369 days before Jan 23 2025
+        // and 370 before Jan 24. The day walk takes about a second per search on this calendar,
+        // so only the dates around those edges are sampled.
+        assertMatchesDayWalking(
+                List.of("MON-SUN 09:00-17:00"),
+                List.of("FEB-DEC", "1-4 JAN", "6-19 JAN", "21-31 JAN", "2025"),
+                List.of(zdt(2024, 12, 31, 12, 0), zdt(2025, 1, 1, 12, 0), zdt(2025, 1, 6, 0, 0),
+                        zdt(2025, 1, 23, 12, 0), zdt(2025, 1, 24, 12, 0), zdt(2026, 1, 4, 12, 0)),
+                List.of(Duration.ofNanos(1), Duration.ofHours(8), Duration.ofHours(20)),
+                List.of(1L, -1L));
+    }
+
+    @Test
+    void calendarWithoutOpenTimeMatchesDayWalking() {
+        assertMatchesDayWalking(List.of(), List.of(), List.of(zdt(2025, 6, 1, 12, 0)),
+                List.of(Duration.ofHours(1)), List.of(1L, -1L));
+    }
+
+    // ---------------- intended differences ----------------
+
+    @Test
+    void overnightIntervalsAreClippedByClosuresOnEitherDate() {
+        List<String> open = List.of("MON-SUN 22:00-06:00");
+        List<String> closed = List.of("25 DEC", "31 DEC 2200-2330");
+        BusinessCalendar calendar = calendar(open, closed);
+        DayWalkingCalendar reference = new DayWalkingCalendar(NEW_YORK, open, closed);
+
+        // Closed on the following date: 3h after midnight on the 26th, then 2h before midnight on the 24th.
+        ZonedDateTime afterChristmas = zdt(2025, 12, 26, 3, 0);
+        assertEquals(zdt(2025, 12, 24, 22, 0), calendar.subtractOpenDuration(afterChristmas, Duration.ofHours(5)));
+        assertEquals(Duration.ofHours(5), calendar.openDurationBetween(zdt(2025, 12, 24, 22, 0), afterChristmas));
+        // The day walk counted the night of the 25th as open, although the 25th is closed all day.
+        ZonedDateTime walked = reference.subtractOpenDuration(afterChristmas, Duration.ofHours(5));
+        assertEquals(zdt(2025, 12, 25, 22, 0), walked);
+        assertFalse(calendar.isOpen(walked));
+
+        // Closed on the starting date: 30m from 23:30 on the 31st, then 1h from the night before.
+        ZonedDateTime newYear = zdt(2026, 1, 1, 0, 0);
+        assertEquals(zdt(2025, 12, 31, 5, 0), calendar.subtractOpenDuration(newYear, Duration.ofMinutes(90)));
+        // Seen from Jan 1, the day walk missed the closure that started on Dec 31.
+        walked = reference.subtractOpenDuration(newYear, Duration.ofMinutes(90));
+        assertEquals(zdt(2025, 12, 31, 22, 30), walked);
+        assertFalse(calendar.isOpen(walked));
+    }
+
+    @Test
+    void businessDaysKeepTheLocalTimeAcrossADstGap() {
+        List<String> open = List.of("MON-SUN 00:00-24:00");
+        BusinessCalendar calendar = calendar(open, List.of());
+        DayWalkingCalendar reference = new DayWalkingCalendar(NEW_YORK, open, List.of());
+        ZonedDateTime start = zdt(2025, 3, 8, 2, 30);
+
+        assertEquals(zdt(2025, 3, 9, 3, 30), calendar.addBusinessDateUnits(start, 1, ChronoUnit.DAYS));
+        assertEquals(zdt(2025, 3, 10, 2, 30), calendar.addBusinessDateUnits(start, 2, ChronoUnit.DAYS));
+        // The day walk carried the gap-adjusted 03:30 into every later step.
+        assertEquals(zdt(2025, 3, 10, 3, 30), reference.addBusinessDays(start, 2));
+    }
+
+    @Test
+    void subtractingFromMidnightOnAnAllDayCalendarTerminates() {
+        BusinessCalendar calendar = calendar(List.of("MON-FRI 00:00-24:00"), List.of());
+
+        assertEquals(zdt(2025, 12, 18, 23, 0), calendar.subtractOpenDuration(zdt(2025, 12, 19, 0, 0), Duration.ofHours(1)));
+        assertEquals(zdt(2025, 12, 19, 23, 0), calendar.subtractOpenDuration(zdt(2025, 12, 22, 0, 0), Duration.ofHours(1)));
+        assertEquals(Duration.ofHours(24), calendar.openDurationBetween(zdt(2025, 12, 19, 0, 0), zdt(2025, 12, 22, 0, 0)));
+    }
+
+    @Test
+    void openDurationBetweenInvertsAddOpenDuration() {
+        BusinessCalendar calendar = calendar(
+                List.of("MON-FRI 08:00-12:00", "MON-FRI 13:00-18:30"), List.of("24-27 DEC"));
+        ZonedDateTime start = zdt(2025, 12, 23, 17, 0);
+
+        for (Duration d : DURATIONS) {
+            ZonedDateTime end = calendar.addOpenDuration(start, d);
+            assertEquals(d, calendar.openDurationBetween(start, end));
+            assertEquals(d.negated(), calendar.openDurationBetween(end, start));
+        }
+        assertNotEquals(Duration.ZERO, calendar.openDurationBetween(zdt(2025, 12, 31, 12, 0), zdt(2026, 1, 2, 12, 0)));
+        assertNull(calendar(List.of(), List.of()).addOpenDuration(start, Duration.ofHours(1)));
+    }
+
+    // ---------------- differential ----------------
+
+    private static void assertMatchesDayWalking(
+            List<String> open, List<String> closed, List<Duration> durations, List<Long> businessDays) {
+        assertMatchesDayWalking(open, closed, anchors(), durations, businessDays);
+    }
+
+    /** Compares every lookup at each anchor, and at the open boundary following it. */
+    private static void assertMatchesDayWalking(List<String> open, List<String> closed,
+            List<ZonedDateTime> anchors, List<Duration> durations, List<Long> businessDays) {
+        BusinessCalendar calendar = calendar(open, closed);
+        DayWalkingCalendar reference = new DayWalkingCalendar(NEW_YORK, open, closed);
+
+        for (ZonedDateTime anchor : anchors) {
+            List<ZonedDateTime> points = new ArrayList<>(List.of(anchor));
+            ZonedDateTime next = calendar.nextOpen(anchor);
+            if (next != null && !next.equals(anchor)) {
+                points.add(next);
+                points.add(next.minusNanos(1));
+            }
+            for (ZonedDateTime z : points) {
+                String at = " at " + z + " on " + open + " minus " + closed;
+
+                assertEquals(reference.isOpenAt(z), calendar.isOpen(z), "isOpen" + at);
+                assertEquals(reference.nextOpen(z), calendar.nextOpen(z), "nextOpen" + at);
+                assertEquals(reference.lastOpen(z), calendar.lastOpen(z), "lastOpen" + at);
+                assertEquals(reference.isBusinessDate(z.toLocalDate()), calendar.isBusinessDate(z.toLocalDate()),
+                        "isBusinessDate" + at);
+
+                for (Duration d : durations) {
+                    assertEquals(reference.addOpenDuration(z, d), calendar.addOpenDuration(z, d),
+                            "addOpenDuration " + d + at);
+                    assertEquals(reference.subtractOpenDuration(z, d), calendar.subtractOpenDuration(z, d),
+                            "subtractOpenDuration " + d + at);
+                    ZonedDateTime end = z.plus(d);
+                    assertEquals(reference.openDurationBetween(z, end), calendar.openDurationBetween(z, end),
+                            "openDurationBetween " + d + at);
+                }
+
+                // Steps landing in a DST gap are one of the intended differences.
+                if (inDstTransitionHours(z)) continue;
+                for (long days : businessDays) {
+                    assertEquals(outcome(() -> reference.addBusinessDays(z, days)),
+                            outcome(() -> calendar.addBusinessDateUnits(z, days, ChronoUnit.DAYS)),
+                            "business days " + days + at);
+                }
+            }
+        }
+    }
+
+    /** Random instants across three years, plus the year boundaries and New York DST transitions. */
+    private static List<ZonedDateTime> anchors() {
+        List<ZonedDateTime> anchors = new ArrayList<>();
+        for (int year = 2025; year <= 2027; year++) {
+            ZonedDateTime newYear = zdt(year, 1, 1, 0, 0);
+            anchors.add(newYear);
+            anchors.add(newYear.minusNanos(1));
+            anchors.add(newYear.minusHours(1));
+        }
+        for (ZonedDateTime transition : List.of(zdt(2025, 3, 9, 1, 59), zdt(2025, 11, 2, 0, 59),
+                zdt(2026, 3, 8, 1, 59), zdt(2026, 11, 1, 0, 59))) {
+            for (int minutes = 0; minutes <= 150; minutes += 30) {
+                anchors.add(transition.plusMinutes(minutes));
+            }
+        }
+
+        Random random = new Random(20251218L);
+        long from = zdt(2024, 11, 1, 0, 0).toEpochSecond();
+        long to = zdt(2027, 2, 1, 0, 0).toEpochSecond();
+        for (int i = 0; i < 150; i++) {
+            long second = from + (long) (random.nextDouble() * (to - from));
+            anchors.add(Instant.ofEpochSecond(second).atZone(NEW_YORK));
+        }
+        return anchors;
+    }
+
+    private static boolean inDstTransitionHours(ZonedDateTime z) {
+        int hour = z.getHour();
+        return hour >= 1 && hour < 4;
+    }
+
+    private static Object outcome(Supplier<ZonedDateTime> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    private static BusinessCalendar calendar(List<String> open, List<String> closed) {
+        return BusinessCalendar.fromJson("""
+                {
+                  "TimeZone": "America/New_York",
+                  "Open": [%s],
+                  "Closed": [%s]
+                }
+                """.formatted(quoted(open), quoted(closed)));
+    }
+
+    private static String quoted(List<String> values) {
+        return values.stream().map(value -> "\"" + value + "\"").collect(Collectors.joining(","));
+    }
+
+    private static ZonedDateTime zdt(int year, int month, int day, int hour, int minute) {
+        return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, NEW_YORK);
+    }
+
+    /**
+     * The business-calendar lookups as they were before year timelines: rules are materialized
+     * for each date visited, searching at most 370 dates. openDurationBetween had no day-walking
+     * version; here it sums each date's effective open intervals clipped to that date.
+     */
+    private static final class DayWalkingCalendar {
+        private static final int BUSINESS_DATE_SEARCH_LIMIT_DAYS = 370;
+
+        private final ZoneId zone;
+        private final List<WeeklyOpenRule> openRules;
+        private final List<ClosedRule> closedRules;
+
+        DayWalkingCalendar(ZoneId zone, List<String> open, List<String> closed) {
+            this.zone = zone;
+            this.openRules = open.stream().flatMap(s -> RulesParser.parseWeeklyOpen(s).stream()).toList();
+            this.closedRules = closed.stream().flatMap(s -> RulesParser.parseClosed(s).stream()).toList();
+        }
+
+        boolean isBusinessDate(LocalDate date) {
+            return !effectiveOpenIntervalsFor(date).isEmpty();
+        }
+
+        ZonedDateTime addBusinessDays(ZonedDateTime cur, long amount) {
+            if (amount == 0) return cur;
+
+            int direction = amount > 0 ? 1 : -1;
+            long remaining = Math.abs(amount);
+            while (remaining > 0) {
+                cur = cur.plusDays(direction);
+
+                LocalDate adjusted = direction > 0
+                        ? nextBusinessDateOnOrAfter(cur.toLocalDate())
+                        : previousBusinessDateOnOrBefore(cur.toLocalDate());
+                if (adjusted == null) {
+                    throw new IllegalStateException("No business date found within "
+                            + BUSINESS_DATE_SEARCH_LIMIT_DAYS + " days of " + cur.toLocalDate());
+                }
+
+                if (!adjusted.equals(cur.toLocalDate())) {
+                    cur = ZonedDateTime.of(adjusted, cur.toLocalTime(), zone);
+                }
+                remaining--;
+            }
+            return cur;
+        }
+
+        ZonedDateTime nextOpen(ZonedDateTime z) {
+            if (isOpenAt(z)) return z;
+
+            for (int d = 0; d < 370; d++) {
+                LocalDate date = z.toLocalDate().plusDays(d);
+                for (Interval open : openIntervalsFor(date)) {
+                    ZonedDateTime cand = open.start;
+                    if (d == 0 && cand.isBefore(z)) {
+                        if (z.isBefore(open.end)) cand = z;
+                        else continue;
+                    }
+                    cand = skipIfClosed(cand);
+                    if (cand.isBefore(open.end) && isOpenAt(cand)) return cand;
+                }
+            }
+            return null;
+        }
+
+        ZonedDateTime lastOpen(ZonedDateTime z) {
+            if (isOpenAt(z)) return z;
+
+            for (int d = 0; d < 370; d++) {
+                LocalDate date = z.toLocalDate().minusDays(d);
+
+                List<Interval> opens = effectiveOpenIntervalsFor(date);
+                for (int i = opens.size() - 1; i >= 0; i--) {
+                    Interval open = opens.get(i);
+                    if (!open.start.isBefore(open.end)) continue;
+
+                    ZonedDateTime cand;
+                    if (d == 0) {
+                        if (!open.start.isBefore(z)) continue;
+                        cand = open.end.isAfter(z) ? z.minusNanos(1) : open.end.minusNanos(1);
+                    } else {
+                        cand = open.end.minusNanos(1);
+                    }
+
+                    if (!cand.isBefore(open.start) && isOpenAt(cand)) {
+                        return cand;
+                    }
+                }
+            }
+            return null;
+        }
+
+        ZonedDateTime addOpenDuration(ZonedDateTime start, Duration remaining) {
+            ZonedDateTime cur = nextOpen(start);
+            if (cur == null || remaining.isZero()) return cur;
+
+            while (remaining.compareTo(Duration.ZERO) > 0) {
+                cur = skipIfClosed(cur);
+                Interval open = openIntervalCovering(cur);
+                if (open == null) {
+                    cur = nextOpen(cur.plusNanos(1));
+                    if (cur == null) return null;
+                    continue;
+                }
+
+                ZonedDateTime limit = open.end;
+                ZonedDateTime nextClosedStart = nextClosedStartBefore(cur, limit);
+                if (nextClosedStart != null && nextClosedStart.isAfter(cur) && nextClosedStart.isBefore(limit)) {
+                    limit = nextClosedStart;
+                }
+
+                Duration available = Duration.between(cur, limit);
+                if (available.compareTo(Duration.ZERO) <= 0) {
+                    cur = nextOpen(cur.plusNanos(1));
+                    if (cur == null) return null;
+                    continue;
+                }
+
+                if (remaining.compareTo(available) <= 0) {
+                    return cur.plus(remaining);
+                }
+
+                cur = limit;
+                remaining = remaining.minus(available);
+
+                if (remaining.compareTo(Duration.ZERO) > 0) {
+                    cur = nextOpen(cur);
+                    if (cur == null) return null;
+                }
+            }
+            return cur;
+        }
+
+        ZonedDateTime subtractOpenDuration(ZonedDateTime cur, Duration remaining) {
+            if (remaining.isZero()) {
+                return isOpenAt(cur) ? cur : lastOpen(cur);
+            }
+
+            if (!isOpenAt(cur)) {
+                cur = previousOpenCursorAtOrBefore(cur);
+                if (cur == null) return null;
+            }
+
+            while (remaining.compareTo(Duration.ZERO) > 0) {
+                Interval seg = effectiveOpenSegmentBeforeCursor(cur);
+
+                if (seg == null) {
+                    ZonedDateTime prev = previousOpenCursorAtOrBefore(cur.minusNanos(1));
+                    if (prev == null) return null;
+                    cur = prev;
+                    continue;
+                }
+
+                ZonedDateTime segEndExclusive = seg.end.isBefore(cur) ? seg.end : cur;
+
+                Duration available = Duration.between(seg.start, segEndExclusive);
+
+                if (available.compareTo(Duration.ZERO) <= 0) {
+                    ZonedDateTime prev = previousOpenCursorAtOrBefore(seg.start.minusNanos(1));
+                    if (prev == null) return null;
+                    cur = prev;
+                    continue;
+                }
+
+                if (remaining.compareTo(available) <= 0) {
+                    return segEndExclusive.minus(remaining);
+                }
+
+                remaining = remaining.minus(available);
+                cur = seg.start;
+            }
+
+            return cur;
+        }
+
+        Duration openDurationBetween(ZonedDateTime from, ZonedDateTime to) {
+            Duration total = Duration.ZERO;
+            for (LocalDate date = from.toLocalDate(); !date.isAfter(to.toLocalDate()); date = date.plusDays(1)) {
+                ZonedDateTime dayStart = date.atStartOfDay(zone);
+                ZonedDateTime dayEnd = date.plusDays(1).atStartOfDay(zone);
+                ZonedDateTime lo = from.isAfter(dayStart) ? from : dayStart;
+                ZonedDateTime hi = to.isBefore(dayEnd) ? to : dayEnd;
+                for (Interval i : effectiveOpenIntervalsFor(date)) {
+                    ZonedDateTime s = i.start.isAfter(lo) ? i.start : lo;
+                    ZonedDateTime e = i.end.isBefore(hi) ? i.end : hi;
+                    if (s.isBefore(e)) total = total.plus(Duration.between(s, e));
+                }
+            }
+            return total;
+        }
+
+        private Interval effectiveOpenSegmentBeforeCursor(ZonedDateTime cursor) {
+            List<Interval> segs = effectiveOpenIntervalsFor(cursor.toLocalDate());
+            for (int i = segs.size() - 1; i >= 0; i--) {
+                Interval s = segs.get(i);
+                if (s.start.isBefore(cursor)) return s;
+            }
+            return null;
+        }
+
+        private ZonedDateTime previousOpenCursorAtOrBefore(ZonedDateTime z) {
+            for (int d = 0; d < 370; d++) {
+                LocalDate date = z.toLocalDate().minusDays(d);
+                List<Interval> segs = effectiveOpenIntervalsFor(date);
+                for (int i = segs.size() - 1; i >= 0; i--) {
+                    Interval s = segs.get(i);
+                    if (!s.start.isBefore(s.end)) continue;
+                    if (d == 0 && s.end.isAfter(z)) continue;
+                    return s.end;
+                }
+            }
+            return null;
+        }
+
+        private List<Interval> effectiveOpenIntervalsFor(LocalDate date) {
+            List<Interval> opens = openIntervalsFor(date);
+            if (opens.isEmpty()) return List.of();
+
+            List<Interval> closeds = closedIntervalsFor(date);
+            if (closeds.isEmpty()) return opens;
+
+            List<Interval> out = new ArrayList<>();
+            for (Interval o : opens) {
+                ZonedDateTime cur = o.start;
+
+                for (Interval c : closeds) {
+                    if (!c.end.isAfter(cur)) continue;
+                    if (!c.start.isBefore(o.end)) break;
+
+                    ZonedDateTime cutEnd = c.start.isBefore(o.end) ? c.start : o.end;
+                    if (cur.isBefore(cutEnd)) {
+                        out.add(new Interval(cur, cutEnd));
+                    }
+
+                    cur = c.end.isAfter(cur) ? c.end : cur;
+                    if (!cur.isBefore(o.end)) break;
+                }
+
+                if (cur.isBefore(o.end)) {
+                    out.add(new Interval(cur, o.end));
+                }
+            }
+
+            out.sort(Comparator.comparing(a -> a.start));
+            return out;
+        }
+
+        boolean isOpenAt(ZonedDateTime z) {
+            if (isClosedAt(z)) return false;
+            return openIntervalCovering(z) != null;
+        }
+
+        private boolean isClosedAt(ZonedDateTime z) {
+            return closedIntervalCovering(z) != null;
+        }
+
+        private ZonedDateTime skipIfClosed(ZonedDateTime z) {
+            while (isClosedAt(z)) {
+                Interval c = closedIntervalCovering(z);
+                if (c == null) return z.plusNanos(1);
+                z = c.end;
+            }
+            return z;
+        }
+
+        private Interval openIntervalCovering(ZonedDateTime z) {
+            for (Interval i : openIntervalsFor(z.toLocalDate())) {
+                if (!z.isBefore(i.start) && z.isBefore(i.end)) return i;
+            }
+            return null;
+        }
+
+        private Interval closedIntervalCovering(ZonedDateTime z) {
+            for (Interval i : closedIntervalsFor(z.toLocalDate())) {
+                if (!z.isBefore(i.start) && z.isBefore(i.end)) return i;
+            }
+            return null;
+        }
+
+        private ZonedDateTime nextClosedStartBefore(ZonedDateTime z, ZonedDateTime limit) {
+            ZonedDateTime best = null;
+            for (LocalDate date = z.toLocalDate(); !date.isAfter(limit.toLocalDate()); date = date.plusDays(1)) {
+                for (Interval i : closedIntervalsFor(date)) {
+                    if (i.start.isAfter(z) && i.start.isBefore(limit) && (best == null || i.start.isBefore(best))) {
+                        best = i.start;
+                    }
+                }
+            }
+            return best;
+        }
+
+        private List<Interval> openIntervalsFor(LocalDate date) {
+            List<Interval> out = new ArrayList<>();
+            for (LocalDate materializeDate : List.of(date.minusDays(1), date)) {
+                for (WeeklyOpenRule r : openRules) {
+                    out.addAll(overlapping(r.materialize(materializeDate, zone), date));
+                }
+            }
+            out.sort(Comparator.comparing(a -> a.start));
+            return out;
+        }
+
+        private List<Interval> closedIntervalsFor(LocalDate date) {
+            List<Interval> out = new ArrayList<>();
+            for (LocalDate materializeDate : List.of(date.minusDays(1), date)) {
+                for (ClosedRule r : closedRules) {
+                    out.addAll(overlapping(r.materialize(materializeDate, zone), date));
+                }
+            }
+            out.sort(Comparator.comparing(a -> a.start));
+            return out;
+        }
+
+        private List<Interval> overlapping(List<Interval> intervals, LocalDate date) {
+            ZonedDateTime dayStart = date.atStartOfDay(zone);
+            ZonedDateTime dayEnd = date.plusDays(1).atStartOfDay(zone);
+            return intervals.stream().filter(i -> i.start.isBefore(dayEnd) && i.end.isAfter(dayStart)).toList();
+        }
+
+        private LocalDate nextBusinessDateOnOrAfter(LocalDate date) {
+            for (int offset = 0; offset <= BUSINESS_DATE_SEARCH_LIMIT_DAYS; offset++) {
+                LocalDate candidate = date.plusDays(offset);
+                if (isBusinessDate(candidate)) return candidate;
+            }
+            return null;
+        }
+
+        private LocalDate previousBusinessDateOnOrBefore(LocalDate date) {
+            for (int offset = 0; offset <= BUSINESS_DATE_SEARCH_LIMIT_DAYS; offset++) {
+                LocalDate candidate = date.minusDays(offset);
+                if (isBusinessDate(candidate)) return candidate;
+            }
+            return null;
+        }
+    }
+}
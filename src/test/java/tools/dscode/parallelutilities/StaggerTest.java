@@ -0,0 +1,187 @@
+package tools.dscode.parallelutilities;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaggerTest {
+
+    private static final int THREADS = 600;
+
+    @BeforeEach
+    void setUp() {
+        Stagger.reset();
+    }
+
+    @Test
+    void urlHostLanesStayExclusiveUnderHundredsOfVirtualThreads() throws Exception {
+        List<String> hosts = List.of("https://a.example.com/x", "https://b.example.org", "http://c.test:8080", "d.example.net", "http://10.0.0.1/");
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> peak = new ConcurrentHashMap<>();
+
+        runOnVirtualThreads(THREADS, i -> {
+            String url = hosts.get(i % hosts.size());
+            Stagger.runUrlHost(url, () -> {
+                int now = running.computeIfAbsent(url, u -> new AtomicInteger()).incrementAndGet();
+                peak.computeIfAbsent(url, u -> new AtomicInteger()).accumulateAndGet(now, Math::max);
+                Thread.sleep(1);
+                running.get(url).decrementAndGet();
+            });
+        });
+
+        assertEquals(hosts.size(), peak.size());
+        peak.forEach((url, max) -> assertEquals(1, max.get(), url));
+        assertEquals(THREADS, Stagger.waitTimes().get("urlHost").count());
+    }
+
+    @Test
+    void urlHostLaneAdmitsWaitersInArrivalOrder() throws Exception {
+        String url = "https://fifo.example.com";
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch releaseHolder = new CountDownLatch(1);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> Stagger.runUrlHost(url, () -> {
+                holding.countDown();
+                releaseHolder.await();
+            }));
+            holding.await();
+
+            List<Future<?>> waiters = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                int id = i;
+                waiters.add(executor.submit(() -> Stagger.runUrlHost(url, () -> order.add(id))));
+                awaitQueued(url, i + 1);
+            }
+            releaseHolder.countDown();
+            for (Future<?> waiter : waiters) {
+                waiter.get(10, TimeUnit.SECONDS);
+            }
+        }
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, order);
+    }
+
+    @Test
+    void urlHostLimitsBoundConcurrencyAndSpaceStarts() throws Exception {
+        String url = "https://limited.example.com";
+        Stagger.limitUrlHost(url, 3, Duration.ofMillis(20));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Long> starts = Collections.synchronizedList(new ArrayList<>());
+
+        runOnVirtualThreads(30, i -> Stagger.runUrlHost(url, () -> {
+            starts.add(System.nanoTime());
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            running.decrementAndGet();
+        }));
+
+        assertTrue(peak.get() <= 3, "peak " + peak.get());
+        List<Long> sorted = new ArrayList<>(starts);
+        Collections.sort(sorted);
+        // Start slots are exactly 20 ms apart; allow for wake-up jitter on individual starts.
+        for (int i = 1; i < sorted.size(); i++) {
+            long gapMillis = TimeUnit.NANOSECONDS.toMillis(sorted.get(i) - sorted.get(i - 1));
+            assertTrue(gapMillis >= 10, "starts " + (i - 1) + " and " + i + " were " + gapMillis + " ms apart");
+        }
+        long spanMillis = TimeUnit.NANOSECONDS.toMillis(sorted.getLast() - sorted.getFirst());
+        assertTrue(spanMillis >= 29 * 20 - 10, "30 starts spanned only " + spanMillis + " ms");
+    }
+
+    @Test
+    void predicateGroupsOnlyExcludeConflictingValues() throws Exception {
+        AtomicInteger[] running = {new AtomicInteger(), new AtomicInteger()};
+        AtomicInteger[] peak = {new AtomicInteger(), new AtomicInteger()};
+        AtomicInteger overlapAcrossParity = new AtomicInteger();
+
+        runOnVirtualThreads(THREADS, i -> Stagger.run(i, Stagger.sameBy(n -> n % 2), () -> {
+            int parity = i % 2;
+            peak[parity].accumulateAndGet(running[parity].incrementAndGet(), Math::max);
+            if (running[1 - parity].get() > 0) {
+                overlapAcrossParity.incrementAndGet();
+            }
+            Thread.sleep(1);
+            running[parity].decrementAndGet();
+        }));
+
+        assertEquals(1, peak[0].get());
+        assertEquals(1, peak[1].get());
+        assertTrue(overlapAcrossParity.get() > 0, "even and odd values never ran together");
+        assertEquals(THREADS, Stagger.waitTimes().get(Integer.class.getName()).count());
+    }
+
+    @Test
+    void matchingKeysSerializeOverlapsWithoutDeadlock() throws Exception {
+        Pattern key = Pattern.compile("#(\\w+)");
+        List<String> texts = List.of("#a #b", "#b #a", "#b #c", "#c #a", "#d");
+        Map<String, AtomicInteger> holders = new ConcurrentHashMap<>();
+        AtomicInteger violations = new AtomicInteger();
+
+        runOnVirtualThreads(THREADS, i -> {
+            String text = texts.get(i % texts.size());
+            List<String> keys = key.matcher(text).results().map(m -> m.group(1)).toList();
+            Stagger.runMatching(text, key, () -> {
+                for (String k : keys) {
+                    if (holders.computeIfAbsent(k, x -> new AtomicInteger()).incrementAndGet() > 1) {
+                        violations.incrementAndGet();
+                    }
+                }
+                Thread.sleep(1);
+                keys.forEach(k -> holders.get(k).decrementAndGet());
+            });
+        });
+
+        assertEquals(0, violations.get());
+    }
+
+    private static void awaitQueued(String url, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Stagger.queuedForUrlHost(url) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, Stagger.queuedForUrlHost(url));
+    }
+
+    private static void runOnVirtualThreads(int count, IndexedTask task) throws Exception {
+        List<Future<?>> futures = new ArrayList<>(count);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    task.run(index);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        void run(int index) throws Exception;
+    }
+}
@@ -0,0 +1,66 @@
+package tools.dscode.registry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GlobalRegistryTest {
+
+    private static final class Local {
+    }
+
+    private static final class Shared {
+    }
+
+    @AfterEach
+    void tearDown() {
+        GlobalRegistry.removeLocal();
+        GlobalRegistry.GLOBAL.remove(GlobalRegistry.keyFor(Shared.class));
+    }
+
+    @Test
+    void typedLookupsSeeStringKeyedWrites() {
+        Local first = new Local();
+        Local second = new Local();
+
+        GlobalRegistry.putLocal(Local.class.getName().toUpperCase(), first);
+        assertSame(first, GlobalRegistry.localOf(Local.class));
+
+        GlobalRegistry.putLocal(Local.class.getName(), second);
+        assertSame(second, GlobalRegistry.localOrGlobalOf(Local.class));
+
+        GlobalRegistry.clearLocal();
+        assertNull(GlobalRegistry.localOf(Local.class));
+    }
+
+    @Test
+    void localRegistrationShadowsGlobalOnlyOnItsThread() throws Exception {
+        Shared global = new Shared();
+        Shared local = new Shared();
+        GlobalRegistry.registerGlobal(global);
+        GlobalRegistry.registerLocal(local);
+
+        assertSame(local, GlobalRegistry.localOrGlobalOf(Shared.class));
+        assertSame(global, GlobalRegistry.globalOf(Shared.class));
+
+        AtomicReference<Shared> seen = new AtomicReference<>();
+        Thread other = new Thread(() -> seen.set(GlobalRegistry.localOrGlobalOf(Shared.class)));
+        other.start();
+        other.join();
+        assertSame(global, seen.get());
+    }
+
+    @Test
+    void resetLocalStartsAnEmptyScope() {
+        GlobalRegistry.registerLocal(new Local());
+        GlobalRegistry.resetLocal();
+
+        assertNull(GlobalRegistry.localOf(Local.class));
+        assertEquals(GlobalRegistry.normalizeKey(Local.class.getName()), GlobalRegistry.keyFor(Local.class));
+    }
+}